@@ -0,0 +1,204 @@
+package com.wdtinc.mapbox_vector_tile.benchmark;
+
+import org.locationtech.jts.geom.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Deterministic synthetic datasets and test tiles shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Example world is a 1000x1000 box, tiles cover the lower-left quadrant.
+     */
+    public static final double WORLD_SIZE = 1000d;
+
+    /**
+     * Tile envelope covering the lower-left quadrant of the world.
+     */
+    public static final Envelope TILE_ENVELOPE = new Envelope(0d, WORLD_SIZE * .5d, 0d, WORLD_SIZE * .5d);
+
+    /**
+     * Fixed randomization seed, so every run measures the same geometry.
+     */
+    private static final long SEED = 487125064L;
+
+    /**
+     * Synthetic source geometry shapes.
+     */
+    public enum Dataset {
+
+        /** 20,000 individual points with attributes. */
+        DENSE_POINTS,
+
+        /** 20 meandering linestrings of 2,000 vertices each. */
+        LONG_LINES,
+
+        /** 10 polygons with 400 square holes each. */
+        HOLEY_POLYGONS;
+
+        /**
+         * Create the dataset in world coordinates.
+         *
+         * @param geomFactory creates JTS geometry
+         * @return flat list of geometry with {@link Map} user data
+         */
+        public List<Geometry> create(GeometryFactory geomFactory) {
+            final Random random = new Random(SEED);
+            final List<Geometry> geoms;
+
+            switch(this) {
+                case DENSE_POINTS:
+                    geoms = points(random, geomFactory, 20000);
+                    break;
+                case LONG_LINES:
+                    geoms = lines(random, geomFactory, 20, 2000);
+                    break;
+                case HOLEY_POLYGONS:
+                    geoms = polygons(random, geomFactory, 10, 20);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled dataset: " + this);
+            }
+
+            for(int i = 0; i < geoms.size(); ++i) {
+                geoms.get(i).setUserData(userData(random, i));
+            }
+
+            return geoms;
+        }
+    }
+
+    private BenchmarkData() {}
+
+    /**
+     * Create envelopes for a square grid of tiles covering the world.
+     *
+     * @param size tiles per side
+     * @return tile envelopes, row by row
+     */
+    public static List<Envelope> tileGrid(int size) {
+        final List<Envelope> envelopes = new ArrayList<>(size * size);
+        final double tileSize = WORLD_SIZE / size;
+
+        for(int y = 0; y < size; ++y) {
+            for(int x = 0; x < size; ++x) {
+                envelopes.add(new Envelope(x * tileSize, (x + 1) * tileSize, y * tileSize, (y + 1) * tileSize));
+            }
+        }
+
+        return envelopes;
+    }
+
+    /**
+     * Load an MVT from the shared test resources.
+     *
+     * @param resource classpath resource path
+     * @return tile bytes
+     */
+    public static byte[] loadTile(String resource) {
+        try(final InputStream is = BenchmarkData.class.getResourceAsStream(resource)) {
+            if(is == null) {
+                throw new IllegalArgumentException("Missing tile resource: " + resource);
+            }
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] readBuffer = new byte[8192];
+            int readCount;
+            while((readCount = is.read(readBuffer)) != -1) {
+                bytes.write(readBuffer, 0, readCount);
+            }
+            return bytes.toByteArray();
+
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static List<Geometry> points(Random random, GeometryFactory geomFactory, int count) {
+        final List<Geometry> geoms = new ArrayList<>(count);
+
+        for(int i = 0; i < count; ++i) {
+            geoms.add(geomFactory.createPoint(new Coordinate(
+                    random.nextDouble() * WORLD_SIZE, random.nextDouble() * WORLD_SIZE)));
+        }
+
+        return geoms;
+    }
+
+    private static List<Geometry> lines(Random random, GeometryFactory geomFactory, int count, int vertexCount) {
+        final List<Geometry> geoms = new ArrayList<>(count);
+        final double step = WORLD_SIZE / vertexCount;
+
+        for(int i = 0; i < count; ++i) {
+            final Coordinate[] coords = new Coordinate[vertexCount];
+            double x = random.nextDouble() * WORLD_SIZE;
+            double y = random.nextDouble() * WORLD_SIZE;
+            double heading = random.nextDouble() * Math.PI * 2d;
+
+            // Slowly turning heading, like a road or river, rather than a self-crossing random walk
+            for(int j = 0; j < vertexCount; ++j) {
+                heading += (random.nextDouble() - .5d) * .1d;
+                x = clamp(x + Math.cos(heading) * step);
+                y = clamp(y + Math.sin(heading) * step);
+                coords[j] = new Coordinate(x, y);
+            }
+
+            geoms.add(geomFactory.createLineString(coords));
+        }
+
+        return geoms;
+    }
+
+    private static List<Geometry> polygons(Random random, GeometryFactory geomFactory, int count, int holeGrid) {
+        final List<Geometry> geoms = new ArrayList<>(count);
+
+        for(int i = 0; i < count; ++i) {
+            final double size = WORLD_SIZE * (.2d + random.nextDouble() * .3d);
+            final double minX = random.nextDouble() * (WORLD_SIZE - size);
+            final double minY = random.nextDouble() * (WORLD_SIZE - size);
+            final double cell = size / holeGrid;
+
+            final LinearRing shell = square(geomFactory, minX, minY, size);
+            final LinearRing[] holes = new LinearRing[holeGrid * holeGrid];
+
+            for(int row = 0; row < holeGrid; ++row) {
+                for(int col = 0; col < holeGrid; ++col) {
+                    holes[row * holeGrid + col] = square(geomFactory,
+                            minX + col * cell + cell * .25d, minY + row * cell + cell * .25d, cell * .5d);
+                }
+            }
+
+            geoms.add(geomFactory.createPolygon(shell, holes));
+        }
+
+        return geoms;
+    }
+
+    private static LinearRing square(GeometryFactory geomFactory, double minX, double minY, double size) {
+        return geomFactory.createLinearRing(new Coordinate[] {
+                new Coordinate(minX, minY),
+                new Coordinate(minX + size, minY),
+                new Coordinate(minX + size, minY + size),
+                new Coordinate(minX, minY + size),
+                new Coordinate(minX, minY)});
+    }
+
+    private static Map<String, Object> userData(Random random, int index) {
+        final Map<String, Object> userData = new LinkedHashMap<>();
+        userData.put("id", (long) index);
+        userData.put("class", "class_" + random.nextInt(8));
+        userData.put("rank", random.nextInt(20));
+        userData.put("height", Math.floor(random.nextDouble() * 100d));
+        userData.put("oneway", random.nextBoolean());
+        return userData;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0d, Math.min(WORLD_SIZE, value));
+    }
+}
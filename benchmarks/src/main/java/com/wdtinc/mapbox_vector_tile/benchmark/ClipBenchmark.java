@@ -0,0 +1,139 @@
+package com.wdtinc.mapbox_vector_tile.benchmark;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.GridDedupeSimplifier;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.IGeometryClipper;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.IGeometryFilter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.JtsAdapter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.JtsOverlayClipper;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtEncoder;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtEncodingContext;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtWriter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.RectangleClipper;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TileGeomResult;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.UserDataKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clip and transform source geometry to MVT coordinates with {@link JtsAdapter#createTileGeom}, one tile at a
+ * time, one tile at a time from a shared spatial index, or as a batch of tiles with
+ * {@link JtsAdapter#createTileGeoms}, using JTS overlay or rectangle clipping. {@code createTileGeomGridDedupe}
+ * replaces the default topology preserving simplification with {@link GridDedupeSimplifier}.
+ * {@code clipEncodeGridDedupe} then encodes the tile, for comparison with {@code encodeTileDirect} which clips,
+ * transforms and encodes in one pass with {@link MvtWriter#encodeTile}, ignoring the clipper parameter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClipBenchmark {
+
+    private static final IGeometryFilter ACCEPT_ALL_FILTER = geometry -> true;
+
+    /**
+     * Tiles per side of the tile grid covering the world.
+     */
+    private static final int GRID_SIZE = 8;
+
+    @Param({"DENSE_POINTS", "LONG_LINES", "HOLEY_POLYGONS"})
+    public BenchmarkData.Dataset dataset;
+
+    @Param({"256", "4096", "16384"})
+    public int extent;
+
+    @Param({"OVERLAY", "RECTANGLE"})
+    public String clipper;
+
+    private GeometryFactory geomFactory;
+    private MvtLayerParams layerParams;
+    private List<Geometry> sourceGeoms;
+    private List<Envelope> gridEnvelopes;
+    private IGeometryClipper geomClipper;
+    private STRtree sourceIndex;
+    private UserDataKeyValueMapConverter userDataConverter;
+    private MvtEncodingContext encodingContext;
+    private JtsMvt sourceMvt;
+    private MvtWriter directWriter;
+
+    @Setup
+    public void setup() {
+        geomFactory = new GeometryFactory();
+        layerParams = new MvtLayerParams(256, extent);
+        sourceGeoms = dataset.create(geomFactory);
+        gridEnvelopes = BenchmarkData.tileGrid(GRID_SIZE);
+        geomClipper = "RECTANGLE".equals(clipper) ? RectangleClipper.INSTANCE : JtsOverlayClipper.INSTANCE;
+        sourceIndex = JtsAdapter.createSpatialIndex(sourceGeoms);
+        userDataConverter = new UserDataKeyValueMapConverter("id");
+        encodingContext = new MvtEncodingContext();
+        sourceMvt = new JtsMvt(new JtsLayer(dataset.name().toLowerCase(), sourceGeoms));
+        directWriter = new MvtWriter(layerParams, userDataConverter, new MvtEncodingContext());
+    }
+
+    @Benchmark
+    public TileGeomResult createTileGeom() {
+        return JtsAdapter.createTileGeom(sourceGeoms, BenchmarkData.TILE_ENVELOPE, BenchmarkData.TILE_ENVELOPE,
+                geomFactory, layerParams, ACCEPT_ALL_FILTER, geomClipper);
+    }
+
+    @Benchmark
+    public TileGeomResult createTileGeomGridDedupe() {
+        return JtsAdapter.createTileGeom(sourceGeoms, BenchmarkData.TILE_ENVELOPE, BenchmarkData.TILE_ENVELOPE,
+                geomFactory, layerParams, ACCEPT_ALL_FILTER, geomClipper, GridDedupeSimplifier.INSTANCE);
+    }
+
+    @Benchmark
+    public byte[] clipEncodeGridDedupe() {
+        final TileGeomResult tileGeom = JtsAdapter.createTileGeom(sourceGeoms, BenchmarkData.TILE_ENVELOPE,
+                BenchmarkData.TILE_ENVELOPE, geomFactory, layerParams, ACCEPT_ALL_FILTER, geomClipper,
+                GridDedupeSimplifier.INSTANCE);
+        return MvtEncoder.encode(new JtsMvt(new JtsLayer(dataset.name().toLowerCase(), tileGeom.mvtGeoms)),
+                layerParams, userDataConverter, encodingContext);
+    }
+
+    @Benchmark
+    public byte[] encodeTileDirect() {
+        return directWriter.encodeTile(sourceMvt, BenchmarkData.TILE_ENVELOPE, BenchmarkData.TILE_ENVELOPE);
+    }
+
+    @Benchmark
+    public List<TileGeomResult> createTileGeomGrid() {
+        final List<TileGeomResult> results = new ArrayList<>(gridEnvelopes.size());
+
+        for(Envelope nextEnvelope : gridEnvelopes) {
+            results.add(JtsAdapter.createTileGeom(sourceGeoms, nextEnvelope, nextEnvelope, geomFactory,
+                    layerParams, ACCEPT_ALL_FILTER, geomClipper));
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public List<TileGeomResult> createTileGeomIndexGrid() {
+        final List<TileGeomResult> results = new ArrayList<>(gridEnvelopes.size());
+
+        for(Envelope nextEnvelope : gridEnvelopes) {
+            results.add(JtsAdapter.createTileGeom(sourceIndex, nextEnvelope, nextEnvelope, geomFactory,
+                    layerParams, ACCEPT_ALL_FILTER, geomClipper));
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public List<TileGeomResult> createTileGeomsGrid() {
+        return JtsAdapter.createTileGeoms(sourceGeoms, gridEnvelopes, geomFactory, layerParams, ACCEPT_ALL_FILTER,
+                geomClipper, 0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.wdtinc.mapbox_vector_tile.benchmark;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.IGeometryFilter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.IntCoordinateSequenceFactory;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.JtsAdapter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtEncoder;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtReader;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TagKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.UserDataKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.read.FeaturePredicates;
+import com.wdtinc.mapbox_vector_tile.read.FeatureProjection;
+import com.wdtinc.mapbox_vector_tile.read.IFeaturePredicate;
+import com.wdtinc.mapbox_vector_tile.read.LazyMvt;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode MVT bytes to JTS geometry with {@link MvtReader#loadMvt}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+
+    private static final IGeometryFilter ACCEPT_ALL_FILTER = geometry -> true;
+
+    private static final FeatureProjection ATTRIBUTES_ONLY = FeatureProjection.NONE.withId(true).withTags(true);
+
+    private static final FeatureProjection GEOMETRY_ONLY = FeatureProjection.NONE.withGeometry(true);
+
+    /**
+     * 64 x 64 region near the tile center, about 1/4096 of the tile area.
+     */
+    private static final IFeaturePredicate CLICK_REGION = FeaturePredicates.intersects(2016, 2016, 2080, 2080);
+
+    /**
+     * Test resource tiles, or a synthetic dataset encoded at extent 4096.
+     */
+    @Param({
+            "/vec_tile_test/game.mvt",
+            "/vec_tile_test/0/0/0.mvt",
+            "DENSE_POINTS",
+            "LONG_LINES",
+            "HOLEY_POLYGONS"})
+    public String tile;
+
+    private GeometryFactory geomFactory;
+    private GeometryFactory intGeomFactory;
+    private TagKeyValueMapConverter tagConverter;
+    private byte[] tileBytes;
+
+    @Setup
+    public void setup() {
+        geomFactory = new GeometryFactory();
+        intGeomFactory = new GeometryFactory(IntCoordinateSequenceFactory.INSTANCE);
+        tagConverter = new TagKeyValueMapConverter();
+
+        if(tile.startsWith("/")) {
+            tileBytes = BenchmarkData.loadTile(tile);
+
+        } else {
+            final BenchmarkData.Dataset dataset = BenchmarkData.Dataset.valueOf(tile);
+            final JtsMvt mvt = new JtsMvt(new JtsLayer(tile.toLowerCase(),
+                    JtsAdapter.createTileGeom(dataset.create(geomFactory), BenchmarkData.TILE_ENVELOPE,
+                            geomFactory, MvtLayerParams.DEFAULT, ACCEPT_ALL_FILTER).mvtGeoms));
+            tileBytes = MvtEncoder.encode(mvt, MvtLayerParams.DEFAULT, new UserDataKeyValueMapConverter());
+        }
+    }
+
+    @Benchmark
+    public JtsMvt loadMvt() throws IOException {
+        return MvtReader.loadMvt(new ByteArrayInputStream(tileBytes), geomFactory, tagConverter);
+    }
+
+    @Benchmark
+    public JtsMvt loadMvtIntCoordinates() throws IOException {
+        return MvtReader.loadMvt(new ByteArrayInputStream(tileBytes), intGeomFactory, tagConverter);
+    }
+
+    @Benchmark
+    public JtsMvt loadMvtParallel() throws IOException {
+        return MvtReader.loadMvtParallel(LazyMvt.open(tileBytes), geomFactory, tagConverter,
+                MvtReader.RING_CLASSIFIER_V2_1);
+    }
+
+    @Benchmark
+    public double streamFeaturesParallel() throws IOException {
+        return MvtReader.streamFeatures(LazyMvt.open(tileBytes), geomFactory, tagConverter,
+                MvtReader.RING_CLASSIFIER_V2_1).parallel().mapToDouble(f -> f.getGeometry().getLength()).sum();
+    }
+
+    @Benchmark
+    public JtsMvt loadMvtAttributesOnly() throws IOException {
+        return MvtReader.loadMvt(LazyMvt.open(tileBytes), geomFactory, tagConverter, MvtReader.RING_CLASSIFIER_V2_1,
+                FeaturePredicates.ALL, ATTRIBUTES_ONLY);
+    }
+
+    @Benchmark
+    public JtsMvt loadMvtClickRegion() throws IOException {
+        return MvtReader.loadMvt(LazyMvt.open(tileBytes), geomFactory, tagConverter, MvtReader.RING_CLASSIFIER_V2_1,
+                CLICK_REGION);
+    }
+
+    @Benchmark
+    public JtsMvt loadMvtGeometryOnly() throws IOException {
+        return MvtReader.loadMvt(LazyMvt.open(tileBytes), geomFactory, tagConverter, MvtReader.RING_CLASSIFIER_V2_1,
+                FeaturePredicates.ALL, GEOMETRY_ONLY);
+    }
+}
@@ -0,0 +1,124 @@
+package com.wdtinc.mapbox_vector_tile.benchmark;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.IGeometryFilter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.JtsAdapter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtEncoder;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtEncodingContext;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.UserDataKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
+import com.wdtinc.mapbox_vector_tile.compress.TileCompressor;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode MVT-coordinate geometry to features with {@link JtsAdapter#toFeatures} and to tile bytes
+ * with {@link MvtEncoder#encode}. Multi-layer tiles compare sequential and parallel layer encoding.
+ * {@code gzipStream} compresses the encoded tile with a new {@link GZIPOutputStream}, {@code gzip} with
+ * {@link TileCompressor#GZIP} which reuses its deflater.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodeBenchmark {
+
+    private static final IGeometryFilter ACCEPT_ALL_FILTER = geometry -> true;
+
+    /**
+     * Count of layers in the multi-layer tile, typical of a basemap.
+     */
+    private static final int LAYER_COUNT = 20;
+
+    @Param({"DENSE_POINTS", "LONG_LINES", "HOLEY_POLYGONS"})
+    public BenchmarkData.Dataset dataset;
+
+    @Param({"256", "4096", "16384"})
+    public int extent;
+
+    private MvtLayerParams layerParams;
+    private UserDataKeyValueMapConverter userDataConverter;
+    private List<Geometry> tileGeoms;
+    private JtsMvt mvt;
+    private JtsMvt multiLayerMvt;
+    private MvtEncodingContext encodingContext;
+    private byte[] tileBytes;
+
+    @Setup
+    public void setup() {
+        final GeometryFactory geomFactory = new GeometryFactory();
+        layerParams = new MvtLayerParams(256, extent);
+        userDataConverter = new UserDataKeyValueMapConverter("id");
+        tileGeoms = JtsAdapter.createTileGeom(dataset.create(geomFactory), BenchmarkData.TILE_ENVELOPE,
+                geomFactory, layerParams, ACCEPT_ALL_FILTER).mvtGeoms;
+        mvt = new JtsMvt(new JtsLayer(dataset.name().toLowerCase(), tileGeoms));
+
+        // Same geometry split round-robin into layers
+        final List<List<Geometry>> layerGeoms = new ArrayList<>(LAYER_COUNT);
+        for(int i = 0; i < LAYER_COUNT; ++i) {
+            layerGeoms.add(new ArrayList<>());
+        }
+        for(int i = 0; i < tileGeoms.size(); ++i) {
+            layerGeoms.get(i % LAYER_COUNT).add(tileGeoms.get(i));
+        }
+        final List<JtsLayer> layers = new ArrayList<>(LAYER_COUNT);
+        for(int i = 0; i < LAYER_COUNT; ++i) {
+            layers.add(new JtsLayer("layer" + i, layerGeoms.get(i)));
+        }
+        multiLayerMvt = new JtsMvt(layers);
+        encodingContext = new MvtEncodingContext();
+        tileBytes = MvtEncoder.encode(mvt, layerParams, userDataConverter);
+    }
+
+    @Benchmark
+    public List<VectorTile.Tile.Feature> toFeatures() {
+        return JtsAdapter.toFeatures(tileGeoms, new MvtLayerProps(), userDataConverter);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return MvtEncoder.encode(mvt, layerParams, userDataConverter);
+    }
+
+    @Benchmark
+    public byte[] encodeReuseContext() {
+        return MvtEncoder.encode(mvt, layerParams, userDataConverter, encodingContext);
+    }
+
+    @Benchmark
+    public byte[] gzipStream() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(tileBytes.length / 2);
+        try(final GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(tileBytes);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] gzip() {
+        return TileCompressor.GZIP.compress(tileBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeLayers() {
+        return MvtEncoder.encode(multiLayerMvt, layerParams, userDataConverter);
+    }
+
+    @Benchmark
+    public byte[] encodeLayersParallel() {
+        return MvtEncoder.encodeParallel(multiLayerMvt, layerParams, userDataConverter);
+    }
+}
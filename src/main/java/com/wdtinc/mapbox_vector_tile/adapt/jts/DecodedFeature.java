@@ -0,0 +1,100 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.read.LazyFeature;
+import com.wdtinc.mapbox_vector_tile.read.LazyLayer;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * <p>A single MVT feature read by {@link MvtReader#stream}. The id and geometry type are available immediately.
+ * JTS geometry and user data are converted on first request and then cached, so consumers that filter on id or
+ * type do not pay for geometry decoding.</p>
+ *
+ * <p>Instances are independent of the stream and may be retained, but are not thread-safe.</p>
+ */
+public final class DecodedFeature {
+
+    private final LazyLayer layer;
+    private final LazyFeature feature;
+    private final GeometryFactory geomFactory;
+    private final ITagConverter tagConverter;
+    private final MvtReader.RingClassifier ringClassifier;
+
+    private boolean geometryDecoded;
+    private Geometry geometry;
+
+    private boolean userDataConverted;
+    private Object userData;
+
+    DecodedFeature(LazyLayer layer,
+                   LazyFeature feature,
+                   GeometryFactory geomFactory,
+                   ITagConverter tagConverter,
+                   MvtReader.RingClassifier ringClassifier) {
+        this.layer = layer;
+        this.feature = feature;
+        this.geomFactory = geomFactory;
+        this.tagConverter = tagConverter;
+        this.ringClassifier = ringClassifier;
+    }
+
+    /**
+     * @return layer containing the feature
+     */
+    public LazyLayer getLayer() {
+        return layer;
+    }
+
+    /**
+     * @return true if the feature has an id
+     */
+    public boolean hasId() {
+        return feature.hasId();
+    }
+
+    /**
+     * @return feature id, 0 if not present
+     */
+    public long getId() {
+        return feature.getId();
+    }
+
+    /**
+     * @return feature geometry type
+     */
+    public VectorTile.Tile.GeomType getType() {
+        return feature.getType();
+    }
+
+    /**
+     * Decode the feature geometry in MVT coordinates. Does not set user data on the geometry.
+     *
+     * @return JTS geometry, or null if the geometry type is {@link VectorTile.Tile.GeomType#UNKNOWN} or the
+     *     geometry commands are invalid
+     */
+    public Geometry getGeometry() {
+        if(!geometryDecoded) {
+            final VectorTile.Tile.GeomType geomType = feature.getType();
+            geometry = geomType == VectorTile.Tile.GeomType.UNKNOWN
+                    ? null
+                    : MvtReader.readGeometry(feature.getGeometry(), geomType, geomFactory, ringClassifier);
+            geometryDecoded = true;
+        }
+        return geometry;
+    }
+
+    /**
+     * Convert the feature id and tags with the stream {@link ITagConverter}.
+     *
+     * @return user data object, may be null
+     */
+    public Object getUserData() {
+        if(!userDataConverted) {
+            userData = tagConverter.toUserData(feature.hasId() ? feature.getId() : null, feature.getTagsList(),
+                    layer.getKeys(), layer.getValues());
+            userDataConverted = true;
+        }
+        return userData;
+    }
+}
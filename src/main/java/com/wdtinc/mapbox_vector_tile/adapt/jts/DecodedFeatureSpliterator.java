@@ -0,0 +1,173 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.read.LazyLayer;
+import com.wdtinc.mapbox_vector_tile.read.MalformedMvtException;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>Spliterator over the features of a sequence of layers, possibly from many tiles, in layer order.</p>
+ *
+ * <p>Features are numbered consecutively across layers, so the spliterator covers a range of feature positions
+ * and splits it in half. The exact size of every split is known, so it reports {@link #SIZED} and
+ * {@link #SUBSIZED}. Layer feature offsets are indexed when the spliterator is created.</p>
+ *
+ * <p>Features with {@link com.wdtinc.mapbox_vector_tile.VectorTile.Tile.GeomType#UNKNOWN} geometry type are
+ * included to keep sizes exact.</p>
+ *
+ * <p>Requires Java 8 or Android API Level 24.</p>
+ */
+final class DecodedFeatureSpliterator implements Spliterator<DecodedFeature> {
+
+    /**
+     * Smallest range that is split further.
+     */
+    private static final int MIN_SPLIT_SIZE = 64;
+
+    private final LazyLayer[] layers;
+
+    /**
+     * Position of the first feature of each layer, with the total feature count appended.
+     */
+    private final long[] layerStarts;
+
+    private final GeometryFactory geomFactory;
+    private final ITagConverter tagConverter;
+    private final MvtReader.RingClassifier ringClassifier;
+
+    /**
+     * Next feature position, inclusive.
+     */
+    private long position;
+
+    /**
+     * End feature position, exclusive.
+     */
+    private final long end;
+
+    /**
+     * Layer containing the feature at {@link #position}.
+     */
+    private int layerIndex;
+
+    /**
+     * @param layers layers to read, in order
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @throws MalformedMvtException if a layer is malformed
+     */
+    DecodedFeatureSpliterator(LazyLayer[] layers,
+                              GeometryFactory geomFactory,
+                              ITagConverter tagConverter,
+                              MvtReader.RingClassifier ringClassifier) {
+        this.layers = layers;
+        this.layerStarts = new long[layers.length + 1];
+        for(int i = 0; i < layers.length; ++i) {
+            layerStarts[i + 1] = layerStarts[i] + layers[i].getFeatureCount();
+        }
+        this.geomFactory = geomFactory;
+        this.tagConverter = tagConverter;
+        this.ringClassifier = ringClassifier;
+        this.position = 0L;
+        this.end = layerStarts[layers.length];
+        this.layerIndex = findLayer(0L);
+    }
+
+    private DecodedFeatureSpliterator(DecodedFeatureSpliterator parent, long position, long end) {
+        this.layers = parent.layers;
+        this.layerStarts = parent.layerStarts;
+        this.geomFactory = parent.geomFactory;
+        this.tagConverter = parent.tagConverter;
+        this.ringClassifier = parent.ringClassifier;
+        this.position = position;
+        this.end = end;
+        this.layerIndex = findLayer(position);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super DecodedFeature> action) {
+        if(position >= end) {
+            return false;
+        }
+
+        action.accept(next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super DecodedFeature> action) {
+        while(position < end) {
+            action.accept(next());
+        }
+    }
+
+    @Override
+    public Spliterator<DecodedFeature> trySplit() {
+        final long remaining = end - position;
+
+        // Guard: too small to split
+        if(remaining < MIN_SPLIT_SIZE * 2) {
+            return null;
+        }
+
+        final long mid = position + (remaining >>> 1);
+        final DecodedFeatureSpliterator prefix = new DecodedFeatureSpliterator(this, position, mid);
+        position = mid;
+        layerIndex = findLayer(mid);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * @return feature at {@link #position}, then advance
+     * @throws UncheckedIOException if the feature is malformed
+     */
+    private DecodedFeature next() {
+        while(position >= layerStarts[layerIndex + 1]) {
+            ++layerIndex;
+        }
+
+        final LazyLayer layer = layers[layerIndex];
+        final int featureIndex = (int) (position - layerStarts[layerIndex]);
+        ++position;
+
+        try {
+            return new DecodedFeature(layer, layer.getFeature(featureIndex), geomFactory, tagConverter,
+                    ringClassifier);
+        } catch (MalformedMvtException e) {
+            throw new UncheckedIOException(MvtReader.invalidTile(e));
+        }
+    }
+
+    /**
+     * @param featurePosition feature position, at most the total feature count
+     * @return index of the last layer starting at or before {@code featurePosition}
+     */
+    private int findLayer(long featurePosition) {
+        final int searchIndex = Arrays.binarySearch(layerStarts, 0, layers.length, featurePosition);
+        if(searchIndex < 0) {
+            return -searchIndex - 2;
+        }
+
+        // Skip empty layers starting at the same position
+        int result = searchIndex;
+        while(result + 1 < layers.length && layerStarts[result + 1] == featurePosition) {
+            ++result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Remove consecutive vertices that rounded to the same integer grid position. No other vertices are
+ * removed, so this is much cheaper than {@link JtsSimplifier}.</p>
+ *
+ * <p>Lines left with fewer than 2 vertices and rings left with fewer than 4 vertices are removed. A polygon
+ * without a shell becomes empty. Points are not changed.</p>
+ */
+public final class GridDedupeSimplifier implements IGeometrySimplifier {
+
+    public static final GridDedupeSimplifier INSTANCE = new GridDedupeSimplifier();
+
+    private GridDedupeSimplifier() {}
+
+    @Override
+    public Geometry simplify(Geometry geom) {
+        final GeometryFactory geomFactory = geom.getFactory();
+
+        if(geom instanceof LineString) {
+            return dedupeLine((LineString) geom);
+
+        } else if(geom instanceof Polygon) {
+            return dedupePolygon((Polygon) geom);
+
+        } else if(geom instanceof MultiLineString) {
+            final List<LineString> lines = new ArrayList<>(geom.getNumGeometries());
+            boolean changed = false;
+
+            for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                final LineString line = (LineString) geom.getGeometryN(i);
+                final LineString nextLine = dedupeLine(line);
+                changed |= nextLine != line;
+                if(!nextLine.isEmpty()) {
+                    lines.add(nextLine);
+                }
+            }
+
+            return changed ? geomFactory.createMultiLineString(GeometryFactory.toLineStringArray(lines)) : geom;
+
+        } else if(geom instanceof MultiPolygon) {
+            final List<Polygon> polys = new ArrayList<>(geom.getNumGeometries());
+            boolean changed = false;
+
+            for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                final Polygon poly = (Polygon) geom.getGeometryN(i);
+                final Polygon nextPoly = dedupePolygon(poly);
+                changed |= nextPoly != poly;
+                if(!nextPoly.isEmpty()) {
+                    polys.add(nextPoly);
+                }
+            }
+
+            return changed ? geomFactory.createMultiPolygon(GeometryFactory.toPolygonArray(polys)) : geom;
+        }
+
+        return geom;
+    }
+
+    /**
+     * @param line line to dedupe
+     * @return {@code line} if unchanged, otherwise a new line, empty if collapsed
+     */
+    private static LineString dedupeLine(LineString line) {
+        final CoordinateSequence seq = line.getCoordinateSequence();
+        final int uniqueCount = uniqueCount(seq);
+
+        // Guard: nothing removed
+        if(uniqueCount == seq.size()) {
+            return line;
+        }
+
+        final GeometryFactory geomFactory = line.getFactory();
+        if(uniqueCount < 2) {
+            return geomFactory.createLineString((CoordinateSequence) null);
+        }
+        return geomFactory.createLineString(dedupe(seq, uniqueCount, geomFactory));
+    }
+
+    /**
+     * @param poly polygon to dedupe
+     * @return {@code poly} if unchanged, otherwise a new polygon, empty if the shell collapsed
+     */
+    private static Polygon dedupePolygon(Polygon poly) {
+        final GeometryFactory geomFactory = poly.getFactory();
+        final LinearRing shell = dedupeRing((LinearRing) poly.getExteriorRing());
+
+        // Guard: shell collapsed
+        if(shell == null) {
+            return geomFactory.createPolygon((LinearRing) null);
+        }
+
+        boolean changed = shell != poly.getExteriorRing();
+        final List<LinearRing> holes = new ArrayList<>(poly.getNumInteriorRing());
+        for(int i = 0; i < poly.getNumInteriorRing(); ++i) {
+            final LinearRing hole = (LinearRing) poly.getInteriorRingN(i);
+            final LinearRing nextHole = dedupeRing(hole);
+            changed |= nextHole != hole;
+            if(nextHole != null) {
+                holes.add(nextHole);
+            }
+        }
+
+        return changed ? geomFactory.createPolygon(shell, GeometryFactory.toLinearRingArray(holes)) : poly;
+    }
+
+    /**
+     * @param ring ring to dedupe
+     * @return {@code ring} if unchanged, a new ring, or null if collapsed
+     */
+    private static LinearRing dedupeRing(LinearRing ring) {
+        final CoordinateSequence seq = ring.getCoordinateSequence();
+        final int uniqueCount = uniqueCount(seq);
+
+        // Guard: nothing removed
+        if(uniqueCount == seq.size()) {
+            return ring;
+        }
+
+        if(uniqueCount < 4) {
+            return null;
+        }
+        return ring.getFactory().createLinearRing(dedupe(seq, uniqueCount, ring.getFactory()));
+    }
+
+    /**
+     * @param seq coordinate sequence
+     * @return count of coordinates that differ from their predecessor
+     */
+    private static int uniqueCount(CoordinateSequence seq) {
+        final int size = seq.size();
+        if(size == 0) {
+            return 0;
+        }
+
+        int count = 1;
+        for(int i = 1; i < size; ++i) {
+            if(seq.getX(i) != seq.getX(i - 1) || seq.getY(i) != seq.getY(i - 1)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    private static CoordinateSequence dedupe(CoordinateSequence seq, int uniqueCount, GeometryFactory geomFactory) {
+        final CoordinateSequence result = geomFactory.getCoordinateSequenceFactory().create(uniqueCount, 2);
+
+        result.setOrdinate(0, CoordinateSequence.X, seq.getX(0));
+        result.setOrdinate(0, CoordinateSequence.Y, seq.getY(0));
+
+        int j = 1;
+        for(int i = 1; i < seq.size(); ++i) {
+            if(seq.getX(i) != seq.getX(i - 1) || seq.getY(i) != seq.getY(i - 1)) {
+                result.setOrdinate(j, CoordinateSequence.X, seq.getX(i));
+                result.setOrdinate(j, CoordinateSequence.Y, seq.getY(i));
+                ++j;
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * Clipping strategy for intersecting source geometry with a tile clip envelope.
+ *
+ * @see JtsOverlayClipper
+ * @see RectangleClipper
+ */
+public interface IGeometryClipper {
+
+    /**
+     * Clip geometry to an axis-aligned envelope.
+     *
+     * @param geom flat geometry via {@link JtsAdapter#flatFeatureList(Geometry)} to clip
+     * @param clipEnvelope world coordinates to clip by
+     * @param geomFactory creates result geometry
+     * @return geometry within {@code clipEnvelope}, may be empty or {@code geom} itself
+     * @throws org.locationtech.jts.geom.TopologyException if the geometry could not be clipped
+     */
+    Geometry clip(Geometry geom, Envelope clipEnvelope, GeometryFactory geomFactory);
+}
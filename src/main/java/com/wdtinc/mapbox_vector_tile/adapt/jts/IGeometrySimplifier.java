@@ -0,0 +1,22 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Simplification strategy for tile geometry after it has been transformed and rounded to MVT coordinates.
+ *
+ * @see JtsSimplifier
+ * @see GridDedupeSimplifier
+ * @see NoOpSimplifier
+ * @see ZoomToleranceSimplifier
+ */
+public interface IGeometrySimplifier {
+
+    /**
+     * Simplify geometry in MVT coordinates. Implementations must be thread-safe.
+     *
+     * @param geom geometry in MVT 'extent' coordinates, with integer ordinates
+     * @return simplified geometry, may be empty or {@code geom} itself
+     */
+    Geometry simplify(Geometry geom);
+}
@@ -0,0 +1,36 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.read.LazyLayer;
+
+/**
+ * <p>Receives layer and feature events while streaming an MVT with
+ * {@link MvtReader#stream(com.wdtinc.mapbox_vector_tile.read.LazyMvt, org.locationtech.jts.geom.GeometryFactory,
+ * ITagConverter, MvtReader.RingClassifier, IMvtFeatureVisitor)}.</p>
+ *
+ * <p>Events arrive in tile order: {@link #visitLayerStart(LazyLayer)}, then {@link #visitFeature(DecodedFeature)}
+ * for each feature of the layer, then {@link #visitLayerEnd(LazyLayer)}.</p>
+ */
+public interface IMvtFeatureVisitor {
+
+    /**
+     * Called before the features of a layer.
+     *
+     * @param layer lazy layer view, with name, extent, keys and values
+     * @return true to visit the features of the layer, false to skip the layer without further events
+     */
+    boolean visitLayerStart(LazyLayer layer);
+
+    /**
+     * Called for each feature of a visited layer with a known geometry type.
+     *
+     * @param feature feature with lazily decoded geometry and user data
+     */
+    void visitFeature(DecodedFeature feature);
+
+    /**
+     * Called after the features of a visited layer.
+     *
+     * @param layer lazy layer view
+     */
+    void visitLayerEnd(LazyLayer layer);
+}
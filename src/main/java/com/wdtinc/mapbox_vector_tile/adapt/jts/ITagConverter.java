@@ -23,4 +23,17 @@ public interface ITagConverter {
                       List<Integer> tags,
                       List<String> keysList,
                       List<VectorTile.Tile.Value> valuesList);
+
+    /**
+     * <p>Whether {@link #toUserData} may keep a reference to its {@code tags} list after returning, for example
+     * in the returned user data.</p>
+     *
+     * <p>If false, {@link MvtReader} may pass a view over storage reused for the next feature instead of a copy.
+     * Defaults to true, so converters written before this method existed always receive a stable list.</p>
+     *
+     * @return true if the tags list may be retained after {@link #toUserData} returns
+     */
+    default boolean isTagsRetained() {
+        return true;
+    }
 }
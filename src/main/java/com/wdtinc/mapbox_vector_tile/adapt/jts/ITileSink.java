@@ -0,0 +1,20 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import java.io.IOException;
+
+/**
+ * Receives encoded tiles from {@link TilePyramidGenerator}.
+ */
+public interface ITileSink {
+
+    /**
+     * Accept an encoded tile. May be called concurrently from multiple threads.
+     *
+     * @param z zoom level
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @param tile encoded MVT bytes, not retained by the caller
+     * @throws IOException failure writing the tile, stops tile generation
+     */
+    void write(int z, int x, int y, byte[] tile) throws IOException;
+}
@@ -0,0 +1,212 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequences;
+import org.locationtech.jts.geom.Envelope;
+
+import java.io.Serializable;
+
+/**
+ * <p>Two dimensional {@link CoordinateSequence} packed into a single {@code int[]}, for geometry in MVT
+ * coordinates. Uses about a sixth of the heap of a {@link Coordinate} per vertex sequence.</p>
+ *
+ * <p>If a non-integral ordinate is written, for example by transforming the geometry, the sequence switches to
+ * packed {@code double[]} storage so that values are never truncated.</p>
+ *
+ * <p>Z and M ordinates are not stored. Like other packed sequences, {@link #getCoordinate(int)} returns a new
+ * {@link Coordinate} and changes to it are not reflected in the sequence.</p>
+ *
+ * @see IntCoordinateSequenceFactory
+ */
+public final class IntCoordinateSequence implements CoordinateSequence, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int size;
+
+    /**
+     * Packed x, y ordinates, or null after switching to {@link #doubleCoords}.
+     */
+    private int[] intCoords;
+
+    /**
+     * Packed x, y ordinates once a non-integral value has been written, otherwise null.
+     */
+    private double[] doubleCoords;
+
+    /**
+     * Create a sequence of {@code size} coordinates at (0, 0).
+     *
+     * @param size coordinate count
+     */
+    public IntCoordinateSequence(int size) {
+        if(size < 0) {
+            throw new IllegalArgumentException("size must be >= 0");
+        }
+
+        this.size = size;
+        this.intCoords = new int[size * 2];
+        this.doubleCoords = null;
+    }
+
+    /**
+     * Create a sequence from packed x, y ordinates.
+     *
+     * @param coords packed x, y ordinates, used without copying
+     */
+    public IntCoordinateSequence(int[] coords) {
+        if(coords.length % 2 != 0) {
+            throw new IllegalArgumentException("coords length must be even");
+        }
+
+        this.size = coords.length / 2;
+        this.intCoords = coords;
+        this.doubleCoords = null;
+    }
+
+    private IntCoordinateSequence(int size, int[] intCoords, double[] doubleCoords) {
+        this.size = size;
+        this.intCoords = intCoords;
+        this.doubleCoords = doubleCoords;
+    }
+
+    /**
+     * @return true if ordinates are stored as {@code int}
+     */
+    public boolean isIntegral() {
+        return intCoords != null;
+    }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public Coordinate getCoordinate(int i) {
+        return getCoordinateCopy(i);
+    }
+
+    @Override
+    public Coordinate getCoordinateCopy(int i) {
+        return new Coordinate(getX(i), getY(i));
+    }
+
+    @Override
+    public void getCoordinate(int index, Coordinate coord) {
+        coord.x = getX(index);
+        coord.y = getY(index);
+        coord.z = Coordinate.NULL_ORDINATE;
+    }
+
+    @Override
+    public double getX(int index) {
+        return intCoords != null ? intCoords[index * 2] : doubleCoords[index * 2];
+    }
+
+    @Override
+    public double getY(int index) {
+        return intCoords != null ? intCoords[index * 2 + 1] : doubleCoords[index * 2 + 1];
+    }
+
+    @Override
+    public double getOrdinate(int index, int ordinateIndex) {
+        switch(ordinateIndex) {
+            case X:
+                return getX(index);
+            case Y:
+                return getY(index);
+            default:
+                return Double.NaN;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void setOrdinate(int index, int ordinateIndex, double value) {
+
+        // Guard: Z and M are not stored
+        if(ordinateIndex != X && ordinateIndex != Y) {
+            return;
+        }
+
+        final int offset = index * 2 + ordinateIndex;
+
+        if(intCoords != null) {
+            final int intValue = (int) value;
+            if(intValue == value) {
+                intCoords[offset] = intValue;
+                return;
+            }
+            toDoubles();
+        }
+
+        doubleCoords[offset] = value;
+    }
+
+    /**
+     * Set both ordinates of a coordinate.
+     *
+     * @param index coordinate index
+     * @param x x ordinate
+     * @param y y ordinate
+     */
+    public void set(int index, int x, int y) {
+        if(intCoords != null) {
+            intCoords[index * 2] = x;
+            intCoords[index * 2 + 1] = y;
+
+        } else {
+            doubleCoords[index * 2] = x;
+            doubleCoords[index * 2 + 1] = y;
+        }
+    }
+
+    @Override
+    public Coordinate[] toCoordinateArray() {
+        final Coordinate[] coords = new Coordinate[size];
+        for(int i = 0; i < size; ++i) {
+            coords[i] = getCoordinateCopy(i);
+        }
+        return coords;
+    }
+
+    @Override
+    public Envelope expandEnvelope(Envelope env) {
+        for(int i = 0; i < size; ++i) {
+            env.expandToInclude(getX(i), getY(i));
+        }
+        return env;
+    }
+
+    @Deprecated
+    @Override
+    public Object clone() {
+        return copy();
+    }
+
+    @Override
+    public IntCoordinateSequence copy() {
+        return new IntCoordinateSequence(size,
+                intCoords != null ? intCoords.clone() : null,
+                doubleCoords != null ? doubleCoords.clone() : null);
+    }
+
+    @Override
+    public String toString() {
+        return CoordinateSequences.toString(this);
+    }
+
+    private void toDoubles() {
+        doubleCoords = new double[intCoords.length];
+        for(int i = 0; i < intCoords.length; ++i) {
+            doubleCoords[i] = intCoords[i];
+        }
+        intCoords = null;
+    }
+}
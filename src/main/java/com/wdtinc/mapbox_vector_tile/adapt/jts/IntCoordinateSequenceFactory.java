@@ -0,0 +1,66 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+
+import java.io.Serializable;
+
+/**
+ * <p>Creates {@link IntCoordinateSequence} instances. Use with a {@link org.locationtech.jts.geom.GeometryFactory}
+ * to decode MVT geometry into packed integer coordinates:</p>
+ *
+ * <pre>{@code
+ * final GeometryFactory geomFactory = new GeometryFactory(IntCoordinateSequenceFactory.INSTANCE);
+ * final JtsMvt mvt = MvtReader.loadMvt(file, geomFactory, new TagKeyValueMapConverter());
+ * }</pre>
+ *
+ * <p>Sequences are always two dimensional. Z and M ordinates of copied coordinates are dropped.</p>
+ */
+public final class IntCoordinateSequenceFactory implements CoordinateSequenceFactory, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final IntCoordinateSequenceFactory INSTANCE = new IntCoordinateSequenceFactory();
+
+    private IntCoordinateSequenceFactory() {}
+
+    @Override
+    public CoordinateSequence create(Coordinate[] coordinates) {
+        final int size = coordinates == null ? 0 : coordinates.length;
+        final IntCoordinateSequence seq = new IntCoordinateSequence(size);
+
+        for(int i = 0; i < size; ++i) {
+            seq.setOrdinate(i, CoordinateSequence.X, coordinates[i].x);
+            seq.setOrdinate(i, CoordinateSequence.Y, coordinates[i].y);
+        }
+
+        return seq;
+    }
+
+    @Override
+    public CoordinateSequence create(CoordinateSequence coordSeq) {
+        if(coordSeq instanceof IntCoordinateSequence) {
+            return ((IntCoordinateSequence) coordSeq).copy();
+        }
+
+        final int size = coordSeq.size();
+        final IntCoordinateSequence seq = new IntCoordinateSequence(size);
+
+        for(int i = 0; i < size; ++i) {
+            seq.setOrdinate(i, CoordinateSequence.X, coordSeq.getX(i));
+            seq.setOrdinate(i, CoordinateSequence.Y, coordSeq.getY(i));
+        }
+
+        return seq;
+    }
+
+    @Override
+    public CoordinateSequence create(int size, int dimension) {
+        return new IntCoordinateSequence(size);
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+}
@@ -3,15 +3,15 @@ package com.wdtinc.mapbox_vector_tile.adapt.jts;
 import org.locationtech.jts.algorithm.CGAlgorithms;
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.geom.util.AffineTransformation;
-import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.strtree.STRtree;
 import com.wdtinc.mapbox_vector_tile.*;
 import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
 import com.wdtinc.mapbox_vector_tile.encoding.MvtUtil;
 import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdBuffer;
 import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdHdr;
 import com.wdtinc.mapbox_vector_tile.encoding.GeomCmd;
-import com.wdtinc.mapbox_vector_tile.encoding.ZigZag;
-import com.wdtinc.mapbox_vector_tile.util.Vec2d;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
@@ -90,9 +90,282 @@ public final class JtsAdapter {
                                                 GeometryFactory geomFactory,
                                                 MvtLayerParams mvtLayerParams,
                                                 IGeometryFilter filter) {
+        return createTileGeom(g, tileEnvelope, clipEnvelope, geomFactory, mvtLayerParams, filter,
+                JtsOverlayClipper.INSTANCE);
+    }
+
+    /**
+     * <p>Create geometry clipped and then converted to MVT 'extent' coordinates. Result
+     * contains both clipped geometry (intersection) and transformed geometry for encoding to MVT.</p>
+     *
+     * <p>Allows specifying separate tile and clipping coordinates, and the clipping strategy. {@code clipEnvelope}
+     * can be bigger than {@code tileEnvelope} to have geometry exist outside the MVT tile extent, see
+     * {@link #createClipEnvelope(Envelope, MvtLayerParams, int)}.</p>
+     *
+     * @param g original 'source' geometry, passed through {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by
+     * @param geomFactory creates a geometry for the tile envelope
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param clipper clipping strategy, such as {@link RectangleClipper#INSTANCE} or
+     *                {@link JtsOverlayClipper#INSTANCE}
+     * @return tile geometry result
+     * @see TileGeomResult
+     */
+    public static TileGeomResult createTileGeom(List<Geometry> g,
+                                                Envelope tileEnvelope,
+                                                Envelope clipEnvelope,
+                                                GeometryFactory geomFactory,
+                                                MvtLayerParams mvtLayerParams,
+                                                IGeometryFilter filter,
+                                                IGeometryClipper clipper) {
+        return createTileGeom(g, tileEnvelope, clipEnvelope, geomFactory, mvtLayerParams, filter, clipper,
+                JtsSimplifier.DEFAULT);
+    }
+
+    /**
+     * <p>Create geometry clipped and then converted to MVT 'extent' coordinates. Result
+     * contains both clipped geometry (intersection) and transformed geometry for encoding to MVT.</p>
+     *
+     * <p>Allows specifying separate tile and clipping coordinates, the clipping strategy and the simplification
+     * strategy. Simplification runs after geometry is rounded to MVT coordinates, and the count of vertices it
+     * removed is reported in {@link TileGeomResult#removedVertexCount}.</p>
+     *
+     * @param g original 'source' geometry, passed through {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by
+     * @param geomFactory creates a geometry for the tile envelope
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param clipper clipping strategy, such as {@link RectangleClipper#INSTANCE} or
+     *                {@link JtsOverlayClipper#INSTANCE}
+     * @param simplifier simplification strategy, such as {@link JtsSimplifier#DEFAULT} or
+     *                   {@link GridDedupeSimplifier#INSTANCE}
+     * @return tile geometry result
+     * @see TileGeomResult
+     */
+    public static TileGeomResult createTileGeom(List<Geometry> g,
+                                                Envelope tileEnvelope,
+                                                Envelope clipEnvelope,
+                                                GeometryFactory geomFactory,
+                                                MvtLayerParams mvtLayerParams,
+                                                IGeometryFilter filter,
+                                                IGeometryClipper clipper,
+                                                IGeometrySimplifier simplifier) {
+
+        // The area contained in BOTH the 'original geometry', g, AND the 'clip envelope geometry' is the 'tile geometry'
+        final List<Geometry> intersectedGeoms = flatIntersection(clipEnvelope, g, geomFactory, clipper);
+
+        return toTileGeomResult(intersectedGeoms, tileTransform(tileEnvelope, mvtLayerParams), filter, simplifier);
+    }
+
+    /**
+     * <p>Create geometry clipped and then converted to MVT 'extent' coordinates, selecting source geometry from a
+     * spatial index instead of checking every source geometry envelope. Result contains both clipped geometry
+     * (intersection) and transformed geometry for encoding to MVT.</p>
+     *
+     * <p>Build the index once with {@link #createSpatialIndex(List)}, or any {@link SpatialIndex} containing
+     * {@link Geometry} items, and reuse it for every tile of the layer. Geometry is in index query order, which
+     * for an {@link STRtree} is not the insertion order.</p>
+     *
+     * @param index spatial index of original 'source' geometry, items passed through
+     *              {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by, also used to query {@code index}
+     * @param geomFactory creates a geometry for the tile envelope
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param clipper clipping strategy
+     * @return tile geometry result
+     * @see TileGeomResult
+     */
+    public static TileGeomResult createTileGeom(SpatialIndex index,
+                                                Envelope tileEnvelope,
+                                                Envelope clipEnvelope,
+                                                GeometryFactory geomFactory,
+                                                MvtLayerParams mvtLayerParams,
+                                                IGeometryFilter filter,
+                                                IGeometryClipper clipper) {
+        return createTileGeom(index, tileEnvelope, clipEnvelope, geomFactory, mvtLayerParams, filter, clipper,
+                JtsSimplifier.DEFAULT);
+    }
+
+    /**
+     * Create geometry clipped and then converted to MVT 'extent' coordinates, selecting source geometry from a
+     * spatial index, with a simplification strategy.
+     *
+     * @param index spatial index of original 'source' geometry, items passed through
+     *              {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by, also used to query {@code index}
+     * @param geomFactory creates a geometry for the tile envelope
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param clipper clipping strategy
+     * @param simplifier simplification strategy
+     * @return tile geometry result
+     * @see #createTileGeom(SpatialIndex, Envelope, Envelope, GeometryFactory, MvtLayerParams, IGeometryFilter,
+     *      IGeometryClipper)
+     */
+    public static TileGeomResult createTileGeom(SpatialIndex index,
+                                                Envelope tileEnvelope,
+                                                Envelope clipEnvelope,
+                                                GeometryFactory geomFactory,
+                                                MvtLayerParams mvtLayerParams,
+                                                IGeometryFilter filter,
+                                                IGeometryClipper clipper,
+                                                IGeometrySimplifier simplifier) {
+
+        @SuppressWarnings("unchecked")
+        final List<Geometry> candidates = index.query(clipEnvelope);
+
+        final List<Geometry> intersectedGeoms = flatIntersection(clipEnvelope, candidates, geomFactory, clipper);
+
+        return toTileGeomResult(intersectedGeoms, tileTransform(tileEnvelope, mvtLayerParams), filter, simplifier);
+    }
+
+    /**
+     * <p>Build an {@link STRtree} of source geometry for
+     * {@link #createTileGeom(SpatialIndex, Envelope, Envelope, GeometryFactory, MvtLayerParams, IGeometryFilter,
+     * IGeometryClipper)}.</p>
+     *
+     * <p>The tree is built before returning, so it may be queried from several threads at once.</p>
+     *
+     * @param g original 'source' geometry, passed through {@link #flatFeatureList(Geometry)}
+     * @return built spatial index with {@link Geometry} items
+     */
+    public static STRtree createSpatialIndex(List<Geometry> g) {
+        final STRtree index = new STRtree();
+
+        for(Geometry nextGeom : g) {
+            if(!nextGeom.isEmpty()) {
+                index.insert(nextGeom.getEnvelopeInternal(), nextGeom);
+            }
+        }
+        index.build();
+
+        return index;
+    }
+
+    /**
+     * Create a clip envelope that extends past the tile envelope by a buffer in MVT 'extent' units on each side.
+     *
+     * @param tileEnvelope world coordinate bounds for tile
+     * @param mvtLayerParams specifies vector tile properties
+     * @param buffer buffer in MVT extent units, such as 64 for a 4096 extent, must be &gt;= 0
+     * @return new clip envelope in world coordinates
+     */
+    public static Envelope createClipEnvelope(Envelope tileEnvelope, MvtLayerParams mvtLayerParams, int buffer) {
+        if(buffer < 0) {
+            throw new IllegalArgumentException("buffer must be >= 0");
+        }
+
+        final Envelope clipEnvelope = new Envelope(tileEnvelope);
+        clipEnvelope.expandBy(tileEnvelope.getWidth() * buffer / mvtLayerParams.extent,
+                tileEnvelope.getHeight() * buffer / mvtLayerParams.extent);
+        return clipEnvelope;
+    }
+
+    /**
+     * <p>Create clipped and transformed geometry for many tiles from the same source geometry. Equivalent to
+     * calling {@link #createTileGeom(List, Envelope, GeometryFactory, MvtLayerParams, IGeometryFilter)} for
+     * each tile envelope, but source geometry preparation is shared between tiles.</p>
+     *
+     * <p>Tile envelopes are recursively grouped by quadrant. Source geometry is culled by envelope and large
+     * geometry is pre-clipped to each quadrant, so each tile only intersects the pieces of geometry near it
+     * instead of the full source geometry.</p>
+     *
+     * @param g original 'source' geometry, passed through {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelopes world coordinate bounds for each tile, such as a tile range or quadtree level
+     * @param geomFactory creates a geometry for the tile envelopes
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @return tile geometry results, in the same order as {@code tileEnvelopes}
+     * @see TileGeomResult
+     */
+    public static List<TileGeomResult> createTileGeoms(List<Geometry> g,
+                                                       List<Envelope> tileEnvelopes,
+                                                       GeometryFactory geomFactory,
+                                                       MvtLayerParams mvtLayerParams,
+                                                       IGeometryFilter filter) {
+        return createTileGeoms(g, tileEnvelopes, geomFactory, mvtLayerParams, filter, JtsOverlayClipper.INSTANCE, 0);
+    }
 
-        final Geometry tileClipGeom = geomFactory.toGeometry(clipEnvelope);
+    /**
+     * <p>Create clipped and transformed geometry for many tiles from the same source geometry. Equivalent to
+     * calling {@link #createTileGeom(List, Envelope, Envelope, GeometryFactory, MvtLayerParams, IGeometryFilter,
+     * IGeometryClipper)} for each tile envelope, with a clip envelope from
+     * {@link #createClipEnvelope(Envelope, MvtLayerParams, int)}.</p>
+     *
+     * @param g original 'source' geometry, passed through {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelopes world coordinate bounds for each tile, such as a tile range or quadtree level
+     * @param geomFactory creates a geometry for the tile envelopes
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param clipper clipping strategy
+     * @param buffer clip buffer in MVT extent units, must be &gt;= 0
+     * @return tile geometry results, in the same order as {@code tileEnvelopes}
+     * @see TileGeomResult
+     */
+    public static List<TileGeomResult> createTileGeoms(List<Geometry> g,
+                                                       List<Envelope> tileEnvelopes,
+                                                       GeometryFactory geomFactory,
+                                                       MvtLayerParams mvtLayerParams,
+                                                       IGeometryFilter filter,
+                                                       IGeometryClipper clipper,
+                                                       int buffer) {
+        return createTileGeoms(g, tileEnvelopes, geomFactory, mvtLayerParams, filter, clipper, buffer,
+                JtsSimplifier.DEFAULT);
+    }
 
+    /**
+     * Create clipped and transformed geometry for many tiles from the same source geometry, with a simplification
+     * strategy.
+     *
+     * @param g original 'source' geometry, passed through {@link #flatFeatureList(Geometry)}
+     * @param tileEnvelopes world coordinate bounds for each tile, such as a tile range or quadtree level
+     * @param geomFactory creates a geometry for the tile envelopes
+     * @param mvtLayerParams specifies vector tile properties
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param clipper clipping strategy
+     * @param buffer clip buffer in MVT extent units, must be &gt;= 0
+     * @param simplifier simplification strategy
+     * @return tile geometry results, in the same order as {@code tileEnvelopes}
+     * @see #createTileGeoms(List, List, GeometryFactory, MvtLayerParams, IGeometryFilter, IGeometryClipper, int)
+     */
+    public static List<TileGeomResult> createTileGeoms(List<Geometry> g,
+                                                       List<Envelope> tileEnvelopes,
+                                                       GeometryFactory geomFactory,
+                                                       MvtLayerParams mvtLayerParams,
+                                                       IGeometryFilter filter,
+                                                       IGeometryClipper clipper,
+                                                       int buffer,
+                                                       IGeometrySimplifier simplifier) {
+        final List<Envelope> clipEnvelopes = new ArrayList<>(tileEnvelopes.size());
+        for(Envelope nextTileEnvelope : tileEnvelopes) {
+            clipEnvelopes.add(createClipEnvelope(nextTileEnvelope, mvtLayerParams, buffer));
+        }
+
+        final List<List<Geometry>> intersectedGeoms = new TileClipTree(geomFactory, clipper).clip(g, clipEnvelopes);
+        final List<TileGeomResult> results = new ArrayList<>(tileEnvelopes.size());
+
+        for(int i = 0; i < tileEnvelopes.size(); ++i) {
+            results.add(toTileGeomResult(intersectedGeoms.get(i),
+                    tileTransform(tileEnvelopes.get(i), mvtLayerParams), filter, simplifier));
+        }
+
+        return results;
+    }
+
+    /**
+     * Create the transform from world coordinates to MVT 'extent' coordinates for a tile.
+     *
+     * @param tileEnvelope world coordinate bounds for tile
+     * @param mvtLayerParams specifies vector tile properties
+     * @return world to MVT coordinate transform
+     */
+    static AffineTransformation tileTransform(Envelope tileEnvelope, MvtLayerParams mvtLayerParams) {
         final AffineTransformation t = new AffineTransformation();
         final double xDiff = tileEnvelope.getWidth();
         final double yDiff = tileEnvelope.getHeight();
@@ -110,24 +383,55 @@ public final class JtsAdapter {
         // Transform Setup: Bump Y values to positive quadrant
         t.translate(0d, (double) mvtLayerParams.extent);
 
+        return t;
+    }
 
-        // The area contained in BOTH the 'original geometry', g, AND the 'clip envelope geometry' is the 'tile geometry'
-        final List<Geometry> intersectedGeoms = flatIntersection(tileClipGeom, g);
+    /**
+     * Transform intersected geometry to MVT coordinates.
+     *
+     * @param intersectedGeoms geometry clipped to the tile, in world coordinates
+     * @param t world to MVT coordinate transform
+     * @param filter geometry values that fail filter after transforms are removed
+     * @param simplifier simplification strategy for rounded geometry
+     * @return tile geometry result
+     */
+    private static TileGeomResult toTileGeomResult(List<Geometry> intersectedGeoms,
+                                                   AffineTransformation t,
+                                                   IGeometryFilter filter,
+                                                   IGeometrySimplifier simplifier) {
         final List<Geometry> transformedGeoms = new ArrayList<>(intersectedGeoms.size());
+        int removedVertexCount = 0;
+
+        // Grid dedupe is fused into the transform pass
+        final boolean fusedDedupe = simplifier == GridDedupeSimplifier.INSTANCE;
+        final TileTransform tileTransform = new TileTransform(t, fusedDedupe);
 
         // Transform intersected geometry
         Geometry nextTransformGeom;
+        Geometry nextSimplifiedGeom;
         Object nextUserData;
         for(Geometry nextInterGeom : intersectedGeoms) {
             nextUserData = nextInterGeom.getUserData();
 
-            nextTransformGeom = t.transform(nextInterGeom);
+            // Transform, floating --> integer, in one pass
+            nextTransformGeom = tileTransform.transform(nextInterGeom);
+
+            if(nextTransformGeom == null) {
+                nextTransformGeom = t.transform(nextInterGeom);
+
+                // Floating --> Integer, still contained within doubles
+                nextTransformGeom.apply(RoundingFilter.INSTANCE);
 
-            // Floating --> Integer, still contained within doubles
-            nextTransformGeom.apply(RoundingFilter.INSTANCE);
+                nextSimplifiedGeom = simplifier.simplify(nextTransformGeom);
 
-            // TODO: Refactor line simplification
-            nextTransformGeom = TopologyPreservingSimplifier.simplify(nextTransformGeom, .1d); // Can't use 0d, specify value < .5d
+            } else {
+                nextSimplifiedGeom = fusedDedupe ? nextTransformGeom : simplifier.simplify(nextTransformGeom);
+            }
+
+            if(nextSimplifiedGeom != nextTransformGeom) {
+                removedVertexCount += nextTransformGeom.getNumPoints() - nextSimplifiedGeom.getNumPoints();
+                nextTransformGeom = nextSimplifiedGeom;
+            }
 
             nextTransformGeom.setUserData(nextUserData);
 
@@ -137,7 +441,9 @@ public final class JtsAdapter {
             }
         }
 
-        return new TileGeomResult(intersectedGeoms, transformedGeoms);
+        removedVertexCount += tileTransform.getRemovedVertexCount();
+
+        return new TileGeomResult(intersectedGeoms, transformedGeoms, removedVertexCount);
     }
 
     /**
@@ -145,11 +451,16 @@ public final class JtsAdapter {
      * by performing intersection on a flat list of geometry. The resulting list is pre-filtered for invalid
      * or empty geometry (outside of bounds). Invalid geometry are logged as errors.
      *
-     * @param envelope non-list geometry defines bounding area
+     * @param clipEnvelope defines bounding area
      * @param dataGeoms geometry pre-passed through {@link #flatFeatureList(Geometry)}
-     * @return list of geometry from {@code data} intersecting with {@code envelope}.
+     * @param geomFactory creates clipped geometry
+     * @param clipper clipping strategy
+     * @return list of geometry from {@code data} intersecting with {@code clipEnvelope}.
      */
-    private static List<Geometry> flatIntersection(Geometry envelope, List<Geometry> dataGeoms) {
+    static List<Geometry> flatIntersection(Envelope clipEnvelope,
+                                           List<Geometry> dataGeoms,
+                                           GeometryFactory geomFactory,
+                                           IGeometryClipper clipper) {
         final List<Geometry> intersectedGeoms = new ArrayList<>(dataGeoms.size());
 
         Geometry nextIntersected;
@@ -157,9 +468,9 @@ public final class JtsAdapter {
             try {
 
                 // AABB intersection culling
-                if(envelope.getEnvelopeInternal().intersects(nextGeom.getEnvelopeInternal())) {
+                if(clipEnvelope.intersects(nextGeom.getEnvelopeInternal())) {
 
-                    nextIntersected = envelope.intersection(nextGeom);
+                    nextIntersected = clipper.clip(nextGeom, clipEnvelope, geomFactory);
                     if(!nextIntersected.isEmpty()) {
                         nextIntersected.setUserData(nextGeom.getUserData());
                         intersectedGeoms.add(nextIntersected);
@@ -291,13 +602,12 @@ public final class JtsAdapter {
         }
 
         final List<VectorTile.Tile.Feature> features = new ArrayList<>();
-        final Vec2d cursor = new Vec2d();
+        final GeomCmdBuffer cmdBuffer = new GeomCmdBuffer();
 
         VectorTile.Tile.Feature nextFeature;
 
         for(Geometry nextGeom : flatGeoms) {
-            cursor.set(0d, 0d);
-            nextFeature = toFeature(nextGeom, cursor, layerProps, userDataConverter);
+            nextFeature = toFeature(nextGeom, cmdBuffer, layerProps, userDataConverter);
             if(nextFeature != null) {
                 features.add(nextFeature);
             }
@@ -310,12 +620,12 @@ public final class JtsAdapter {
      * Create and return a feature from a geometry. Returns null on failure.
      *
      * @param geom flat geometry via {@link #flatFeatureList(Geometry)} that can be translated to a feature
-     * @param cursor vector tile cursor position
+     * @param cmdBuffer reusable geometry command buffer, reset before encoding
      * @param layerProps layer properties for tagging features
      * @return new tile feature instance, or null on failure
      */
     private static VectorTile.Tile.Feature toFeature(Geometry geom,
-                                                     Vec2d cursor,
+                                                     GeomCmdBuffer cmdBuffer,
                                                      MvtLayerProps layerProps,
                                                      IUserDataConverter userDataConverter) {
 
@@ -325,23 +635,49 @@ public final class JtsAdapter {
             return null;
         }
 
+        // Encode geometry commands
+        cmdBuffer.reset();
+        if(!toGeomCmds(geom, mvtGeomType, cmdBuffer)) {
+            return null;
+        }
 
-        final VectorTile.Tile.Feature.Builder featureBuilder = VectorTile.Tile.Feature.newBuilder();
-        final boolean mvtClosePath = MvtUtil.shouldClosePath(mvtGeomType);
-        final List<Integer> mvtGeom = new ArrayList<>();
 
+        final VectorTile.Tile.Feature.Builder featureBuilder = VectorTile.Tile.Feature.newBuilder();
         featureBuilder.setType(mvtGeomType);
+        addGeometry(featureBuilder, cmdBuffer);
+
+
+        // Feature Properties
+        userDataConverter.addTags(geom.getUserData(), layerProps, featureBuilder);
+
+        return featureBuilder.build();
+    }
+
+    /**
+     * <p>Write the MVT geometry drawing commands for a flat geometry into {@code cmdBuffer}.</p>
+     *
+     * <p>The buffer cursor should be at the origin for the first geometry of a feature.</p>
+     *
+     * @param geom flat geometry via {@link #flatFeatureList(Geometry)} that can be translated to a feature
+     * @param mvtGeomType MVT type of {@code geom}, must not be
+     *     {@link com.wdtinc.mapbox_vector_tile.VectorTile.Tile.GeomType#UNKNOWN}
+     * @param cmdBuffer command buffer to append commands to
+     * @return true if at least one command was written, false if the geometry is invalid for encoding
+     */
+    static boolean toGeomCmds(Geometry geom, VectorTile.Tile.GeomType mvtGeomType, GeomCmdBuffer cmdBuffer) {
+        final boolean mvtClosePath = MvtUtil.shouldClosePath(mvtGeomType);
+        final int startSize = cmdBuffer.size();
 
         if(geom instanceof Point || geom instanceof MultiPoint) {
 
             // Encode as MVT point or multipoint
-            mvtGeom.addAll(ptsToGeomCmds(geom, cursor));
+            ptsToGeomCmds(geom, cmdBuffer);
 
         } else if(geom instanceof LineString || geom instanceof MultiLineString) {
 
             // Encode as MVT linestring or multi-linestring
             for (int i = 0; i < geom.getNumGeometries(); ++i) {
-                mvtGeom.addAll(linesToGeomCmds(geom.getGeometryN(i), mvtClosePath, cursor, 1));
+                linesToGeomCmds(geom.getGeometryN(i), mvtClosePath, cmdBuffer, 1);
             }
 
         } else if(geom instanceof MultiPolygon || geom instanceof Polygon) {
@@ -350,7 +686,9 @@ public final class JtsAdapter {
             for(int i = 0; i < geom.getNumGeometries(); ++i) {
 
                 final Polygon nextPoly = (Polygon) geom.getGeometryN(i);
-                final List<Integer> nextPolyGeom = new ArrayList<>();
+                final int polyStartSize = cmdBuffer.size();
+                final int polyStartX = cmdBuffer.getCursorX();
+                final int polyStartY = cmdBuffer.getCursorY();
                 boolean valid = true;
 
                 // Add exterior ring
@@ -367,7 +705,7 @@ public final class JtsAdapter {
                     CoordinateArrays.reverse(exteriorRing.getCoordinates());
                 }
 
-                nextPolyGeom.addAll(linesToGeomCmds(exteriorRing, mvtClosePath, cursor, 2));
+                linesToGeomCmds(exteriorRing, mvtClosePath, cmdBuffer, 2);
 
 
                 // Add interior rings
@@ -392,71 +730,78 @@ public final class JtsAdapter {
                         break;
                     }
 
-                    nextPolyGeom.addAll(linesToGeomCmds(nextInteriorRing, mvtClosePath, cursor, 2));
+                    linesToGeomCmds(nextInteriorRing, mvtClosePath, cmdBuffer, 2);
                 }
 
 
-                if(valid) {
-                    mvtGeom.addAll(nextPolyGeom);
+                if(!valid) {
+
+                    // Discard the partially written polygon
+                    cmdBuffer.rewind(polyStartSize, polyStartX, polyStartY);
                 }
             }
         }
 
+        return cmdBuffer.size() > startSize;
+    }
 
-        if(mvtGeom.size() < 1) {
-            return null;
-        }
-
-        featureBuilder.addAllGeometry(mvtGeom);
-
-
-        // Feature Properties
-        userDataConverter.addTags(geom.getUserData(), layerProps, featureBuilder);
+    /**
+     * Copy the contents of {@code cmdBuffer} to the geometry of {@code featureBuilder}.
+     *
+     * @param featureBuilder feature to add geometry commands to
+     * @param cmdBuffer encoded geometry commands
+     */
+    private static void addGeometry(VectorTile.Tile.Feature.Builder featureBuilder, GeomCmdBuffer cmdBuffer) {
+        final int[] cmds = cmdBuffer.array();
+        final int cmdCount = cmdBuffer.size();
 
-        return featureBuilder.build();
+        for(int i = 0; i < cmdCount; ++i) {
+            featureBuilder.addGeometry(cmds[i]);
+        }
     }
 
     /**
-     * <p>Convert a {@link Point} or {@link MultiPoint} geometry to a list of MVT geometry drawing commands. See
+     * <p>Write a {@link Point} or {@link MultiPoint} geometry as MVT geometry drawing commands. See
      * <a href="https://github.com/mapbox/vector-tile-spec">vector-tile-spec</a>
      * for details.</p>
      *
-     * <p>WARNING: The value of the {@code cursor} parameter is modified as a result of calling this method.</p>
+     * <p>Nothing is written if the geometry is invalid for encoding.</p>
      *
      * @param geom input of type {@link Point} or {@link MultiPoint}. Type is NOT checked and expected to be correct.
-     * @param cursor modified during processing to contain next MVT cursor position
-     * @return list of commands
+     * @param cmdBuffer command buffer to append commands to, cursor is modified as a result of calling this method
      */
-    private static List<Integer> ptsToGeomCmds(final Geometry geom, final Vec2d cursor) {
+    private static void ptsToGeomCmds(final Geometry geom, final GeomCmdBuffer cmdBuffer) {
 
         // Guard: empty geometry coordinates
         final Coordinate[] geomCoords = geom.getCoordinates();
         if(geomCoords.length <= 0) {
-            return Collections.emptyList();
+            return;
         }
 
-        /** Tile commands and parameters */
-        final List<Integer> geomCmds = new ArrayList<>(geomCmdBuffLenPts(geomCoords.length));
-
-        /** Holds next MVT coordinate */
-        final Vec2d mvtPos = new Vec2d();
+        final int startSize = cmdBuffer.size();
+        final int startX = cmdBuffer.getCursorX();
+        final int startY = cmdBuffer.getCursorY();
+        cmdBuffer.ensureCapacity(geomCmdBuffLenPts(geomCoords.length));
 
         /** Length of 'MoveTo' draw command */
         int moveCmdLen = 0;
 
         // Insert placeholder for 'MoveTo' command header
-        geomCmds.add(0);
+        final int moveToCmdHdrIndex = cmdBuffer.reserveCmdHdr();
 
         Coordinate nextCoord;
+        int x;
+        int y;
 
         for(int i = 0; i < geomCoords.length; ++i) {
             nextCoord = geomCoords[i];
-            mvtPos.set(nextCoord.x, nextCoord.y);
+            x = (int) nextCoord.x;
+            y = (int) nextCoord.y;
 
             // Ignore duplicate MVT points
-            if(i == 0 || !equalAsInts(cursor, mvtPos)) {
+            if(i == 0 || !cmdBuffer.isCursorAt(x, y)) {
                 ++moveCmdLen;
-                moveCursor(cursor, geomCmds, mvtPos);
+                cmdBuffer.moveCursor(x, y);
             }
         }
 
@@ -464,35 +809,32 @@ public final class JtsAdapter {
         if(moveCmdLen <= GeomCmdHdr.CMD_HDR_LEN_MAX) {
 
             // Write 'MoveTo' command header to first index
-            geomCmds.set(0, GeomCmdHdr.cmdHdr(GeomCmd.MoveTo, moveCmdLen));
-
-            return geomCmds;
+            cmdBuffer.setCmdHdr(moveToCmdHdrIndex, GeomCmd.MoveTo, moveCmdLen);
 
         } else {
 
             // Invalid geometry, need at least 1 'MoveTo' value to make points
-            return Collections.emptyList();
+            cmdBuffer.rewind(startSize, startX, startY);
         }
     }
 
     /**
-     * <p>Convert a {@link LineString} or {@link Polygon} to a list of MVT geometry drawing commands.
+     * <p>Write a {@link LineString} or {@link Polygon} ring as MVT geometry drawing commands.
      * A {@link MultiLineString} or {@link MultiPolygon} can be encoded by calling this method multiple times.</p>
      *
      * <p>See <a href="https://github.com/mapbox/vector-tile-spec">vector-tile-spec</a> for details.</p>
      *
-     * <p>WARNING: The value of the {@code cursor} parameter is modified as a result of calling this method.</p>
+     * <p>Nothing is written and the cursor is left unchanged if the geometry is invalid for encoding.</p>
      *
      * @param geom input of type {@link LineString} or {@link Polygon}. Type is NOT checked and expected to be correct.
      * @param closeEnabled whether a 'ClosePath' command should terminate the command list
-     * @param cursor modified during processing to contain next MVT cursor position
+     * @param cmdBuffer command buffer to append commands to, cursor is modified as a result of calling this method
      * @param minLineToLen minimum allowed length for LineTo command.
-     * @return list of commands
      */
-    private static List<Integer> linesToGeomCmds(
+    private static void linesToGeomCmds(
             final Geometry geom,
             final boolean closeEnabled,
-            final Vec2d cursor,
+            final GeomCmdBuffer cmdBuffer,
             final int minLineToLen) {
 
         final Coordinate[] geomCoords = geom.getCoordinates();
@@ -503,61 +845,54 @@ public final class JtsAdapter {
 
         // Guard/Optimization: Not enough geometry coordinates for a line
         if(minExpGeomCoords < 2) {
-            return Collections.emptyList();
+            return;
         }
 
-        /** Tile commands and parameters */
-        final List<Integer> geomCmds = new ArrayList<>(geomCmdBuffLenLines(minExpGeomCoords, closeEnabled));
-
-        /** Holds next MVT coordinate */
-        final Vec2d mvtPos = new Vec2d();
-
-        // Initial coordinate
-        Coordinate nextCoord = geomCoords[0];
-        mvtPos.set(nextCoord.x, nextCoord.y);
+        final int startSize = cmdBuffer.size();
+        final int startX = cmdBuffer.getCursorX();
+        final int startY = cmdBuffer.getCursorY();
+        cmdBuffer.ensureCapacity(geomCmdBuffLenLines(minExpGeomCoords, closeEnabled));
 
         // Encode initial 'MoveTo' command
-        geomCmds.add(GeomCmdHdr.cmdHdr(GeomCmd.MoveTo, 1));
-
-        moveCursor(cursor, geomCmds, mvtPos);
-
+        Coordinate nextCoord = geomCoords[0];
+        cmdBuffer.writeCmdHdr(GeomCmd.MoveTo, 1);
+        cmdBuffer.moveCursor((int) nextCoord.x, (int) nextCoord.y);
 
-        /** Index of 'LineTo' 'command header' */
-        final int lineToCmdHdrIndex = geomCmds.size();
 
         // Insert placeholder for 'LineTo' command header
-        geomCmds.add(0);
+        final int lineToCmdHdrIndex = cmdBuffer.reserveCmdHdr();
 
 
         /** Length of 'LineTo' draw command */
         int lineToLength = 0;
+        int x;
+        int y;
 
         for(int i = 1; i < minExpGeomCoords; ++i) {
             nextCoord = geomCoords[i];
-            mvtPos.set(nextCoord.x, nextCoord.y);
+            x = (int) nextCoord.x;
+            y = (int) nextCoord.y;
 
             // Ignore duplicate MVT points in sequence
-            if(!equalAsInts(cursor, mvtPos)) {
+            if(!cmdBuffer.isCursorAt(x, y)) {
                 ++lineToLength;
-                moveCursor(cursor, geomCmds, mvtPos);
+                cmdBuffer.moveCursor(x, y);
             }
         }
 
         if(lineToLength >= minLineToLen && lineToLength <= GeomCmdHdr.CMD_HDR_LEN_MAX) {
 
             // Write 'LineTo' 'command header'
-            geomCmds.set(lineToCmdHdrIndex, GeomCmdHdr.cmdHdr(GeomCmd.LineTo, lineToLength));
+            cmdBuffer.setCmdHdr(lineToCmdHdrIndex, GeomCmd.LineTo, lineToLength);
 
             if(closeEnabled) {
-                geomCmds.add(GeomCmdHdr.closePathCmdHdr());
+                cmdBuffer.writeClosePath();
             }
 
-            return geomCmds;
-
         } else {
 
             // Invalid geometry, need at least 1 'LineTo' value to make a Multiline or Polygon
-            return Collections.emptyList();
+            cmdBuffer.rewind(startSize, startX, startY);
         }
     }
 
@@ -588,24 +923,6 @@ public final class JtsAdapter {
         return repeatCoords;
     }
 
-    /**
-     * <p>Appends {@link ZigZag#encode(int)} of delta in x,y from {@code cursor} to {@code mvtPos} into the {@code geomCmds} buffer.</p>
-     *
-     * <p>Afterwards, the {@code cursor} values are changed to match the {@code mvtPos} values.</p>
-     *
-     * @param cursor MVT cursor position
-     * @param geomCmds geometry command list
-     * @param mvtPos next MVT cursor position
-     */
-    private static void moveCursor(Vec2d cursor, List<Integer> geomCmds, Vec2d mvtPos) {
-
-        // Delta, then zigzag
-        geomCmds.add(ZigZag.encode((int)mvtPos.x - (int)cursor.x));
-        geomCmds.add(ZigZag.encode((int)mvtPos.y - (int)cursor.y));
-
-        cursor.set(mvtPos);
-    }
-
     /**
      * Return true if the values of the two {@link Coordinate} are equal when their
      * first and second ordinates are cast as ints. Ignores 3rd ordinate.
@@ -620,17 +937,6 @@ public final class JtsAdapter {
                 && ((int)a.getOrdinate(1)) == ((int)b.getOrdinate(1));
     }
 
-    /**
-     * Return true if the values of the two vectors are equal when cast as ints.
-     *
-     * @param a first vector to compare
-     * @param b second vector to compare
-     * @return true if the values of the two vectors are equal when cast as ints
-     */
-    private static boolean equalAsInts(Vec2d a, Vec2d b) {
-        return ((int) a.x) == ((int) b.x) && ((int) a.y) == ((int) b.y);
-    }
-
     /**
      * Get required geometry buffer size for a {@link Point} or {@link MultiPoint} geometry.
      *
@@ -0,0 +1,23 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * <p>Clip by intersecting with the clip envelope polygon using JTS overlay.</p>
+ *
+ * <p>Handles any valid geometry, but is slower than {@link RectangleClipper} and fails
+ * with a {@link org.locationtech.jts.geom.TopologyException} on some invalid geometry.</p>
+ */
+public final class JtsOverlayClipper implements IGeometryClipper {
+
+    public static final JtsOverlayClipper INSTANCE = new JtsOverlayClipper();
+
+    private JtsOverlayClipper() {}
+
+    @Override
+    public Geometry clip(Geometry geom, Envelope clipEnvelope, GeometryFactory geomFactory) {
+        return geomFactory.toGeometry(clipEnvelope).intersection(geom);
+    }
+}
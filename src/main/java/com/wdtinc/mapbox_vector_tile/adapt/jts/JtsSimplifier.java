@@ -0,0 +1,92 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Puntal;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.locationtech.jts.simplify.VWSimplifier;
+
+/**
+ * Simplify with one of the JTS line simplification algorithms.
+ */
+public final class JtsSimplifier implements IGeometrySimplifier {
+
+    /**
+     * JTS simplification algorithm.
+     */
+    public enum Method {
+
+        /**
+         * {@link TopologyPreservingSimplifier}, keeps rings and lines from crossing. Slowest.
+         */
+        TOPOLOGY_PRESERVING,
+
+        /**
+         * {@link DouglasPeuckerSimplifier}, drops vertices within the tolerance distance of the simplified line.
+         */
+        DOUGLAS_PEUCKER,
+
+        /**
+         * {@link VWSimplifier}, Visvalingam-Whyatt, drops vertices forming triangles smaller than the square of
+         * the tolerance.
+         */
+        VISVALINGAM
+    }
+
+    /**
+     * Topology preserving simplification with a 0.1 tolerance, the default for
+     * {@link JtsAdapter#createTileGeom(java.util.List, org.locationtech.jts.geom.Envelope,
+     * org.locationtech.jts.geom.Envelope, org.locationtech.jts.geom.GeometryFactory,
+     * com.wdtinc.mapbox_vector_tile.build.MvtLayerParams, IGeometryFilter, IGeometryClipper)}. Since coordinates
+     * are already rounded, this only removes repeated and collinear vertices.
+     */
+    public static final JtsSimplifier DEFAULT = new JtsSimplifier(Method.TOPOLOGY_PRESERVING, .1d);
+
+    private final Method method;
+
+    /**
+     * Distance tolerance in MVT 'extent' units.
+     */
+    private final double tolerance;
+
+    /**
+     * @param method simplification algorithm
+     * @param tolerance distance tolerance in MVT 'extent' units, must be &gt; 0. Use a value &lt; 0.5 to only
+     *                  remove repeated and collinear vertices.
+     */
+    public JtsSimplifier(Method method, double tolerance) {
+        if(!(tolerance > 0d)) {
+            throw new IllegalArgumentException("tolerance must be > 0");
+        }
+
+        this.method = JdkUtils.requireNonNull(method);
+        this.tolerance = tolerance;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    @Override
+    public Geometry simplify(Geometry geom) {
+
+        // Guard: points have no vertices to remove, and VWSimplifier fails on them
+        if(geom instanceof Puntal) {
+            return geom;
+        }
+
+        switch(method) {
+            case DOUGLAS_PEUCKER:
+                return DouglasPeuckerSimplifier.simplify(geom, tolerance);
+            case VISVALINGAM:
+                return VWSimplifier.simplify(geom, tolerance);
+            default:
+                return TopologyPreservingSimplifier.simplify(geom, tolerance);
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.wdtinc.mapbox_vector_tile.adapt.jts;
 
 import org.locationtech.jts.geom.Geometry;
-import com.wdtinc.mapbox_vector_tile.VectorTile;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
-import com.wdtinc.mapbox_vector_tile.build.MvtLayerBuild;
 import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
-import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
+import com.wdtinc.mapbox_vector_tile.compress.TileCompressor;
+import com.wdtinc.mapbox_vector_tile.compress.TileDecompressor;
+import com.wdtinc.mapbox_vector_tile.util.ParallelTasks;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 /**
  * Convenience class allows easy encoding of a {@link JtsMvt} to bytes.
  */
 public final class MvtEncoder {
 
+    /**
+     * Scratch state for layers encoded by {@link #encode(JtsMvt, MvtLayerParams, IUserDataConverter, Executor)},
+     * one per worker thread.
+     */
+    private static final ThreadLocal<MvtEncodingContext> LAYER_CONTEXT = new ThreadLocal<MvtEncodingContext>() {
+        @Override
+        protected MvtEncodingContext initialValue() {
+            return new MvtEncodingContext();
+        }
+    };
+
     /**
      * Encode a {@link JtsMvt} to byte[] ready for writing to a file.
      *
@@ -36,32 +48,142 @@ public final class MvtEncoder {
      * @param mvtLayerParams tile creation parameters
      * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags
      * @return bytes ready for writing to a .mvt
+     * @see MvtWriter
      */
     public static byte[] encode(JtsMvt mvt, MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter) {
+        return new MvtWriter(mvtLayerParams, userDataConverter).encode(mvt);
+    }
 
-        // Build MVT
-        final VectorTile.Tile.Builder tileBuilder = VectorTile.Tile.newBuilder();
+    /**
+     * Encode a {@link JtsMvt} to compressed bytes ready for writing to a file or serving.
+     *
+     * @param mvt input to encode to bytes
+     * @param mvtLayerParams tile creation parameters
+     * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags
+     * @param compressor compression format and level, for example {@link TileCompressor#GZIP}
+     * @return compressed bytes, read back with {@link MvtReader} or {@link TileDecompressor}
+     * @see MvtWriter
+     */
+    public static byte[] encode(JtsMvt mvt, MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter,
+                                TileCompressor compressor) {
+        return compressor.compress(encode(mvt, mvtLayerParams, userDataConverter));
+    }
 
-        for(JtsLayer layer : mvt.getLayers()) {
-            final Collection<Geometry> layerGeoms = layer.getGeometries();
+    /**
+     * Encode a {@link JtsMvt} to byte[] ready for writing to a file, reusing scratch state between tiles.
+     *
+     * @param mvt input to encode to bytes
+     * @param mvtLayerParams tile creation parameters
+     * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags
+     * @param context scratch state, confined to the current thread
+     * @return bytes ready for writing to a .mvt
+     * @see MvtEncodingContext
+     */
+    public static byte[] encode(JtsMvt mvt, MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter,
+                                MvtEncodingContext context) {
+        return new MvtWriter(mvtLayerParams, userDataConverter, context).encode(mvt);
+    }
 
-            // Create MVT layer
-            final VectorTile.Tile.Layer.Builder layerBuilder =
-                    MvtLayerBuild.newLayerBuilder(layer.getName(), mvtLayerParams);
-            final MvtLayerProps layerProps = new MvtLayerProps();
+    /**
+     * <p>Encode a {@link JtsMvt} to byte[], encoding layers concurrently on the common {@link ForkJoinPool}.</p>
+     *
+     * <p>Requires Java 8 or Android API Level 24.</p>
+     *
+     * @param mvt input to encode to bytes
+     * @param mvtLayerParams tile creation parameters
+     * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags, must be thread-safe
+     * @return bytes ready for writing to a .mvt, identical to sequential encoding
+     * @see #encode(JtsMvt, MvtLayerParams, IUserDataConverter, Executor)
+     */
+    public static byte[] encodeParallel(JtsMvt mvt, MvtLayerParams mvtLayerParams,
+                                        IUserDataConverter userDataConverter) {
+        return encode(mvt, mvtLayerParams, userDataConverter, ForkJoinPool.commonPool());
+    }
 
-            // MVT tile geometry to MVT features
-            final List<VectorTile.Tile.Feature> features = JtsAdapter.toFeatures(
-                    layerGeoms, layerProps, userDataConverter);
-            layerBuilder.addAllFeatures(features);
-            MvtLayerBuild.writeProps(layerBuilder, layerProps);
+    /**
+     * <p>Encode a {@link JtsMvt} to byte[], encoding layers concurrently. Each layer has its own key/value
+     * dictionary, so layers are encoded independently and then joined in the original layer order.</p>
+     *
+     * <p>The first layer is encoded on the calling thread while the others run on {@code executor}. Safe to call
+     * from a task running on {@code executor}, see {@link ParallelTasks#invokeAll(List, Executor)}.</p>
+     *
+     * @param mvt input to encode to bytes
+     * @param mvtLayerParams tile creation parameters
+     * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags, must be thread-safe
+     * @param executor runs layer encoding tasks
+     * @return bytes ready for writing to a .mvt, identical to sequential encoding
+     * @throws IllegalStateException if interrupted while waiting for layers
+     */
+    public static byte[] encode(JtsMvt mvt, MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter,
+                                Executor executor) {
+        final List<JtsLayer> layers = new ArrayList<>(mvt.getLayers());
+
+        // Guard: nothing to parallelize
+        if(layers.size() < 2) {
+            return encode(mvt, mvtLayerParams, userDataConverter);
+        }
+
+        final List<LayerTask> tasks = new ArrayList<>(layers.size());
+        for(JtsLayer nextLayer : layers) {
+            tasks.add(new LayerTask(nextLayer, mvtLayerParams, userDataConverter));
+        }
+
+        final List<byte[]> layerBytes;
+        try {
+            layerBytes = ParallelTasks.invokeAll(tasks, executor);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while encoding layers", e);
+
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+
+        int tileSize = 0;
+        for(byte[] nextLayerBytes : layerBytes) {
+            tileSize += nextLayerBytes.length;
+        }
 
-            // Build MVT layer
-            final VectorTile.Tile.Layer vtl = layerBuilder.build();
-            tileBuilder.addLayers(vtl);
+        // Join layers in order
+        final byte[] tileBytes = new byte[tileSize];
+        int offset = 0;
+        for(byte[] nextLayerBytes : layerBytes) {
+            System.arraycopy(nextLayerBytes, 0, tileBytes, offset, nextLayerBytes.length);
+            offset += nextLayerBytes.length;
         }
 
-        // Build MVT
-        return tileBuilder.build().toByteArray();
+        return tileBytes;
+    }
+
+    /**
+     * Encodes one layer with the worker thread's {@link MvtEncodingContext}.
+     */
+    private static final class LayerTask implements Callable<byte[]> {
+        private final JtsLayer layer;
+        private final MvtLayerParams mvtLayerParams;
+        private final IUserDataConverter userDataConverter;
+
+        private LayerTask(JtsLayer layer, MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter) {
+            this.layer = layer;
+            this.mvtLayerParams = mvtLayerParams;
+            this.userDataConverter = userDataConverter;
+        }
+
+        @Override
+        public byte[] call() {
+            return encodeLayer(layer, mvtLayerParams, userDataConverter);
+        }
+    }
+
+    private static byte[] encodeLayer(JtsLayer layer, MvtLayerParams mvtLayerParams,
+                                      IUserDataConverter userDataConverter) {
+        return new MvtWriter(mvtLayerParams, userDataConverter, LAYER_CONTEXT.get()).encodeLayer(layer);
     }
 }
@@ -0,0 +1,131 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.google.protobuf.CodedOutputStream;
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>Reusable scratch state for encoding tiles with {@link MvtWriter}: geometry command buffer, feature tag
+ * builder, layer key/value dictionary and output buffers.</p>
+ *
+ * <p>Buffers grow to fit the largest tile encoded and are kept between tiles, so steady-state encoding
+ * allocates little beyond the returned bytes. Buffers larger than {@link #MAX_RETAINED_BYTES} are released
+ * by {@link #reset()}.</p>
+ *
+ * <p>Instances are thread-confined: use one context per thread, such as a {@link ThreadLocal} or one per
+ * worker, and never share a context between writers in use at the same time.</p>
+ *
+ * @see MvtWriter#MvtWriter(com.wdtinc.mapbox_vector_tile.build.MvtLayerParams, IUserDataConverter,
+ *     MvtEncodingContext)
+ */
+public final class MvtEncodingContext {
+
+    /**
+     * Output buffers larger than this are released on {@link #reset()}, bounding memory held by idle contexts.
+     */
+    public static final int MAX_RETAINED_BYTES = 4 * 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_BYTES = 1024;
+
+    /**
+     * Geometry command scratch buffer, reset per feature.
+     */
+    final GeomCmdBuffer cmdBuffer;
+
+    /**
+     * Encodes source geometry directly to commands for {@link MvtWriter#writeTileLayer}.
+     */
+    final MvtGeometryEncoder geomEncoder;
+
+    /**
+     * Collects tags and id from {@link IUserDataConverter}, cleared per feature.
+     */
+    final VectorTile.Tile.Feature.Builder tagsBuilder;
+
+    /**
+     * Key/value dictionary of the current layer, cleared per layer.
+     */
+    final MvtLayerProps layerProps;
+
+    /**
+     * Encoded features of the current layer. Features must be buffered because the
+     * layer length prefix depends on the key/value dictionary built while encoding them.
+     */
+    ScratchOutputStream featureBytes;
+    CodedOutputStream featureOut;
+
+    /**
+     * Holds encoded tile or layer bytes.
+     */
+    ScratchOutputStream tileBytes;
+    CodedOutputStream tileOut;
+
+    /**
+     * Create an empty context.
+     */
+    public MvtEncodingContext() {
+        this.cmdBuffer = new GeomCmdBuffer();
+        this.geomEncoder = new MvtGeometryEncoder();
+        this.tagsBuilder = VectorTile.Tile.Feature.newBuilder();
+        this.layerProps = new MvtLayerProps();
+        this.featureBytes = new ScratchOutputStream();
+        this.featureOut = CodedOutputStream.newInstance(featureBytes);
+        this.tileBytes = new ScratchOutputStream();
+        this.tileOut = CodedOutputStream.newInstance(tileBytes);
+    }
+
+    /**
+     * Clear all scratch state before encoding another tile. Called automatically by {@link MvtWriter}, but may be
+     * called when a context is returned to a pool to release oversized buffers early.
+     */
+    public void reset() {
+
+        // Discard bytes buffered by an interrupted write
+        try {
+            featureOut.flush();
+            tileOut.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array threw an IOException (should never happen).", e);
+        }
+
+        cmdBuffer.reset();
+        tagsBuilder.clear();
+        layerProps.clear();
+
+        if(featureBytes.capacity() > MAX_RETAINED_BYTES) {
+            featureBytes = new ScratchOutputStream();
+            featureOut = CodedOutputStream.newInstance(featureBytes);
+        } else {
+            featureBytes.reset();
+        }
+
+        if(tileBytes.capacity() > MAX_RETAINED_BYTES) {
+            tileBytes = new ScratchOutputStream();
+            tileOut = CodedOutputStream.newInstance(tileBytes);
+        } else {
+            tileBytes.reset();
+        }
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} with access to the internal buffer to avoid copies.
+     */
+    static final class ScratchOutputStream extends ByteArrayOutputStream {
+
+        private ScratchOutputStream() {
+            super(INITIAL_BUFFER_BYTES);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
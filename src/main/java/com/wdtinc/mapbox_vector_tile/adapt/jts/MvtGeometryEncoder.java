@@ -0,0 +1,558 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmd;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdBuffer;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdHdr;
+import org.locationtech.jts.algorithm.Area;
+import org.locationtech.jts.geom.*;
+
+import java.util.Arrays;
+
+/**
+ * <p>Encodes source geometry in world coordinates directly to MVT geometry commands for one tile. Clipping,
+ * the tile transform, rounding, duplicate removal and command encoding run in one pass over each source
+ * coordinate sequence, without creating intersected or transformed JTS geometry.</p>
+ *
+ * <p>Commands are identical to {@link JtsAdapter#createTileGeom(java.util.List, Envelope, Envelope,
+ * GeometryFactory, MvtLayerParams, IGeometryFilter, IGeometryClipper, IGeometrySimplifier)} with
+ * {@link RectangleClipper}, {@link GridDedupeSimplifier} and a filter accepting all geometry, followed by
+ * encoding the MVT geometry. Use this when {@link TileGeomResult#intGeoms} and {@link TileGeomResult#mvtGeoms}
+ * are not needed.</p>
+ *
+ * <p>Instances keep scratch buffers between calls and are not thread-safe.</p>
+ *
+ * @see MvtWriter#writeTileLayer(String, Iterable, Envelope, Envelope, com.google.protobuf.CodedOutputStream)
+ */
+public final class MvtGeometryEncoder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** World to MVT coordinate transform matrix */
+    private double m00;
+    private double m01;
+    private double m02;
+    private double m10;
+    private double m11;
+    private double m12;
+
+    /** Clip rectangle */
+    private Envelope clipEnvelope;
+    private double minX;
+    private double maxX;
+    private double minY;
+    private double maxY;
+
+    /**
+     * Liang-Barsky segment parameter range.
+     */
+    private final double[] segmentRange;
+
+    /**
+     * Sutherland-Hodgman ring buffers, x, y pairs.
+     */
+    private double[] ringIn;
+    private double[] ringOut;
+
+    /**
+     * Rounded and deduplicated MVT coordinates of the current line or ring, x, y pairs.
+     */
+    private int[] xy;
+    private int xyCount;
+
+    /**
+     * Area in world coordinates of the last ring from {@link #clipRing(LinearRing)}.
+     */
+    private double lastRingArea;
+
+    /**
+     * World coordinate count and last world coordinate of the current line part.
+     */
+    private int partCount;
+    private double partX;
+    private double partY;
+
+    /**
+     * Create an encoder. Call {@link #setTile(Envelope, Envelope, MvtLayerParams)} before encoding.
+     */
+    public MvtGeometryEncoder() {
+        this.segmentRange = new double[2];
+        this.ringIn = new double[INITIAL_CAPACITY * 2];
+        this.ringOut = new double[INITIAL_CAPACITY * 2];
+        this.xy = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Set the tile to encode geometry for.
+     *
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by, see
+     *                     {@link JtsAdapter#createClipEnvelope(Envelope, MvtLayerParams, int)}
+     * @param mvtLayerParams specifies vector tile properties
+     */
+    public void setTile(Envelope tileEnvelope, Envelope clipEnvelope, MvtLayerParams mvtLayerParams) {
+        final double[] m = JtsAdapter.tileTransform(tileEnvelope, mvtLayerParams).getMatrixEntries();
+        this.m00 = m[0];
+        this.m01 = m[1];
+        this.m02 = m[2];
+        this.m10 = m[3];
+        this.m11 = m[4];
+        this.m12 = m[5];
+
+        this.clipEnvelope = new Envelope(clipEnvelope);
+        this.minX = clipEnvelope.getMinX();
+        this.maxX = clipEnvelope.getMaxX();
+        this.minY = clipEnvelope.getMinY();
+        this.maxY = clipEnvelope.getMaxY();
+    }
+
+    /**
+     * <p>Clip, transform and append the MVT geometry commands for a source geometry to {@code cmdBuffer}.</p>
+     *
+     * <p>The buffer cursor should be at the origin for the first geometry of a feature.</p>
+     *
+     * @param geom flat geometry via {@link JtsAdapter#flatFeatureList(Geometry)} in world coordinates
+     * @param cmdBuffer command buffer to append commands to
+     * @return MVT type of the written commands, or
+     *     {@link com.wdtinc.mapbox_vector_tile.VectorTile.Tile.GeomType#UNKNOWN} if nothing was written because
+     *     the geometry is outside the tile, collapsed, or not a supported type
+     */
+    public VectorTile.Tile.GeomType encode(Geometry geom, GeomCmdBuffer cmdBuffer) {
+        if(clipEnvelope == null) {
+            throw new IllegalStateException("setTile must be called before encode");
+        }
+
+        // Guard: UNKNOWN Geometry
+        final VectorTile.Tile.GeomType mvtGeomType = JtsAdapter.toGeomType(geom);
+        if(mvtGeomType == VectorTile.Tile.GeomType.UNKNOWN) {
+            return mvtGeomType;
+        }
+
+        // Guard: outside the clip envelope
+        final Envelope geomEnvelope = geom.getEnvelopeInternal();
+        if(!clipEnvelope.intersects(geomEnvelope)) {
+            return VectorTile.Tile.GeomType.UNKNOWN;
+        }
+
+        final boolean clip = !clipEnvelope.contains(geomEnvelope);
+        final int startSize = cmdBuffer.size();
+
+        switch(mvtGeomType) {
+            case POINT:
+                encodePoints(geom, clip, cmdBuffer);
+                break;
+            case LINESTRING:
+                for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                    encodeLine(((LineString) geom.getGeometryN(i)).getCoordinateSequence(), clip, cmdBuffer);
+                }
+                break;
+            default:
+                for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                    encodePolygon((Polygon) geom.getGeometryN(i), clip, cmdBuffer);
+                }
+                break;
+        }
+
+        return cmdBuffer.size() > startSize ? mvtGeomType : VectorTile.Tile.GeomType.UNKNOWN;
+    }
+
+    private void encodePoints(Geometry geom, boolean clip, GeomCmdBuffer cmdBuffer) {
+        final int startSize = cmdBuffer.size();
+        final int startX = cmdBuffer.getCursorX();
+        final int startY = cmdBuffer.getCursorY();
+        cmdBuffer.ensureCapacity(1 + geom.getNumGeometries() * 2);
+
+        /** Length of 'MoveTo' draw command */
+        int moveCmdLen = 0;
+
+        // Insert placeholder for 'MoveTo' command header
+        final int moveToCmdHdrIndex = cmdBuffer.reserveCmdHdr();
+
+        Point nextPoint;
+        double x;
+        double y;
+        int nextX;
+        int nextY;
+        for(int i = 0; i < geom.getNumGeometries(); ++i) {
+            nextPoint = (Point) geom.getGeometryN(i);
+            if(nextPoint.isEmpty()) {
+                continue;
+            }
+
+            x = nextPoint.getX();
+            y = nextPoint.getY();
+            if(clip && !clipEnvelope.contains(x, y)) {
+                continue;
+            }
+
+            nextX = (int) Math.round(m00 * x + m01 * y + m02);
+            nextY = (int) Math.round(m10 * x + m11 * y + m12);
+
+            // Ignore duplicate MVT points
+            if(moveCmdLen == 0 || !cmdBuffer.isCursorAt(nextX, nextY)) {
+                ++moveCmdLen;
+                cmdBuffer.moveCursor(nextX, nextY);
+            }
+        }
+
+        if(moveCmdLen > 0 && moveCmdLen <= GeomCmdHdr.CMD_HDR_LEN_MAX) {
+
+            // Write 'MoveTo' command header to first index
+            cmdBuffer.setCmdHdr(moveToCmdHdrIndex, GeomCmd.MoveTo, moveCmdLen);
+
+        } else {
+            cmdBuffer.rewind(startSize, startX, startY);
+        }
+    }
+
+    private void encodeLine(CoordinateSequence coords, boolean clip, GeomCmdBuffer cmdBuffer) {
+
+        // Guard: whole line inside
+        if(!clip) {
+            xyCount = 0;
+            for(int i = 0; i < coords.size(); ++i) {
+                addPoint(coords.getX(i), coords.getY(i));
+            }
+            if(coords.size() >= 2) {
+                writeLine(false, false, 1, cmdBuffer);
+            }
+            return;
+        }
+
+        startPart();
+
+        double x0, y0, dx, dy, t0, t1, startX, startY;
+        for(int i = 0; i < coords.size() - 1; ++i) {
+            x0 = coords.getX(i);
+            y0 = coords.getY(i);
+            dx = coords.getX(i + 1) - x0;
+            dy = coords.getY(i + 1) - y0;
+
+            if(!RectangleClipper.clipSegment(x0, y0, dx, dy, minX, maxX, minY, maxY, segmentRange)) {
+                endPart(cmdBuffer);
+                continue;
+            }
+
+            t0 = segmentRange[0];
+            t1 = segmentRange[1];
+
+            // Segment entered the rectangle, or joins the current part
+            startX = t0 == 0d ? x0 : x0 + t0 * dx;
+            startY = t0 == 0d ? y0 : y0 + t0 * dy;
+            if(partCount > 0 && (partX != startX || partY != startY)) {
+                endPart(cmdBuffer);
+            }
+            addPartPoint(startX, startY);
+            addPartPoint(t1 == 1d ? coords.getX(i + 1) : x0 + t1 * dx, t1 == 1d ? coords.getY(i + 1) : y0 + t1 * dy);
+
+            // Segment left the rectangle
+            if(t1 < 1d) {
+                endPart(cmdBuffer);
+            }
+        }
+
+        endPart(cmdBuffer);
+    }
+
+    private void startPart() {
+        partCount = 0;
+        xyCount = 0;
+    }
+
+    /**
+     * Add a world coordinate to the current line part, skipping repeats.
+     */
+    private void addPartPoint(double x, double y) {
+        if(partCount > 0 && partX == x && partY == y) {
+            return;
+        }
+
+        ++partCount;
+        partX = x;
+        partY = y;
+        addPoint(x, y);
+    }
+
+    private void endPart(GeomCmdBuffer cmdBuffer) {
+        if(partCount >= 2) {
+            writeLine(false, false, 1, cmdBuffer);
+        }
+        startPart();
+    }
+
+    private void encodePolygon(Polygon poly, boolean clip, GeomCmdBuffer cmdBuffer) {
+
+        // Guard: polygon outside
+        if(clip && (poly.isEmpty() || !clipEnvelope.intersects(poly.getEnvelopeInternal()))) {
+            return;
+        }
+
+        final int polyStartSize = cmdBuffer.size();
+        final int polyStartX = cmdBuffer.getCursorX();
+        final int polyStartY = cmdBuffer.getCursorY();
+
+        // Exterior ring
+        final LinearRing shell = (LinearRing) poly.getExteriorRing();
+        if(clip ? !clipRing(shell) : !ringPoints(shell.getCoordinateSequence())) {
+            return;
+        }
+
+        // Clipped area in world coordinates, must stay positive after subtracting holes
+        double worldArea = clip ? Math.abs(lastRingArea) : 0d;
+
+        // Guard: shell collapsed after rounding
+        if(xyCount < 4) {
+            return;
+        }
+
+        // Area must be non-zero
+        final double exteriorArea = signedArea(xy, xyCount);
+        if(((int) Math.round(exteriorArea)) == 0) {
+            return;
+        }
+
+        // Check CCW Winding (must be positive area)
+        writeLine(exteriorArea < 0d, true, 2, cmdBuffer);
+
+        // Interior rings
+        LinearRing nextHole;
+        double interiorArea;
+        for(int ringIndex = 0; ringIndex < poly.getNumInteriorRing(); ++ringIndex) {
+            nextHole = (LinearRing) poly.getInteriorRingN(ringIndex);
+            if(clip ? !clipRing(nextHole) : !ringPoints(nextHole.getCoordinateSequence())) {
+                continue;
+            }
+            if(clip) {
+                worldArea -= Math.abs(lastRingArea);
+            }
+
+            // Guard: hole collapsed after rounding
+            if(xyCount > 0 && xyCount < 4) {
+                continue;
+            }
+
+            // Area must be non-zero
+            interiorArea = signedArea(xy, xyCount);
+            if(((int) Math.round(interiorArea)) == 0) {
+                continue;
+            }
+
+            // Interior ring area must be < exterior ring area, or entire geometry is invalid
+            if(Math.abs(exteriorArea) <= Math.abs(interiorArea)) {
+                cmdBuffer.rewind(polyStartSize, polyStartX, polyStartY);
+                return;
+            }
+
+            // Check CW Winding (must be negative area)
+            writeLine(interiorArea > 0d, true, 2, cmdBuffer);
+        }
+
+        // Guard: holes cover the clipped shell
+        if(clip && !(worldArea > 0d)) {
+            cmdBuffer.rewind(polyStartSize, polyStartX, polyStartY);
+        }
+    }
+
+    /**
+     * Transform all coordinates of an unclipped ring into {@link #xy}.
+     *
+     * @return true
+     */
+    private boolean ringPoints(CoordinateSequence coords) {
+        xyCount = 0;
+        for(int i = 0; i < coords.size(); ++i) {
+            addPoint(coords.getX(i), coords.getY(i));
+        }
+        return true;
+    }
+
+    /**
+     * Clip a ring with Sutherland-Hodgman, then transform it into {@link #xy} and set {@link #lastRingArea}.
+     *
+     * @param ring ring to clip
+     * @return false if the ring has no area within the clip envelope
+     */
+    private boolean clipRing(LinearRing ring) {
+
+        // Guard: ring inside
+        if(clipEnvelope.contains(ring.getEnvelopeInternal())) {
+            lastRingArea = Area.ofRing(ring.getCoordinateSequence());
+            return ringPoints(ring.getCoordinateSequence());
+        }
+
+        // Guard: ring outside
+        if(!clipEnvelope.intersects(ring.getEnvelopeInternal())) {
+            return false;
+        }
+
+        final CoordinateSequence coords = ring.getCoordinateSequence();
+
+        // Open ring as x, y pairs
+        int size = coords.size() - 1;
+        ringIn = ensureCapacity(ringIn, (size + 1) * 2);
+        for(int i = 0; i < size; ++i) {
+            ringIn[i * 2] = coords.getX(i);
+            ringIn[i * 2 + 1] = coords.getY(i);
+        }
+
+        double[] swap;
+        for(int edge = RectangleClipper.EDGE_MIN_X; edge <= RectangleClipper.EDGE_MAX_Y && size > 0; ++edge) {
+            ringOut = ensureCapacity(ringOut, (size * 2 + 4) * 2);
+
+            size = RectangleClipper.clipEdge(ringIn, size, ringOut, edge,
+                    RectangleClipper.edgeValue(clipEnvelope, edge));
+
+            swap = ringIn;
+            ringIn = ringOut;
+            ringOut = swap;
+        }
+
+        // Guard: not enough points for a ring, or zero area
+        if(size < 3 || !(Math.abs(RectangleClipper.signedArea(ringIn, size)) > 0d)) {
+            return false;
+        }
+
+        // Closed ring
+        ringIn = ensureCapacity(ringIn, (size + 1) * 2);
+        ringIn[size * 2] = ringIn[0];
+        ringIn[size * 2 + 1] = ringIn[1];
+        lastRingArea = ringArea(ringIn, size + 1);
+
+        xyCount = 0;
+        for(int i = 0; i <= size; ++i) {
+            addPoint(ringIn[i * 2], ringIn[i * 2 + 1]);
+        }
+        return true;
+    }
+
+    /**
+     * Transform and round a world coordinate, then add it to {@link #xy} unless it repeats the last point.
+     */
+    private void addPoint(double x, double y) {
+        final int nextX = (int) Math.round(m00 * x + m01 * y + m02);
+        final int nextY = (int) Math.round(m10 * x + m11 * y + m12);
+
+        if(xyCount > 0 && xy[xyCount * 2 - 2] == nextX && xy[xyCount * 2 - 1] == nextY) {
+            return;
+        }
+
+        if(xy.length < (xyCount + 1) * 2) {
+            xy = Arrays.copyOf(xy, xy.length * 2);
+        }
+        xy[xyCount * 2] = nextX;
+        xy[xyCount * 2 + 1] = nextY;
+        ++xyCount;
+    }
+
+    /**
+     * Write {@link #xy} as a 'MoveTo' and 'LineTo' command sequence. Trailing points equal to the first point are
+     * not written. Nothing is written and the cursor is left unchanged if the line is invalid for encoding.
+     *
+     * @param reverse write points in reverse order
+     * @param closeEnabled whether a 'ClosePath' command should terminate the command list
+     * @param minLineToLen minimum allowed length for the 'LineTo' command
+     * @param cmdBuffer command buffer to append commands to
+     */
+    private void writeLine(boolean reverse, boolean closeEnabled, int minLineToLen, GeomCmdBuffer cmdBuffer) {
+
+        // Guard: collapsed to a point
+        if(xyCount < 2) {
+            return;
+        }
+
+        // Drop repeated end points
+        final int firstIndex = reverse ? xyCount - 1 : 0;
+        int pointCount = xyCount;
+        while(pointCount > 1 && equalsPoint(indexAt(pointCount - 1, reverse), firstIndex)) {
+            --pointCount;
+        }
+
+        // Guard: not enough points for a line
+        if(pointCount < 2) {
+            return;
+        }
+
+        final int startSize = cmdBuffer.size();
+        final int startX = cmdBuffer.getCursorX();
+        final int startY = cmdBuffer.getCursorY();
+        cmdBuffer.ensureCapacity(2 + (closeEnabled ? 1 : 0) + pointCount * 2);
+
+        // Encode initial 'MoveTo' command
+        cmdBuffer.writeCmdHdr(GeomCmd.MoveTo, 1);
+        cmdBuffer.moveCursor(xy[firstIndex * 2], xy[firstIndex * 2 + 1]);
+
+        // Insert placeholder for 'LineTo' command header
+        final int lineToCmdHdrIndex = cmdBuffer.reserveCmdHdr();
+
+        /** Length of 'LineTo' draw command */
+        int lineToLength = 0;
+        int index;
+        for(int i = 1; i < pointCount; ++i) {
+            index = indexAt(i, reverse);
+
+            // Ignore duplicate MVT points in sequence
+            if(!cmdBuffer.isCursorAt(xy[index * 2], xy[index * 2 + 1])) {
+                ++lineToLength;
+                cmdBuffer.moveCursor(xy[index * 2], xy[index * 2 + 1]);
+            }
+        }
+
+        if(lineToLength >= minLineToLen && lineToLength <= GeomCmdHdr.CMD_HDR_LEN_MAX) {
+
+            // Write 'LineTo' 'command header'
+            cmdBuffer.setCmdHdr(lineToCmdHdrIndex, GeomCmd.LineTo, lineToLength);
+
+            if(closeEnabled) {
+                cmdBuffer.writeClosePath();
+            }
+
+        } else {
+            cmdBuffer.rewind(startSize, startX, startY);
+        }
+    }
+
+    private int indexAt(int i, boolean reverse) {
+        return reverse ? xyCount - 1 - i : i;
+    }
+
+    private boolean equalsPoint(int a, int b) {
+        return xy[a * 2] == xy[b * 2] && xy[a * 2 + 1] == xy[b * 2 + 1];
+    }
+
+    private static double[] ensureCapacity(double[] values, int length) {
+        return values.length >= length ? values : Arrays.copyOf(values, Math.max(length, values.length * 2));
+    }
+
+    /**
+     * Signed area of a closed ring of integer points, as {@link Area#ofRingSigned(Coordinate[])}.
+     */
+    private static double signedArea(int[] ring, int count) {
+        if(count < 3) {
+            return 0d;
+        }
+
+        final double x0 = ring[0];
+        double sum = 0d;
+        for(int i = 1; i < count - 1; ++i) {
+            sum += (ring[i * 2] - x0) * (ring[i * 2 - 1] - ring[i * 2 + 3]);
+        }
+        return sum / 2d;
+    }
+
+    /**
+     * Area of a closed ring of world coordinates, as {@link Area#ofRing(CoordinateSequence)}.
+     */
+    private static double ringArea(double[] ring, int count) {
+        if(count < 3) {
+            return 0d;
+        }
+
+        final double x0 = ring[0];
+        double sum = 0d;
+        for(int i = 1; i < count - 1; ++i) {
+            sum += (ring[i * 2] - x0) * (ring[i * 2 - 1] - ring[i * 2 + 3]);
+        }
+        return Math.abs(sum / 2d);
+    }
+}
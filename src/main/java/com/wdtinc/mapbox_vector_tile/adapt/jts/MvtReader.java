@@ -8,15 +8,38 @@ import com.wdtinc.mapbox_vector_tile.encoding.GeomCmd;
 import com.wdtinc.mapbox_vector_tile.VectorTile;
 import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdHdr;
 import com.wdtinc.mapbox_vector_tile.encoding.ZigZag;
+import com.wdtinc.mapbox_vector_tile.read.FeatureProjection;
+import com.wdtinc.mapbox_vector_tile.read.FeaturePredicates;
+import com.wdtinc.mapbox_vector_tile.read.IFeaturePredicate;
+import com.wdtinc.mapbox_vector_tile.read.ILayerFeaturePredicate;
+import com.wdtinc.mapbox_vector_tile.read.IntArrayScratch;
+import com.wdtinc.mapbox_vector_tile.read.LazyFeature;
+import com.wdtinc.mapbox_vector_tile.read.LazyLayer;
+import com.wdtinc.mapbox_vector_tile.read.LazyMvt;
+import com.wdtinc.mapbox_vector_tile.read.MalformedMvtException;
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+import com.wdtinc.mapbox_vector_tile.util.ParallelTasks;
 import com.wdtinc.mapbox_vector_tile.util.Vec2d;
+import com.google.protobuf.InvalidProtocolBufferException;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Load Mapbox Vector Tiles (MVT) to JTS {@link Geometry}. Feature tags may be converted
@@ -29,6 +52,11 @@ public final class MvtReader {
     private static final int MIN_LINE_STRING_LEN = 6; // MoveTo,1 + LineTo,1
     private static final int MIN_POLYGON_LEN = 9; // MoveTo,1 + LineTo,2 + ClosePath
 
+    /**
+     * Maximum count of features decoded by one task when loading in parallel.
+     */
+    static final int PARALLEL_RANGE_SIZE = 512;
+
     /**
      * Convenience method for loading MVT from file.
      * See {@link #loadMvt(InputStream, GeometryFactory, ITagConverter, RingClassifier)}.
@@ -69,13 +97,7 @@ public final class MvtReader {
                                  GeometryFactory geomFactory,
                                  ITagConverter tagConverter,
                                  RingClassifier ringClassifier) throws IOException {
-        final JtsMvt jtsMvt;
-
-        try(final InputStream is = new FileInputStream(file)) {
-            jtsMvt = loadMvt(is, geomFactory, tagConverter, ringClassifier);
-        }
-
-        return jtsMvt;
+        return loadMvt(LazyMvt.open(file), geomFactory, tagConverter, ringClassifier);
     }
 
     /**
@@ -115,20 +137,472 @@ public final class MvtReader {
                                  GeometryFactory geomFactory,
                                  ITagConverter tagConverter,
                                  RingClassifier ringClassifier) throws IOException {
+        return loadMvt(LazyMvt.open(readAllBytes(is)), geomFactory, tagConverter, ringClassifier);
+    }
+
+    /**
+     * Load an MVT to JTS geometries using coordinates. Uses {@code tagConverter} to create user data
+     * from feature properties.
+     *
+     * @param buffer MVT bytes between the buffer position and limit, may be memory-mapped
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object.
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @return JTS MVT with geometry in MVT coordinates
+     * @throws IOException failure reading MVT from buffer
+     * @see LazyMvt#open(ByteBuffer)
+     */
+    public static JtsMvt loadMvt(ByteBuffer buffer,
+                                 GeometryFactory geomFactory,
+                                 ITagConverter tagConverter,
+                                 RingClassifier ringClassifier) throws IOException {
+        return loadMvt(LazyMvt.open(buffer), geomFactory, tagConverter, ringClassifier);
+    }
+
+    /**
+     * Load all layers of a lazily opened MVT to JTS geometries using coordinates.
+     * Uses {@code tagConverter} to create user data from feature properties.
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object.
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @return JTS MVT with geometry in MVT coordinates
+     * @throws IOException failure decoding MVT
+     * @see #loadMvt(LazyMvt, GeometryFactory, ITagConverter, RingClassifier, Collection)
+     */
+    public static JtsMvt loadMvt(LazyMvt mvt,
+                                 GeometryFactory geomFactory,
+                                 ITagConverter tagConverter,
+                                 RingClassifier ringClassifier) throws IOException {
+        return loadMvt(mvt, geomFactory, tagConverter, ringClassifier, FeaturePredicates.ALL);
+    }
+
+    /**
+     * Load selected layers of a lazily opened MVT to JTS geometries using coordinates.
+     * Uses {@code tagConverter} to create user data from feature properties.
+     *
+     * <p>Layers not named in {@code layerNames} are skipped without decoding their features, keys or values.</p>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object.
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @param layerNames names of layers to load, must not be null
+     * @return JTS MVT with geometry in MVT coordinates, containing only the selected layers
+     * @throws IOException failure decoding MVT
+     * @see #loadMvt(LazyMvt, GeometryFactory, ITagConverter, RingClassifier)
+     */
+    public static JtsMvt loadMvt(LazyMvt mvt,
+                                 GeometryFactory geomFactory,
+                                 ITagConverter tagConverter,
+                                 RingClassifier ringClassifier,
+                                 Collection<String> layerNames) throws IOException {
+        return loadMvt(mvt, geomFactory, tagConverter, ringClassifier, FeaturePredicates.layer(layerNames));
+    }
+
+    /**
+     * <p>Load selected features of a lazily opened MVT to JTS geometries using coordinates.
+     * Uses {@code tagConverter} to create user data from feature properties.</p>
+     *
+     * <p>The predicate is bound once per layer, then tested on each feature's geometry type, id and tag indexes
+     * before its geometry is decoded or {@code tagConverter} is called. Layers for which the predicate binds to
+     * {@link FeaturePredicates#REJECT_ALL} are skipped without reading their features and are not included in
+     * the result.</p>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object.
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @param predicate selects the features to load
+     * @return JTS MVT with geometry in MVT coordinates, containing only the selected features
+     * @throws IOException failure decoding MVT
+     * @see FeaturePredicates
+     */
+    public static JtsMvt loadMvt(LazyMvt mvt,
+                                 GeometryFactory geomFactory,
+                                 ITagConverter tagConverter,
+                                 RingClassifier ringClassifier,
+                                 IFeaturePredicate predicate) throws IOException {
+        return loadMvt(mvt, geomFactory, tagConverter, ringClassifier, predicate, FeatureProjection.ALL);
+    }
+
+    /**
+     * <p>Load selected fields of selected features of a lazily opened MVT to JTS geometries using coordinates.
+     * Features are selected as by {@link #loadMvt(LazyMvt, GeometryFactory, ITagConverter, RingClassifier,
+     * IFeaturePredicate)}.</p>
+     *
+     * <p>Fields not selected by {@code projection} are not decoded:</p>
+     * <ul>
+     *     <li>Without id, {@code tagConverter} receives a null id.</li>
+     *     <li>Without tags, {@code tagConverter} receives no tags. With tag keys, it receives only tags with
+     *     those keys.</li>
+     *     <li>Without id and tags, {@code tagConverter} is not called and user data is null.</li>
+     *     <li>Without geometry, each feature is an empty Point, LineString or Polygon of its geometry type
+     *     holding the user data. Features with invalid geometry commands are not detected and are included.</li>
+     * </ul>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object.
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @param predicate selects the features to load
+     * @param projection selects the feature fields to load
+     * @return JTS MVT with geometry in MVT coordinates, containing only the selected features
+     * @throws IOException failure decoding MVT
+     * @see FeatureProjection
+     */
+    public static JtsMvt loadMvt(LazyMvt mvt,
+                                 GeometryFactory geomFactory,
+                                 ITagConverter tagConverter,
+                                 RingClassifier ringClassifier,
+                                 IFeaturePredicate predicate,
+                                 FeatureProjection projection) throws IOException {
+        JdkUtils.requireNonNull(predicate);
+        JdkUtils.requireNonNull(projection);
+
+        final List<JtsLayer> jtsLayers = new ArrayList<>(mvt.getLayerCount());
+
+        try {
+            for(LazyLayer nextLayer : mvt.getLayers()) {
+                final LayerReader layerReader = LayerReader.bind(nextLayer, geomFactory, tagConverter, ringClassifier,
+                        predicate, projection);
+
+                // Guard: no feature of the layer selected
+                if(layerReader == null) {
+                    continue;
+                }
+
+                final int featureCount = nextLayer.getFeatureCount();
+                final List<Geometry> layerGeoms = new ArrayList<>(featureCount);
+                layerReader.read(0, featureCount, layerGeoms);
+                jtsLayers.add(new JtsLayer(nextLayer.getName(), layerGeoms));
+            }
+
+        } catch (MalformedMvtException e) {
+            throw invalidTile(e);
+        }
+
+
+        return new JtsMvt(jtsLayers);
+    }
+
+    /**
+     * <p>Load all layers of a lazily opened MVT, decoding features concurrently on the common
+     * {@link ForkJoinPool}.</p>
+     *
+     * <p>Requires Java 8 or Android API Level 24.</p>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object, must be thread-safe
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @return JTS MVT with geometry in MVT coordinates, equal to sequential loading
+     * @throws IOException failure decoding MVT
+     * @see #loadMvt(LazyMvt, GeometryFactory, ITagConverter, RingClassifier, IFeaturePredicate, FeatureProjection,
+     *     Executor)
+     */
+    public static JtsMvt loadMvtParallel(LazyMvt mvt,
+                                         GeometryFactory geomFactory,
+                                         ITagConverter tagConverter,
+                                         RingClassifier ringClassifier) throws IOException {
+        return loadMvt(mvt, geomFactory, tagConverter, ringClassifier, FeaturePredicates.ALL, FeatureProjection.ALL,
+                ForkJoinPool.commonPool());
+    }
 
-        final VectorTile.Tile mvt = VectorTile.Tile.parseFrom(is);
-        final Vec2d cursor = new Vec2d();
-        final List<JtsLayer> jtsLayers = new ArrayList<>(mvt.getLayersList().size());
+    /**
+     * <p>Load selected fields of selected features of a lazily opened MVT, decoding features concurrently.
+     * Features and fields are selected as by {@link #loadMvt(LazyMvt, GeometryFactory, ITagConverter,
+     * RingClassifier, IFeaturePredicate, FeatureProjection)}.</p>
+     *
+     * <p>Predicates are bound to each layer on the calling thread. Layers are then split into ranges of up to
+     * {@value #PARALLEL_RANGE_SIZE} features, which are decoded independently and joined in the original layer and
+     * feature order. The first range is decoded on the calling thread while the others run on
+     * {@code executor}. Safe to call from a task running on {@code executor}, see
+     * {@link ParallelTasks#invokeAll(List, Executor)}.</p>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object, must be thread-safe
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @param predicate selects the features to load, bound predicates must be thread-safe
+     * @param projection selects the feature fields to load
+     * @param executor runs feature range decoding tasks
+     * @return JTS MVT with geometry in MVT coordinates, equal to sequential loading
+     * @throws IOException failure decoding MVT, or interrupted while waiting for feature ranges
+     */
+    public static JtsMvt loadMvt(LazyMvt mvt,
+                                 GeometryFactory geomFactory,
+                                 ITagConverter tagConverter,
+                                 RingClassifier ringClassifier,
+                                 IFeaturePredicate predicate,
+                                 FeatureProjection projection,
+                                 Executor executor) throws IOException {
+        JdkUtils.requireNonNull(predicate);
+        JdkUtils.requireNonNull(projection);
+        JdkUtils.requireNonNull(executor);
+
+        final List<LazyLayer> layers = new ArrayList<>(mvt.getLayerCount());
+        final List<RangeTask> ranges = new ArrayList<>();
+
+        try {
+            for(LazyLayer nextLayer : mvt.getLayers()) {
+                final LayerReader layerReader = LayerReader.bind(nextLayer, geomFactory, tagConverter, ringClassifier,
+                        predicate, projection);
+
+                // Guard: no feature of the layer selected
+                if(layerReader == null) {
+                    continue;
+                }
 
-        for(VectorTile.Tile.Layer nextLayer : mvt.getLayersList()) {
+                layers.add(nextLayer);
+                final int featureCount = nextLayer.getFeatureCount();
+                int from = 0;
+                do {
+                    final int to = (int) Math.min((long) from + PARALLEL_RANGE_SIZE, featureCount);
+                    ranges.add(new RangeTask(layers.size() - 1, layerReader, from, to));
+                    from = to;
+                } while(from < featureCount);
+            }
 
-            final List<String> keysList = nextLayer.getKeysList();
-            final List<VectorTile.Tile.Value> valuesList = nextLayer.getValuesList();
-            final List<Geometry> layerGeoms = new ArrayList<>(nextLayer.getFeaturesList().size());
+        } catch (MalformedMvtException e) {
+            throw invalidTile(e);
+        }
 
-            for(VectorTile.Tile.Feature nextFeature : nextLayer.getFeaturesList()) {
+        final List<List<Geometry>> layerGeoms = new ArrayList<>(layers.size());
+        for(int i = 0; i < layers.size(); ++i) {
+            layerGeoms.add(new ArrayList<Geometry>());
+        }
 
-                final Long id = nextFeature.hasId() ? nextFeature.getId() : null;
+        try {
+            if(!ranges.isEmpty()) {
+                final List<List<Geometry>> rangeGeoms = ParallelTasks.invokeAll(ranges, executor);
+                for(int i = 0; i < ranges.size(); ++i) {
+                    layerGeoms.get(ranges.get(i).layerIndex).addAll(rangeGeoms.get(i));
+                }
+            }
+
+        } catch (MalformedMvtException e) {
+            throw invalidTile(e);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decoding features");
+
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof MalformedMvtException) {
+                throw invalidTile((MalformedMvtException) cause);
+            } else if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+
+        final List<JtsLayer> jtsLayers = new ArrayList<>(layers.size());
+        for(int i = 0; i < layers.size(); ++i) {
+            jtsLayers.add(new JtsLayer(layers.get(i).getName(), layerGeoms.get(i)));
+        }
+        return new JtsMvt(jtsLayers);
+    }
+
+    /**
+     * Convenience method for streaming an MVT from an input stream.
+     * Uses {@link #RING_CLASSIFIER_V2_1} for forming Polygons and MultiPolygons.
+     *
+     * @param is stream with MVT data
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object
+     * @param visitor receives layer and feature events
+     * @throws IOException failure reading MVT from stream
+     * @see #stream(LazyMvt, GeometryFactory, ITagConverter, RingClassifier, IMvtFeatureVisitor)
+     */
+    public static void stream(InputStream is,
+                              GeometryFactory geomFactory,
+                              ITagConverter tagConverter,
+                              IMvtFeatureVisitor visitor) throws IOException {
+        stream(LazyMvt.open(readAllBytes(is)), geomFactory, tagConverter, RING_CLASSIFIER_V2_1, visitor);
+    }
+
+    /**
+     * <p>Stream the layers and features of a lazily opened MVT to a visitor, without accumulating decoded
+     * geometry. Each feature is passed as a {@link DecodedFeature} whose geometry and user data are converted
+     * only when requested, so memory use does not grow with the size of the tile.</p>
+     *
+     * <p>Features with {@link VectorTile.Tile.GeomType#UNKNOWN} geometry type are skipped, as by
+     * {@link #loadMvt(LazyMvt, GeometryFactory, ITagConverter, RingClassifier)}.</p>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @param visitor receives layer and feature events, exceptions it throws are propagated unchanged
+     * @throws IOException failure decoding MVT, including while the visitor decodes a feature
+     */
+    public static void stream(LazyMvt mvt,
+                              GeometryFactory geomFactory,
+                              ITagConverter tagConverter,
+                              RingClassifier ringClassifier,
+                              IMvtFeatureVisitor visitor) throws IOException {
+        JdkUtils.requireNonNull(visitor);
+
+        try {
+            for(LazyLayer nextLayer : mvt.getLayers()) {
+
+                // Guard: layer skipped by visitor
+                if(!visitor.visitLayerStart(nextLayer)) {
+                    continue;
+                }
+
+                final int featureCount = nextLayer.getFeatureCount();
+                LazyFeature nextFeature;
+
+                for(int i = 0; i < featureCount; ++i) {
+                    nextFeature = nextLayer.getFeature(i);
+
+                    if(nextFeature.getType() != VectorTile.Tile.GeomType.UNKNOWN) {
+                        visitor.visitFeature(new DecodedFeature(nextLayer, nextFeature, geomFactory, tagConverter,
+                                ringClassifier));
+                    }
+                }
+
+                visitor.visitLayerEnd(nextLayer);
+            }
+
+        } catch (MalformedMvtException e) {
+            throw invalidTile(e);
+        }
+    }
+
+    /**
+     * <p>Create a {@link Stream} of the features of a lazily opened MVT, in layer and feature order. Each feature
+     * is a {@link DecodedFeature} whose geometry and user data are converted only when requested.</p>
+     *
+     * <p>The stream is backed by a {@link Spliterator} that is {@link Spliterator#SIZED SIZED} and
+     * {@link Spliterator#SUBSIZED SUBSIZED}, so {@link Stream#parallel()} pipelines split it evenly across
+     * threads. To keep sizes exact, features with {@link VectorTile.Tile.GeomType#UNKNOWN} geometry type are
+     * included. Layer offsets are indexed when the stream is created.</p>
+     *
+     * <p>Requires Java 8 or Android API Level 24.</p>
+     *
+     * @param mvt lazy MVT view
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object, must be thread-safe for parallel
+     *     streams
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @return sequential stream of features, malformed features throw {@link java.io.UncheckedIOException}
+     * @throws IOException failure indexing MVT layers
+     */
+    public static Stream<DecodedFeature> streamFeatures(LazyMvt mvt,
+                                                        GeometryFactory geomFactory,
+                                                        ITagConverter tagConverter,
+                                                        RingClassifier ringClassifier) throws IOException {
+        return streamFeatures(Collections.singletonList(mvt), geomFactory, tagConverter, ringClassifier);
+    }
+
+    /**
+     * Create a {@link Stream} of the features of many lazily opened MVTs, in tile, layer and feature order.
+     * Features of all tiles are numbered consecutively so the stream splits evenly across tile boundaries.
+     *
+     * @param mvts lazy MVT views
+     * @param geomFactory allows for JTS geometry creation
+     * @param tagConverter converts MVT feature tags to JTS user data object, must be thread-safe for parallel
+     *     streams
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @return sequential stream of features, malformed features throw {@link java.io.UncheckedIOException}
+     * @throws IOException failure indexing MVT layers
+     * @see #streamFeatures(LazyMvt, GeometryFactory, ITagConverter, RingClassifier)
+     */
+    public static Stream<DecodedFeature> streamFeatures(Collection<LazyMvt> mvts,
+                                                        GeometryFactory geomFactory,
+                                                        ITagConverter tagConverter,
+                                                        RingClassifier ringClassifier) throws IOException {
+        final List<LazyLayer> layers = new ArrayList<>();
+        for(LazyMvt nextMvt : mvts) {
+            layers.addAll(nextMvt.getLayers());
+        }
+
+        try {
+            return StreamSupport.stream(new DecodedFeatureSpliterator(layers.toArray(new LazyLayer[0]), geomFactory,
+                    tagConverter, ringClassifier), false);
+
+        } catch (MalformedMvtException e) {
+            throw invalidTile(e);
+        }
+    }
+
+    /**
+     * Reads features of one layer with a bound predicate and projection. Stateless between calls, so ranges of
+     * the same layer may be read concurrently.
+     */
+    private static final class LayerReader {
+        private final LazyLayer layer;
+        private final GeometryFactory geomFactory;
+        private final ITagConverter tagConverter;
+        private final RingClassifier ringClassifier;
+        private final ILayerFeaturePredicate layerPredicate;
+        private final boolean readId;
+        private final boolean readTags;
+        private final boolean readGeometry;
+
+        /**
+         * True if tags are projected or may be tested by the predicate.
+         */
+        private final boolean decodeTags;
+
+        /**
+         * Projected tag keys, or null for all keys.
+         */
+        private final boolean[] keyMask;
+
+        private final List<String> keysList;
+        private final List<VectorTile.Tile.Value> valuesList;
+
+        private LayerReader(LazyLayer layer, GeometryFactory geomFactory, ITagConverter tagConverter,
+                            RingClassifier ringClassifier, ILayerFeaturePredicate layerPredicate,
+                            FeatureProjection projection) {
+            this.layer = layer;
+            this.geomFactory = geomFactory;
+            this.tagConverter = tagConverter;
+            this.ringClassifier = ringClassifier;
+            this.layerPredicate = layerPredicate;
+            this.readId = projection.isIdIncluded();
+            this.readTags = projection.isTagsIncluded();
+            this.readGeometry = projection.isGeometryIncluded();
+            this.decodeTags = readTags || layerPredicate != FeaturePredicates.ACCEPT_ALL;
+            this.keyMask = projection.bindTagKeys(layer);
+            this.keysList = layer.getKeys();
+            this.valuesList = layer.getValues();
+        }
+
+        /**
+         * @return reader for the layer, or null if the predicate selects no feature of the layer
+         */
+        static LayerReader bind(LazyLayer layer, GeometryFactory geomFactory, ITagConverter tagConverter,
+                                RingClassifier ringClassifier, IFeaturePredicate predicate,
+                                FeatureProjection projection) {
+            final ILayerFeaturePredicate layerPredicate = predicate.bind(layer);
+            return layerPredicate == FeaturePredicates.REJECT_ALL ? null
+                    : new LayerReader(layer, geomFactory, tagConverter, ringClassifier, layerPredicate, projection);
+        }
+
+        /**
+         * @param from first feature index, inclusive
+         * @param to last feature index, exclusive
+         * @param out receives selected features, in layer order
+         */
+        void read(int from, int to, List<Geometry> out) {
+            final Vec2d cursor = new Vec2d();
+            final IntArrayScratch geomScratch = new IntArrayScratch();
+            final IntArrayScratch tagsScratch = new IntArrayScratch();
+            LazyFeature nextFeature = null;
+
+            final boolean copyTags = tagConverter.isTagsRetained();
+
+            for(int i = from; i < to; ++i) {
+                nextFeature = nextFeature == null ? layer.getFeature(i) : layer.getFeature(i, nextFeature);
 
                 final VectorTile.Tile.GeomType geomType = nextFeature.getType();
 
@@ -136,23 +610,117 @@ public final class MvtReader {
                     continue;
                 }
 
-                final List<Integer> geomCmds = nextFeature.getGeometryList();
-                cursor.set(0d, 0d);
-                final Geometry nextGeom = readGeometry(geomCmds, geomType, geomFactory, cursor, ringClassifier);
-                if(nextGeom != null) {
-                    nextGeom.setUserData(tagConverter.toUserData(id, nextFeature.getTagsList(), keysList, valuesList));
-                    layerGeoms.add(nextGeom);
+                // Guard: feature not selected
+                if(decodeTags) {
+                    nextFeature.getTags(tagsScratch);
                 }
+                if(!layerPredicate.accept(nextFeature, tagsScratch)) {
+                    continue;
+                }
+
+                final Geometry nextGeom;
+                if(readGeometry) {
+                    nextFeature.getGeometry(geomScratch);
+                    cursor.set(0d, 0d);
+                    nextGeom = readGeometry(geomScratch.array(), geomScratch.size(), geomType, geomFactory,
+                            cursor, ringClassifier);
+                    if(nextGeom == null) {
+                        continue;
+                    }
+                } else {
+                    nextGeom = createEmptyGeometry(geomType, geomFactory);
+                }
+
+                if(readId || readTags) {
+                    final Long id = readId && nextFeature.hasId() ? nextFeature.getId() : null;
+                    final List<Integer> tags;
+                    if(readTags) {
+                        FeatureProjection.retainTags(tagsScratch, keyMask);
+                        tags = copyTags ? tagsScratch.toList() : tagsScratch.asList();
+                    } else {
+                        tags = Collections.emptyList();
+                    }
+                    nextGeom.setUserData(tagConverter.toUserData(id, tags, keysList, valuesList));
+                }
+                out.add(nextGeom);
             }
+        }
+    }
 
-            jtsLayers.add(new JtsLayer(nextLayer.getName(), layerGeoms));
+    /**
+     * Reads a range of features of one layer.
+     */
+    private static final class RangeTask implements Callable<List<Geometry>> {
+
+        /**
+         * Index of the layer among the layers being loaded.
+         */
+        private final int layerIndex;
+
+        private final LayerReader layerReader;
+        private final int from;
+        private final int to;
+
+        private RangeTask(int layerIndex, LayerReader layerReader, int from, int to) {
+            this.layerIndex = layerIndex;
+            this.layerReader = layerReader;
+            this.from = from;
+            this.to = to;
         }
 
+        @Override
+        public List<Geometry> call() {
+            final List<Geometry> geoms = new ArrayList<>(to - from);
+            layerReader.read(from, to, geoms);
+            return geoms;
+        }
+    }
 
-        return new JtsMvt(jtsLayers);
+    /**
+     * @param e malformed data found by the lazy reader
+     * @return checked exception for a corrupt tile, caused by {@code e}
+     */
+    static InvalidProtocolBufferException invalidTile(MalformedMvtException e) {
+        return (InvalidProtocolBufferException) new InvalidProtocolBufferException(e.getMessage()).initCause(e);
     }
 
-    private static Geometry readGeometry(List<Integer> geomCmds,
+    /**
+     * Read all remaining bytes from a stream.
+     *
+     * @param is stream to read, not closed by this method
+     * @return stream contents
+     * @throws IOException failure reading from stream
+     */
+    private static byte[] readAllBytes(InputStream is) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(is.available(), 8192));
+        final byte[] readBuffer = new byte[8192];
+
+        int readCount;
+        while((readCount = is.read(readBuffer)) != -1) {
+            bytes.write(readBuffer, 0, readCount);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Create JTS geometry from MVT geometry drawing commands, starting from the MVT origin.
+     *
+     * @param geomCmds contains MVT geometry commands
+     * @param geomType MVT geometry type
+     * @param geomFactory creates JTS geometry
+     * @param ringClassifier determines how rings are parsed into Polygons and MultiPolygons
+     * @return JTS geometry or null on failure
+     */
+    static Geometry readGeometry(int[] geomCmds,
+                                 VectorTile.Tile.GeomType geomType,
+                                 GeometryFactory geomFactory,
+                                 RingClassifier ringClassifier) {
+        return readGeometry(geomCmds, geomCmds.length, geomType, geomFactory, new Vec2d(), ringClassifier);
+    }
+
+    private static Geometry readGeometry(int[] geomCmds,
+                                         int cmdCount,
                                          VectorTile.Tile.GeomType geomType,
                                          GeometryFactory geomFactory,
                                          Vec2d cursor,
@@ -161,13 +729,13 @@ public final class MvtReader {
 
         switch(geomType) {
             case POINT:
-                result = readPoints(geomFactory, geomCmds, cursor);
+                result = readPoints(geomFactory, geomCmds, cmdCount, cursor);
                 break;
             case LINESTRING:
-                result = readLines(geomFactory, geomCmds, cursor);
+                result = readLines(geomFactory, geomCmds, cmdCount, cursor);
                 break;
             case POLYGON:
-                result = readPolys(geomFactory, geomCmds, cursor, ringClassifier);
+                result = readPolys(geomFactory, geomCmds, cmdCount, cursor, ringClassifier);
                 break;
             default:
                 LoggerFactory.getLogger(MvtReader.class).error("readGeometry(): Unhandled geometry type [{}]", geomType);
@@ -176,18 +744,37 @@ public final class MvtReader {
         return result;
     }
 
+    /**
+     * @param geomType MVT geometry type
+     * @param geomFactory creates JTS geometry
+     * @return empty geometry of the matching JTS type, holding user data for features read without geometry
+     */
+    private static Geometry createEmptyGeometry(VectorTile.Tile.GeomType geomType, GeometryFactory geomFactory) {
+        switch(geomType) {
+            case POINT:
+                return geomFactory.createPoint((CoordinateSequence) null);
+            case LINESTRING:
+                return geomFactory.createLineString((CoordinateSequence) null);
+            case POLYGON:
+                return geomFactory.createPolygon((LinearRing) null);
+            default:
+                return geomFactory.createGeometryCollection(null);
+        }
+    }
+
     /**
      * Create {@link Point} or {@link MultiPoint} from MVT geometry drawing commands.
      *
      * @param geomFactory creates JTS geometry
      * @param geomCmds contains MVT geometry commands
+     * @param cmdCount count of valid commands in {@code geomCmds}
      * @param cursor contains current MVT extent position
      * @return JTS geometry or null on failure
      */
-    private static Geometry readPoints(GeometryFactory geomFactory, List<Integer> geomCmds, Vec2d cursor) {
+    private static Geometry readPoints(GeometryFactory geomFactory, int[] geomCmds, int cmdCount, Vec2d cursor) {
 
         // Guard: must have header
-        if(geomCmds.isEmpty()) {
+        if(cmdCount == 0) {
             return null;
         }
 
@@ -195,7 +782,7 @@ public final class MvtReader {
         int i = 0;
 
         // Read command header
-        final int cmdHdr = geomCmds.get(i++);
+        final int cmdHdr = geomCmds[i++];
         final int cmdLength = GeomCmdHdr.getCmdLength(cmdHdr);
         final GeomCmd cmd = GeomCmdHdr.getCmd(cmdHdr);
 
@@ -211,23 +798,21 @@ public final class MvtReader {
 
         // Guard: header data unsupported by geometry command buffer
         //  (require header and at least 1 value * 2 params)
-        if(cmdLength * GeomCmd.MoveTo.getParamCount() + 1 > geomCmds.size()) {
+        if(cmdLength * GeomCmd.MoveTo.getParamCount() + 1 > cmdCount) {
             return null;
         }
 
         final CoordinateSequence coordSeq = geomFactory.getCoordinateSequenceFactory().create(cmdLength, 2);
         int coordIndex = 0;
-        Coordinate nextCoord;
 
-        while(i < geomCmds.size() - 1) {
+        while(i < cmdCount - 1) {
             cursor.add(
-                    ZigZag.decode(geomCmds.get(i++)),
-                    ZigZag.decode(geomCmds.get(i++))
+                    ZigZag.decode(geomCmds[i++]),
+                    ZigZag.decode(geomCmds[i++])
             );
 
-            nextCoord = coordSeq.getCoordinate(coordIndex++);
-            nextCoord.setOrdinate(0, cursor.x);
-            nextCoord.setOrdinate(1, cursor.y);
+            coordSeq.setOrdinate(coordIndex, CoordinateSequence.X, cursor.x);
+            coordSeq.setOrdinate(coordIndex++, CoordinateSequence.Y, cursor.y);
         }
 
         return coordSeq.size() == 1 ? geomFactory.createPoint(coordSeq) : geomFactory.createMultiPoint(coordSeq);
@@ -238,13 +823,14 @@ public final class MvtReader {
      *
      * @param geomFactory creates JTS geometry
      * @param geomCmds contains MVT geometry commands
+     * @param cmdCount count of valid commands in {@code geomCmds}
      * @param cursor contains current MVT extent position
      * @return JTS geometry or null on failure
      */
-    private static Geometry readLines(GeometryFactory geomFactory, List<Integer> geomCmds, Vec2d cursor) {
+    private static Geometry readLines(GeometryFactory geomFactory, int[] geomCmds, int cmdCount, Vec2d cursor) {
 
         // Guard: must have header
-        if(geomCmds.isEmpty()) {
+        if(cmdCount == 0) {
             return null;
         }
 
@@ -256,16 +842,15 @@ public final class MvtReader {
         GeomCmd cmd;
         List<LineString> geoms = new ArrayList<>(1);
         CoordinateSequence nextCoordSeq;
-        Coordinate nextCoord;
 
-        while(i <= geomCmds.size() - MIN_LINE_STRING_LEN) {
+        while(i <= cmdCount - MIN_LINE_STRING_LEN) {
 
             // --------------------------------------------
             // Expected: MoveTo command of length 1
             // --------------------------------------------
 
             // Read command header
-            cmdHdr = geomCmds.get(i++);
+            cmdHdr = geomCmds[i++];
             cmdLength = GeomCmdHdr.getCmdLength(cmdHdr);
             cmd = GeomCmdHdr.getCmd(cmdHdr);
 
@@ -276,8 +861,8 @@ public final class MvtReader {
 
             // Update cursor position with relative move
             cursor.add(
-                    ZigZag.decode(geomCmds.get(i++)),
-                    ZigZag.decode(geomCmds.get(i++))
+                    ZigZag.decode(geomCmds[i++]),
+                    ZigZag.decode(geomCmds[i++])
             );
 
 
@@ -286,7 +871,7 @@ public final class MvtReader {
             // --------------------------------------------
 
             // Read command header
-            cmdHdr = geomCmds.get(i++);
+            cmdHdr = geomCmds[i++];
             cmdLength = GeomCmdHdr.getCmdLength(cmdHdr);
             cmd = GeomCmdHdr.getCmd(cmdHdr);
 
@@ -297,29 +882,27 @@ public final class MvtReader {
 
             // Guard: header data length unsupported by geometry command buffer
             //  (require at least (1 value * 2 params) + current_index)
-            if((cmdLength * GeomCmd.LineTo.getParamCount()) + i > geomCmds.size()) {
+            if((cmdLength * GeomCmd.LineTo.getParamCount()) + i > cmdCount) {
                 break;
             }
 
             nextCoordSeq = geomFactory.getCoordinateSequenceFactory().create(1 + cmdLength, 2);
 
             // Set first point from MoveTo command
-            nextCoord = nextCoordSeq.getCoordinate(0);
-            nextCoord.setOrdinate(0, cursor.x);
-            nextCoord.setOrdinate(1, cursor.y);
+            nextCoordSeq.setOrdinate(0, CoordinateSequence.X, cursor.x);
+            nextCoordSeq.setOrdinate(0, CoordinateSequence.Y, cursor.y);
 
             // Set remaining points from LineTo command
             for(int lineToIndex = 0; lineToIndex < cmdLength; ++lineToIndex) {
 
                 // Update cursor position with relative line delta
                 cursor.add(
-                        ZigZag.decode(geomCmds.get(i++)),
-                        ZigZag.decode(geomCmds.get(i++))
+                        ZigZag.decode(geomCmds[i++]),
+                        ZigZag.decode(geomCmds[i++])
                 );
 
-                nextCoord = nextCoordSeq.getCoordinate(lineToIndex + 1);
-                nextCoord.setOrdinate(0, cursor.x);
-                nextCoord.setOrdinate(1, cursor.y);
+                nextCoordSeq.setOrdinate(lineToIndex + 1, CoordinateSequence.X, cursor.x);
+                nextCoordSeq.setOrdinate(lineToIndex + 1, CoordinateSequence.Y, cursor.y);
             }
 
             geoms.add(geomFactory.createLineString(nextCoordSeq));
@@ -333,17 +916,19 @@ public final class MvtReader {
      *
      * @param geomFactory creates JTS geometry
      * @param geomCmds contains MVT geometry commands
+     * @param cmdCount count of valid commands in {@code geomCmds}
      * @param cursor contains current MVT extent position
      * @param ringClassifier
      * @return JTS geometry or null on failure
      */
     private static Geometry readPolys(GeometryFactory geomFactory,
-                                      List<Integer> geomCmds,
+                                      int[] geomCmds,
+                                      int cmdCount,
                                       Vec2d cursor,
                                       RingClassifier ringClassifier) {
 
         // Guard: must have header
-        if(geomCmds.isEmpty()) {
+        if(cmdCount == 0) {
             return null;
         }
 
@@ -355,16 +940,15 @@ public final class MvtReader {
         GeomCmd cmd;
         List<LinearRing> rings = new ArrayList<>(1);
         CoordinateSequence nextCoordSeq;
-        Coordinate nextCoord;
 
-        while(i <= geomCmds.size() - MIN_POLYGON_LEN) {
+        while(i <= cmdCount - MIN_POLYGON_LEN) {
 
             // --------------------------------------------
             // Expected: MoveTo command of length 1
             // --------------------------------------------
 
             // Read command header
-            cmdHdr = geomCmds.get(i++);
+            cmdHdr = geomCmds[i++];
             cmdLength = GeomCmdHdr.getCmdLength(cmdHdr);
             cmd = GeomCmdHdr.getCmd(cmdHdr);
 
@@ -375,8 +959,8 @@ public final class MvtReader {
 
             // Update cursor position with relative move
             cursor.add(
-                    ZigZag.decode(geomCmds.get(i++)),
-                    ZigZag.decode(geomCmds.get(i++))
+                    ZigZag.decode(geomCmds[i++]),
+                    ZigZag.decode(geomCmds[i++])
             );
 
 
@@ -385,7 +969,7 @@ public final class MvtReader {
             // --------------------------------------------
 
             // Read command header
-            cmdHdr = geomCmds.get(i++);
+            cmdHdr = geomCmds[i++];
             cmdLength = GeomCmdHdr.getCmdLength(cmdHdr);
             cmd = GeomCmdHdr.getCmd(cmdHdr);
 
@@ -396,29 +980,27 @@ public final class MvtReader {
 
             // Guard: header data length unsupported by geometry command buffer
             //  (require at least (2 values * 2 params) + (current index 'i') + (1 for ClosePath))
-            if((cmdLength * GeomCmd.LineTo.getParamCount()) + i + 1 > geomCmds.size()) {
+            if((cmdLength * GeomCmd.LineTo.getParamCount()) + i + 1 > cmdCount) {
                 break;
             }
 
             nextCoordSeq = geomFactory.getCoordinateSequenceFactory().create(2 + cmdLength, 2);
 
             // Set first point from MoveTo command
-            nextCoord = nextCoordSeq.getCoordinate(0);
-            nextCoord.setOrdinate(0, cursor.x);
-            nextCoord.setOrdinate(1, cursor.y);
+            nextCoordSeq.setOrdinate(0, CoordinateSequence.X, cursor.x);
+            nextCoordSeq.setOrdinate(0, CoordinateSequence.Y, cursor.y);
 
             // Set remaining points from LineTo command
             for(int lineToIndex = 0; lineToIndex < cmdLength; ++lineToIndex) {
 
                 // Update cursor position with relative line delta
                 cursor.add(
-                        ZigZag.decode(geomCmds.get(i++)),
-                        ZigZag.decode(geomCmds.get(i++))
+                        ZigZag.decode(geomCmds[i++]),
+                        ZigZag.decode(geomCmds[i++])
                 );
 
-                nextCoord = nextCoordSeq.getCoordinate(lineToIndex + 1);
-                nextCoord.setOrdinate(0, cursor.x);
-                nextCoord.setOrdinate(1, cursor.y);
+                nextCoordSeq.setOrdinate(lineToIndex + 1, CoordinateSequence.X, cursor.x);
+                nextCoordSeq.setOrdinate(lineToIndex + 1, CoordinateSequence.Y, cursor.y);
             }
 
 
@@ -427,7 +1009,7 @@ public final class MvtReader {
             // --------------------------------------------
 
             // Read command header
-            cmdHdr = geomCmds.get(i++);
+            cmdHdr = geomCmds[i++];
             cmdLength = GeomCmdHdr.getCmdLength(cmdHdr);
             cmd = GeomCmdHdr.getCmd(cmdHdr);
 
@@ -436,9 +1018,8 @@ public final class MvtReader {
             }
 
             // Set last point from ClosePath command
-            nextCoord = nextCoordSeq.getCoordinate(nextCoordSeq.size() - 1);
-            nextCoord.setOrdinate(0, nextCoordSeq.getOrdinate(0, 0));
-            nextCoord.setOrdinate(1, nextCoordSeq.getOrdinate(0, 1));
+            nextCoordSeq.setOrdinate(nextCoordSeq.size() - 1, CoordinateSequence.X, nextCoordSeq.getX(0));
+            nextCoordSeq.setOrdinate(nextCoordSeq.size() - 1, CoordinateSequence.Y, nextCoordSeq.getY(0));
 
             rings.add(geomFactory.createLinearRing(nextCoordSeq));
         }
@@ -502,7 +1083,7 @@ public final class MvtReader {
             LinearRing outerPoly = null;
 
             for(LinearRing r : rings) {
-                double area = CGAlgorithms.signedArea(r.getCoordinates());
+                double area = CGAlgorithms.signedArea(r.getCoordinateSequence());
 
                 if(!r.isRing()) {
                     continue; // sanity check, could probably be handled in a isSimple() check
@@ -558,7 +1139,7 @@ public final class MvtReader {
             LinearRing outerPoly = null;
 
             for(LinearRing r : rings) {
-                double area = CGAlgorithms.signedArea(r.getCoordinates());
+                double area = CGAlgorithms.signedArea(r.getCoordinateSequence());
 
                 if(!r.isRing()) {
                     continue; // sanity check, could probably be handled in a isSimple() check
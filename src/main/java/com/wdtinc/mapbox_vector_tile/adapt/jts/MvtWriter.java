@@ -0,0 +1,470 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdBuffer;
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Streaming MVT encoder. Writes layers, features, packed geometry, packed tags, keys and values
+ * directly to a {@link CodedOutputStream} without building {@link VectorTile.Tile} messages.</p>
+ *
+ * <p>Output is byte-identical to building the tile with {@link VectorTile.Tile.Builder},
+ * {@link com.wdtinc.mapbox_vector_tile.build.MvtLayerBuild} and {@link JtsAdapter#toFeatures}.</p>
+ *
+ * <p>Instances use reusable scratch buffers from a {@link MvtEncodingContext} and are not thread-safe.</p>
+ *
+ * @see MvtEncoder
+ */
+public final class MvtWriter {
+
+    /** Field numbers from vector_tile.proto */
+    private static final int TILE_LAYERS = 3;
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+    private static final int FEATURE_ID = 1;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_FLOAT = 2;
+    private static final int VALUE_DOUBLE = 3;
+    private static final int VALUE_SINT = 6;
+    private static final int VALUE_BOOL = 7;
+
+    /**
+     * MVT specification version written to each layer.
+     */
+    private static final int MVT_VERSION = 2;
+
+    private final MvtLayerParams mvtLayerParams;
+    private final IUserDataConverter userDataConverter;
+
+    /**
+     * Reusable scratch state.
+     */
+    private final MvtEncodingContext context;
+
+    /**
+     * Create a writer with its own scratch state.
+     *
+     * @param mvtLayerParams tile creation parameters
+     * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags
+     */
+    public MvtWriter(MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter) {
+        this(mvtLayerParams, userDataConverter, new MvtEncodingContext());
+    }
+
+    /**
+     * Create a writer using shared scratch state. Writers are cheap to create, so a thread may create a
+     * writer per tile around a long-lived context.
+     *
+     * @param mvtLayerParams tile creation parameters
+     * @param userDataConverter converts {@link Geometry#userData} to MVT feature tags
+     * @param context scratch state, confined to the current thread
+     */
+    public MvtWriter(MvtLayerParams mvtLayerParams, IUserDataConverter userDataConverter,
+                     MvtEncodingContext context) {
+        this.mvtLayerParams = JdkUtils.requireNonNull(mvtLayerParams);
+        this.userDataConverter = JdkUtils.requireNonNull(userDataConverter);
+        this.context = JdkUtils.requireNonNull(context);
+    }
+
+    /**
+     * Encode a {@link JtsMvt} to byte[] ready for writing to a file.
+     *
+     * @param mvt input to encode to bytes
+     * @return bytes ready for writing to a .mvt
+     */
+    public byte[] encode(JtsMvt mvt) {
+        context.reset();
+
+        try {
+            writeLayers(mvt, context.tileOut);
+            context.tileOut.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array threw an IOException (should never happen).", e);
+        }
+
+        return context.tileBytes.toByteArray();
+    }
+
+    /**
+     * Encode a single layer to bytes. A tile is the concatenation of its encoded layers, in order.
+     *
+     * @param layer input layer to encode, geometry in MVT coordinates
+     * @return bytes of a {@code Tile.layers} field
+     */
+    public byte[] encodeLayer(JtsLayer layer) {
+        context.reset();
+
+        try {
+            writeLayer(layer.getName(), layer.getGeometries(), context.tileOut);
+            context.tileOut.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array threw an IOException (should never happen).", e);
+        }
+
+        return context.tileBytes.toByteArray();
+    }
+
+    /**
+     * Clip, transform and encode source geometry for one tile with {@link MvtGeometryEncoder}, without creating
+     * intermediate JTS geometry. Layers without features in the tile are not written.
+     *
+     * @param source layered source geometry in world coordinates, see {@link JtsAdapter#flatFeatureList(Geometry)}
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by
+     * @return bytes ready for writing to a .mvt, empty if no layer has features in the tile
+     */
+    public byte[] encodeTile(JtsMvt source, Envelope tileEnvelope, Envelope clipEnvelope) {
+        context.reset();
+
+        try {
+            for(JtsLayer layer : source.getLayers()) {
+                writeTileLayer(layer.getName(), layer.getGeometries(), tileEnvelope, clipEnvelope, context.tileOut);
+            }
+            context.tileOut.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array threw an IOException (should never happen).", e);
+        }
+
+        return context.tileBytes.toByteArray();
+    }
+
+    /**
+     * Encode a {@link JtsMvt} to a {@link ByteBuffer}, starting at its current position.
+     *
+     * @param mvt input to encode
+     * @param buffer destination buffer, position is advanced by the count of bytes written
+     * @throws IOException if {@code buffer} has insufficient space remaining
+     */
+    public void write(JtsMvt mvt, ByteBuffer buffer) throws IOException {
+        final CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        write(mvt, out);
+        out.flush();
+    }
+
+    /**
+     * Encode a {@link JtsMvt} to an {@link OutputStream}.
+     *
+     * @param mvt input to encode
+     * @param os destination stream, not closed by this method
+     * @throws IOException failure writing to stream
+     */
+    public void write(JtsMvt mvt, OutputStream os) throws IOException {
+        final CodedOutputStream out = CodedOutputStream.newInstance(os);
+        write(mvt, out);
+        out.flush();
+    }
+
+    /**
+     * Encode a {@link JtsMvt} to a {@link CodedOutputStream}. The caller is responsible for flushing {@code out}.
+     *
+     * @param mvt input to encode
+     * @param out destination
+     * @throws IOException failure writing to {@code out}
+     */
+    public void write(JtsMvt mvt, CodedOutputStream out) throws IOException {
+        context.reset();
+        writeLayers(mvt, out);
+    }
+
+    private void writeLayers(JtsMvt mvt, CodedOutputStream out) throws IOException {
+        for(JtsLayer layer : mvt.getLayers()) {
+            writeLayer(layer.getName(), layer.getGeometries(), out);
+        }
+    }
+
+    /**
+     * Encode a single MVT layer as a {@code Tile.layers} field. Geometry should be in MVT coordinates.
+     *
+     * @param layerName name of the layer
+     * @param layerGeoms flat list of JTS geometry, see {@link JtsAdapter#flatFeatureList(Geometry)}
+     * @param out destination
+     * @throws IOException failure writing to {@code out}
+     */
+    public void writeLayer(String layerName, Iterable<Geometry> layerGeoms, CodedOutputStream out) throws IOException {
+        final MvtLayerProps layerProps = context.layerProps;
+        final CodedOutputStream featureOut = context.featureOut;
+        layerProps.clear();
+
+        // Features first, builds key/value dictionary. Discard bytes buffered by an interrupted write.
+        featureOut.flush();
+        context.featureBytes.reset();
+        for(Geometry nextGeom : layerGeoms) {
+            writeFeature(nextGeom, layerProps, featureOut);
+        }
+        featureOut.flush();
+
+        writeLayerFields(layerName, out);
+    }
+
+    /**
+     * <p>Clip, transform and encode source geometry for one tile as a {@code Tile.layers} field, with
+     * {@link MvtGeometryEncoder}. Source geometry that does not reach the clip envelope is skipped, and the layer
+     * is not written if no features remain.</p>
+     *
+     * @param layerName name of the layer
+     * @param sourceGeoms flat list of JTS geometry in world coordinates, see
+     *                    {@link JtsAdapter#flatFeatureList(Geometry)}
+     * @param tileEnvelope world coordinate bounds for tile, used for transforms
+     * @param clipEnvelope world coordinates to clip tile by
+     * @param out destination
+     * @return true if the layer was written
+     * @throws IOException failure writing to {@code out}
+     */
+    public boolean writeTileLayer(String layerName, Iterable<Geometry> sourceGeoms, Envelope tileEnvelope,
+                                  Envelope clipEnvelope, CodedOutputStream out) throws IOException {
+        final MvtLayerProps layerProps = context.layerProps;
+        final CodedOutputStream featureOut = context.featureOut;
+        final MvtGeometryEncoder geomEncoder = context.geomEncoder;
+        final GeomCmdBuffer cmdBuffer = context.cmdBuffer;
+        layerProps.clear();
+        geomEncoder.setTile(tileEnvelope, clipEnvelope, mvtLayerParams);
+
+        // Features first, builds key/value dictionary. Discard bytes buffered by an interrupted write.
+        featureOut.flush();
+        context.featureBytes.reset();
+        VectorTile.Tile.GeomType nextGeomType;
+        for(Geometry nextGeom : sourceGeoms) {
+            cmdBuffer.reset();
+            nextGeomType = geomEncoder.encode(nextGeom, cmdBuffer);
+            if(nextGeomType != VectorTile.Tile.GeomType.UNKNOWN) {
+                writeFeature(nextGeomType, nextGeom.getUserData(), layerProps, featureOut);
+            }
+        }
+        featureOut.flush();
+
+        // Guard: no features in the tile
+        if(context.featureBytes.size() == 0) {
+            return false;
+        }
+
+        writeLayerFields(layerName, out);
+        return true;
+    }
+
+    /**
+     * Write the {@code Tile.layers} field for buffered features and the layer key/value dictionary.
+     *
+     * @param layerName name of the layer
+     * @param out destination
+     * @throws IOException failure writing to {@code out}
+     */
+    private void writeLayerFields(String layerName, CodedOutputStream out) throws IOException {
+        final MvtLayerProps layerProps = context.layerProps;
+        final MvtEncodingContext.ScratchOutputStream featureBytes = context.featureBytes;
+
+        // Layer length prefix
+        int layerSize = CodedOutputStream.computeStringSize(LAYER_NAME, layerName)
+                + featureBytes.size()
+                + CodedOutputStream.computeUInt32Size(LAYER_EXTENT, mvtLayerParams.extent)
+                + CodedOutputStream.computeUInt32Size(LAYER_VERSION, MVT_VERSION);
+
+        for(String key : layerProps.getKeys()) {
+            layerSize += CodedOutputStream.computeStringSize(LAYER_KEYS, key);
+        }
+
+        for(Object value : layerProps.getVals()) {
+            final int valueSize = computeValueSize(value);
+            layerSize += CodedOutputStream.computeTagSize(LAYER_VALUES)
+                    + CodedOutputStream.computeUInt32SizeNoTag(valueSize) + valueSize;
+        }
+
+        // Layer, fields in field number order
+        out.writeTag(TILE_LAYERS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(layerSize);
+        out.writeString(LAYER_NAME, layerName);
+        out.write(featureBytes.buffer(), 0, featureBytes.size());
+
+        for(String key : layerProps.getKeys()) {
+            out.writeString(LAYER_KEYS, key);
+        }
+
+        for(Object value : layerProps.getVals()) {
+            out.writeTag(LAYER_VALUES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(computeValueSize(value));
+            writeValue(value, out);
+        }
+
+        out.writeUInt32(LAYER_EXTENT, mvtLayerParams.extent);
+        out.writeUInt32(LAYER_VERSION, MVT_VERSION);
+    }
+
+    /**
+     * Write a {@code Layer.features} field. Invalid geometry is skipped.
+     *
+     * @param geom flat geometry in MVT coordinates
+     * @param layerProps layer properties for tagging features
+     * @param out destination
+     * @throws IOException failure writing to {@code out}
+     */
+    private void writeFeature(Geometry geom, MvtLayerProps layerProps, CodedOutputStream out) throws IOException {
+
+        // Guard: UNKNOWN Geometry
+        final VectorTile.Tile.GeomType mvtGeomType = JtsAdapter.toGeomType(geom);
+        if(mvtGeomType == VectorTile.Tile.GeomType.UNKNOWN) {
+            return;
+        }
+
+        final GeomCmdBuffer cmdBuffer = context.cmdBuffer;
+
+        // Guard: invalid geometry
+        cmdBuffer.reset();
+        if(!JtsAdapter.toGeomCmds(geom, mvtGeomType, cmdBuffer)) {
+            return;
+        }
+
+        writeFeature(mvtGeomType, geom.getUserData(), layerProps, out);
+    }
+
+    /**
+     * Write a {@code Layer.features} field with the geometry commands in the context command buffer.
+     *
+     * @param mvtGeomType MVT type of the geometry commands
+     * @param userData converted to feature id and tags
+     * @param layerProps layer properties for tagging features
+     * @param out destination
+     * @throws IOException failure writing to {@code out}
+     */
+    private void writeFeature(VectorTile.Tile.GeomType mvtGeomType, Object userData, MvtLayerProps layerProps,
+                              CodedOutputStream out) throws IOException {
+        final GeomCmdBuffer cmdBuffer = context.cmdBuffer;
+        final VectorTile.Tile.Feature.Builder tagsBuilder = context.tagsBuilder;
+
+        // Feature Properties
+        tagsBuilder.clear();
+        userDataConverter.addTags(userData, layerProps, tagsBuilder);
+
+        final int tagCount = tagsBuilder.getTagsCount();
+        int tagsSize = 0;
+        for(int i = 0; i < tagCount; ++i) {
+            tagsSize += CodedOutputStream.computeUInt32SizeNoTag(tagsBuilder.getTags(i));
+        }
+
+        final int[] cmds = cmdBuffer.array();
+        final int cmdCount = cmdBuffer.size();
+        int geomSize = 0;
+        for(int i = 0; i < cmdCount; ++i) {
+            geomSize += CodedOutputStream.computeUInt32SizeNoTag(cmds[i]);
+        }
+
+        // Feature length prefix
+        int featureSize = CodedOutputStream.computeEnumSize(FEATURE_TYPE, mvtGeomType.getNumber())
+                + CodedOutputStream.computeTagSize(FEATURE_GEOMETRY)
+                + CodedOutputStream.computeUInt32SizeNoTag(geomSize) + geomSize;
+
+        if(tagsBuilder.hasId()) {
+            featureSize += CodedOutputStream.computeUInt64Size(FEATURE_ID, tagsBuilder.getId());
+        }
+
+        if(tagCount > 0) {
+            featureSize += CodedOutputStream.computeTagSize(FEATURE_TAGS)
+                    + CodedOutputStream.computeUInt32SizeNoTag(tagsSize) + tagsSize;
+        }
+
+        // Feature, fields in field number order
+        out.writeTag(LAYER_FEATURES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(featureSize);
+
+        if(tagsBuilder.hasId()) {
+            out.writeUInt64(FEATURE_ID, tagsBuilder.getId());
+        }
+
+        if(tagCount > 0) {
+            out.writeTag(FEATURE_TAGS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(tagsSize);
+            for(int i = 0; i < tagCount; ++i) {
+                out.writeUInt32NoTag(tagsBuilder.getTags(i));
+            }
+        }
+
+        out.writeEnum(FEATURE_TYPE, mvtGeomType.getNumber());
+
+        out.writeTag(FEATURE_GEOMETRY, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(geomSize);
+        for(int i = 0; i < cmdCount; ++i) {
+            out.writeUInt32NoTag(cmds[i]);
+        }
+    }
+
+    /**
+     * Compute the encoded size of a {@code Tile.Value} message body.
+     *
+     * @param value String or boxed primitive accepted by {@link MvtLayerProps#addValue(Object)}
+     * @return encoded size in bytes, excluding tag and length prefix
+     * @see com.wdtinc.mapbox_vector_tile.encoding.MvtValue#toValue(Object)
+     */
+    private static int computeValueSize(Object value) {
+        final int size;
+
+        if(value instanceof Boolean) {
+            size = CodedOutputStream.computeBoolSize(VALUE_BOOL, (Boolean) value);
+
+        } else if(value instanceof Integer) {
+            size = CodedOutputStream.computeSInt64Size(VALUE_SINT, (Integer) value);
+
+        } else if(value instanceof Long) {
+            size = CodedOutputStream.computeSInt64Size(VALUE_SINT, (Long) value);
+
+        } else if(value instanceof Float) {
+            size = CodedOutputStream.computeFloatSize(VALUE_FLOAT, (Float) value);
+
+        } else if(value instanceof Double) {
+            size = CodedOutputStream.computeDoubleSize(VALUE_DOUBLE, (Double) value);
+
+        } else if(value instanceof String) {
+            size = CodedOutputStream.computeStringSize(VALUE_STRING, (String) value);
+
+        } else {
+            size = 0;
+        }
+
+        return size;
+    }
+
+    /**
+     * Write a {@code Tile.Value} message body.
+     *
+     * @param value String or boxed primitive accepted by {@link MvtLayerProps#addValue(Object)}
+     * @param out destination
+     * @throws IOException failure writing to {@code out}
+     * @see com.wdtinc.mapbox_vector_tile.encoding.MvtValue#toValue(Object)
+     */
+    private static void writeValue(Object value, CodedOutputStream out) throws IOException {
+        if(value instanceof Boolean) {
+            out.writeBool(VALUE_BOOL, (Boolean) value);
+
+        } else if(value instanceof Integer) {
+            out.writeSInt64(VALUE_SINT, (Integer) value);
+
+        } else if(value instanceof Long) {
+            out.writeSInt64(VALUE_SINT, (Long) value);
+
+        } else if(value instanceof Float) {
+            out.writeFloat(VALUE_FLOAT, (Float) value);
+
+        } else if(value instanceof Double) {
+            out.writeDouble(VALUE_DOUBLE, (Double) value);
+
+        } else if(value instanceof String) {
+            out.writeString(VALUE_STRING, (String) value);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Skip simplification. Rounded geometry is encoded as is, including repeated vertices.
+ */
+public final class NoOpSimplifier implements IGeometrySimplifier {
+
+    public static final NoOpSimplifier INSTANCE = new NoOpSimplifier();
+
+    private NoOpSimplifier() {}
+
+    @Override
+    public Geometry simplify(Geometry geom) {
+        return geom;
+    }
+}
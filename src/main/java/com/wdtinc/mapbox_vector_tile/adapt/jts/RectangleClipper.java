@@ -0,0 +1,415 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+import org.locationtech.jts.geom.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Fast clipping to an axis-aligned rectangle without JTS overlay.</p>
+ *
+ * <ul>
+ *     <li>Points are kept if inside or on the boundary of the rectangle.</li>
+ *     <li>Lines are clipped segment by segment (Liang-Barsky), producing a part for each pass through
+ *     the rectangle.</li>
+ *     <li>Polygon rings are clipped against each rectangle edge in turn (Sutherland-Hodgman).</li>
+ * </ul>
+ *
+ * <p>Invalid geometry does not cause clipping to fail. Polygons that cross the rectangle more than once
+ * may keep zero-width edges along the rectangle boundary. This is harmless when rendering vector tiles, but
+ * the result is not always a valid JTS polygon. Use {@link JtsOverlayClipper} when exact topology matters.</p>
+ *
+ * <p>Geometry types other than points, lines and polygons are passed to the fallback clipper.</p>
+ */
+public final class RectangleClipper implements IGeometryClipper {
+
+    /**
+     * Rectangle clipper with {@link JtsOverlayClipper} fallback.
+     */
+    public static final RectangleClipper INSTANCE = new RectangleClipper(JtsOverlayClipper.INSTANCE);
+
+    /**
+     * Rectangle edges, rings are clipped against each in order.
+     */
+    static final int EDGE_MIN_X = 0;
+    static final int EDGE_MAX_X = 1;
+    static final int EDGE_MIN_Y = 2;
+    static final int EDGE_MAX_Y = 3;
+
+    private final IGeometryClipper fallback;
+
+    /**
+     * Create a rectangle clipper.
+     *
+     * @param fallback clips geometry types this clipper does not support
+     * @throws NullPointerException if fallback is null
+     */
+    public RectangleClipper(IGeometryClipper fallback) {
+        JdkUtils.requireNonNull(fallback);
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Geometry clip(Geometry geom, Envelope clipEnvelope, GeometryFactory geomFactory) {
+        final Envelope geomEnvelope = geom.getEnvelopeInternal();
+
+        // Guard: fully outside
+        if(!clipEnvelope.intersects(geomEnvelope)) {
+            return geomFactory.createGeometryCollection(new Geometry[0]);
+        }
+
+        // Guard: fully inside
+        if(clipEnvelope.contains(geomEnvelope)) {
+            return geom;
+        }
+
+        if(geom instanceof Point || geom instanceof MultiPoint) {
+            return clipPoints(geom, clipEnvelope, geomFactory);
+
+        } else if(geom instanceof LineString || geom instanceof MultiLineString) {
+            return clipLines(geom, clipEnvelope, geomFactory);
+
+        } else if(geom instanceof Polygon || geom instanceof MultiPolygon) {
+            return clipPolygons(geom, clipEnvelope, geomFactory);
+
+        } else {
+            return fallback.clip(geom, clipEnvelope, geomFactory);
+        }
+    }
+
+    private static Geometry clipPoints(Geometry geom, Envelope clipEnvelope, GeometryFactory geomFactory) {
+        final List<Point> points = new ArrayList<>(geom.getNumGeometries());
+
+        Point nextPoint;
+        for(int i = 0; i < geom.getNumGeometries(); ++i) {
+            nextPoint = (Point) geom.getGeometryN(i);
+            if(!nextPoint.isEmpty() && clipEnvelope.contains(nextPoint.getCoordinate())) {
+                points.add(nextPoint);
+            }
+        }
+
+        if(points.size() == 1) {
+            return points.get(0);
+        }
+        return geomFactory.createMultiPoint(points.toArray(new Point[points.size()]));
+    }
+
+    private static Geometry clipLines(Geometry geom, Envelope clipEnvelope, GeometryFactory geomFactory) {
+        final List<LineString> parts = new ArrayList<>();
+        final CoordinateList part = new CoordinateList();
+
+        for(int i = 0; i < geom.getNumGeometries(); ++i) {
+            clipLine(((LineString) geom.getGeometryN(i)).getCoordinateSequence(), clipEnvelope, part,
+                    parts, geomFactory);
+        }
+
+        if(parts.size() == 1) {
+            return parts.get(0);
+        }
+        return geomFactory.createMultiLineString(parts.toArray(new LineString[parts.size()]));
+    }
+
+    /**
+     * Clip each segment of a line with Liang-Barsky, joining consecutive clipped segments into parts.
+     *
+     * @param coords line coordinates
+     * @param clipEnvelope rectangle to clip by
+     * @param part reusable coordinate list for the current part
+     * @param parts output line parts
+     * @param geomFactory creates line parts
+     */
+    private static void clipLine(CoordinateSequence coords,
+                                 Envelope clipEnvelope,
+                                 CoordinateList part,
+                                 List<LineString> parts,
+                                 GeometryFactory geomFactory) {
+        final double minX = clipEnvelope.getMinX();
+        final double maxX = clipEnvelope.getMaxX();
+        final double minY = clipEnvelope.getMinY();
+        final double maxY = clipEnvelope.getMaxY();
+
+        part.clear();
+
+        final double[] t = new double[2];
+
+        double x0, y0, dx, dy, t0, t1;
+        for(int i = 0; i < coords.size() - 1; ++i) {
+            x0 = coords.getX(i);
+            y0 = coords.getY(i);
+            dx = coords.getX(i + 1) - x0;
+            dy = coords.getY(i + 1) - y0;
+
+            if(!clipSegment(x0, y0, dx, dy, minX, maxX, minY, maxY, t)) {
+                addPart(part, parts, geomFactory);
+                continue;
+            }
+
+            t0 = t[0];
+            t1 = t[1];
+
+            // Segment entered the rectangle, or joins the current part
+            final Coordinate start = t0 == 0d ? coords.getCoordinateCopy(i) : new Coordinate(x0 + t0 * dx, y0 + t0 * dy);
+            if(!part.isEmpty() && !part.getCoordinate(part.size() - 1).equals2D(start)) {
+                addPart(part, parts, geomFactory);
+            }
+            part.add(start, false);
+            part.add(t1 == 1d ? coords.getCoordinateCopy(i + 1) : new Coordinate(x0 + t1 * dx, y0 + t1 * dy), false);
+
+            // Segment left the rectangle
+            if(t1 < 1d) {
+                addPart(part, parts, geomFactory);
+            }
+        }
+
+        addPart(part, parts, geomFactory);
+    }
+
+    /**
+     * Liang-Barsky: narrow the segment parameter range [t0, t1] against each rectangle edge.
+     *
+     * @param x0 segment start x
+     * @param y0 segment start y
+     * @param dx segment delta x
+     * @param dy segment delta y
+     * @param minX rectangle min x
+     * @param maxX rectangle max x
+     * @param minY rectangle min y
+     * @param maxY rectangle max y
+     * @param t output parameter range of the segment inside the rectangle, t0 at index 0 and t1 at index 1
+     * @return false if the segment is outside the rectangle
+     */
+    static boolean clipSegment(double x0, double y0, double dx, double dy,
+                               double minX, double maxX, double minY, double maxY,
+                               double[] t) {
+        t[0] = 0d;
+        t[1] = 1d;
+
+        return clipEdgeParam(-dx, x0 - minX, t)
+                && clipEdgeParam(dx, maxX - x0, t)
+                && clipEdgeParam(-dy, y0 - minY, t)
+                && clipEdgeParam(dy, maxY - y0, t);
+    }
+
+    private static boolean clipEdgeParam(double p, double q, double[] t) {
+        if(p == 0d) {
+            return q >= 0d;
+        }
+
+        final double r = q / p;
+        if(p < 0d) {
+            t[0] = Math.max(t[0], r);
+        } else {
+            t[1] = Math.min(t[1], r);
+        }
+        return !(t[0] > t[1]);
+    }
+
+    private static void addPart(CoordinateList part, List<LineString> parts, GeometryFactory geomFactory) {
+        if(part.size() >= 2) {
+            parts.add(geomFactory.createLineString(part.toCoordinateArray()));
+        }
+        part.clear();
+    }
+
+    private static Geometry clipPolygons(Geometry geom, Envelope clipEnvelope, GeometryFactory geomFactory) {
+        final List<Polygon> polys = new ArrayList<>(geom.getNumGeometries());
+
+        Polygon nextPoly;
+        Polygon nextClipped;
+        for(int i = 0; i < geom.getNumGeometries(); ++i) {
+            nextPoly = (Polygon) geom.getGeometryN(i);
+            nextClipped = clipPolygon(nextPoly, clipEnvelope, geomFactory);
+            if(nextClipped != null) {
+                polys.add(nextClipped);
+            }
+        }
+
+        if(polys.size() == 1) {
+            return polys.get(0);
+        }
+        return geomFactory.createMultiPolygon(polys.toArray(new Polygon[polys.size()]));
+    }
+
+    /**
+     * @param poly polygon to clip
+     * @param clipEnvelope rectangle to clip by
+     * @param geomFactory creates clipped polygon
+     * @return clipped polygon, or null if nothing remains
+     */
+    private static Polygon clipPolygon(Polygon poly, Envelope clipEnvelope, GeometryFactory geomFactory) {
+
+        // Guard: polygon outside
+        if(poly.isEmpty() || !clipEnvelope.intersects(poly.getEnvelopeInternal())) {
+            return null;
+        }
+
+        final LinearRing shell = clipRing(poly.getExteriorRing(), clipEnvelope, geomFactory);
+        if(shell == null) {
+            return null;
+        }
+
+        final List<LinearRing> holes = new ArrayList<>(poly.getNumInteriorRing());
+        LinearRing nextHole;
+        for(int i = 0; i < poly.getNumInteriorRing(); ++i) {
+            nextHole = clipRing(poly.getInteriorRingN(i), clipEnvelope, geomFactory);
+            if(nextHole != null) {
+                holes.add(nextHole);
+            }
+        }
+
+        final Polygon result = geomFactory.createPolygon(shell, holes.toArray(new LinearRing[holes.size()]));
+
+        // Guard: holes cover the clipped shell
+        return result.getArea() > 0d ? result : null;
+    }
+
+    /**
+     * Clip a ring with Sutherland-Hodgman.
+     *
+     * @param ring ring to clip
+     * @param clipEnvelope rectangle to clip by
+     * @param geomFactory creates clipped ring
+     * @return clipped ring, or null if it has no area within the rectangle
+     */
+    private static LinearRing clipRing(LineString ring, Envelope clipEnvelope, GeometryFactory geomFactory) {
+
+        // Guard: ring inside
+        if(clipEnvelope.contains(ring.getEnvelopeInternal())) {
+            return (LinearRing) ring;
+        }
+
+        // Guard: ring outside
+        if(!clipEnvelope.intersects(ring.getEnvelopeInternal())) {
+            return null;
+        }
+
+        final CoordinateSequence coords = ring.getCoordinateSequence();
+
+        // Open ring as x, y pairs
+        int size = coords.size() - 1;
+        double[] in = new double[size * 2];
+        for(int i = 0; i < size; ++i) {
+            in[i * 2] = coords.getX(i);
+            in[i * 2 + 1] = coords.getY(i);
+        }
+
+        double[] out = new double[(size + 4) * 2];
+        for(int edge = EDGE_MIN_X; edge <= EDGE_MAX_Y && size > 0; ++edge) {
+            if(out.length < (size * 2 + 4) * 2) {
+                out = new double[(size * 2 + 4) * 2];
+            }
+
+            size = clipEdge(in, size, out, edge, edgeValue(clipEnvelope, edge));
+
+            final double[] swap = in;
+            in = out;
+            out = swap;
+        }
+
+        // Guard: not enough points for a ring
+        if(size < 3) {
+            return null;
+        }
+
+        final Coordinate[] ringCoords = new Coordinate[size + 1];
+        for(int i = 0; i < size; ++i) {
+            ringCoords[i] = new Coordinate(in[i * 2], in[i * 2 + 1]);
+        }
+        ringCoords[size] = new Coordinate(ringCoords[0]);
+
+        final LinearRing result = geomFactory.createLinearRing(ringCoords);
+
+        // Guard: zero area ring
+        return Math.abs(signedArea(in, size)) > 0d ? result : null;
+    }
+
+    /**
+     * Clip an open ring against one rectangle edge.
+     *
+     * @param in open ring x, y pairs
+     * @param size count of points in {@code in}
+     * @param out output open ring x, y pairs, must have space for {@code size * 2} points
+     * @param edge rectangle edge
+     * @param edgeValue x or y value of the edge
+     * @return count of points in {@code out}
+     */
+    static int clipEdge(double[] in, int size, double[] out, int edge, double edgeValue) {
+        int outSize = 0;
+
+        double prevX = in[(size - 1) * 2];
+        double prevY = in[(size - 1) * 2 + 1];
+        boolean prevInside = inside(prevX, prevY, edge, edgeValue);
+
+        double x, y, t;
+        boolean inside;
+        for(int i = 0; i < size; ++i) {
+            x = in[i * 2];
+            y = in[i * 2 + 1];
+            inside = inside(x, y, edge, edgeValue);
+
+            if(inside != prevInside) {
+
+                // Add intersection with the edge
+                if(edge == EDGE_MIN_X || edge == EDGE_MAX_X) {
+                    t = (edgeValue - prevX) / (x - prevX);
+                    out[outSize * 2] = edgeValue;
+                    out[outSize * 2 + 1] = prevY + t * (y - prevY);
+                } else {
+                    t = (edgeValue - prevY) / (y - prevY);
+                    out[outSize * 2] = prevX + t * (x - prevX);
+                    out[outSize * 2 + 1] = edgeValue;
+                }
+                ++outSize;
+            }
+
+            if(inside) {
+                out[outSize * 2] = x;
+                out[outSize * 2 + 1] = y;
+                ++outSize;
+            }
+
+            prevX = x;
+            prevY = y;
+            prevInside = inside;
+        }
+
+        return outSize;
+    }
+
+    private static boolean inside(double x, double y, int edge, double edgeValue) {
+        switch(edge) {
+            case EDGE_MIN_X:
+                return x >= edgeValue;
+            case EDGE_MAX_X:
+                return x <= edgeValue;
+            case EDGE_MIN_Y:
+                return y >= edgeValue;
+            default:
+                return y <= edgeValue;
+        }
+    }
+
+    static double edgeValue(Envelope clipEnvelope, int edge) {
+        switch(edge) {
+            case EDGE_MIN_X:
+                return clipEnvelope.getMinX();
+            case EDGE_MAX_X:
+                return clipEnvelope.getMaxX();
+            case EDGE_MIN_Y:
+                return clipEnvelope.getMinY();
+            default:
+                return clipEnvelope.getMaxY();
+        }
+    }
+
+    static double signedArea(double[] xy, int size) {
+        double sum = 0d;
+
+        for(int i = 0, j = size - 1; i < size; j = i++) {
+            sum += xy[j * 2] * xy[i * 2 + 1] - xy[i * 2] * xy[j * 2 + 1];
+        }
+
+        return sum / 2d;
+    }
+}
@@ -15,4 +15,9 @@ public final class TagIgnoreConverter implements ITagConverter {
                              List<VectorTile.Tile.Value> valuesList) {
         return null;
     }
+
+    @Override
+    public boolean isTagsRetained() {
+        return false;
+    }
 }
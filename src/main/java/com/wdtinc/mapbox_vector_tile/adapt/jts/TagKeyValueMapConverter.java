@@ -97,4 +97,9 @@ public final class TagKeyValueMapConverter implements ITagConverter {
 
         return userData;
     }
+
+    @Override
+    public boolean isTagsRetained() {
+        return false;
+    }
 }
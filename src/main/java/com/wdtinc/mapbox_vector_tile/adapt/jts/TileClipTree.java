@@ -0,0 +1,323 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Clips the same source geometry to many tile envelopes, sharing work between tiles.</p>
+ *
+ * <p>Tiles are grouped into a quadtree over their combined bounds. At each quadrant the source geometry is
+ * culled by envelope, and geometry with many vertices is reduced to the parts that may intersect the quadrant.
+ * Tiles deeper in the tree intersect progressively smaller pieces, so the cost of clipping a large geometry
+ * grows with the depth of the tree instead of the number of tiles.</p>
+ *
+ * <p>Tiles that straddle a quadrant boundary are clipped at the deepest quadrant that contains them.</p>
+ *
+ * @see JtsAdapter#createTileGeoms
+ */
+final class TileClipTree {
+
+    /**
+     * Geometry with fewer points is passed to child quadrants unchanged, as pre-clipping costs more than it saves.
+     */
+    private static final int PRE_CLIP_MIN_POINTS = 64;
+
+    /**
+     * Limits recursion for degenerate tile envelopes.
+     */
+    private static final int MAX_DEPTH = 32;
+
+    private final GeometryFactory geomFactory;
+    private final IGeometryClipper clipper;
+
+    TileClipTree(GeometryFactory geomFactory, IGeometryClipper clipper) {
+        this.geomFactory = geomFactory;
+        this.clipper = clipper;
+    }
+
+    /**
+     * Clip source geometry to each tile envelope.
+     *
+     * @param geoms source geometry, passed through {@link JtsAdapter#flatFeatureList(Geometry)}
+     * @param tileEnvelopes world coordinate clip bounds for each tile
+     * @return intersected geometry for each tile, in the same order as {@code tileEnvelopes}
+     */
+    List<List<Geometry>> clip(List<Geometry> geoms, List<Envelope> tileEnvelopes) {
+        final List<List<Geometry>> results = new ArrayList<>(tileEnvelopes.size());
+        final int[] tiles = new int[tileEnvelopes.size()];
+
+        for(int i = 0; i < tiles.length; ++i) {
+            results.add(null);
+            tiles[i] = i;
+        }
+
+        // Guard: no tiles
+        if(tiles.length == 0) {
+            return results;
+        }
+
+        final Envelope bounds = union(tileEnvelopes, tiles, tiles.length);
+        clipNode(bounds, cull(bounds, geoms, false), tileEnvelopes, tiles, tiles.length, 0, results);
+
+        return results;
+    }
+
+    /**
+     * Clip a group of tiles contained in {@code nodeBounds}, recursing into quadrants.
+     *
+     * @param nodeBounds bounds of the quadrant, containing all tiles in the group
+     * @param nodeGeoms source geometry culled and pre-clipped to the node bounds
+     * @param tileEnvelopes all tile envelopes
+     * @param tiles tile indices in the group, modified by this call
+     * @param tileCount count of tile indices in the group
+     * @param depth recursion depth
+     * @param results output intersected geometry, by tile index
+     */
+    private void clipNode(Envelope nodeBounds,
+                          List<Geometry> nodeGeoms,
+                          List<Envelope> tileEnvelopes,
+                          int[] tiles,
+                          int tileCount,
+                          int depth,
+                          List<List<Geometry>> results) {
+
+        // Guard: single tile or depth limit, clip directly
+        if(tileCount == 1 || depth >= MAX_DEPTH) {
+            clipTiles(nodeGeoms, tileEnvelopes, tiles, tileCount, results);
+            return;
+        }
+
+        final Envelope[] quadrants = quadrants(nodeBounds);
+        final int[][] quadrantTiles = new int[4][tileCount];
+        final int[] quadrantCounts = new int[4];
+        int straddleCount = 0;
+
+        // Partition tiles by containing quadrant, straddling tiles are kept in place
+        Envelope nextTile;
+        int quadrant;
+        for(int i = 0; i < tileCount; ++i) {
+            nextTile = tileEnvelopes.get(tiles[i]);
+
+            for(quadrant = 0; quadrant < 4; ++quadrant) {
+                if(quadrants[quadrant].contains(nextTile)) {
+                    quadrantTiles[quadrant][quadrantCounts[quadrant]++] = tiles[i];
+                    break;
+                }
+            }
+
+            if(quadrant == 4) {
+                tiles[straddleCount++] = tiles[i];
+            }
+        }
+
+        clipTiles(nodeGeoms, tileEnvelopes, tiles, straddleCount, results);
+
+        Envelope nextBounds;
+        for(quadrant = 0; quadrant < 4; ++quadrant) {
+            if(quadrantCounts[quadrant] > 0) {
+                nextBounds = union(tileEnvelopes, quadrantTiles[quadrant], quadrantCounts[quadrant]);
+                clipNode(nextBounds, cull(nextBounds, nodeGeoms, true), tileEnvelopes,
+                        quadrantTiles[quadrant], quadrantCounts[quadrant], depth + 1, results);
+            }
+        }
+    }
+
+    private void clipTiles(List<Geometry> nodeGeoms,
+                           List<Envelope> tileEnvelopes,
+                           int[] tiles,
+                           int tileCount,
+                           List<List<Geometry>> results) {
+        for(int i = 0; i < tileCount; ++i) {
+            results.set(tiles[i], JtsAdapter.flatIntersection(tileEnvelopes.get(tiles[i]), nodeGeoms,
+                    geomFactory, clipper));
+        }
+    }
+
+    /**
+     * Cull geometry outside of the bounds, optionally pre-clipping large geometry to the bounds.
+     *
+     * @param bounds quadrant bounds
+     * @param geoms geometry to cull
+     * @param preClip true to reduce large geometry to the parts that may intersect the bounds
+     * @return geometry intersecting the bounds
+     */
+    List<Geometry> cull(Envelope bounds, List<Geometry> geoms, boolean preClip) {
+        final List<Geometry> result = new ArrayList<>();
+
+        Envelope nextEnvelope;
+        Geometry nextClipped;
+        for(Geometry nextGeom : geoms) {
+            nextEnvelope = nextGeom.getEnvelopeInternal();
+
+            // AABB intersection culling
+            if(!bounds.intersects(nextEnvelope)) {
+                continue;
+            }
+
+            if(preClip && !bounds.contains(nextEnvelope) && nextGeom.getNumPoints() >= PRE_CLIP_MIN_POINTS) {
+                nextClipped = preClip(bounds, nextGeom);
+                if(!nextClipped.isEmpty()) {
+                    nextClipped.setUserData(nextGeom.getUserData());
+                    result.add(nextClipped);
+                }
+
+            } else {
+                result.add(nextGeom);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * <p>Reduce geometry to the parts that may intersect the bounds. Intersecting the result with any envelope
+     * inside the bounds gives the same result as intersecting the original geometry.</p>
+     *
+     * <ul>
+     *     <li>Lines are cut into runs of segments whose envelopes intersect the bounds. Segments are unchanged.</li>
+     *     <li>Polygon holes and parts outside of the bounds are dropped, then the polygon is clipped to
+     *     the bounds with the tile clipper. Falls back to the original geometry if the intersection fails or produces a
+     *     mixed {@link GeometryCollection}, leaving any error to be reported by the tile clip.</li>
+     *     <li>Points are unchanged.</li>
+     * </ul>
+     *
+     * @param bounds quadrant bounds
+     * @param geom geometry to reduce, user data is not copied
+     * @return reduced geometry, may be empty
+     */
+    private Geometry preClip(Envelope bounds, Geometry geom) {
+        if(geom instanceof LineString || geom instanceof MultiLineString) {
+            final List<LineString> runs = new ArrayList<>();
+            for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                addSegmentRuns(bounds, ((LineString) geom.getGeometryN(i)).getCoordinateSequence(), runs);
+            }
+            return geomFactory.createMultiLineString(runs.toArray(new LineString[runs.size()]));
+
+        } else if(geom instanceof Polygon || geom instanceof MultiPolygon) {
+            final List<Polygon> polys = new ArrayList<>();
+            Polygon nextPoly;
+            for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                nextPoly = (Polygon) geom.getGeometryN(i);
+                if(bounds.intersects(nextPoly.getEnvelopeInternal())) {
+                    polys.add(dropHoles(bounds, nextPoly));
+                }
+            }
+
+            final Geometry culled = polys.size() == 1
+                    ? polys.get(0)
+                    : geomFactory.createMultiPolygon(polys.toArray(new Polygon[polys.size()]));
+            final Geometry clipped;
+
+            try {
+                clipped = clipper.clip(culled, bounds, geomFactory);
+            } catch (TopologyException e) {
+                return geom;
+            }
+
+            // Guard: JTS does not support intersection on mixed geometry collections
+            if(!clipped.isEmpty() && clipped.getClass() == GeometryCollection.class) {
+                return geom;
+            }
+
+            return clipped;
+        }
+
+        return geom;
+    }
+
+    /**
+     * Add runs of consecutive segments whose envelopes intersect the bounds.
+     *
+     * @param bounds quadrant bounds
+     * @param coords line coordinates
+     * @param runs output line runs
+     */
+    private void addSegmentRuns(Envelope bounds, CoordinateSequence coords, List<LineString> runs) {
+        final int size = coords.size();
+        int runStart = -1;
+
+        for(int i = 0; i < size - 1; ++i) {
+            if(segmentIntersects(bounds, coords, i)) {
+                if(runStart < 0) {
+                    runStart = i;
+                }
+
+            } else if(runStart >= 0) {
+                runs.add(lineRun(coords, runStart, i + 1));
+                runStart = -1;
+            }
+        }
+
+        if(runStart >= 0) {
+            runs.add(lineRun(coords, runStart, size));
+        }
+    }
+
+    private LineString lineRun(CoordinateSequence coords, int start, int end) {
+        final Coordinate[] runCoords = new Coordinate[end - start];
+        for(int i = start; i < end; ++i) {
+            runCoords[i - start] = coords.getCoordinateCopy(i);
+        }
+        return geomFactory.createLineString(runCoords);
+    }
+
+    private static boolean segmentIntersects(Envelope bounds, CoordinateSequence coords, int i) {
+        final double x0 = coords.getX(i);
+        final double y0 = coords.getY(i);
+        final double x1 = coords.getX(i + 1);
+        final double y1 = coords.getY(i + 1);
+
+        return Math.max(x0, x1) >= bounds.getMinX() && Math.min(x0, x1) <= bounds.getMaxX()
+                && Math.max(y0, y1) >= bounds.getMinY() && Math.min(y0, y1) <= bounds.getMaxY();
+    }
+
+    /**
+     * @param bounds quadrant bounds
+     * @param poly polygon
+     * @return {@code poly} without holes outside of the bounds
+     */
+    private Polygon dropHoles(Envelope bounds, Polygon poly) {
+        final int holeCount = poly.getNumInteriorRing();
+        final List<LinearRing> holes = new ArrayList<>(holeCount);
+
+        LineString nextHole;
+        for(int i = 0; i < holeCount; ++i) {
+            nextHole = poly.getInteriorRingN(i);
+            if(bounds.intersects(nextHole.getEnvelopeInternal())) {
+                holes.add((LinearRing) nextHole);
+            }
+        }
+
+        // Guard: no holes dropped
+        if(holes.size() == holeCount) {
+            return poly;
+        }
+
+        return geomFactory.createPolygon((LinearRing) poly.getExteriorRing(),
+                holes.toArray(new LinearRing[holes.size()]));
+    }
+
+    private static Envelope[] quadrants(Envelope bounds) {
+        final double midX = bounds.getMinX() + bounds.getWidth() / 2d;
+        final double midY = bounds.getMinY() + bounds.getHeight() / 2d;
+
+        return new Envelope[] {
+                new Envelope(bounds.getMinX(), midX, bounds.getMinY(), midY),
+                new Envelope(midX, bounds.getMaxX(), bounds.getMinY(), midY),
+                new Envelope(bounds.getMinX(), midX, midY, bounds.getMaxY()),
+                new Envelope(midX, bounds.getMaxX(), midY, bounds.getMaxY())
+        };
+    }
+
+    private static Envelope union(List<Envelope> tileEnvelopes, int[] tiles, int tileCount) {
+        final Envelope result = new Envelope();
+
+        for(int i = 0; i < tileCount; ++i) {
+            result.expandToInclude(tileEnvelopes.get(tiles[i]));
+        }
+
+        return result;
+    }
+}
@@ -25,6 +25,13 @@ public final class TileGeomResult {
      */
     public final List<Geometry> mvtGeoms;
 
+    /**
+     * Count of vertices removed from MVT geometry by simplification.
+     *
+     * @see IGeometrySimplifier
+     */
+    public final int removedVertexCount;
+
     /**
      * Create TileGeomResult, which contains the intersection of geometry and MVT geometry.
      *
@@ -33,9 +40,22 @@ public final class TileGeomResult {
      * @throws NullPointerException if intGeoms or mvtGeoms are null
      */
     public TileGeomResult(List<Geometry> intGeoms, List<Geometry> mvtGeoms) {
+        this(intGeoms, mvtGeoms, 0);
+    }
+
+    /**
+     * Create TileGeomResult, which contains the intersection of geometry and MVT geometry.
+     *
+     * @param intGeoms geometry intersecting tile
+     * @param mvtGeoms geometry for MVT
+     * @param removedVertexCount count of vertices removed from MVT geometry by simplification
+     * @throws NullPointerException if intGeoms or mvtGeoms are null
+     */
+    public TileGeomResult(List<Geometry> intGeoms, List<Geometry> mvtGeoms, int removedVertexCount) {
         JdkUtils.requireNonNull(intGeoms);
         JdkUtils.requireNonNull(mvtGeoms);
         this.intGeoms = intGeoms;
         this.mvtGeoms = mvtGeoms;
+        this.removedVertexCount = removedVertexCount;
     }
 }
@@ -0,0 +1,413 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Generates encoded tiles for a range of zoom levels from layered source geometry in a projected coordinate
+ * system, using {@link JtsAdapter#createTileGeom(List, Envelope, Envelope, GeometryFactory, MvtLayerParams,
+ * IGeometryFilter, IGeometryClipper, IGeometrySimplifier)} and {@link MvtEncoder}.</p>
+ *
+ * <p>Tiles use the XYZ scheme: at zoom {@code z} the world envelope is divided into {@code 2^z} by {@code 2^z}
+ * tiles, with column 0 at the west edge and row 0 at the north edge.</p>
+ *
+ * <p>The pyramid is walked as a quadtree on a {@link ForkJoinPool}, so idle workers steal subtrees from busy
+ * ones. Each tile passes its source geometry, culled by envelope and with large geometry pre-clipped, to its four
+ * children. Subtrees without geometry are skipped without visiting their tiles, so the cost of sparse data grows
+ * with the number of non-empty tiles rather than the size of the pyramid. Tiles whose layers are all empty after
+ * clipping and filtering are not written.</p>
+ *
+ * <p>Requires Java 8 or Android API Level 24 for the common pool; API Level 21 with an explicit pool.</p>
+ *
+ * @see ITileSink
+ */
+public final class TilePyramidGenerator {
+
+    /**
+     * Highest supported zoom level, so tile columns and rows fit in an {@code int}.
+     */
+    public static final int MAX_ZOOM = 30;
+
+    /**
+     * Encoder scratch state, one per worker thread.
+     */
+    private static final ThreadLocal<MvtEncodingContext> TILE_CONTEXT = new ThreadLocal<MvtEncodingContext>() {
+        @Override
+        protected MvtEncodingContext initialValue() {
+            return new MvtEncodingContext();
+        }
+    };
+
+    private final Envelope worldEnvelope;
+    private final MvtLayerParams mvtLayerParams;
+    private final GeometryFactory geomFactory;
+    private final IGeometryFilter filter;
+    private final IUserDataConverter userDataConverter;
+    private final IGeometryClipper clipper;
+    private final int buffer;
+
+    /**
+     * Simplifier by zoom level, the last entry is used for all higher zoom levels.
+     */
+    private final IGeometrySimplifier[] zoomSimplifiers;
+    private final TileClipTree clipTree;
+
+    /**
+     * Generate tiles with {@link RectangleClipper#INSTANCE}, {@link JtsSimplifier#DEFAULT} and no clip buffer.
+     *
+     * @param worldEnvelope bounds of zoom level 0 in source coordinates, such as the Web Mercator extent
+     * @param mvtLayerParams specifies vector tile properties
+     * @param geomFactory creates JTS geometry
+     * @param filter geometry values that fail filter after transforms are removed, must be thread-safe
+     * @param userDataConverter converts {@link Geometry#getUserData()} to MVT feature tags, must be thread-safe
+     */
+    public TilePyramidGenerator(Envelope worldEnvelope,
+                                MvtLayerParams mvtLayerParams,
+                                GeometryFactory geomFactory,
+                                IGeometryFilter filter,
+                                IUserDataConverter userDataConverter) {
+        this(worldEnvelope, mvtLayerParams, geomFactory, filter, userDataConverter, RectangleClipper.INSTANCE, 0);
+    }
+
+    /**
+     * Generate tiles with {@link JtsSimplifier#DEFAULT}.
+     *
+     * @param worldEnvelope bounds of zoom level 0 in source coordinates, such as the Web Mercator extent
+     * @param mvtLayerParams specifies vector tile properties
+     * @param geomFactory creates JTS geometry
+     * @param filter geometry values that fail filter after transforms are removed, must be thread-safe
+     * @param userDataConverter converts {@link Geometry#getUserData()} to MVT feature tags, must be thread-safe
+     * @param clipper clipping strategy, must be thread-safe
+     * @param buffer clip buffer in MVT extent units, must be &gt;= 0
+     * @see JtsAdapter#createClipEnvelope(Envelope, MvtLayerParams, int)
+     */
+    public TilePyramidGenerator(Envelope worldEnvelope,
+                                MvtLayerParams mvtLayerParams,
+                                GeometryFactory geomFactory,
+                                IGeometryFilter filter,
+                                IUserDataConverter userDataConverter,
+                                IGeometryClipper clipper,
+                                int buffer) {
+        this(worldEnvelope, mvtLayerParams, geomFactory, filter, userDataConverter, clipper, buffer,
+                JtsSimplifier.DEFAULT);
+    }
+
+    /**
+     * Generate tiles with the same simplifier at every zoom level.
+     *
+     * @param worldEnvelope bounds of zoom level 0 in source coordinates, such as the Web Mercator extent
+     * @param mvtLayerParams specifies vector tile properties
+     * @param geomFactory creates JTS geometry
+     * @param filter geometry values that fail filter after transforms are removed, must be thread-safe
+     * @param userDataConverter converts {@link Geometry#getUserData()} to MVT feature tags, must be thread-safe
+     * @param clipper clipping strategy, must be thread-safe
+     * @param buffer clip buffer in MVT extent units, must be &gt;= 0
+     * @param simplifier simplification strategy, such as {@link JtsSimplifier#DEFAULT} or
+     *                   {@link GridDedupeSimplifier#INSTANCE}, must be thread-safe
+     * @see JtsAdapter#createClipEnvelope(Envelope, MvtLayerParams, int)
+     */
+    public TilePyramidGenerator(Envelope worldEnvelope,
+                                MvtLayerParams mvtLayerParams,
+                                GeometryFactory geomFactory,
+                                IGeometryFilter filter,
+                                IUserDataConverter userDataConverter,
+                                IGeometryClipper clipper,
+                                int buffer,
+                                IGeometrySimplifier simplifier) {
+        this(worldEnvelope, mvtLayerParams, geomFactory, filter, userDataConverter, clipper, buffer,
+                new IGeometrySimplifier[] {JdkUtils.requireNonNull(simplifier)});
+    }
+
+    /**
+     * Generate tiles with the simplifier chosen by {@link ZoomToleranceSimplifier#forZoom(int)} for each zoom level.
+     *
+     * @param worldEnvelope bounds of zoom level 0 in source coordinates, such as the Web Mercator extent
+     * @param mvtLayerParams specifies vector tile properties
+     * @param geomFactory creates JTS geometry
+     * @param filter geometry values that fail filter after transforms are removed, must be thread-safe
+     * @param userDataConverter converts {@link Geometry#getUserData()} to MVT feature tags, must be thread-safe
+     * @param clipper clipping strategy, must be thread-safe
+     * @param buffer clip buffer in MVT extent units, must be &gt;= 0
+     * @param zoomSimplifier chooses the simplification tolerance by zoom level
+     * @see JtsAdapter#createClipEnvelope(Envelope, MvtLayerParams, int)
+     */
+    public TilePyramidGenerator(Envelope worldEnvelope,
+                                MvtLayerParams mvtLayerParams,
+                                GeometryFactory geomFactory,
+                                IGeometryFilter filter,
+                                IUserDataConverter userDataConverter,
+                                IGeometryClipper clipper,
+                                int buffer,
+                                ZoomToleranceSimplifier zoomSimplifier) {
+        this(worldEnvelope, mvtLayerParams, geomFactory, filter, userDataConverter, clipper, buffer,
+                toZoomSimplifiers(zoomSimplifier));
+    }
+
+    private TilePyramidGenerator(Envelope worldEnvelope,
+                                 MvtLayerParams mvtLayerParams,
+                                 GeometryFactory geomFactory,
+                                 IGeometryFilter filter,
+                                 IUserDataConverter userDataConverter,
+                                 IGeometryClipper clipper,
+                                 int buffer,
+                                 IGeometrySimplifier[] zoomSimplifiers) {
+        if(worldEnvelope.isNull() || worldEnvelope.getWidth() <= 0d || worldEnvelope.getHeight() <= 0d) {
+            throw new IllegalArgumentException("worldEnvelope must have positive area");
+        }
+        if(buffer < 0) {
+            throw new IllegalArgumentException("buffer must be >= 0");
+        }
+
+        this.worldEnvelope = new Envelope(worldEnvelope);
+        this.mvtLayerParams = JdkUtils.requireNonNull(mvtLayerParams);
+        this.geomFactory = JdkUtils.requireNonNull(geomFactory);
+        this.filter = JdkUtils.requireNonNull(filter);
+        this.userDataConverter = JdkUtils.requireNonNull(userDataConverter);
+        this.clipper = JdkUtils.requireNonNull(clipper);
+        this.buffer = buffer;
+        this.zoomSimplifiers = zoomSimplifiers;
+        this.clipTree = new TileClipTree(geomFactory, clipper);
+    }
+
+    /**
+     * Generate tiles on the common {@link ForkJoinPool}.
+     *
+     * @param source layered source geometry in world coordinates, not modified
+     * @param minZoom lowest zoom level to write
+     * @param maxZoom highest zoom level to write, at most {@link #MAX_ZOOM}
+     * @param sink receives encoded tiles
+     * @return count of tiles written
+     * @throws IOException failure from {@code sink}
+     * @see #generate(JtsMvt, int, int, ITileSink, ForkJoinPool)
+     */
+    public long generate(JtsMvt source, int minZoom, int maxZoom, ITileSink sink) throws IOException {
+        return generate(source, minZoom, maxZoom, sink, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generate tiles for zoom levels {@code minZoom} to {@code maxZoom}, inclusive. Tiles are written in no
+     * particular order.
+     *
+     * @param source layered source geometry in world coordinates, not modified
+     * @param minZoom lowest zoom level to write
+     * @param maxZoom highest zoom level to write, at most {@link #MAX_ZOOM}
+     * @param sink receives encoded tiles
+     * @param pool runs tile tasks
+     * @return count of tiles written
+     * @throws IOException failure from {@code sink}
+     */
+    public long generate(JtsMvt source, int minZoom, int maxZoom, ITileSink sink, ForkJoinPool pool)
+            throws IOException {
+        if(minZoom < 0 || minZoom > maxZoom || maxZoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("zoom range must satisfy 0 <= minZoom <= maxZoom <= " + MAX_ZOOM);
+        }
+        JdkUtils.requireNonNull(sink);
+
+        final List<String> layerNames = new ArrayList<>(source.getLayers().size());
+        final List<List<Geometry>> rootGeoms = new ArrayList<>(source.getLayers().size());
+        final Envelope rootClip = JtsAdapter.createClipEnvelope(worldEnvelope, mvtLayerParams, buffer);
+
+        for(JtsLayer nextLayer : source.getLayers()) {
+            final List<Geometry> flatGeoms = new ArrayList<>();
+            for(Geometry nextGeom : nextLayer.getGeometries()) {
+                flatGeoms.addAll(JtsAdapter.flatFeatureList(nextGeom));
+            }
+            layerNames.add(nextLayer.getName());
+            rootGeoms.add(clipTree.cull(rootClip, flatGeoms, false));
+        }
+
+        final Run run = new Run(layerNames, minZoom, maxZoom, sink);
+
+        // Guard: no source geometry
+        if(isEmpty(rootGeoms)) {
+            return 0L;
+        }
+
+        try {
+            pool.invoke(new TileTask(run, 0, 0, 0, rootGeoms));
+
+        } catch (RuntimeException e) {
+            for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if(cause instanceof SinkException) {
+                    throw (IOException) cause.getCause();
+                }
+            }
+            throw e;
+        }
+
+        return run.tileCount.get();
+    }
+
+    /**
+     * @param z zoom level
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @return world coordinate bounds of the tile
+     */
+    public Envelope tileEnvelope(int z, int x, int y) {
+        final double tileCount = 1 << z;
+        final double tileWidth = worldEnvelope.getWidth() / tileCount;
+        final double tileHeight = worldEnvelope.getHeight() / tileCount;
+        final double minX = worldEnvelope.getMinX() + x * tileWidth;
+        final double maxY = worldEnvelope.getMaxY() - y * tileHeight;
+
+        return new Envelope(minX, minX + tileWidth, maxY - tileHeight, maxY);
+    }
+
+    private static IGeometrySimplifier[] toZoomSimplifiers(ZoomToleranceSimplifier zoomSimplifier) {
+        JdkUtils.requireNonNull(zoomSimplifier);
+
+        final IGeometrySimplifier[] zoomSimplifiers = new IGeometrySimplifier[MAX_ZOOM + 1];
+        for(int z = 0; z <= MAX_ZOOM; ++z) {
+            zoomSimplifiers[z] = zoomSimplifier.forZoom(z);
+        }
+        return zoomSimplifiers;
+    }
+
+    private static boolean isEmpty(List<List<Geometry>> layerGeoms) {
+        for(List<Geometry> nextGeoms : layerGeoms) {
+            if(!nextGeoms.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * State shared by all tile tasks of one {@link #generate} call.
+     */
+    private static final class Run {
+        private final List<String> layerNames;
+        private final int minZoom;
+        private final int maxZoom;
+        private final ITileSink sink;
+        private final AtomicLong tileCount;
+
+        private Run(List<String> layerNames, int minZoom, int maxZoom, ITileSink sink) {
+            this.layerNames = layerNames;
+            this.minZoom = minZoom;
+            this.maxZoom = maxZoom;
+            this.sink = sink;
+            this.tileCount = new AtomicLong();
+        }
+    }
+
+    /**
+     * Carries a sink {@link IOException} out of the pool.
+     */
+    private static final class SinkException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private SinkException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Writes one tile, then forks child tiles that have source geometry.
+     */
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final int z;
+        private final int x;
+        private final int y;
+
+        /**
+         * Source geometry by layer, culled to this tile's clip envelope.
+         */
+        private final List<List<Geometry>> layerGeoms;
+
+        private TileTask(Run run, int z, int x, int y, List<List<Geometry>> layerGeoms) {
+            this.run = run;
+            this.z = z;
+            this.x = x;
+            this.y = y;
+            this.layerGeoms = layerGeoms;
+        }
+
+        @Override
+        protected void compute() {
+            if(z >= run.minZoom) {
+                writeTile();
+            }
+
+            // Guard: deepest zoom
+            if(z >= run.maxZoom) {
+                return;
+            }
+
+            final List<TileTask> children = new ArrayList<>(4);
+            int childX;
+            int childY;
+            for(int i = 0; i < 4; ++i) {
+                childX = (x << 1) + (i & 1);
+                childY = (y << 1) + (i >> 1);
+
+                final Envelope childClip = JtsAdapter.createClipEnvelope(tileEnvelope(z + 1, childX, childY),
+                        mvtLayerParams, buffer);
+                final List<List<Geometry>> childGeoms = new ArrayList<>(layerGeoms.size());
+                for(List<Geometry> nextGeoms : layerGeoms) {
+                    childGeoms.add(clipTree.cull(childClip, nextGeoms, true));
+                }
+
+                // Empty subtrees are skipped
+                if(!isEmpty(childGeoms)) {
+                    children.add(new TileTask(run, z + 1, childX, childY, childGeoms));
+                }
+            }
+
+            invokeAll(children);
+        }
+
+        private void writeTile() {
+            final Envelope tileEnvelope = tileEnvelope(z, x, y);
+            final Envelope clipEnvelope = JtsAdapter.createClipEnvelope(tileEnvelope, mvtLayerParams, buffer);
+            final List<JtsLayer> tileLayers = new ArrayList<>(layerGeoms.size());
+            final IGeometrySimplifier simplifier = zoomSimplifiers[Math.min(z, zoomSimplifiers.length - 1)];
+
+            List<Geometry> nextGeoms;
+            TileGeomResult nextResult;
+            for(int i = 0; i < layerGeoms.size(); ++i) {
+                nextGeoms = layerGeoms.get(i);
+                if(nextGeoms.isEmpty()) {
+                    continue;
+                }
+
+                nextResult = JtsAdapter.createTileGeom(nextGeoms, tileEnvelope, clipEnvelope, geomFactory,
+                        mvtLayerParams, filter, clipper, simplifier);
+                if(!nextResult.mvtGeoms.isEmpty()) {
+                    tileLayers.add(new JtsLayer(run.layerNames.get(i), nextResult.mvtGeoms));
+                }
+            }
+
+            // Guard: nothing left after clipping and filtering
+            if(tileLayers.isEmpty()) {
+                return;
+            }
+
+            final byte[] tile = MvtEncoder.encode(new JtsMvt(tileLayers), mvtLayerParams, userDataConverter,
+                    TILE_CONTEXT.get());
+
+            try {
+                run.sink.write(z, x, y, tile);
+            } catch (IOException e) {
+                throw new SinkException(e);
+            }
+            run.tileCount.incrementAndGet();
+        }
+    }
+}
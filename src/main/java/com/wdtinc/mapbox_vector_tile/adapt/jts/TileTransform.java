@@ -0,0 +1,213 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.AffineTransformation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Transforms world geometry to MVT 'extent' coordinates in a single pass over each coordinate sequence,
+ * replacing {@link AffineTransformation#transform(Geometry)} followed by {@link RoundingFilter} and, optionally,
+ * {@link GridDedupeSimplifier}.</p>
+ *
+ * <p>Each coordinate is transformed, rounded and compared with the previous output coordinate while being
+ * written to a new sequence from the geometry's {@link CoordinateSequenceFactory}. Results are identical to the
+ * separate passes.</p>
+ *
+ * <p>Not thread-safe, create one per tile.</p>
+ */
+final class TileTransform {
+
+    private final double m00;
+    private final double m01;
+    private final double m02;
+    private final double m10;
+    private final double m11;
+    private final double m12;
+
+    /**
+     * If true, drop consecutive duplicate coordinates like {@link GridDedupeSimplifier}.
+     */
+    private final boolean dedupe;
+
+    /**
+     * Count of coordinates dropped as duplicates.
+     */
+    private int removedVertexCount;
+
+    /**
+     * Scratch buffer for rounded ordinates of one sequence.
+     */
+    private double[] xy;
+
+    /**
+     * @param t world to MVT coordinate transform
+     * @param dedupe if true, drop consecutive duplicate coordinates after rounding
+     */
+    TileTransform(AffineTransformation t, boolean dedupe) {
+        final double[] m = t.getMatrixEntries();
+        this.m00 = m[0];
+        this.m01 = m[1];
+        this.m02 = m[2];
+        this.m10 = m[3];
+        this.m11 = m[4];
+        this.m12 = m[5];
+        this.dedupe = dedupe;
+        this.removedVertexCount = 0;
+        this.xy = new double[64];
+    }
+
+    /**
+     * @return count of coordinates dropped as duplicates so far
+     */
+    int getRemovedVertexCount() {
+        return removedVertexCount;
+    }
+
+    /**
+     * Transform and round geometry, and drop duplicate coordinates if enabled.
+     *
+     * @param geom flat geometry via {@link JtsAdapter#flatFeatureList(Geometry)} in world coordinates
+     * @return new geometry in MVT coordinates, or null if {@code geom} is not a supported type
+     */
+    Geometry transform(Geometry geom) {
+        final GeometryFactory geomFactory = geom.getFactory();
+
+        if(geom instanceof Point) {
+            return transformPoint((Point) geom);
+
+        } else if(geom instanceof LineString) {
+            return transformLine((LineString) geom);
+
+        } else if(geom instanceof Polygon) {
+            return transformPolygon((Polygon) geom);
+
+        } else if(geom instanceof MultiPoint) {
+            final Point[] points = new Point[geom.getNumGeometries()];
+            for(int i = 0; i < points.length; ++i) {
+                points[i] = transformPoint((Point) geom.getGeometryN(i));
+            }
+            return geomFactory.createMultiPoint(points);
+
+        } else if(geom instanceof MultiLineString) {
+            final List<LineString> lines = new ArrayList<>(geom.getNumGeometries());
+            LineString nextLine;
+            for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                nextLine = transformLine((LineString) geom.getGeometryN(i));
+                if(!dedupe || !nextLine.isEmpty()) {
+                    lines.add(nextLine);
+                }
+            }
+            return geomFactory.createMultiLineString(GeometryFactory.toLineStringArray(lines));
+
+        } else if(geom instanceof MultiPolygon) {
+            final List<Polygon> polys = new ArrayList<>(geom.getNumGeometries());
+            Polygon nextPoly;
+            for(int i = 0; i < geom.getNumGeometries(); ++i) {
+                nextPoly = transformPolygon((Polygon) geom.getGeometryN(i));
+                if(!dedupe || !nextPoly.isEmpty()) {
+                    polys.add(nextPoly);
+                }
+            }
+            return geomFactory.createMultiPolygon(GeometryFactory.toPolygonArray(polys));
+        }
+
+        return null;
+    }
+
+    private Point transformPoint(Point point) {
+        return point.getFactory().createPoint(transformSequence(point.getCoordinateSequence(), point.getFactory(),
+                false));
+    }
+
+    private LineString transformLine(LineString line) {
+        final CoordinateSequence seq = transformSequence(line.getCoordinateSequence(), line.getFactory(), dedupe);
+
+        // Guard: collapsed to a point
+        if(seq.size() == 1) {
+            ++removedVertexCount;
+            return line.getFactory().createLineString((CoordinateSequence) null);
+        }
+
+        return line.getFactory().createLineString(seq);
+    }
+
+    private Polygon transformPolygon(Polygon poly) {
+        final GeometryFactory geomFactory = poly.getFactory();
+        final LinearRing shell = transformRing((LinearRing) poly.getExteriorRing());
+
+        // Guard: shell collapsed, holes are dropped with it
+        if(shell == null) {
+            for(int i = 0; i < poly.getNumInteriorRing(); ++i) {
+                removedVertexCount += poly.getInteriorRingN(i).getNumPoints();
+            }
+            return geomFactory.createPolygon((LinearRing) null);
+        }
+
+        final List<LinearRing> holes = new ArrayList<>(poly.getNumInteriorRing());
+        LinearRing nextHole;
+        for(int i = 0; i < poly.getNumInteriorRing(); ++i) {
+            nextHole = transformRing((LinearRing) poly.getInteriorRingN(i));
+            if(nextHole != null) {
+                holes.add(nextHole);
+            }
+        }
+
+        return geomFactory.createPolygon(shell, GeometryFactory.toLinearRingArray(holes));
+    }
+
+    /**
+     * @param ring ring to transform
+     * @return transformed ring, or null if collapsed to fewer than 4 coordinates
+     */
+    private LinearRing transformRing(LinearRing ring) {
+        final CoordinateSequence seq = transformSequence(ring.getCoordinateSequence(), ring.getFactory(), dedupe);
+
+        // Guard: collapsed ring
+        if(seq.size() > 0 && seq.size() < 4) {
+            removedVertexCount += seq.size();
+            return null;
+        }
+
+        return ring.getFactory().createLinearRing(seq);
+    }
+
+    private CoordinateSequence transformSequence(CoordinateSequence seq, GeometryFactory geomFactory,
+                                                 boolean dedupeSeq) {
+        final int size = seq.size();
+        if(xy.length < size * 2) {
+            xy = new double[Math.max(size * 2, xy.length * 2)];
+        }
+
+        // Transform, round and dedupe into scratch
+        int count = 0;
+        double x;
+        double y;
+        double nextX;
+        double nextY;
+        for(int i = 0; i < size; ++i) {
+            x = seq.getX(i);
+            y = seq.getY(i);
+            nextX = Math.round(m00 * x + m01 * y + m02);
+            nextY = Math.round(m10 * x + m11 * y + m12);
+
+            if(dedupeSeq && count > 0 && xy[count * 2 - 2] == nextX && xy[count * 2 - 1] == nextY) {
+                continue;
+            }
+
+            xy[count * 2] = nextX;
+            xy[count * 2 + 1] = nextY;
+            ++count;
+        }
+        removedVertexCount += size - count;
+
+        final CoordinateSequence result = geomFactory.getCoordinateSequenceFactory().create(count, 2);
+        for(int i = 0; i < count; ++i) {
+            result.setOrdinate(i, CoordinateSequence.X, xy[i * 2]);
+            result.setOrdinate(i, CoordinateSequence.Y, xy[i * 2 + 1]);
+        }
+
+        return result;
+    }
+}
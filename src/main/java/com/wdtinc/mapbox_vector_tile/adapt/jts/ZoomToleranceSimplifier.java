@@ -0,0 +1,57 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+
+/**
+ * <p>Chooses a {@link JtsSimplifier} tolerance by zoom level, simplifying low zoom tiles more aggressively.</p>
+ *
+ * <p>At {@code detailZoom} and above the tolerance is {@code tolerance}. Each zoom level below
+ * {@code detailZoom} multiplies the tolerance by {@code zoomFactor}, for example 2 to keep the tolerance fixed
+ * in world units.</p>
+ *
+ * <pre>{@code
+ * final ZoomToleranceSimplifier zoomSimplifier = new ZoomToleranceSimplifier(
+ *         JtsSimplifier.Method.DOUGLAS_PEUCKER, .5d, 1.5d, 12);
+ *
+ * JtsAdapter.createTileGeom(geoms, tileEnvelope, clipEnvelope, geomFactory, layerParams, filter,
+ *         RectangleClipper.INSTANCE, zoomSimplifier.forZoom(z));
+ * }</pre>
+ */
+public final class ZoomToleranceSimplifier {
+
+    private final JtsSimplifier[] zoomSimplifiers;
+
+    /**
+     * @param method simplification algorithm
+     * @param tolerance distance tolerance in MVT 'extent' units at {@code detailZoom} and above, must be &gt; 0
+     * @param zoomFactor tolerance multiplier per zoom level below {@code detailZoom}, must be &gt;= 1
+     * @param detailZoom lowest zoom level using {@code tolerance}, from 0 to {@link TilePyramidGenerator#MAX_ZOOM}
+     */
+    public ZoomToleranceSimplifier(JtsSimplifier.Method method, double tolerance, double zoomFactor,
+                                   int detailZoom) {
+        JdkUtils.requireNonNull(method);
+        if(!(zoomFactor >= 1d)) {
+            throw new IllegalArgumentException("zoomFactor must be >= 1");
+        }
+        if(detailZoom < 0 || detailZoom > TilePyramidGenerator.MAX_ZOOM) {
+            throw new IllegalArgumentException("detailZoom must be from 0 to " + TilePyramidGenerator.MAX_ZOOM);
+        }
+
+        this.zoomSimplifiers = new JtsSimplifier[detailZoom + 1];
+        for(int z = detailZoom; z >= 0; --z) {
+            zoomSimplifiers[z] = new JtsSimplifier(method,
+                    tolerance * Math.pow(zoomFactor, detailZoom - z));
+        }
+    }
+
+    /**
+     * @param z zoom level, must be &gt;= 0
+     * @return simplifier for tiles at zoom level {@code z}
+     */
+    public JtsSimplifier forZoom(int z) {
+        if(z < 0) {
+            throw new IllegalArgumentException("z must be >= 0");
+        }
+        return zoomSimplifiers[Math.min(z, zoomSimplifiers.length - 1)];
+    }
+}
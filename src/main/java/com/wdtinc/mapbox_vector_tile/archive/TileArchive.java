@@ -0,0 +1,42 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+/**
+ * <p>Layout of a single-file tile archive, shared by {@link TileArchiveWriter} and {@link TileArchiveReader}.</p>
+ *
+ * <p>All values are little-endian:</p>
+ * <ol>
+ *     <li>Header, {@link #HEADER_SIZE} bytes: magic, version, directory offset, directory entry count,
+ *     segment shift, min zoom and max zoom.</li>
+ *     <li>Tile data in the order tiles were written. No tile crosses a segment boundary, a multiple of
+ *     2<sup>segment shift</sup> bytes, so that each tile can be read from a single memory mapping.</li>
+ *     <li>Directory of {@link #ENTRY_SIZE} byte entries sorted by {@link TileIds tile id}: tile id, data offset
+ *     and data length.</li>
+ * </ol>
+ */
+final class TileArchive {
+
+    /** Bytes "MVTA" read as a little-endian int */
+    static final int MAGIC = 0x4154564D;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    static final int ENTRY_SIZE = 20;
+
+    /**
+     * Default segment size of 1 GiB.
+     */
+    static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+    /** Header field offsets */
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_DIRECTORY_OFFSET = 8;
+    static final int HEADER_ENTRY_COUNT = 16;
+    static final int HEADER_SEGMENT_SHIFT = 24;
+    static final int HEADER_MIN_ZOOM = 28;
+    static final int HEADER_MAX_ZOOM = 30;
+
+    private TileArchive() {}
+}
@@ -0,0 +1,222 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+import com.wdtinc.mapbox_vector_tile.read.LazyMvt;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>Reads tiles from an archive created by {@link TileArchiveWriter}.</p>
+ *
+ * <p>The archive is memory-mapped read-only when opened. Tiles are returned as views of the mapping without
+ * copying, and {@link #getMvt(int, int, int)} opens them with {@link LazyMvt}. Lookups are a binary search of the
+ * mapped directory.</p>
+ *
+ * <p>Instances are safe for concurrent reads. Mappings are released when the reader and all returned buffers
+ * are garbage collected.</p>
+ *
+ * @see TileArchive
+ */
+public final class TileArchiveReader {
+
+    /**
+     * Directory, {@link TileArchive#ENTRY_SIZE} bytes per entry, sorted by tile id.
+     */
+    private final ByteBuffer directory;
+    private final int entryCount;
+
+    /**
+     * Tile data mappings, one per segment.
+     */
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+
+    private final int minZoom;
+    private final int maxZoom;
+
+    private TileArchiveReader(ByteBuffer directory, int entryCount, ByteBuffer[] segments, int segmentShift,
+                              int minZoom, int maxZoom) {
+        this.directory = directory;
+        this.entryCount = entryCount;
+        this.segments = segments;
+        this.segmentShift = segmentShift;
+        this.minZoom = minZoom;
+        this.maxZoom = maxZoom;
+    }
+
+    /**
+     * Open an archive by memory-mapping it read-only.
+     *
+     * @param file archive written by {@link TileArchiveWriter}
+     * @return archive reader
+     * @throws IOException failure mapping the file, or if it is not a complete tile archive
+     */
+    public static TileArchiveReader open(File file) throws IOException {
+        try(final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            final FileChannel channel = raf.getChannel()) {
+
+            final long fileSize = channel.size();
+            if(fileSize < TileArchive.HEADER_SIZE) {
+                throw new IOException("not a tile archive: " + file);
+            }
+
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, TileArchive.HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if(header.getInt(TileArchive.HEADER_MAGIC) != TileArchive.MAGIC) {
+                throw new IOException("not a tile archive, or not closed after writing: " + file);
+            }
+            if(header.getInt(TileArchive.HEADER_VERSION) != TileArchive.VERSION) {
+                throw new IOException("unsupported tile archive version: "
+                        + header.getInt(TileArchive.HEADER_VERSION));
+            }
+
+            final long directoryOffset = header.getLong(TileArchive.HEADER_DIRECTORY_OFFSET);
+            final long entryCount = header.getLong(TileArchive.HEADER_ENTRY_COUNT);
+            final int segmentShift = header.getInt(TileArchive.HEADER_SEGMENT_SHIFT);
+            final long directorySize = entryCount * TileArchive.ENTRY_SIZE;
+
+            // Guard: corrupt or truncated header values
+            if(directoryOffset < TileArchive.HEADER_SIZE || entryCount < 0L
+                    || directorySize > Integer.MAX_VALUE || directoryOffset + directorySize > fileSize
+                    || segmentShift < 1 || segmentShift > TileArchive.DEFAULT_SEGMENT_SHIFT) {
+                throw new IOException("corrupt tile archive header: " + file);
+            }
+
+            final ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset, directorySize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            // Tile data, one mapping per segment
+            final int segmentCount = (int) (((directoryOffset - 1L) >>> segmentShift) + 1L);
+            final ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            long segmentStart;
+            for(int i = 0; i < segmentCount; ++i) {
+                segmentStart = (long) i << segmentShift;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart,
+                        Math.min(directoryOffset, segmentStart + (1L << segmentShift)) - segmentStart);
+            }
+
+            return new TileArchiveReader(directory, (int) entryCount, segments, segmentShift,
+                    header.getShort(TileArchive.HEADER_MIN_ZOOM), header.getShort(TileArchive.HEADER_MAX_ZOOM));
+        }
+    }
+
+    /**
+     * @return count of tiles in the archive
+     */
+    public int getTileCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return lowest zoom level of a tile in the archive, 0 if empty
+     */
+    public int getMinZoom() {
+        return minZoom;
+    }
+
+    /**
+     * @return highest zoom level of a tile in the archive, 0 if empty
+     */
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * @param z zoom level
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @return true if the archive contains the tile
+     */
+    public boolean contains(int z, int x, int y) {
+        return indexOf(TileIds.toTileId(z, x, y)) >= 0;
+    }
+
+    /**
+     * Get a tile without copying.
+     *
+     * @param z zoom level
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @return read-only view of the tile bytes from position to limit, or null if the archive does not contain
+     *     the tile
+     */
+    public ByteBuffer getTile(int z, int x, int y) {
+        final int index = indexOf(TileIds.toTileId(z, x, y));
+        return index >= 0 ? getTileAt(index) : null;
+    }
+
+    /**
+     * Open a tile with {@link LazyMvt} without copying.
+     *
+     * @param z zoom level
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @return lazy tile view, or null if the archive does not contain the tile
+     * @throws IOException if the tile is not a valid MVT
+     */
+    public LazyMvt getMvt(int z, int x, int y) throws IOException {
+        final ByteBuffer tile = getTile(z, x, y);
+        return tile != null ? LazyMvt.open(tile) : null;
+    }
+
+    /**
+     * @param index directory index, 0 to {@link #getTileCount()}, exclusive
+     * @return tile id at {@code index}, in ascending order, see {@link TileIds#fromTileId(long, int[])}
+     */
+    public long getTileIdAt(int index) {
+        checkIndex(index);
+        return directory.getLong(index * TileArchive.ENTRY_SIZE);
+    }
+
+    /**
+     * Get a tile by directory index without copying, for iterating over all tiles in tile id order.
+     *
+     * @param index directory index, 0 to {@link #getTileCount()}, exclusive
+     * @return read-only view of the tile bytes from position to limit
+     */
+    public ByteBuffer getTileAt(int index) {
+        checkIndex(index);
+        final int entryOffset = index * TileArchive.ENTRY_SIZE;
+        final long offset = directory.getLong(entryOffset + 8);
+        final int length = directory.getInt(entryOffset + 16);
+
+        final ByteBuffer tile = segments[(int) (offset >>> segmentShift)].duplicate();
+        final int start = (int) (offset & ((1L << segmentShift) - 1L));
+        tile.limit(start + length);
+        tile.position(start);
+        return tile;
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= entryCount) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + entryCount);
+        }
+    }
+
+    /**
+     * @param tileId tile id to find
+     * @return directory index of {@code tileId}, or -1 if not found
+     */
+    private int indexOf(long tileId) {
+        int low = 0;
+        int high = entryCount - 1;
+        int mid;
+        long midId;
+        while(low <= high) {
+            mid = (low + high) >>> 1;
+            midId = directory.getLong(mid * TileArchive.ENTRY_SIZE);
+            if(midId < tileId) {
+                low = mid + 1;
+            } else if(midId > tileId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,377 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.ITileSink;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TilePyramidGenerator;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Writes tiles to a single-file archive, read with {@link TileArchiveReader}.</p>
+ *
+ * <p>Tile data is appended in the order tiles are written, so tiles can be streamed straight from
+ * {@link TilePyramidGenerator}. The directory is sorted by {@link TileIds Hilbert tile id} and written by
+ * {@link #close()}, which must be called for the archive to be readable. If the same tile is written more than
+ * once, the last write wins.</p>
+ *
+ * <p>With deduplication enabled, each tile is hashed with {@link XxHash64}. A tile that is byte-identical to an
+ * earlier tile is not written again; its directory entry references the earlier payload. Hash matches are
+ * confirmed by reading the earlier payload back from the file, so hash collisions never merge different tiles.
+ * Uniform tiles such as open ocean often make up most of the higher zoom levels.</p>
+ *
+ * <p>{@link #write(int, int, int, byte[])} is synchronized and may be called from multiple threads.</p>
+ *
+ * @see TileArchive
+ */
+public final class TileArchiveWriter implements ITileSink, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final OutputStream out;
+
+    /**
+     * Tiles may not cross a multiple of the segment size.
+     */
+    private final int segmentShift;
+    private final long segmentSize;
+
+    /**
+     * Offset of the next tile.
+     */
+    private long position;
+
+    /**
+     * Directory entries in write order.
+     */
+    private long[] tileIds;
+    private long[] offsets;
+    private int[] lengths;
+    private int entryCount;
+
+    /**
+     * Tile hash to the entry index of the first payload with that hash, null if deduplication is disabled.
+     */
+    private final Map<Long, Integer> payloadsByHash;
+
+    /**
+     * Count of payloads written to the file, and of tile data bytes not written because they were duplicates.
+     */
+    private int payloadCount;
+    private long duplicateBytes;
+
+    /**
+     * Offset up to which tile data has been flushed to the file and can be read back.
+     */
+    private long flushedPosition;
+
+    /**
+     * Scratch buffer for reading back payloads to compare.
+     */
+    private ByteBuffer readBuffer;
+
+    private int minZoom;
+    private int maxZoom;
+
+    private boolean closed;
+
+    /**
+     * Create or truncate an archive file.
+     *
+     * @param file destination
+     * @throws IOException failure opening the file
+     */
+    public TileArchiveWriter(File file) throws IOException {
+        this(file, false);
+    }
+
+    /**
+     * Create or truncate an archive file.
+     *
+     * @param file destination
+     * @param dedupe if true, store byte-identical tiles once
+     * @throws IOException failure opening the file
+     */
+    public TileArchiveWriter(File file, boolean dedupe) throws IOException {
+        this(file, dedupe, TileArchive.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * @param file destination
+     * @param dedupe if true, store byte-identical tiles once
+     * @param segmentShift log2 of the segment size, see {@link TileArchive}
+     * @throws IOException failure opening the file
+     */
+    TileArchiveWriter(File file, boolean dedupe, int segmentShift) throws IOException {
+        if(segmentShift < 1 || segmentShift > TileArchive.DEFAULT_SEGMENT_SHIFT) {
+            throw new IllegalArgumentException("segmentShift out of range: " + segmentShift);
+        }
+
+        this.file = new RandomAccessFile(file, "rw");
+        this.file.setLength(0L);
+        this.channel = this.file.getChannel();
+        this.out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        this.segmentShift = segmentShift;
+        this.segmentSize = 1L << segmentShift;
+        this.tileIds = new long[INITIAL_CAPACITY];
+        this.offsets = new long[INITIAL_CAPACITY];
+        this.lengths = new int[INITIAL_CAPACITY];
+        this.entryCount = 0;
+        this.payloadsByHash = dedupe ? new HashMap<Long, Integer>() : null;
+        this.payloadCount = 0;
+        this.duplicateBytes = 0L;
+        this.readBuffer = ByteBuffer.allocate(0);
+        this.minZoom = TileIds.MAX_ZOOM;
+        this.maxZoom = 0;
+        this.closed = false;
+
+        // Header placeholder, written on close
+        out.write(new byte[TileArchive.HEADER_SIZE]);
+        this.position = TileArchive.HEADER_SIZE;
+        this.flushedPosition = 0L;
+    }
+
+    /**
+     * Append a tile.
+     *
+     * @param z zoom level
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @param tile encoded MVT bytes, or any other tile payload, not retained
+     * @throws IOException failure writing to the file
+     * @throws IllegalArgumentException if z, x or y is out of range, or the tile is larger than a segment
+     * @throws IllegalStateException if the writer is closed
+     */
+    @Override
+    public synchronized void write(int z, int x, int y, byte[] tile) throws IOException {
+        final long tileId = TileIds.toTileId(z, x, y);
+
+        if(closed) {
+            throw new IllegalStateException("archive is closed");
+        }
+        if(tile.length > segmentSize) {
+            throw new IllegalArgumentException("tile " + z + "/" + x + "/" + y + " larger than segment: "
+                    + tile.length);
+        }
+
+        // Guard: duplicate payload, reference the earlier copy
+        Long hash = null;
+        if(payloadsByHash != null) {
+            hash = XxHash64.hash(tile, 0, tile.length, 0L);
+            final Integer payloadIndex = payloadsByHash.get(hash);
+            if(payloadIndex != null && isPayloadEqual(payloadIndex, tile)) {
+                addEntry(tileId, offsets[payloadIndex], tile.length);
+                duplicateBytes += tile.length;
+                updateZoomRange(z);
+                return;
+            }
+        }
+
+        // Guard: tile would cross a segment boundary, pad to the next segment
+        final long segmentEnd = ((position >>> segmentShift) + 1L) << segmentShift;
+        if(position + tile.length > segmentEnd) {
+            final int padding = (int) (segmentEnd - position);
+            out.write(new byte[padding]);
+            position = segmentEnd;
+        }
+
+        out.write(tile);
+        if(hash != null && !payloadsByHash.containsKey(hash)) {
+            payloadsByHash.put(hash, entryCount);
+        }
+        addEntry(tileId, position, tile.length);
+        position += tile.length;
+        ++payloadCount;
+        updateZoomRange(z);
+    }
+
+    /**
+     * @return count of tiles written so far, including tiles written more than once
+     */
+    public synchronized int getWriteCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return count of tile payloads stored in the file, less than {@link #getWriteCount()} if tiles were
+     *     deduplicated
+     */
+    public synchronized int getPayloadCount() {
+        return payloadCount;
+    }
+
+    /**
+     * @return count of tile bytes that were not written because they duplicated an earlier tile
+     */
+    public synchronized long getDuplicateByteCount() {
+        return duplicateBytes;
+    }
+
+    /**
+     * @return fraction of written tiles that referenced an earlier payload, 0 if no tiles were written
+     */
+    public synchronized double getDedupeRatio() {
+        return entryCount > 0 ? (entryCount - payloadCount) / (double) entryCount : 0d;
+    }
+
+    /**
+     * Write the directory and header, then close the file. Does nothing if already closed.
+     *
+     * @throws IOException failure writing to the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            final int[] order = sortedEntries();
+
+            // Directory, keeping the last write of each tile id
+            final ByteBuffer entry = ByteBuffer.allocate(TileArchive.ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long directoryCount = 0L;
+            int nextIndex;
+            for(int i = 0; i < order.length; ++i) {
+                nextIndex = order[i];
+                if(i + 1 < order.length && tileIds[order[i + 1]] == tileIds[nextIndex]) {
+                    continue;
+                }
+
+                entry.clear();
+                entry.putLong(tileIds[nextIndex]).putLong(offsets[nextIndex]).putInt(lengths[nextIndex]);
+                out.write(entry.array());
+                ++directoryCount;
+            }
+            out.flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(TileArchive.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(TileArchive.HEADER_MAGIC, TileArchive.MAGIC);
+            header.putInt(TileArchive.HEADER_VERSION, TileArchive.VERSION);
+            header.putLong(TileArchive.HEADER_DIRECTORY_OFFSET, position);
+            header.putLong(TileArchive.HEADER_ENTRY_COUNT, directoryCount);
+            header.putInt(TileArchive.HEADER_SEGMENT_SHIFT, segmentShift);
+            header.putShort(TileArchive.HEADER_MIN_ZOOM, (short) (directoryCount > 0L ? minZoom : 0));
+            header.putShort(TileArchive.HEADER_MAX_ZOOM, (short) maxZoom);
+            while(header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+        } finally {
+            file.close();
+        }
+    }
+
+    private void updateZoomRange(int z) {
+        minZoom = Math.min(minZoom, z);
+        maxZoom = Math.max(maxZoom, z);
+    }
+
+    /**
+     * @param payloadIndex entry index of a stored payload
+     * @param tile tile to compare
+     * @return true if the stored payload is byte-identical to {@code tile}
+     * @throws IOException failure reading from the file
+     */
+    private boolean isPayloadEqual(int payloadIndex, byte[] tile) throws IOException {
+        if(lengths[payloadIndex] != tile.length) {
+            return false;
+        }
+
+        // Make buffered tile data readable
+        final long offset = offsets[payloadIndex];
+        if(offset + tile.length > flushedPosition) {
+            out.flush();
+            flushedPosition = position;
+        }
+
+        if(readBuffer.capacity() < tile.length) {
+            readBuffer = ByteBuffer.allocate(Math.max(tile.length, readBuffer.capacity() * 2));
+        }
+        readBuffer.clear();
+        readBuffer.limit(tile.length);
+        int readCount;
+        while(readBuffer.hasRemaining()) {
+            readCount = channel.read(readBuffer, offset + readBuffer.position());
+            if(readCount < 0) {
+                throw new EOFException("archive truncated at " + (offset + readBuffer.position()));
+            }
+        }
+
+        final byte[] stored = readBuffer.array();
+        for(int i = 0; i < tile.length; ++i) {
+            if(stored[i] != tile[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addEntry(long tileId, long offset, int length) {
+        if(entryCount == tileIds.length) {
+            final int capacity = entryCount << 1;
+            tileIds = Arrays.copyOf(tileIds, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+
+        tileIds[entryCount] = tileId;
+        offsets[entryCount] = offset;
+        lengths[entryCount] = length;
+        ++entryCount;
+    }
+
+    /**
+     * Stable merge sort of entry indices by tile id, keeping write order for equal tile ids.
+     *
+     * @return entry indices in tile id order
+     */
+    private int[] sortedEntries() {
+        int[] order = new int[entryCount];
+        int[] scratch = new int[entryCount];
+        for(int i = 0; i < entryCount; ++i) {
+            order[i] = i;
+        }
+
+        int[] swap;
+        int left;
+        int mid;
+        int right;
+        int a;
+        int b;
+        int k;
+        for(int width = 1; width < entryCount; width <<= 1) {
+            for(left = 0; left < entryCount; left += width << 1) {
+                mid = Math.min(left + width, entryCount);
+                right = Math.min(left + (width << 1), entryCount);
+                a = left;
+                b = mid;
+                k = left;
+                while(a < mid && b < right) {
+                    scratch[k++] = tileIds[order[b]] < tileIds[order[a]] ? order[b++] : order[a++];
+                }
+                while(a < mid) {
+                    scratch[k++] = order[a++];
+                }
+                while(b < right) {
+                    scratch[k++] = order[b++];
+                }
+            }
+            swap = order;
+            order = scratch;
+            scratch = swap;
+        }
+
+        return order;
+    }
+}
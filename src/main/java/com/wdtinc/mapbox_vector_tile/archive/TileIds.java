@@ -0,0 +1,120 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TilePyramidGenerator;
+
+/**
+ * <p>Tile ids ordering tiles by zoom level, then along a Hilbert curve within each zoom level.</p>
+ *
+ * <p>The id of tile z/x/y is the count of tiles in all lower zoom levels plus the Hilbert curve distance of
+ * x, y on the 2<sup>z</sup> by 2<sup>z</sup> tile grid, the same numbering as PMTiles. Tiles that are close on
+ * the map are usually close in id order.</p>
+ */
+public final class TileIds {
+
+    /**
+     * Highest supported zoom level, the same as {@link TilePyramidGenerator#MAX_ZOOM}.
+     */
+    public static final int MAX_ZOOM = TilePyramidGenerator.MAX_ZOOM;
+
+    private TileIds() {}
+
+    /**
+     * @param z zoom level, 0 to {@link #MAX_ZOOM}
+     * @param x tile column, from the west edge
+     * @param y tile row, from the north edge
+     * @return tile id
+     * @throws IllegalArgumentException if z, x or y is out of range
+     */
+    public static long toTileId(int z, int x, int y) {
+        if(z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("zoom out of range: " + z);
+        }
+        final int n = 1 << z;
+        if(x < 0 || x >= n || y < 0 || y >= n) {
+            throw new IllegalArgumentException("tile out of range: " + z + "/" + x + "/" + y);
+        }
+
+        return zoomStartId(z) + hilbertDistance(n, x, y);
+    }
+
+    /**
+     * Decode a tile id.
+     *
+     * @param tileId tile id from {@link #toTileId(int, int, int)}
+     * @param zxy destination for zoom level, column and row, length 3 or more
+     * @throws IllegalArgumentException if {@code tileId} is out of range
+     */
+    public static void fromTileId(long tileId, int[] zxy) {
+        if(tileId < 0L || tileId >= zoomStartId(MAX_ZOOM + 1)) {
+            throw new IllegalArgumentException("tile id out of range: " + tileId);
+        }
+
+        int z = 0;
+        while(zoomStartId(z + 1) <= tileId) {
+            ++z;
+        }
+
+        final int n = 1 << z;
+        long d = tileId - zoomStartId(z);
+        int x = 0;
+        int y = 0;
+        int rx;
+        int ry;
+        int t;
+        for(int s = 1; s < n; s <<= 1) {
+            rx = (int) (1L & (d >>> 1));
+            ry = (int) (1L & (d ^ rx));
+
+            // Rotate quadrant
+            if(ry == 0) {
+                if(rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                t = x;
+                x = y;
+                y = t;
+            }
+
+            x += s * rx;
+            y += s * ry;
+            d >>>= 2;
+        }
+
+        zxy[0] = z;
+        zxy[1] = x;
+        zxy[2] = y;
+    }
+
+    /**
+     * @param z zoom level
+     * @return count of tiles in zoom levels below {@code z}, (4<sup>z</sup> - 1) / 3
+     */
+    private static long zoomStartId(int z) {
+        return ((1L << (z * 2)) - 1L) / 3L;
+    }
+
+    private static long hilbertDistance(int n, int x, int y) {
+        long d = 0L;
+        int rx;
+        int ry;
+        int t;
+        for(int s = n >>> 1; s > 0; s >>>= 1) {
+            rx = (x & s) > 0 ? 1 : 0;
+            ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+
+            // Rotate quadrant
+            if(ry == 0) {
+                if(rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+}
@@ -0,0 +1,113 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+/**
+ * <p>64-bit xxHash (XXH64) of byte arrays, a fast non-cryptographic hash for finding duplicate tiles.</p>
+ *
+ * <p>Reads input 8 bytes at a time with no allocation.</p>
+ */
+final class XxHash64 {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private XxHash64() {}
+
+    /**
+     * @param bytes input
+     * @param off start offset in {@code bytes}
+     * @param len count of bytes to hash
+     * @param seed hash seed
+     * @return 64-bit hash
+     */
+    static long hash(byte[] bytes, int off, int len, long seed) {
+        final int end = off + len;
+        int pos = off;
+        long h;
+
+        if(len >= 32) {
+            long v1 = seed + PRIME1 + PRIME2;
+            long v2 = seed + PRIME2;
+            long v3 = seed;
+            long v4 = seed - PRIME1;
+
+            final int limit = end - 32;
+            do {
+                v1 = round(v1, getLong(bytes, pos));
+                v2 = round(v2, getLong(bytes, pos + 8));
+                v3 = round(v3, getLong(bytes, pos + 16));
+                v4 = round(v4, getLong(bytes, pos + 24));
+                pos += 32;
+            } while(pos <= limit);
+
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                    + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+
+        } else {
+            h = seed + PRIME5;
+        }
+
+        h += len;
+
+        while(pos + 8 <= end) {
+            h ^= round(0L, getLong(bytes, pos));
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+            pos += 8;
+        }
+
+        if(pos + 4 <= end) {
+            h ^= (getInt(bytes, pos) & 0xFFFFFFFFL) * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            pos += 4;
+        }
+
+        while(pos < end) {
+            h ^= (bytes[pos] & 0xFFL) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+            ++pos;
+        }
+
+        // Avalanche
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0L, val);
+        return acc * PRIME1 + PRIME4;
+    }
+
+    private static long getLong(byte[] b, int i) {
+        return (b[i] & 0xFFL)
+                | (b[i + 1] & 0xFFL) << 8
+                | (b[i + 2] & 0xFFL) << 16
+                | (b[i + 3] & 0xFFL) << 24
+                | (b[i + 4] & 0xFFL) << 32
+                | (b[i + 5] & 0xFFL) << 40
+                | (b[i + 6] & 0xFFL) << 48
+                | (b[i + 7] & 0xFFL) << 56;
+    }
+
+    private static int getInt(byte[] b, int i) {
+        return (b[i] & 0xFF)
+                | (b[i + 1] & 0xFF) << 8
+                | (b[i + 2] & 0xFF) << 16
+                | (b[i + 3] & 0xFF) << 24;
+    }
+}
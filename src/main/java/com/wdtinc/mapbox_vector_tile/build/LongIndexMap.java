@@ -0,0 +1,130 @@
+package com.wdtinc.mapbox_vector_tile.build;
+
+import java.util.Arrays;
+
+/**
+ * <p>Open-addressing hash map from primitive {@code long} keys to non-negative {@code int} indexes,
+ * using linear probing. Keys and indexes are never boxed.</p>
+ *
+ * <p>Floating point keys are stored by their {@link Double#doubleToLongBits(double)} or
+ * {@link Float#floatToIntBits(float)} representation, which matches boxed {@code equals} semantics.</p>
+ *
+ * @see MvtLayerProps
+ */
+final class LongIndexMap {
+
+    /**
+     * Returned by {@link #get(long)} when the key is not present.
+     */
+    static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Slot keys, valid where the matching {@link #indexes} slot is not {@link #MISSING}.
+     */
+    private long[] keys;
+
+    /**
+     * Slot indexes, {@link #MISSING} for empty slots.
+     */
+    private int[] indexes;
+
+    /**
+     * Count of occupied slots.
+     */
+    private int size;
+
+    LongIndexMap() {
+        keys = new long[INITIAL_CAPACITY];
+        indexes = new int[INITIAL_CAPACITY];
+        Arrays.fill(indexes, MISSING);
+        size = 0;
+    }
+
+    /**
+     * @param key key to find
+     * @return index associated with {@code key}, or {@link #MISSING}
+     */
+    int get(long key) {
+        final int mask = indexes.length - 1;
+
+        for(int slot = mix(key) & mask; indexes[slot] != MISSING; slot = (slot + 1) & mask) {
+            if(keys[slot] == key) {
+                return indexes[slot];
+            }
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Associate {@code key} with {@code index} if the key is not present.
+     *
+     * @param key key to add
+     * @param index index to associate, must be &gt;= 0
+     * @return previous index associated with {@code key}, or {@link #MISSING} if {@code index} was added
+     */
+    int putIfAbsent(long key, int index) {
+        int mask = indexes.length - 1;
+        int slot = mix(key) & mask;
+
+        for(; indexes[slot] != MISSING; slot = (slot + 1) & mask) {
+            if(keys[slot] == key) {
+                return indexes[slot];
+            }
+        }
+
+        // Keep load factor <= 0.5 so probe sequences stay short
+        if((size + 1) << 1 > indexes.length) {
+            grow();
+            mask = indexes.length - 1;
+            for(slot = mix(key) & mask; indexes[slot] != MISSING; slot = (slot + 1) & mask);
+        }
+
+        keys[slot] = key;
+        indexes[slot] = index;
+        ++size;
+        return MISSING;
+    }
+
+    /**
+     * Remove all keys. Retains the allocated capacity.
+     */
+    void clear() {
+        Arrays.fill(indexes, MISSING);
+        size = 0;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldIndexes = indexes;
+        final int capacity = oldIndexes.length << 1;
+        final int mask = capacity - 1;
+
+        keys = new long[capacity];
+        indexes = new int[capacity];
+        Arrays.fill(indexes, MISSING);
+
+        int slot;
+        for(int i = 0; i < oldIndexes.length; ++i) {
+            if(oldIndexes[i] != MISSING) {
+                for(slot = mix(oldKeys[i]) & mask; indexes[slot] != MISSING; slot = (slot + 1) & mask);
+                keys[slot] = oldKeys[i];
+                indexes[slot] = oldIndexes[i];
+            }
+        }
+    }
+
+    /**
+     * Spread key bits over the low bits used for slot selection (MurmurHash3 finalizer).
+     */
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -6,23 +6,126 @@ import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
 import java.util.*;
 
 /**
- * Support MVT features that must reference properties by their key and value index.
+ * <p>Support MVT features that must reference properties by their key and value index.</p>
+ *
+ * <p>Keys and values are held in open-addressing tables segregated by type. Numeric and boolean values are
+ * stored unboxed, and index codes are returned as primitives, so repeated lookups for feature tags do not
+ * allocate. Values of different boxed types are distinct, as with {@link Object#equals(Object)}.</p>
  */
 public final class MvtLayerProps {
-    private LinkedHashMap<String, Integer> keys;
-    private LinkedHashMap<Object, Integer> vals;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Value type codes, see {@link #valTypes}. */
+    private static final byte TYPE_BOOLEAN = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_FLOAT = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_STRING = 5;
+
+    /**
+     * Key index codes.
+     */
+    private final StringIndexMap keyIndexes;
+
+    /**
+     * Keys in index order.
+     */
+    private String[] keys;
+
+    /**
+     * Count of keys.
+     */
+    private int keyCount;
+
+    /**
+     * Value index codes by type. Floating point values are keyed by their raw bits.
+     */
+    private final LongIndexMap intIndexes;
+    private final LongIndexMap longIndexes;
+    private final LongIndexMap floatIndexes;
+    private final LongIndexMap doubleIndexes;
+    private final StringIndexMap stringIndexes;
+    private int falseIndex;
+    private int trueIndex;
+
+    /**
+     * Value type codes in index order.
+     */
+    private byte[] valTypes;
+
+    /**
+     * Value bits in index order for non-string values.
+     */
+    private long[] valBits;
+
+    /**
+     * Value strings in index order, null for non-string values.
+     */
+    private String[] valStrings;
+
+    /**
+     * Count of values.
+     */
+    private int valCount;
 
     public MvtLayerProps() {
-        keys = new LinkedHashMap<>();
-        vals = new LinkedHashMap<>();
+        keyIndexes = new StringIndexMap();
+        keys = new String[INITIAL_CAPACITY];
+        keyCount = 0;
+
+        intIndexes = new LongIndexMap();
+        longIndexes = new LongIndexMap();
+        floatIndexes = new LongIndexMap();
+        doubleIndexes = new LongIndexMap();
+        stringIndexes = new StringIndexMap();
+        falseIndex = -1;
+        trueIndex = -1;
+
+        valTypes = new byte[INITIAL_CAPACITY];
+        valBits = new long[INITIAL_CAPACITY];
+        valStrings = new String[INITIAL_CAPACITY];
+        valCount = 0;
     }
 
     public Integer keyIndex(String k) {
-        return keys.get(k);
+
+        // Guard: null keys are never added
+        if(k == null) {
+            return null;
+        }
+
+        final int index = keyIndexes.get(k);
+        return index < 0 ? null : index;
     }
 
     public Integer valueIndex(Object v) {
-        return vals.get(v);
+        final int index;
+
+        if(v instanceof String) {
+            index = stringIndexes.get((String) v);
+
+        } else if(v instanceof Boolean) {
+            index = (Boolean) v ? trueIndex : falseIndex;
+
+        } else if(v instanceof Integer) {
+            index = intIndexes.get((Integer) v);
+
+        } else if(v instanceof Long) {
+            index = longIndexes.get((Long) v);
+
+        } else if(v instanceof Float) {
+            index = floatIndexes.get(Float.floatToIntBits((Float) v));
+
+        } else if(v instanceof Double) {
+            index = doubleIndexes.get(Double.doubleToLongBits((Double) v));
+
+        } else {
+            index = -1;
+        }
+
+        return index < 0 ? null : index;
     }
 
     /**
@@ -34,9 +137,16 @@ public final class MvtLayerProps {
      */
     public int addKey(String key) {
         JdkUtils.requireNonNull(key);
-        int nextIndex = keys.size();
-        final Integer mapIndex = JdkUtils.putIfAbsent(keys, key, nextIndex);
-        return mapIndex == null ? nextIndex : mapIndex;
+        final int mapIndex = keyIndexes.putIfAbsent(key, keyCount);
+        if(mapIndex >= 0) {
+            return mapIndex;
+        }
+
+        if(keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keyCount << 1);
+        }
+        keys[keyCount] = key;
+        return keyCount++;
     }
 
     /**
@@ -50,20 +160,217 @@ public final class MvtLayerProps {
      */
     public int addValue(Object value) {
         JdkUtils.requireNonNull(value);
-        if(!MvtValue.isValidPropValue(value)) {
-            return -1;
+        final int index;
+
+        if(value instanceof String) {
+            index = addValue((String) value);
+
+        } else if(value instanceof Boolean) {
+            index = addValue(((Boolean) value).booleanValue());
+
+        } else if(value instanceof Integer) {
+            index = addBits(intIndexes, TYPE_INT, (Integer) value);
+
+        } else if(value instanceof Long) {
+            index = addValue(((Long) value).longValue());
+
+        } else if(value instanceof Float) {
+            index = addValue(((Float) value).floatValue());
+
+        } else if(value instanceof Double) {
+            index = addValue(((Double) value).doubleValue());
+
+        } else {
+            index = -1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Add a string value without boxing the index code.
+     *
+     * @param value value to add
+     * @return index of the value
+     * @see #addValue(Object)
+     */
+    public int addValue(String value) {
+        JdkUtils.requireNonNull(value);
+        final int mapIndex = stringIndexes.putIfAbsent(value, valCount);
+        if(mapIndex >= 0) {
+            return mapIndex;
+        }
+
+        ensureValCapacity();
+        valTypes[valCount] = TYPE_STRING;
+        valStrings[valCount] = value;
+        return valCount++;
+    }
+
+    /**
+     * Add a long value without boxing. Equivalent to {@code addValue(Long.valueOf(value))}.
+     *
+     * @param value value to add
+     * @return index of the value
+     * @see #addValue(Object)
+     */
+    public int addValue(long value) {
+        return addBits(longIndexes, TYPE_LONG, value);
+    }
+
+    /**
+     * Add a float value without boxing. Equivalent to {@code addValue(Float.valueOf(value))}.
+     *
+     * @param value value to add
+     * @return index of the value
+     * @see #addValue(Object)
+     */
+    public int addValue(float value) {
+        return addBits(floatIndexes, TYPE_FLOAT, Float.floatToIntBits(value));
+    }
+
+    /**
+     * Add a double value without boxing. Equivalent to {@code addValue(Double.valueOf(value))}.
+     *
+     * @param value value to add
+     * @return index of the value
+     * @see #addValue(Object)
+     */
+    public int addValue(double value) {
+        return addBits(doubleIndexes, TYPE_DOUBLE, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Add a boolean value without boxing. Equivalent to {@code addValue(Boolean.valueOf(value))}.
+     *
+     * @param value value to add
+     * @return index of the value
+     * @see #addValue(Object)
+     */
+    public int addValue(boolean value) {
+        final int mapIndex = value ? trueIndex : falseIndex;
+        if(mapIndex >= 0) {
+            return mapIndex;
+        }
+
+        ensureValCapacity();
+        valTypes[valCount] = TYPE_BOOLEAN;
+        valBits[valCount] = value ? 1L : 0L;
+        if(value) {
+            trueIndex = valCount;
+        } else {
+            falseIndex = valCount;
         }
+        return valCount++;
+    }
+
+    /**
+     * Remove all keys and values so the instance can be reused for another layer.
+     */
+    public void clear() {
+        keyIndexes.clear();
+        Arrays.fill(keys, 0, keyCount, null);
+        keyCount = 0;
 
-        int nextIndex = vals.size();
-        final Integer mapIndex = JdkUtils.putIfAbsent(vals, value, nextIndex);
-        return mapIndex == null ? nextIndex : mapIndex;
+        intIndexes.clear();
+        longIndexes.clear();
+        floatIndexes.clear();
+        doubleIndexes.clear();
+        stringIndexes.clear();
+        falseIndex = -1;
+        trueIndex = -1;
+        Arrays.fill(valStrings, 0, valCount, null);
+        valCount = 0;
     }
 
+    /**
+     * @return live view of keys in index order
+     */
     public Iterable<String> getKeys() {
-        return keys.keySet();
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                checkIndex(index, keyCount);
+                return keys[index];
+            }
+
+            @Override
+            public int size() {
+                return keyCount;
+            }
+        };
     }
 
+    /**
+     * @return live view of values in index order, as String or boxed primitives
+     */
     public Iterable<Object> getVals() {
-        return vals.keySet();
+        return new AbstractList<Object>() {
+            @Override
+            public Object get(int index) {
+                checkIndex(index, valCount);
+                return boxValue(index);
+            }
+
+            @Override
+            public int size() {
+                return valCount;
+            }
+        };
+    }
+
+    private int addBits(LongIndexMap indexes, byte type, long bits) {
+        final int mapIndex = indexes.putIfAbsent(bits, valCount);
+        if(mapIndex >= 0) {
+            return mapIndex;
+        }
+
+        ensureValCapacity();
+        valTypes[valCount] = type;
+        valBits[valCount] = bits;
+        return valCount++;
+    }
+
+    private void ensureValCapacity() {
+        if(valCount == valTypes.length) {
+            final int capacity = valCount << 1;
+            valTypes = Arrays.copyOf(valTypes, capacity);
+            valBits = Arrays.copyOf(valBits, capacity);
+            valStrings = Arrays.copyOf(valStrings, capacity);
+        }
+    }
+
+    private Object boxValue(int index) {
+        final long bits = valBits[index];
+        final Object value;
+
+        switch(valTypes[index]) {
+            case TYPE_BOOLEAN:
+                value = bits != 0L;
+                break;
+            case TYPE_INT:
+                value = (int) bits;
+                break;
+            case TYPE_LONG:
+                value = bits;
+                break;
+            case TYPE_FLOAT:
+                value = Float.intBitsToFloat((int) bits);
+                break;
+            case TYPE_DOUBLE:
+                value = Double.longBitsToDouble(bits);
+                break;
+            default:
+                value = valStrings[index];
+                break;
+        }
+
+        return value;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
     }
 }
@@ -0,0 +1,136 @@
+package com.wdtinc.mapbox_vector_tile.build;
+
+import java.util.Arrays;
+
+/**
+ * <p>Open-addressing hash map from {@link String} keys to non-negative {@code int} indexes, using linear
+ * probing. Slot hashes are kept alongside keys so most probe mismatches are rejected without
+ * {@link String#equals(Object)}.</p>
+ *
+ * @see MvtLayerProps
+ */
+final class StringIndexMap {
+
+    /**
+     * Returned by {@link #get(String)} when the key is not present.
+     */
+    static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Slot keys, null for empty slots.
+     */
+    private String[] keys;
+
+    /**
+     * Slot key hashes.
+     */
+    private int[] hashes;
+
+    /**
+     * Slot indexes.
+     */
+    private int[] indexes;
+
+    /**
+     * Count of occupied slots.
+     */
+    private int size;
+
+    StringIndexMap() {
+        keys = new String[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        indexes = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * @param key key to find
+     * @return index associated with {@code key}, or {@link #MISSING}
+     */
+    int get(String key) {
+        final int hash = mix(key.hashCode());
+        final int mask = keys.length - 1;
+
+        String nextKey;
+        for(int slot = hash & mask; (nextKey = keys[slot]) != null; slot = (slot + 1) & mask) {
+            if(hashes[slot] == hash && nextKey.equals(key)) {
+                return indexes[slot];
+            }
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Associate {@code key} with {@code index} if the key is not present.
+     *
+     * @param key key to add
+     * @param index index to associate, must be &gt;= 0
+     * @return previous index associated with {@code key}, or {@link #MISSING} if {@code index} was added
+     */
+    int putIfAbsent(String key, int index) {
+        final int hash = mix(key.hashCode());
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+
+        String nextKey;
+        for(; (nextKey = keys[slot]) != null; slot = (slot + 1) & mask) {
+            if(hashes[slot] == hash && nextKey.equals(key)) {
+                return indexes[slot];
+            }
+        }
+
+        // Keep load factor <= 0.5 so probe sequences stay short
+        if((size + 1) << 1 > keys.length) {
+            grow();
+            mask = keys.length - 1;
+            for(slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask);
+        }
+
+        keys[slot] = key;
+        hashes[slot] = hash;
+        indexes[slot] = index;
+        ++size;
+        return MISSING;
+    }
+
+    /**
+     * Remove all keys. Retains the allocated capacity.
+     */
+    void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    private void grow() {
+        final String[] oldKeys = keys;
+        final int[] oldHashes = hashes;
+        final int[] oldIndexes = indexes;
+        final int capacity = oldKeys.length << 1;
+        final int mask = capacity - 1;
+
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        indexes = new int[capacity];
+
+        int slot;
+        for(int i = 0; i < oldKeys.length; ++i) {
+            if(oldKeys[i] != null) {
+                for(slot = oldHashes[i] & mask; keys[slot] != null; slot = (slot + 1) & mask);
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                indexes[slot] = oldIndexes[i];
+            }
+        }
+    }
+
+    /**
+     * Spread {@link String#hashCode()} bits over the low bits used for slot selection.
+     */
+    private static int mix(int hash) {
+        hash *= 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+}
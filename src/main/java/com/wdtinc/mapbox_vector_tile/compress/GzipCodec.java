@@ -0,0 +1,232 @@
+package com.wdtinc.mapbox_vector_tile.compress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * <p>Gzip (RFC 1952) compression with a reused raw {@link Deflater}, {@link Inflater} and {@link CRC32}.</p>
+ *
+ * <p>{@link java.util.zip.GZIPOutputStream} and {@link java.util.zip.GZIPInputStream} create and release native
+ * zlib state per stream. Here the header and trailer are written and parsed directly, and the zlib state is kept
+ * per thread. Output is the same format; concatenated members are decompressed as one tile.</p>
+ */
+final class GzipCodec {
+
+    private static final ThreadLocal<GzipCodec> CODEC = new ThreadLocal<GzipCodec>() {
+        @Override
+        protected GzipCodec initialValue() {
+            return new GzipCodec();
+        }
+    };
+
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+
+    /** Header flags */
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    /**
+     * Largest output size to preallocate from the gzip trailer, larger tiles grow on demand.
+     */
+    private static final int MAX_SIZE_HINT = 16 * 1024 * 1024;
+
+    private final Deflater deflater;
+    private final Inflater inflater;
+    private final CRC32 crc;
+
+    /**
+     * Scratch output for compression.
+     */
+    private byte[] buffer;
+
+    private GzipCodec() {
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        this.inflater = new Inflater(true);
+        this.crc = new CRC32();
+        this.buffer = new byte[MIN_BUFFER_SIZE];
+    }
+
+    /**
+     * @return codec for the current thread
+     */
+    static GzipCodec get() {
+        return CODEC.get();
+    }
+
+    byte[] compress(byte[] bytes, int off, int len, int level) {
+        deflater.reset();
+        deflater.setLevel(level);
+        deflater.setInput(bytes, off, len);
+        deflater.finish();
+
+        crc.reset();
+        crc.update(bytes, off, len);
+
+        // Header: magic, deflate, no flags, no mtime, no extra flags, unknown OS
+        ensureBuffer(HEADER_SIZE + len / 2 + MIN_BUFFER_SIZE);
+        buffer[0] = (byte) 0x1F;
+        buffer[1] = (byte) 0x8B;
+        buffer[2] = (byte) Deflater.DEFLATED;
+        Arrays.fill(buffer, 3, HEADER_SIZE, (byte) 0);
+        buffer[9] = (byte) 0xFF;
+        int size = HEADER_SIZE;
+
+        while(!deflater.finished()) {
+            if(size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            size += deflater.deflate(buffer, size, buffer.length - size);
+        }
+
+        ensureBuffer(size + TRAILER_SIZE);
+        writeIntLE(buffer, size, (int) crc.getValue());
+        writeIntLE(buffer, size + 4, len);
+        size += TRAILER_SIZE;
+
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * @param bytes array containing gzip data
+     * @param off start offset of gzip data in {@code bytes}
+     * @param len length of gzip data
+     * @return decompressed bytes
+     * @throws IOException if the data is not valid gzip
+     */
+    byte[] decompress(byte[] bytes, int off, int len) throws IOException {
+        final int end = off + len;
+
+        // Uncompressed size modulo 2^32 from the last trailer, exact for a single member
+        int sizeHint = len >= HEADER_SIZE + TRAILER_SIZE ? readIntLE(bytes, end - 4) : 0;
+        if(sizeHint <= 0 || sizeHint > MAX_SIZE_HINT) {
+            sizeHint = Math.max(MIN_BUFFER_SIZE, Math.min(len * 4, MAX_SIZE_HINT));
+        }
+
+        byte[] out = new byte[sizeHint];
+        int size = 0;
+        int pos = off;
+        int memberStart;
+
+        do {
+            pos = skipHeader(bytes, pos, end);
+            memberStart = size;
+
+            inflater.reset();
+            inflater.setInput(bytes, pos, end - pos);
+            crc.reset();
+
+            try {
+                while(!inflater.finished()) {
+                    if(size == out.length) {
+                        out = Arrays.copyOf(out, out.length * 2);
+                    }
+
+                    final int count = inflater.inflate(out, size, out.length - size);
+                    if(count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new EOFException("Unexpected end of gzip data");
+                    }
+                    size += count;
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+
+            crc.update(out, memberStart, size - memberStart);
+            pos = end - inflater.getRemaining();
+
+            // Trailer: CRC-32 and size modulo 2^32
+            if(end - pos < TRAILER_SIZE) {
+                throw new EOFException("Unexpected end of gzip data");
+            }
+            if(readIntLE(bytes, pos) != (int) crc.getValue()) {
+                throw new ZipException("Corrupt gzip trailer, CRC mismatch");
+            }
+            if(readIntLE(bytes, pos + 4) != size - memberStart) {
+                throw new ZipException("Corrupt gzip trailer, size mismatch");
+            }
+            pos += TRAILER_SIZE;
+
+        } while(end - pos >= HEADER_SIZE && bytes[pos] == (byte) 0x1F && bytes[pos + 1] == (byte) 0x8B);
+
+        return size == out.length ? out : Arrays.copyOf(out, size);
+    }
+
+    /**
+     * @return offset of deflate data after the member header starting at {@code pos}
+     */
+    private static int skipHeader(byte[] bytes, int pos, int end) throws IOException {
+        if(end - pos < HEADER_SIZE) {
+            throw new EOFException("Unexpected end of gzip header");
+        }
+        if(bytes[pos] != (byte) 0x1F || bytes[pos + 1] != (byte) 0x8B) {
+            throw new ZipException("Not in gzip format");
+        }
+        if(bytes[pos + 2] != Deflater.DEFLATED) {
+            throw new ZipException("Unsupported gzip compression method: " + bytes[pos + 2]);
+        }
+
+        final int flags = bytes[pos + 3] & 0xFF;
+        pos += HEADER_SIZE;
+
+        if((flags & FEXTRA) != 0) {
+            if(end - pos < 2) {
+                throw new EOFException("Unexpected end of gzip header");
+            }
+            pos += 2 + ((bytes[pos] & 0xFF) | (bytes[pos + 1] & 0xFF) << 8);
+        }
+        if((flags & FNAME) != 0) {
+            pos = skipZeroTerminated(bytes, pos, end);
+        }
+        if((flags & FCOMMENT) != 0) {
+            pos = skipZeroTerminated(bytes, pos, end);
+        }
+        if((flags & FHCRC) != 0) {
+            pos += 2;
+        }
+
+        if(pos > end) {
+            throw new EOFException("Unexpected end of gzip header");
+        }
+        return pos;
+    }
+
+    private static int skipZeroTerminated(byte[] bytes, int pos, int end) throws IOException {
+        while(pos < end) {
+            if(bytes[pos++] == 0) {
+                return pos;
+            }
+        }
+        throw new EOFException("Unexpected end of gzip header");
+    }
+
+    private void ensureBuffer(int capacity) {
+        if(buffer.length < capacity) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+
+    private static void writeIntLE(byte[] b, int i, int value) {
+        b[i] = (byte) value;
+        b[i + 1] = (byte) (value >>> 8);
+        b[i + 2] = (byte) (value >>> 16);
+        b[i + 3] = (byte) (value >>> 24);
+    }
+
+    private static int readIntLE(byte[] b, int i) {
+        return (b[i] & 0xFF)
+                | (b[i + 1] & 0xFF) << 8
+                | (b[i + 2] & 0xFF) << 16
+                | (b[i + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,74 @@
+package com.wdtinc.mapbox_vector_tile.compress;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Tile compression formats, detected from the leading magic bytes of a tile.</p>
+ *
+ * <p>An uncompressed MVT starts with a protobuf field tag, usually {@code 0x1A} for {@code Tile.layers}, which
+ * never matches the gzip or zstd magic.</p>
+ */
+public enum TileCompression {
+
+    /** Uncompressed MVT bytes */
+    NONE,
+
+    /** Gzip, RFC 1952, magic {@code 1F 8B} */
+    GZIP,
+
+    /** Zstandard frame, magic {@code 28 B5 2F FD}, requires the optional zstd-jni dependency */
+    ZSTD;
+
+    private static final boolean ZSTD_AVAILABLE = isZstdOnClasspath();
+
+    /**
+     * @return true if tiles in this format can be compressed and decompressed, false for {@link #ZSTD} when
+     *     zstd-jni is not on the classpath
+     */
+    public boolean isAvailable() {
+        return this != ZSTD || ZSTD_AVAILABLE;
+    }
+
+    /**
+     * Detect the compression of the bytes between the buffer position and limit. The buffer position and limit
+     * are not modified.
+     *
+     * @param buffer tile bytes
+     * @return detected compression, {@link #NONE} if no magic matches
+     */
+    public static TileCompression detect(ByteBuffer buffer) {
+        final int pos = buffer.position();
+        final int remaining = buffer.remaining();
+
+        if(remaining >= 2 && buffer.get(pos) == (byte) 0x1F && buffer.get(pos + 1) == (byte) 0x8B) {
+            return GZIP;
+        }
+
+        if(remaining >= 4 && buffer.get(pos) == (byte) 0x28 && buffer.get(pos + 1) == (byte) 0xB5
+                && buffer.get(pos + 2) == (byte) 0x2F && buffer.get(pos + 3) == (byte) 0xFD) {
+            return ZSTD;
+        }
+
+        return NONE;
+    }
+
+    /**
+     * @param bytes tile bytes
+     * @return detected compression, {@link #NONE} if no magic matches
+     */
+    public static TileCompression detect(byte[] bytes) {
+        return detect(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Probe for zstd-jni without loading any class that references it.
+     */
+    private static boolean isZstdOnClasspath() {
+        try {
+            Class.forName("com.github.luben.zstd.ZstdCompressCtx", false, TileCompression.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.wdtinc.mapbox_vector_tile.compress;
+
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * <p>Compresses encoded tiles with a fixed format and level.</p>
+ *
+ * <p>Compressor contexts such as {@link Deflater} are pooled per thread and reused between tiles, instead of
+ * being created and released for every tile. Instances are immutable and thread-safe.</p>
+ *
+ * @see TileDecompressor
+ */
+public final class TileCompressor {
+
+    /**
+     * Returns tiles unchanged.
+     */
+    public static final TileCompressor NONE = new TileCompressor(TileCompression.NONE, 0);
+
+    /**
+     * Gzip at the default deflate level, as usually served over HTTP.
+     */
+    public static final TileCompressor GZIP = new TileCompressor(TileCompression.GZIP, Deflater.DEFAULT_COMPRESSION);
+
+    /**
+     * Default zstd level.
+     */
+    public static final int ZSTD_DEFAULT_LEVEL = 3;
+
+    private final TileCompression compression;
+    private final int level;
+
+    /**
+     * @param compression compression format
+     * @param level gzip level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}, or zstd level up to 22,
+     *              ignored for {@link TileCompression#NONE}
+     * @throws IllegalArgumentException if the level is out of range
+     * @throws IllegalStateException if {@code compression} is {@link TileCompression#ZSTD} and zstd-jni is not
+     *     on the classpath
+     */
+    public TileCompressor(TileCompression compression, int level) {
+        this.compression = JdkUtils.requireNonNull(compression);
+        this.level = level;
+
+        switch(compression) {
+            case GZIP:
+                if(level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+                    throw new IllegalArgumentException("gzip level out of range: " + level);
+                }
+                break;
+            case ZSTD:
+                if(level > 22) {
+                    throw new IllegalArgumentException("zstd level out of range: " + level);
+                }
+                if(!TileCompression.ZSTD.isAvailable()) {
+                    throw new IllegalStateException("zstd compression requires com.github.luben:zstd-jni");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return compression format
+     */
+    public TileCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @param tile encoded tile bytes
+     * @return compressed tile, or {@code tile} itself for {@link TileCompression#NONE}
+     */
+    public byte[] compress(byte[] tile) {
+        return compress(tile, 0, tile.length);
+    }
+
+    /**
+     * @param bytes array containing the encoded tile
+     * @param off start offset of the tile in {@code bytes}
+     * @param len length of the tile
+     * @return compressed tile, or {@code bytes} itself for {@link TileCompression#NONE} if it is exactly the tile
+     */
+    public byte[] compress(byte[] bytes, int off, int len) {
+        switch(compression) {
+            case GZIP:
+                return GzipCodec.get().compress(bytes, off, len, level);
+            case ZSTD:
+                return ZstdCodec.compress(bytes, off, len, level);
+            default:
+                return off == 0 && len == bytes.length ? bytes : Arrays.copyOfRange(bytes, off, off + len);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.wdtinc.mapbox_vector_tile.compress;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Decompresses tiles, detecting the format with {@link TileCompression#detect(ByteBuffer)}.</p>
+ *
+ * <p>Decompressor contexts are pooled per thread, see {@link TileCompressor}. Uncompressed input is returned
+ * without copying.</p>
+ */
+public final class TileDecompressor {
+
+    private TileDecompressor() {}
+
+    /**
+     * Decompress the bytes between the buffer position and limit. The buffer position and limit are not modified.
+     *
+     * @param buffer gzip, zstd or uncompressed tile bytes
+     * @return {@code buffer} itself if uncompressed, otherwise a heap buffer with the decompressed tile
+     * @throws IOException if the compressed data is corrupt, or zstd data is read without zstd-jni on the
+     *     classpath
+     */
+    public static ByteBuffer decompress(ByteBuffer buffer) throws IOException {
+        final TileCompression compression = TileCompression.detect(buffer);
+
+        // Guard: uncompressed
+        if(compression == TileCompression.NONE) {
+            return buffer;
+        }
+
+        final byte[] bytes;
+        final int off;
+        final int len = buffer.remaining();
+        if(buffer.hasArray()) {
+            bytes = buffer.array();
+            off = buffer.arrayOffset() + buffer.position();
+        } else {
+            bytes = new byte[len];
+            off = 0;
+            buffer.duplicate().get(bytes);
+        }
+
+        return ByteBuffer.wrap(decompress(compression, bytes, off, len));
+    }
+
+    /**
+     * @param bytes gzip, zstd or uncompressed tile bytes
+     * @return {@code bytes} itself if uncompressed, otherwise the decompressed tile
+     * @throws IOException if the compressed data is corrupt, or zstd data is read without zstd-jni on the
+     *     classpath
+     */
+    public static byte[] decompress(byte[] bytes) throws IOException {
+        final TileCompression compression = TileCompression.detect(bytes);
+        return compression == TileCompression.NONE ? bytes : decompress(compression, bytes, 0, bytes.length);
+    }
+
+    private static byte[] decompress(TileCompression compression, byte[] bytes, int off, int len)
+            throws IOException {
+        if(compression == TileCompression.GZIP) {
+            return GzipCodec.get().decompress(bytes, off, len);
+        }
+
+        if(!TileCompression.ZSTD.isAvailable()) {
+            throw new IOException("zstd compressed tile requires com.github.luben:zstd-jni");
+        }
+        return ZstdCodec.decompress(bytes, off, len);
+    }
+}
@@ -0,0 +1,94 @@
+package com.wdtinc.mapbox_vector_tile.compress;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdException;
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * <p>Zstandard compression with {@link ZstdCompressCtx} and {@link ZstdDecompressCtx} reused per thread.</p>
+ *
+ * <p>Requires the optional {@code com.github.luben:zstd-jni} dependency. Loading this class without it throws
+ * {@link NoClassDefFoundError}, check {@link TileCompression#isAvailable()} first.</p>
+ */
+final class ZstdCodec {
+
+    private static final ThreadLocal<ZstdCompressCtx> COMPRESS_CTX = new ThreadLocal<ZstdCompressCtx>() {
+        @Override
+        protected ZstdCompressCtx initialValue() {
+            return new ZstdCompressCtx();
+        }
+    };
+
+    private static final ThreadLocal<ZstdDecompressCtx> DECOMPRESS_CTX = new ThreadLocal<ZstdDecompressCtx>() {
+        @Override
+        protected ZstdDecompressCtx initialValue() {
+            return new ZstdDecompressCtx();
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Largest output size to preallocate from the frame header, larger tiles grow on demand.
+     */
+    private static final int MAX_SIZE_HINT = 16 * 1024 * 1024;
+
+    private ZstdCodec() {}
+
+    static byte[] compress(byte[] bytes, int off, int len, int level) {
+        final ZstdCompressCtx ctx = COMPRESS_CTX.get();
+        ctx.setLevel(level);
+
+        final byte[] out = new byte[(int) Zstd.compressBound(len)];
+        final int size = ctx.compressByteArray(out, 0, out.length, bytes, off, len);
+        return Arrays.copyOf(out, size);
+    }
+
+    /**
+     * @param bytes array containing a zstd frame
+     * @param off start offset of the frame in {@code bytes}
+     * @param len length of the frame
+     * @return decompressed bytes
+     * @throws IOException if the data is not a valid zstd frame
+     */
+    static byte[] decompress(byte[] bytes, int off, int len) throws IOException {
+        final long contentSize = Zstd.getFrameContentSize(bytes, off, len);
+
+        try {
+
+            // Guard: content size not in frame header or too large to trust, decompress as a stream
+            if(contentSize < 0L || contentSize > MAX_SIZE_HINT) {
+                return decompressStream(bytes, off, len);
+            }
+
+            final byte[] out = new byte[(int) contentSize];
+            final int size = DECOMPRESS_CTX.get().decompressByteArray(out, 0, out.length, bytes, off, len);
+            return size == out.length ? out : Arrays.copyOf(out, size);
+
+        } catch (ZstdException e) {
+            throw new IOException("Corrupt zstd data: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] decompressStream(byte[] bytes, int off, int len) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(len * 4);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+
+        try(final InputStream in = new ZstdInputStream(new ByteArrayInputStream(bytes, off, len))) {
+            int count;
+            while((count = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+        }
+
+        return out.toByteArray();
+    }
+}
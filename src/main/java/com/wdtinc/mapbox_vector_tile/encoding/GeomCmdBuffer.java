@@ -0,0 +1,242 @@
+package com.wdtinc.mapbox_vector_tile.encoding;
+
+import java.util.Arrays;
+
+/**
+ * <p>Growable primitive {@code int[]} buffer for writing MVT geometry commands. Command headers and
+ * {@link ZigZag} encoded cursor deltas are written in place, avoiding boxed {@link Integer} lists.</p>
+ *
+ * <p>The buffer tracks the MVT cursor position in integer extent coordinates. Call {@link #reset()} before
+ * encoding each feature. Instances are reusable but not thread-safe.</p>
+ *
+ * <p>See <a href="https://github.com/mapbox/vector-tile-spec">vector-tile-spec</a> for details.</p>
+ *
+ * @see GeomCmd
+ * @see GeomCmdHdr
+ */
+public final class GeomCmdBuffer {
+
+    /**
+     * Default initial buffer capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Geometry commands and parameters.
+     */
+    private int[] cmds;
+
+    /**
+     * Count of values written to {@link #cmds}.
+     */
+    private int size;
+
+    /**
+     * MVT cursor position in x.
+     */
+    private int cursorX;
+
+    /**
+     * MVT cursor position in y.
+     */
+    private int cursorY;
+
+    /**
+     * Create a buffer with default initial capacity.
+     */
+    public GeomCmdBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a buffer with the given initial capacity.
+     *
+     * @param initialCapacity initial capacity of the buffer, must be &gt; 0
+     */
+    public GeomCmdBuffer(int initialCapacity) {
+        if(initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be > 0");
+        }
+
+        this.cmds = new int[initialCapacity];
+        this.size = 0;
+        this.cursorX = 0;
+        this.cursorY = 0;
+    }
+
+    /**
+     * Remove all commands and set the cursor to (0, 0). Retains the allocated capacity.
+     */
+    public void reset() {
+        size = 0;
+        cursorX = 0;
+        cursorY = 0;
+    }
+
+    /**
+     * Discard all values written after {@code size} and restore the cursor position. Useful for
+     * dropping a partially written geometry that turned out to be invalid.
+     *
+     * @param size buffer size to truncate to, must be &lt;= {@link #size()}
+     * @param cursorX cursor x position to restore
+     * @param cursorY cursor y position to restore
+     */
+    public void rewind(int size, int cursorX, int cursorY) {
+        if(size < 0 || size > this.size) {
+            throw new IndexOutOfBoundsException("size: " + size + ", current size: " + this.size);
+        }
+
+        this.size = size;
+        this.cursorX = cursorX;
+        this.cursorY = cursorY;
+    }
+
+    /**
+     * Ensure the buffer can hold at least {@code additional} more values without growing.
+     *
+     * @param additional count of values about to be written
+     */
+    public void ensureCapacity(int additional) {
+        final int required = size + additional;
+        if(required > cmds.length) {
+            cmds = Arrays.copyOf(cmds, Math.max(required, cmds.length << 1));
+        }
+    }
+
+    /**
+     * Append a 'command header' for the given command and length.
+     *
+     * @param cmd command to execute
+     * @param length how many times the command is repeated
+     * @see GeomCmdHdr#cmdHdr(GeomCmd, int)
+     */
+    public void writeCmdHdr(GeomCmd cmd, int length) {
+        append(GeomCmdHdr.cmdHdr(cmd, length));
+    }
+
+    /**
+     * Append a placeholder for a 'command header' whose length is not yet known.
+     *
+     * @return index of the placeholder, for use with {@link #setCmdHdr(int, GeomCmd, int)}
+     */
+    public int reserveCmdHdr() {
+        final int index = size;
+        append(0);
+        return index;
+    }
+
+    /**
+     * Back-patch a 'command header' previously reserved with {@link #reserveCmdHdr()}.
+     *
+     * @param index index returned from {@link #reserveCmdHdr()}
+     * @param cmd command to execute
+     * @param length how many times the command is repeated
+     */
+    public void setCmdHdr(int index, GeomCmd cmd, int length) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+
+        cmds[index] = GeomCmdHdr.cmdHdr(cmd, length);
+    }
+
+    /**
+     * Append a {@link GeomCmd#ClosePath} 'command header'.
+     */
+    public void writeClosePath() {
+        append(GeomCmdHdr.closePathCmdHdr());
+    }
+
+    /**
+     * <p>Appends {@link ZigZag#encode(int)} of delta in x,y from the cursor to ({@code x}, {@code y}).</p>
+     *
+     * <p>Afterwards, the cursor values are changed to match ({@code x}, {@code y}).</p>
+     *
+     * @param x next MVT cursor position in x
+     * @param y next MVT cursor position in y
+     */
+    public void moveCursor(int x, int y) {
+        ensureCapacity(2);
+        cmds[size++] = ZigZag.encode(x - cursorX);
+        cmds[size++] = ZigZag.encode(y - cursorY);
+
+        cursorX = x;
+        cursorY = y;
+    }
+
+    /**
+     * Return true if the cursor is at position ({@code x}, {@code y}).
+     *
+     * @param x position in x
+     * @param y position in y
+     * @return true if the cursor is at position ({@code x}, {@code y})
+     */
+    public boolean isCursorAt(int x, int y) {
+        return cursorX == x && cursorY == y;
+    }
+
+    /**
+     * @return MVT cursor position in x
+     */
+    public int getCursorX() {
+        return cursorX;
+    }
+
+    /**
+     * @return MVT cursor position in y
+     */
+    public int getCursorY() {
+        return cursorY;
+    }
+
+    /**
+     * @return count of command values written
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if no command values have been written
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the command value at the given index.
+     *
+     * @param index index of the value, must be &lt; {@link #size()}
+     * @return command value at the given index
+     */
+    public int get(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+
+        return cmds[index];
+    }
+
+    /**
+     * <p>Get the backing array. Only the first {@link #size()} values are valid.</p>
+     *
+     * <p>WARNING: The returned array is not a copy and may be replaced as the buffer grows.</p>
+     *
+     * @return backing command array
+     */
+    public int[] array() {
+        return cmds;
+    }
+
+    /**
+     * @return new array containing a copy of the written command values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(cmds, size);
+    }
+
+    private void append(int value) {
+        ensureCapacity(1);
+        cmds[size++] = value;
+    }
+}
@@ -0,0 +1,382 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.encoding.MvtValue;
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+
+import java.util.*;
+
+/**
+ * <p>Common {@link IFeaturePredicate} implementations and combinators.</p>
+ *
+ * <p>Tag predicates look up their key and values in the layer dictionaries once per layer. If the key or none of
+ * the values occur in a layer, no feature of that layer can match and the layer is skipped without reading its
+ * features. Numeric tag values compare by value: integral values as {@code long}, others as {@code double}.</p>
+ *
+ * <pre>{@code
+ * final IFeaturePredicate primaryRoads = FeaturePredicates.and(
+ *         FeaturePredicates.layer("roads"),
+ *         FeaturePredicates.geomType(VectorTile.Tile.GeomType.LINESTRING),
+ *         FeaturePredicates.tag("class", "primary"));
+ * }</pre>
+ */
+public final class FeaturePredicates {
+
+    /**
+     * Bound predicate accepting every feature.
+     */
+    public static final ILayerFeaturePredicate ACCEPT_ALL = new ILayerFeaturePredicate() {
+        @Override
+        public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+            return true;
+        }
+    };
+
+    /**
+     * Bound predicate accepting no feature, skips the layer.
+     */
+    public static final ILayerFeaturePredicate REJECT_ALL = new ILayerFeaturePredicate() {
+        @Override
+        public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+            return false;
+        }
+    };
+
+    /**
+     * Selects every feature of every layer.
+     */
+    public static final IFeaturePredicate ALL = new IFeaturePredicate() {
+        @Override
+        public ILayerFeaturePredicate bind(LazyLayer layer) {
+            return ACCEPT_ALL;
+        }
+    };
+
+    private FeaturePredicates() {}
+
+    /**
+     * @param layerNames names of layers to select
+     * @return predicate selecting all features of the named layers
+     */
+    public static IFeaturePredicate layer(String... layerNames) {
+        return layer(Arrays.asList(layerNames));
+    }
+
+    /**
+     * @param layerNames names of layers to select
+     * @return predicate selecting all features of the named layers
+     */
+    public static IFeaturePredicate layer(Collection<String> layerNames) {
+        final Set<String> names = new HashSet<>(layerNames);
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                return names.contains(layer.getName()) ? ACCEPT_ALL : REJECT_ALL;
+            }
+        };
+    }
+
+    /**
+     * @param geomTypes geometry types to select
+     * @return predicate selecting features with one of the geometry types
+     */
+    public static IFeaturePredicate geomType(VectorTile.Tile.GeomType... geomTypes) {
+        final boolean[] selected = new boolean[VectorTile.Tile.GeomType.values().length];
+        for(VectorTile.Tile.GeomType nextType : geomTypes) {
+            selected[nextType.ordinal()] = true;
+        }
+
+        final ILayerFeaturePredicate bound = new ILayerFeaturePredicate() {
+            @Override
+            public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+                return selected[feature.getType().ordinal()];
+            }
+        };
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                return bound;
+            }
+        };
+    }
+
+    /**
+     * @param ids feature ids to select
+     * @return predicate selecting features that have one of the ids
+     */
+    public static IFeaturePredicate id(long... ids) {
+        final long[] sortedIds = ids.clone();
+        Arrays.sort(sortedIds);
+
+        final ILayerFeaturePredicate bound = new ILayerFeaturePredicate() {
+            @Override
+            public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+                return feature.hasId() && Arrays.binarySearch(sortedIds, feature.getId()) >= 0;
+            }
+        };
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                return bound;
+            }
+        };
+    }
+
+    /**
+     * <p>Select features whose geometry bounding box intersects a rectangle in MVT extent coordinates, such as a
+     * viewport or click region within the tile.</p>
+     *
+     * <p>Each feature's geometry commands are scanned without allocation and only until a vertex inside the
+     * rectangle is found, see {@link LazyFeature#intersects(int, int, int, int)}. Combine with {@link #and} after
+     * cheaper predicates to scan fewer features.</p>
+     *
+     * @param minX rectangle min x, inclusive
+     * @param minY rectangle min y, inclusive
+     * @param maxX rectangle max x, inclusive
+     * @param maxY rectangle max y, inclusive
+     * @return predicate selecting features with bounds intersecting the rectangle
+     * @throws IllegalArgumentException if the rectangle min is greater than its max
+     */
+    public static IFeaturePredicate intersects(final int minX, final int minY, final int maxX, final int maxY) {
+        if(minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("empty rectangle: (" + minX + ", " + minY + ", " + maxX + ", "
+                    + maxY + ")");
+        }
+
+        final ILayerFeaturePredicate bound = new ILayerFeaturePredicate() {
+            @Override
+            public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+                return feature.intersects(minX, minY, maxX, maxY);
+            }
+        };
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                return bound;
+            }
+        };
+    }
+
+    /**
+     * @param key tag key
+     * @return predicate selecting features that have a tag with the key
+     */
+    public static IFeaturePredicate hasTag(final String key) {
+        JdkUtils.requireNonNull(key);
+
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                final int keyIndex = layer.getKeys().indexOf(key);
+                return keyIndex < 0 ? REJECT_ALL : new TagPredicate(keyIndex, null, 0);
+            }
+        };
+    }
+
+    /**
+     * @param key tag key
+     * @param values tag values to select: String, Boolean or Number
+     * @return predicate selecting features that have a tag with the key and one of the values
+     */
+    public static IFeaturePredicate tag(final String key, Object... values) {
+        JdkUtils.requireNonNull(key);
+        final Object[] tagValues = values.clone();
+        for(Object nextValue : tagValues) {
+            if(!MvtValue.isValidPropValue(nextValue)) {
+                throw new IllegalArgumentException("not a valid MVT value: " + nextValue);
+            }
+        }
+
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                final int keyIndex = layer.getKeys().indexOf(key);
+                if(keyIndex < 0) {
+                    return REJECT_ALL;
+                }
+
+                // Value dictionary indexes of matching values
+                final int valueCount = layer.getValueCount();
+                final BitSet valueIndexes = new BitSet(valueCount);
+                for(int i = 0; i < valueCount; ++i) {
+                    final Object nextValue = MvtValue.toObject(layer.getValue(i));
+                    for(Object nextTagValue : tagValues) {
+                        if(valueEquals(nextTagValue, nextValue)) {
+                            valueIndexes.set(i);
+                            break;
+                        }
+                    }
+                }
+
+                return valueIndexes.isEmpty() ? REJECT_ALL : new TagPredicate(keyIndex, valueIndexes, valueCount);
+            }
+        };
+    }
+
+    /**
+     * @param predicates predicates that must all select a feature
+     * @return predicate selecting features selected by all of {@code predicates}
+     */
+    public static IFeaturePredicate and(final IFeaturePredicate... predicates) {
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                final List<ILayerFeaturePredicate> bound = new ArrayList<>(predicates.length);
+                ILayerFeaturePredicate nextBound;
+                for(IFeaturePredicate nextPredicate : predicates) {
+                    nextBound = nextPredicate.bind(layer);
+                    if(nextBound == REJECT_ALL) {
+                        return REJECT_ALL;
+                    } else if(nextBound != ACCEPT_ALL) {
+                        bound.add(nextBound);
+                    }
+                }
+
+                if(bound.isEmpty()) {
+                    return ACCEPT_ALL;
+                } else if(bound.size() == 1) {
+                    return bound.get(0);
+                }
+
+                final ILayerFeaturePredicate[] boundArray = bound.toArray(new ILayerFeaturePredicate[0]);
+                return new ILayerFeaturePredicate() {
+                    @Override
+                    public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+                        for(ILayerFeaturePredicate nextPredicate : boundArray) {
+                            if(!nextPredicate.accept(feature, tags)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @param predicates predicates of which at least one must select a feature
+     * @return predicate selecting features selected by any of {@code predicates}
+     */
+    public static IFeaturePredicate or(final IFeaturePredicate... predicates) {
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                final List<ILayerFeaturePredicate> bound = new ArrayList<>(predicates.length);
+                ILayerFeaturePredicate nextBound;
+                for(IFeaturePredicate nextPredicate : predicates) {
+                    nextBound = nextPredicate.bind(layer);
+                    if(nextBound == ACCEPT_ALL) {
+                        return ACCEPT_ALL;
+                    } else if(nextBound != REJECT_ALL) {
+                        bound.add(nextBound);
+                    }
+                }
+
+                if(bound.isEmpty()) {
+                    return REJECT_ALL;
+                } else if(bound.size() == 1) {
+                    return bound.get(0);
+                }
+
+                final ILayerFeaturePredicate[] boundArray = bound.toArray(new ILayerFeaturePredicate[0]);
+                return new ILayerFeaturePredicate() {
+                    @Override
+                    public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+                        for(ILayerFeaturePredicate nextPredicate : boundArray) {
+                            if(nextPredicate.accept(feature, tags)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @param predicate predicate to negate
+     * @return predicate selecting features not selected by {@code predicate}
+     */
+    public static IFeaturePredicate not(final IFeaturePredicate predicate) {
+        JdkUtils.requireNonNull(predicate);
+
+        return new IFeaturePredicate() {
+            @Override
+            public ILayerFeaturePredicate bind(LazyLayer layer) {
+                final ILayerFeaturePredicate bound = predicate.bind(layer);
+                if(bound == ACCEPT_ALL) {
+                    return REJECT_ALL;
+                } else if(bound == REJECT_ALL) {
+                    return ACCEPT_ALL;
+                }
+
+                return new ILayerFeaturePredicate() {
+                    @Override
+                    public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+                        return !bound.accept(feature, tags);
+                    }
+                };
+            }
+        };
+    }
+
+    private static boolean valueEquals(Object tagValue, Object layerValue) {
+        if(tagValue instanceof Number && layerValue instanceof Number) {
+            final Number a = (Number) tagValue;
+            final Number b = (Number) layerValue;
+            if(isIntegral(a) && isIntegral(b)) {
+                return a.longValue() == b.longValue();
+            }
+            return a.doubleValue() == b.doubleValue();
+        }
+
+        return tagValue.equals(layerValue);
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    /**
+     * Matches a key index and, optionally, a set of value indexes in feature tags.
+     */
+    private static final class TagPredicate implements ILayerFeaturePredicate {
+
+        private final int keyIndex;
+
+        /**
+         * Matching value indexes, or null to match any value.
+         */
+        private final BitSet valueIndexes;
+
+        /**
+         * Size of the layer value dictionary, value indexes outside it never match.
+         */
+        private final int valueCount;
+
+        private TagPredicate(int keyIndex, BitSet valueIndexes, int valueCount) {
+            this.keyIndex = keyIndex;
+            this.valueIndexes = valueIndexes;
+            this.valueCount = valueCount;
+        }
+
+        @Override
+        public boolean accept(LazyFeature feature, IntArrayScratch tags) {
+            final int[] tagArray = tags.array();
+            final int tagCount = tags.size() & ~1;
+
+            for(int i = 0; i < tagCount; i += 2) {
+                if(tagArray[i] == keyIndex && (valueIndexes == null || isValueMatch(tagArray[i + 1]))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isValueMatch(int valueIndex) {
+            return valueIndex >= 0 && valueIndex < valueCount && valueIndexes.get(valueIndex);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.util.JdkUtils;
+
+import java.util.*;
+
+/**
+ * <p>Selects which feature fields are decoded when reading an MVT: id, tags and geometry.</p>
+ *
+ * <p>Tags may be restricted to named keys. Fields that are not selected are skipped on the wire: tag and
+ * geometry packed arrays are stepped over by length without decoding their values.</p>
+ *
+ * <p>Instances are immutable. Start from {@link #ALL} or {@link #NONE} and derive a projection with the
+ * {@code with*} methods:</p>
+ *
+ * <pre>{@code
+ * // Attribute search, no coordinate decoding
+ * final FeatureProjection attributes = FeatureProjection.NONE.withId(true).withTagKeys("name", "class");
+ *
+ * // Hit testing, no tag conversion
+ * final FeatureProjection geometryOnly = FeatureProjection.NONE.withGeometry(true);
+ * }</pre>
+ */
+public final class FeatureProjection {
+
+    /**
+     * Decode id, all tags and geometry.
+     */
+    public static final FeatureProjection ALL = new FeatureProjection(true, true, null, true);
+
+    /**
+     * Decode no feature fields.
+     */
+    public static final FeatureProjection NONE = new FeatureProjection(false, false, null, false);
+
+    private final boolean id;
+    private final boolean tags;
+
+    /**
+     * Selected tag keys, or null for all keys.
+     */
+    private final Set<String> tagKeys;
+
+    private final boolean geometry;
+
+    private FeatureProjection(boolean id, boolean tags, Set<String> tagKeys, boolean geometry) {
+        this.id = id;
+        this.tags = tags;
+        this.tagKeys = tagKeys;
+        this.geometry = geometry;
+    }
+
+    /**
+     * @param id true to decode feature ids
+     * @return projection with the id selection changed
+     */
+    public FeatureProjection withId(boolean id) {
+        return new FeatureProjection(id, tags, tagKeys, geometry);
+    }
+
+    /**
+     * @param tags true to decode all feature tags, false to decode none
+     * @return projection with the tag selection changed
+     */
+    public FeatureProjection withTags(boolean tags) {
+        return new FeatureProjection(id, tags, null, geometry);
+    }
+
+    /**
+     * @param keys keys of the tags to decode, other tags are dropped
+     * @return projection decoding only tags with the given keys
+     */
+    public FeatureProjection withTagKeys(String... keys) {
+        return withTagKeys(Arrays.asList(keys));
+    }
+
+    /**
+     * @param keys keys of the tags to decode, other tags are dropped
+     * @return projection decoding only tags with the given keys
+     */
+    public FeatureProjection withTagKeys(Collection<String> keys) {
+        for(String nextKey : keys) {
+            JdkUtils.requireNonNull(nextKey);
+        }
+        return new FeatureProjection(id, true, Collections.unmodifiableSet(new HashSet<>(keys)), geometry);
+    }
+
+    /**
+     * @param geometry true to decode feature geometry
+     * @return projection with the geometry selection changed
+     */
+    public FeatureProjection withGeometry(boolean geometry) {
+        return new FeatureProjection(id, tags, tagKeys, geometry);
+    }
+
+    /**
+     * @return true if feature ids are decoded
+     */
+    public boolean isIdIncluded() {
+        return id;
+    }
+
+    /**
+     * @return true if feature tags, or some of them, are decoded
+     */
+    public boolean isTagsIncluded() {
+        return tags;
+    }
+
+    /**
+     * @return keys of the decoded tags, or null if all tags are decoded or none are
+     */
+    public Set<String> getTagKeys() {
+        return tags ? tagKeys : null;
+    }
+
+    /**
+     * @return true if feature geometry is decoded
+     */
+    public boolean isGeometryIncluded() {
+        return geometry;
+    }
+
+    /**
+     * Resolve the selected tag keys against a layer's key dictionary.
+     *
+     * @param layer layer about to be read
+     * @return per key index, true if tags with that key are decoded; null if all tags are decoded or none are
+     * @see #retainTags(IntArrayScratch, boolean[])
+     */
+    public boolean[] bindTagKeys(LazyLayer layer) {
+        if(!tags || tagKeys == null) {
+            return null;
+        }
+
+        final int keyCount = layer.getKeyCount();
+        final boolean[] keyMask = new boolean[keyCount];
+        for(int i = 0; i < keyCount; ++i) {
+            keyMask[i] = tagKeys.contains(layer.getKey(i));
+        }
+        return keyMask;
+    }
+
+    /**
+     * Remove tags whose key is not selected, in place.
+     *
+     * @param tags decoded feature tags, alternating key and value indexes
+     * @param keyMask result of {@link #bindTagKeys(LazyLayer)} for the feature's layer, null keeps all tags
+     */
+    public static void retainTags(IntArrayScratch tags, boolean[] keyMask) {
+        if(keyMask == null) {
+            return;
+        }
+
+        final int[] tagArray = tags.array();
+        final int tagCount = tags.size() & ~1;
+        int keyIndex;
+        int size = 0;
+        for(int i = 0; i < tagCount; i += 2) {
+            keyIndex = tagArray[i];
+            if(keyIndex >= 0 && keyIndex < keyMask.length && keyMask[keyIndex]) {
+                tagArray[size++] = keyIndex;
+                tagArray[size++] = tagArray[i + 1];
+            }
+        }
+        tags.truncate(size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final FeatureProjection that = (FeatureProjection) o;
+        return id == that.id
+                && tags == that.tags
+                && geometry == that.geometry
+                && (tagKeys != null ? tagKeys.equals(that.tagKeys) : that.tagKeys == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id ? 1 : 0;
+        result = 31 * result + (tags ? 1 : 0);
+        result = 31 * result + (tagKeys != null ? tagKeys.hashCode() : 0);
+        result = 31 * result + (geometry ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureProjection{" +
+                "id=" + id +
+                ", tags=" + (tags && tagKeys != null ? tagKeys : tags) +
+                ", geometry=" + geometry +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+/**
+ * <p>Selects features while reading an MVT, before their geometry or properties are decoded.</p>
+ *
+ * <p>A predicate is bound once per layer with {@link #bind(LazyLayer)}, resolving layer names and tag keys and
+ * values to dictionary indexes. The bound predicate then tests each feature by its geometry type, id and tag
+ * indexes only. See {@link FeaturePredicates} for common predicates.</p>
+ */
+public interface IFeaturePredicate {
+
+    /**
+     * Resolve the predicate against a layer's name and key/value dictionaries.
+     *
+     * @param layer layer about to be read
+     * @return predicate for the features of the layer, {@link FeaturePredicates#REJECT_ALL} to skip the layer
+     */
+    ILayerFeaturePredicate bind(LazyLayer layer);
+}
@@ -0,0 +1,14 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+/**
+ * Feature predicate bound to one layer by {@link IFeaturePredicate#bind(LazyLayer)}.
+ */
+public interface ILayerFeaturePredicate {
+
+    /**
+     * @param feature feature to test, valid only during the call
+     * @param tags decoded feature tags, alternating key and value indexes into the layer dictionaries
+     * @return true to read the feature
+     */
+    boolean accept(LazyFeature feature, IntArrayScratch tags);
+}
@@ -0,0 +1,119 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Reusable, growable {@code int[]} for decoding repeated uint32 fields such as feature geometry and tags
+ * without allocating per feature.</p>
+ *
+ * <p>Values are valid until the next decode into the same instance. Instances are not thread-safe.</p>
+ *
+ * @see LazyFeature#getGeometry(IntArrayScratch)
+ * @see LazyFeature#getTags(IntArrayScratch)
+ */
+public final class IntArrayScratch {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] values;
+    private int size;
+
+    /**
+     * Live list view of {@link #values}, created on first use.
+     */
+    private List<Integer> listView;
+
+    public IntArrayScratch() {
+        this.values = new int[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * @return backing array, valid from index 0 to {@link #size()}, exclusive
+     */
+    public int[] array() {
+        return values;
+    }
+
+    /**
+     * @return count of decoded values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return read-only list view of the decoded values, reflecting later decodes into this instance
+     */
+    public List<Integer> asList() {
+        if(listView == null) {
+            listView = new AbstractList<Integer>() {
+                @Override
+                public Integer get(int i) {
+                    if(i < 0 || i >= size) {
+                        throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+                    }
+                    return values[i];
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return listView;
+    }
+
+    /**
+     * @return read-only copy of the decoded values, unaffected by later decodes into this instance
+     */
+    public List<Integer> toList() {
+        final int[] copy = Arrays.copyOf(values, size);
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int i) {
+                return copy[i];
+            }
+
+            @Override
+            public int size() {
+                return copy.length;
+            }
+        };
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param newSize count of values to keep, at most {@link #size()}
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Ensure at least {@code additional} more values fit without growing.
+     *
+     * @param additional count of values about to be added
+     */
+    void ensureCapacity(int additional) {
+        final int required = size + additional;
+        if(required > values.length) {
+            values = Arrays.copyOf(values, Math.max(required, values.length << 1));
+        }
+    }
+
+    /**
+     * Add a value, capacity must have been ensured.
+     *
+     * @param value value to add
+     */
+    void addUnchecked(int value) {
+        values[size++] = value;
+    }
+}
@@ -0,0 +1,326 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmd;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdHdr;
+import com.wdtinc.mapbox_vector_tile.encoding.ZigZag;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * <p>Lazy flyweight view of a single MVT feature within a {@link LazyLayer}.</p>
+ *
+ * <p>The id and geometry type are decoded when the view is positioned. Tags and geometry commands are
+ * only decoded when requested. A view may be repositioned with {@link LazyLayer#getFeature(int, LazyFeature)}
+ * and is not thread-safe.</p>
+ */
+public final class LazyFeature {
+
+    /** Field numbers from vector_tile.proto */
+    private static final int FEATURE_ID = 1;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+
+    private final PbfCursor cursor;
+
+    private int start;
+    private int end;
+
+    private boolean hasId;
+    private long id;
+    private VectorTile.Tile.GeomType type;
+
+    LazyFeature(ByteBuffer buf) {
+        this.cursor = new PbfCursor(buf, 0, 0);
+    }
+
+    /**
+     * Position this view on the feature message contents and decode the id and type.
+     *
+     * @param start start of the feature message contents
+     * @param end end of the feature message contents, exclusive
+     */
+    void reset(int start, int end) {
+        this.start = start;
+        this.end = end;
+        this.hasId = false;
+        this.id = 0L;
+        this.type = VectorTile.Tile.GeomType.UNKNOWN;
+
+        cursor.reset(start, end);
+
+        int tag;
+        while(cursor.hasRemaining()) {
+            tag = cursor.readTag();
+
+            if(tag == (FEATURE_ID << 3 | PbfCursor.WIRETYPE_VARINT)) {
+                hasId = true;
+                id = cursor.readVarint64();
+
+            } else if(tag == (FEATURE_TYPE << 3 | PbfCursor.WIRETYPE_VARINT)) {
+                final VectorTile.Tile.GeomType nextType = VectorTile.Tile.GeomType.forNumber(cursor.readVarint32());
+                type = nextType == null ? VectorTile.Tile.GeomType.UNKNOWN : nextType;
+
+            } else {
+                cursor.skipField(tag);
+            }
+        }
+    }
+
+    /**
+     * @return true if the feature has an id
+     */
+    public boolean hasId() {
+        return hasId;
+    }
+
+    /**
+     * @return feature id, 0 if not present
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return feature geometry type, {@link VectorTile.Tile.GeomType#UNKNOWN} if not present
+     */
+    public VectorTile.Tile.GeomType getType() {
+        return type;
+    }
+
+    /**
+     * @return new array of feature tags, alternating key and value indices
+     */
+    public int[] getTags() {
+        return readUInt32s(FEATURE_TAGS);
+    }
+
+    /**
+     * @return read-only list view of a copy of the feature tags
+     * @see #getTags()
+     */
+    public List<Integer> getTagsList() {
+        final int[] tags = getTags();
+
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int i) {
+                return tags[i];
+            }
+
+            @Override
+            public int size() {
+                return tags.length;
+            }
+        };
+    }
+
+    /**
+     * @return new array of feature geometry commands
+     */
+    public int[] getGeometry() {
+        return readUInt32s(FEATURE_GEOMETRY);
+    }
+
+    /**
+     * Decode feature tags into reusable storage, without allocating when {@code dst} has capacity.
+     *
+     * @param dst receives alternating key and value indices, replacing previous contents
+     */
+    public void getTags(IntArrayScratch dst) {
+        readUInt32s(FEATURE_TAGS, dst);
+    }
+
+    /**
+     * Decode feature geometry commands into reusable storage, without allocating when {@code dst} has capacity.
+     *
+     * @param dst receives geometry commands, replacing previous contents
+     */
+    public void getGeometry(IntArrayScratch dst) {
+        readUInt32s(FEATURE_GEOMETRY, dst);
+    }
+
+    /**
+     * <p>Test if the bounding box of the feature geometry intersects a rectangle in MVT extent coordinates.</p>
+     *
+     * <p>Geometry commands are decoded in place without allocation, and only until a vertex inside the rectangle
+     * is found. Otherwise all vertices are read to compute the bounding box.</p>
+     *
+     * @param minX rectangle min x, inclusive
+     * @param minY rectangle min y, inclusive
+     * @param maxX rectangle max x, inclusive
+     * @param maxY rectangle max y, inclusive
+     * @return true if the geometry bounding box intersects the rectangle, false if the geometry has no vertices
+     */
+    public boolean intersects(int minX, int minY, int maxX, int maxY) {
+        int boundsMinX = Integer.MAX_VALUE;
+        int boundsMinY = Integer.MAX_VALUE;
+        int boundsMaxX = Integer.MIN_VALUE;
+        int boundsMaxY = Integer.MIN_VALUE;
+
+        // Command parameters left in the current command, x parameter when even
+        int paramsLeft = 0;
+        int x = 0;
+        int y = 0;
+        int value;
+        boolean packed;
+        int packedEnd;
+        boolean more;
+
+        cursor.reset(start, end);
+
+        int tag;
+        while(cursor.hasRemaining()) {
+            tag = cursor.readTag();
+
+            if(PbfCursor.fieldNumber(tag) != FEATURE_GEOMETRY) {
+                cursor.skipField(tag);
+                continue;
+            }
+
+            packed = PbfCursor.wireType(tag) == PbfCursor.WIRETYPE_LENGTH_DELIMITED;
+            packedEnd = packed ? cursor.readLengthDelimitedEnd() : cursor.pos;
+            more = !packed || cursor.pos < packedEnd;
+
+            while(more) {
+                value = cursor.readVarint32();
+
+                if(paramsLeft == 0) {
+
+                    // Command header: MoveTo and LineTo have 2 parameters per vertex, ClosePath none
+                    final int cmdId = GeomCmdHdr.getCmdId(value);
+                    paramsLeft = cmdId == GeomCmd.MoveTo.getCmdId() || cmdId == GeomCmd.LineTo.getCmdId()
+                            ? GeomCmdHdr.getCmdLength(value) << 1 : 0;
+
+                } else if((paramsLeft-- & 1) == 0) {
+                    x += ZigZag.decode(value);
+
+                } else {
+                    y += ZigZag.decode(value);
+
+                    // Guard: vertex inside rectangle
+                    if(x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        return true;
+                    }
+
+                    boundsMinX = Math.min(boundsMinX, x);
+                    boundsMinY = Math.min(boundsMinY, y);
+                    boundsMaxX = Math.max(boundsMaxX, x);
+                    boundsMaxY = Math.max(boundsMaxY, y);
+                }
+
+                more = packed && cursor.pos < packedEnd;
+            }
+
+            if(packed) {
+                cursor.pos = packedEnd;
+            }
+        }
+
+        return boundsMinX <= maxX && boundsMaxX >= minX && boundsMinY <= maxY && boundsMaxY >= minY;
+    }
+
+    /**
+     * Decode all values of a repeated uint32 field in a single pass. Supports both packed and unpacked encoding.
+     *
+     * @param fieldNumber repeated uint32 field number
+     * @param dst receives values, replacing previous contents
+     */
+    private void readUInt32s(int fieldNumber, IntArrayScratch dst) {
+        dst.clear();
+        cursor.reset(start, end);
+
+        int tag;
+        while(cursor.hasRemaining()) {
+            tag = cursor.readTag();
+
+            if(PbfCursor.fieldNumber(tag) != fieldNumber) {
+                cursor.skipField(tag);
+
+            } else if(PbfCursor.wireType(tag) == PbfCursor.WIRETYPE_LENGTH_DELIMITED) {
+                final int packedEnd = cursor.readLengthDelimitedEnd();
+
+                // Each varint takes at least one byte, so the packed length bounds the value count
+                dst.ensureCapacity(packedEnd - cursor.pos);
+                while(cursor.pos < packedEnd) {
+                    dst.addUnchecked(cursor.readVarint32());
+                }
+                cursor.pos = packedEnd;
+
+            } else {
+                dst.ensureCapacity(1);
+                dst.addUnchecked(cursor.readVarint32());
+            }
+        }
+    }
+
+    /**
+     * Decode all values of a repeated uint32 field. Supports both packed and unpacked encoding.
+     *
+     * @param fieldNumber repeated uint32 field number
+     * @return new array of values
+     */
+    private int[] readUInt32s(int fieldNumber) {
+        final int count = countUInt32s(fieldNumber);
+        final int[] result = new int[count];
+        int index = 0;
+
+        cursor.reset(start, end);
+
+        int tag;
+        while(cursor.hasRemaining() && index < count) {
+            tag = cursor.readTag();
+
+            if(PbfCursor.fieldNumber(tag) != fieldNumber) {
+                cursor.skipField(tag);
+
+            } else if(PbfCursor.wireType(tag) == PbfCursor.WIRETYPE_LENGTH_DELIMITED) {
+                final int packedEnd = cursor.readLengthDelimitedEnd();
+                while(cursor.pos < packedEnd && index < count) {
+                    result[index++] = cursor.readVarint32();
+                }
+                cursor.pos = packedEnd;
+
+            } else {
+                result[index++] = cursor.readVarint32();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Count values of a repeated uint32 field without decoding them.
+     *
+     * @param fieldNumber repeated uint32 field number
+     * @return count of values
+     */
+    private int countUInt32s(int fieldNumber) {
+        int count = 0;
+
+        cursor.reset(start, end);
+
+        int tag;
+        while(cursor.hasRemaining()) {
+            tag = cursor.readTag();
+
+            if(PbfCursor.fieldNumber(tag) != fieldNumber) {
+                cursor.skipField(tag);
+
+            } else if(PbfCursor.wireType(tag) == PbfCursor.WIRETYPE_LENGTH_DELIMITED) {
+                final int packedEnd = cursor.readLengthDelimitedEnd();
+                count += cursor.countVarints(packedEnd);
+                cursor.pos = packedEnd;
+
+            } else {
+                cursor.readVarint64();
+                ++count;
+            }
+        }
+
+        return count;
+    }
+}
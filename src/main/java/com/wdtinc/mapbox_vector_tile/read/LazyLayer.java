@@ -0,0 +1,364 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Lazy view of a single MVT layer within a {@link LazyMvt}.</p>
+ *
+ * <p>The layer name is decoded on first access by scanning only up to the name field. Field offsets for
+ * features, keys and values are indexed on first access to any of them. Keys and values are
+ * decoded individually on access and cached.</p>
+ *
+ * <p>Malformed layer data is reported with a {@link MalformedMvtException} on access.</p>
+ */
+public final class LazyLayer {
+
+    /** Field numbers from vector_tile.proto */
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_FLOAT = 2;
+    private static final int VALUE_DOUBLE = 3;
+    private static final int VALUE_INT = 4;
+    private static final int VALUE_UINT = 5;
+    private static final int VALUE_SINT = 6;
+    private static final int VALUE_BOOL = 7;
+
+    /**
+     * Default values from vector_tile.proto.
+     */
+    private static final int DEFAULT_VERSION = 1;
+    private static final int DEFAULT_EXTENT = 4096;
+
+    private final ByteBuffer buf;
+    private final int start;
+    private final int end;
+
+    private volatile String name;
+    private volatile Index index;
+
+    LazyLayer(ByteBuffer buf, int start, int end) {
+        this.buf = buf;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Get the layer name. Decodes only up to the name field.
+     *
+     * @return layer name, or empty string if the layer has no name
+     */
+    public String getName() {
+        String result = name;
+
+        if(result == null) {
+            result = "";
+            final PbfCursor cursor = new PbfCursor(buf, start, end);
+
+            int tag;
+            while(cursor.hasRemaining()) {
+                tag = cursor.readTag();
+
+                if(PbfCursor.fieldNumber(tag) == LAYER_NAME) {
+                    result = cursor.readString();
+                    break;
+                }
+
+                cursor.skipField(tag);
+            }
+
+            name = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return layer version, defaults to 1
+     */
+    public int getVersion() {
+        return index().version;
+    }
+
+    /**
+     * @return layer extent, defaults to 4096
+     */
+    public int getExtent() {
+        return index().extent;
+    }
+
+    /**
+     * @return count of features in the layer
+     */
+    public int getFeatureCount() {
+        return index().featureCount;
+    }
+
+    /**
+     * Get the feature at the given index.
+     *
+     * @param featureIndex index of the feature, in layer order
+     * @return new feature view
+     */
+    public LazyFeature getFeature(int featureIndex) {
+        final LazyFeature feature = new LazyFeature(buf);
+        return getFeature(featureIndex, feature);
+    }
+
+    /**
+     * Position a feature flyweight at the given index, avoiding allocation.
+     *
+     * @param featureIndex index of the feature, in layer order
+     * @param reuse feature view from this tile to reposition
+     * @return {@code reuse}, positioned at the feature
+     */
+    public LazyFeature getFeature(int featureIndex, LazyFeature reuse) {
+        final Index idx = index();
+        checkIndex(featureIndex, idx.featureCount);
+        reuse.reset(idx.featureOffsets[featureIndex * 2], idx.featureOffsets[featureIndex * 2 + 1]);
+        return reuse;
+    }
+
+    /**
+     * @return count of keys in the layer dictionary
+     */
+    public int getKeyCount() {
+        return index().keyCount;
+    }
+
+    /**
+     * Get a key from the layer dictionary, decoding it on first access.
+     *
+     * @param keyIndex key index, as referenced by feature tags
+     * @return key at the given index
+     */
+    public String getKey(int keyIndex) {
+        final Index idx = index();
+        checkIndex(keyIndex, idx.keyCount);
+
+        String key = idx.keys.get(keyIndex);
+        if(key == null) {
+            final PbfCursor cursor = new PbfCursor(buf, idx.keyOffsets[keyIndex * 2], idx.keyOffsets[keyIndex * 2 + 1]);
+            key = cursor.readRemainingString();
+            idx.keys.set(keyIndex, key);
+        }
+
+        return key;
+    }
+
+    /**
+     * @return read-only list view of the key dictionary, decoded lazily
+     */
+    public List<String> getKeys() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                return getKey(i);
+            }
+
+            @Override
+            public int size() {
+                return getKeyCount();
+            }
+        };
+    }
+
+    /**
+     * @return count of values in the layer dictionary
+     */
+    public int getValueCount() {
+        return index().valueCount;
+    }
+
+    /**
+     * Get a value from the layer dictionary, decoding it on first access.
+     *
+     * @param valueIndex value index, as referenced by feature tags
+     * @return value at the given index
+     */
+    public VectorTile.Tile.Value getValue(int valueIndex) {
+        final Index idx = index();
+        checkIndex(valueIndex, idx.valueCount);
+
+        VectorTile.Tile.Value value = idx.values.get(valueIndex);
+        if(value == null) {
+            value = readValue(new PbfCursor(buf, idx.valueOffsets[valueIndex * 2], idx.valueOffsets[valueIndex * 2 + 1]));
+            idx.values.set(valueIndex, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * @return read-only list view of the value dictionary, decoded lazily
+     */
+    public List<VectorTile.Tile.Value> getValues() {
+        return new AbstractList<VectorTile.Tile.Value>() {
+            @Override
+            public VectorTile.Tile.Value get(int i) {
+                return getValue(i);
+            }
+
+            @Override
+            public int size() {
+                return getValueCount();
+            }
+        };
+    }
+
+    /**
+     * Decode a {@code Tile.Value} message.
+     *
+     * @param cursor positioned over the message contents
+     * @return decoded value
+     */
+    private static VectorTile.Tile.Value readValue(PbfCursor cursor) {
+        final VectorTile.Tile.Value.Builder valueBuilder = VectorTile.Tile.Value.newBuilder();
+
+        int tag;
+        while(cursor.hasRemaining()) {
+            tag = cursor.readTag();
+
+            switch(PbfCursor.fieldNumber(tag)) {
+                case VALUE_STRING:
+                    valueBuilder.setStringValue(cursor.readString());
+                    break;
+                case VALUE_FLOAT:
+                    valueBuilder.setFloatValue(cursor.readFloat());
+                    break;
+                case VALUE_DOUBLE:
+                    valueBuilder.setDoubleValue(cursor.readDouble());
+                    break;
+                case VALUE_INT:
+                    valueBuilder.setIntValue(cursor.readVarint64());
+                    break;
+                case VALUE_UINT:
+                    valueBuilder.setUintValue(cursor.readVarint64());
+                    break;
+                case VALUE_SINT:
+                    final long n = cursor.readVarint64();
+                    valueBuilder.setSintValue((n >>> 1) ^ -(n & 1));
+                    break;
+                case VALUE_BOOL:
+                    valueBuilder.setBoolValue(cursor.readVarint64() != 0L);
+                    break;
+                default:
+                    cursor.skipField(tag);
+            }
+        }
+
+        return valueBuilder.build();
+    }
+
+    /**
+     * Index field offsets on first call.
+     *
+     * @return layer index
+     */
+    private Index index() {
+        Index result = index;
+
+        if(result == null) {
+            synchronized(this) {
+                result = index;
+                if(result == null) {
+                    result = new Index(buf, start, end);
+                    index = result;
+                    if(name == null) {
+                        name = result.name;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static void checkIndex(int index, int count) {
+        if(index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index: " + index + ", count: " + count);
+        }
+    }
+
+    /**
+     * Offsets of repeated layer fields, stored as (start, end) pairs of the field contents.
+     */
+    private static final class Index {
+        private String name = "";
+        private int version = DEFAULT_VERSION;
+        private int extent = DEFAULT_EXTENT;
+
+        private int[] featureOffsets = new int[16];
+        private int featureCount;
+        private int[] keyOffsets = new int[16];
+        private int keyCount;
+        private int[] valueOffsets = new int[16];
+        private int valueCount;
+
+        private final AtomicReferenceArray<String> keys;
+        private final AtomicReferenceArray<VectorTile.Tile.Value> values;
+
+        private Index(ByteBuffer buf, int start, int end) {
+            final PbfCursor cursor = new PbfCursor(buf, start, end);
+
+            int tag;
+            int fieldEnd;
+            while(cursor.hasRemaining()) {
+                tag = cursor.readTag();
+
+                switch(PbfCursor.fieldNumber(tag)) {
+                    case LAYER_NAME:
+                        name = cursor.readString();
+                        break;
+                    case LAYER_FEATURES:
+                        fieldEnd = cursor.readLengthDelimitedEnd();
+                        featureOffsets = add(featureOffsets, featureCount++, cursor.pos, fieldEnd);
+                        cursor.pos = fieldEnd;
+                        break;
+                    case LAYER_KEYS:
+                        fieldEnd = cursor.readLengthDelimitedEnd();
+                        keyOffsets = add(keyOffsets, keyCount++, cursor.pos, fieldEnd);
+                        cursor.pos = fieldEnd;
+                        break;
+                    case LAYER_VALUES:
+                        fieldEnd = cursor.readLengthDelimitedEnd();
+                        valueOffsets = add(valueOffsets, valueCount++, cursor.pos, fieldEnd);
+                        cursor.pos = fieldEnd;
+                        break;
+                    case LAYER_EXTENT:
+                        extent = cursor.readVarint32();
+                        break;
+                    case LAYER_VERSION:
+                        version = cursor.readVarint32();
+                        break;
+                    default:
+                        cursor.skipField(tag);
+                }
+            }
+
+            keys = new AtomicReferenceArray<>(keyCount);
+            values = new AtomicReferenceArray<>(valueCount);
+        }
+
+        private static int[] add(int[] offsets, int count, int start, int end) {
+            int[] result = offsets;
+            if(count * 2 + 2 > result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+
+            result[count * 2] = start;
+            result[count * 2 + 1] = end;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.wdtinc.mapbox_vector_tile.compress.TileDecompressor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * <p>Lazy, zero-copy view of an encoded Mapbox Vector Tile (MVT) backed by a {@link ByteBuffer}.</p>
+ *
+ * <p>Opening a tile only indexes the offsets of its layers. Layer names, key/value dictionaries, features
+ * and feature geometry are decoded from the buffer when they are accessed. Unwanted layers are skipped
+ * by their length prefix and never decoded.</p>
+ *
+ * <p>Gzip and zstd compressed tiles are detected by their magic bytes and decompressed to a heap buffer when
+ * opened, see {@link TileDecompressor}. Uncompressed tiles are read in place.</p>
+ *
+ * <p>The backing buffer must not be modified while the view is in use. Instances are safe for
+ * concurrent reads.</p>
+ *
+ * @see LazyLayer
+ * @see LazyFeature
+ */
+public final class LazyMvt {
+
+    /**
+     * Field number of {@code Tile.layers}.
+     */
+    private static final int TILE_LAYERS = 3;
+
+    private final List<LazyLayer> layers;
+
+    private LazyMvt(List<LazyLayer> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * Open a tile from the bytes between the position and limit of {@code buffer}. The buffer
+     * position and limit are not modified.
+     *
+     * @param buffer encoded MVT bytes, heap, direct, or memory-mapped, optionally gzip or zstd compressed
+     * @return lazy tile view
+     * @throws InvalidProtocolBufferException if the top-level tile structure or compressed data is malformed
+     */
+    public static LazyMvt open(ByteBuffer buffer) throws InvalidProtocolBufferException {
+        final ByteBuffer tileBuffer = decompress(buffer);
+        final ByteBuffer buf = PbfCursor.littleEndian(tileBuffer);
+        final List<LazyLayer> layers = new ArrayList<>();
+
+        try {
+            final PbfCursor cursor = new PbfCursor(buf, tileBuffer.position(), tileBuffer.limit());
+
+            int tag;
+            while(cursor.hasRemaining()) {
+                tag = cursor.readTag();
+
+                if(PbfCursor.fieldNumber(tag) == TILE_LAYERS
+                        && PbfCursor.wireType(tag) == PbfCursor.WIRETYPE_LENGTH_DELIMITED) {
+
+                    // Index layer, skip contents by length prefix
+                    final int end = cursor.readLengthDelimitedEnd();
+                    layers.add(new LazyLayer(buf, cursor.pos, end));
+                    cursor.pos = end;
+
+                } else {
+                    cursor.skipField(tag);
+                }
+            }
+
+        } catch (MalformedMvtException e) {
+            throw (InvalidProtocolBufferException) new InvalidProtocolBufferException(e.getMessage()).initCause(e);
+        }
+
+        return new LazyMvt(Collections.unmodifiableList(layers));
+    }
+
+    private static ByteBuffer decompress(ByteBuffer buffer) throws InvalidProtocolBufferException {
+        try {
+            return TileDecompressor.decompress(buffer);
+        } catch (InvalidProtocolBufferException e) {
+            throw e;
+        } catch (IOException e) {
+            throw (InvalidProtocolBufferException) new InvalidProtocolBufferException(e.getMessage()).initCause(e);
+        }
+    }
+
+    /**
+     * Open a tile from a byte array without copying.
+     *
+     * @param bytes encoded MVT bytes
+     * @return lazy tile view
+     * @throws InvalidProtocolBufferException if the top-level tile structure is malformed
+     */
+    public static LazyMvt open(byte[] bytes) throws InvalidProtocolBufferException {
+        return open(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Open a tile by memory-mapping a file read-only.
+     *
+     * @param file path to the MVT
+     * @return lazy tile view
+     * @throws IOException failure mapping the file, or if the top-level tile structure is malformed
+     */
+    public static LazyMvt open(File file) throws IOException {
+        final ByteBuffer mapped;
+
+        try(final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            final FileChannel channel = raf.getChannel()) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
+
+        return open(mapped);
+    }
+
+    /**
+     * @return count of layers in the tile
+     */
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    /**
+     * Get the layer at the given index.
+     *
+     * @param index layer index, in tile order
+     * @return layer at the given index
+     */
+    public LazyLayer getLayer(int index) {
+        return layers.get(index);
+    }
+
+    /**
+     * Get the first layer with the given name. Only layer names are decoded.
+     *
+     * @param name layer name
+     * @return layer with matching name, or null if none exists
+     */
+    public LazyLayer getLayer(String name) {
+        for(LazyLayer nextLayer : layers) {
+            if(nextLayer.getName().equals(name)) {
+                return nextLayer;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return read-only list of all layers, in tile order
+     */
+    public List<LazyLayer> getLayers() {
+        return layers;
+    }
+}
@@ -0,0 +1,18 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+/**
+ * <p>Malformed MVT protobuf data found while decoding a lazily read tile.</p>
+ *
+ * <p>Distinguishes corrupt tile data from other {@link IllegalArgumentException}s thrown by caller code, such as
+ * tag converters or visitors, that runs while a tile is decoded.</p>
+ */
+public final class MalformedMvtException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message details of the problem
+     */
+    public MalformedMvtException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,270 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+/**
+ * <p>Minimal protobuf wire format cursor over a region of a {@link ByteBuffer}. Uses absolute reads,
+ * so the buffer position and limit are never modified and buffers may be shared between cursors.</p>
+ *
+ * <p>See <a href="https://developers.google.com/protocol-buffers/docs/encoding">Google Protocol Buffers Docs</a>.</p>
+ */
+final class PbfCursor {
+
+    static final int WIRETYPE_VARINT = 0;
+    static final int WIRETYPE_FIXED64 = 1;
+    static final int WIRETYPE_LENGTH_DELIMITED = 2;
+    static final int WIRETYPE_FIXED32 = 5;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Little-endian view of the source buffer.
+     */
+    private final ByteBuffer buf;
+
+    /**
+     * Current read position.
+     */
+    int pos;
+
+    /**
+     * End of the readable region, exclusive.
+     */
+    int limit;
+
+    /**
+     * Create a cursor over {@code buf} from {@code pos} to {@code limit}.
+     *
+     * @param buf little-endian buffer, see {@link #littleEndian(ByteBuffer)}
+     * @param pos start position
+     * @param limit end position, exclusive
+     */
+    PbfCursor(ByteBuffer buf, int pos, int limit) {
+        this.buf = buf;
+        reset(pos, limit);
+    }
+
+    /**
+     * @param buffer source buffer
+     * @return little-endian view sharing content with {@code buffer}
+     */
+    static ByteBuffer littleEndian(ByteBuffer buffer) {
+        return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Move the cursor to a new region of the same buffer.
+     *
+     * @param pos start position
+     * @param limit end position, exclusive
+     */
+    void reset(int pos, int limit) {
+        if(pos < 0 || limit > buf.limit() || pos > limit) {
+            throw malformed("region [" + pos + ", " + limit + ") out of bounds");
+        }
+
+        this.pos = pos;
+        this.limit = limit;
+    }
+
+    /**
+     * @return true if there are bytes remaining in the region
+     */
+    boolean hasRemaining() {
+        return pos < limit;
+    }
+
+    /**
+     * @param tag field tag
+     * @return field number component of the tag
+     */
+    static int fieldNumber(int tag) {
+        return tag >>> 3;
+    }
+
+    /**
+     * @param tag field tag
+     * @return wire type component of the tag
+     */
+    static int wireType(int tag) {
+        return tag & 0x7;
+    }
+
+    /**
+     * @return next field tag
+     */
+    int readTag() {
+        return readVarint32();
+    }
+
+    /**
+     * Read a varint, truncated to 32 bits.
+     *
+     * @return varint value
+     */
+    int readVarint32() {
+
+        // Fast path: single byte varint, the common case for geometry deltas and tags
+        if(pos < limit) {
+            final byte b = buf.get(pos);
+            if(b >= 0) {
+                ++pos;
+                return b;
+            }
+        }
+
+        return (int) readVarint64();
+    }
+
+    /**
+     * @return varint value
+     */
+    long readVarint64() {
+        long result = 0L;
+
+        for(int shift = 0; shift < 64; shift += 7) {
+            if(pos >= limit) {
+                throw malformed("truncated varint");
+            }
+
+            final byte b = buf.get(pos++);
+            result |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return result;
+            }
+        }
+
+        throw malformed("varint too long");
+    }
+
+    /**
+     * Count the varints between the current position and {@code end} without decoding them.
+     * The position is not modified.
+     *
+     * @param end end position, exclusive
+     * @return count of varints
+     */
+    int countVarints(int end) {
+        int count = 0;
+
+        for(int i = pos; i < end; ++i) {
+            if((buf.get(i) & 0x80) == 0) {
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Read a length prefix and check that the delimited bytes are within the region.
+     *
+     * @return end position, exclusive, of the length delimited bytes
+     */
+    int readLengthDelimitedEnd() {
+        final int length = readVarint32();
+        final int end = pos + length;
+
+        if(length < 0 || end > limit || end < pos) {
+            throw malformed("length " + length + " out of bounds");
+        }
+
+        return end;
+    }
+
+    /**
+     * @return little-endian 32-bit float
+     */
+    float readFloat() {
+        checkRemaining(4);
+        final float value = buf.getFloat(pos);
+        pos += 4;
+        return value;
+    }
+
+    /**
+     * @return little-endian 64-bit double
+     */
+    double readDouble() {
+        checkRemaining(8);
+        final double value = buf.getDouble(pos);
+        pos += 8;
+        return value;
+    }
+
+    /**
+     * @return length delimited UTF-8 string
+     */
+    String readString() {
+        final int end = readLengthDelimitedEnd();
+        final String value = decodeString(pos, end - pos);
+        pos = end;
+        return value;
+    }
+
+    /**
+     * Decode all remaining bytes in the region as a UTF-8 string.
+     *
+     * @return UTF-8 string
+     */
+    String readRemainingString() {
+        final String value = decodeString(pos, limit - pos);
+        pos = limit;
+        return value;
+    }
+
+    /**
+     * Skip the value of a field that has just had its tag read.
+     *
+     * @param tag field tag
+     */
+    void skipField(int tag) {
+        switch(wireType(tag)) {
+            case WIRETYPE_VARINT:
+                readVarint64();
+                break;
+            case WIRETYPE_FIXED64:
+                checkRemaining(8);
+                pos += 8;
+                break;
+            case WIRETYPE_LENGTH_DELIMITED:
+                pos = readLengthDelimitedEnd();
+                break;
+            case WIRETYPE_FIXED32:
+                checkRemaining(4);
+                pos += 4;
+                break;
+            default:
+                throw malformed("unsupported wire type " + wireType(tag));
+        }
+    }
+
+    private String decodeString(int offset, int length) {
+        if(buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + offset, length, UTF_8);
+
+        } else {
+            final byte[] bytes = new byte[length];
+            final ByteBuffer src = buf.duplicate();
+            src.position(offset);
+            src.get(bytes);
+            return new String(bytes, UTF_8);
+        }
+    }
+
+    private void checkRemaining(int count) {
+        if(limit - pos < count) {
+            throw malformed("truncated fixed width value");
+        }
+    }
+
+    /**
+     * @param message details of the problem
+     * @return exception for malformed protobuf data
+     */
+    static MalformedMvtException malformed(String message) {
+        return new MalformedMvtException("Malformed MVT protobuf: " + message);
+    }
+}
@@ -0,0 +1,106 @@
+package com.wdtinc.mapbox_vector_tile.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs independent tasks on an {@link Executor} and joins their results in order, without
+ * deadlocking when called from a task already running on the same executor.
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() {}
+
+    /**
+     * <p>Run all tasks and return their results in task order. The first task runs on the calling thread
+     * while the others are submitted to {@code executor}.</p>
+     *
+     * <p>Waiting never blocks on a task that has not started: when {@code executor} is a {@link ForkJoinPool}
+     * the tasks are forked and joined so a pool worker helps run them, and for any other executor a task
+     * that is still queued is run on the calling thread. Nested calls from inside a task are therefore safe.</p>
+     *
+     * @param tasks tasks to run, must not be empty
+     * @param executor runs all tasks but the first
+     * @param <T> task result type
+     * @return task results, in task order
+     * @throws InterruptedException if interrupted while waiting for a task running on another thread
+     * @throws ExecutionException if a task failed with a checked exception, or a submitted task failed
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, Executor executor)
+            throws InterruptedException, ExecutionException {
+        final List<Future<T>> futures = submit(tasks, executor);
+        final List<T> results = new ArrayList<>(tasks.size());
+
+        try {
+            results.add(callInline(tasks.get(0)));
+
+            for(int i = 1; i < tasks.size(); ++i) {
+                final Future<T> nextFuture = futures.get(i - 1);
+                if(nextFuture instanceof FutureTask) {
+
+                    // No-op if already started by the executor
+                    ((FutureTask<T>) nextFuture).run();
+                }
+                results.add(nextFuture.get());
+            }
+
+        } finally {
+            for(Future<T> nextFuture : futures) {
+                nextFuture.cancel(false);
+            }
+        }
+
+        return results;
+    }
+
+    private static <T> List<Future<T>> submit(List<? extends Callable<T>> tasks, Executor executor) {
+        final int forkedCount = tasks.size() - 1;
+        final List<Future<T>> futures = new ArrayList<>(forkedCount);
+
+        if(executor instanceof ForkJoinPool) {
+            final ForkJoinPool pool = (ForkJoinPool) executor;
+            final boolean inPool = ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool;
+
+            final List<ForkJoinTask<T>> fjTasks = new ArrayList<>(forkedCount);
+            for(int i = 1; i < tasks.size(); ++i) {
+                fjTasks.add(ForkJoinTask.adapt(tasks.get(i)));
+            }
+
+            // Fork in reverse so in-order joins pop the worker's own queue
+            for(int i = fjTasks.size() - 1; i >= 0; --i) {
+                if(inPool) {
+                    fjTasks.get(i).fork();
+                } else {
+                    pool.execute(fjTasks.get(i));
+                }
+            }
+            futures.addAll(fjTasks);
+
+        } else {
+            for(int i = 1; i < tasks.size(); ++i) {
+                final FutureTask<T> nextTask = new FutureTask<>(tasks.get(i));
+                futures.add(nextTask);
+                executor.execute(nextTask);
+            }
+        }
+
+        return futures;
+    }
+
+    private static <T> T callInline(Callable<T> task) throws ExecutionException {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.read.LazyLayer;
+import com.wdtinc.mapbox_vector_tile.read.LazyMvt;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test streaming decoded features with {@link MvtReader#streamFeatures}.
+ */
+public final class DecodedFeatureSpliteratorTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    @Test
+    public void testMatchesLoadMvt() throws IOException {
+        for(String nextFile : new String[] {"src/test/resources/vec_tile_test/game.mvt",
+                "src/test/resources/vec_tile_test/0/0/0.mvt"}) {
+            final LazyMvt mvt = LazyMvt.open(new File(nextFile));
+            final JtsMvt expected = MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1);
+
+            final List<Geometry> expectedGeoms = new ArrayList<>();
+            for(JtsLayer l : expected.getLayers()) {
+                expectedGeoms.addAll(l.getGeometries());
+            }
+
+            final List<Geometry> actualGeoms = MvtReader.streamFeatures(mvt, GEOMETRY_FACTORY,
+                    new TagKeyValueMapConverter(), MvtReader.RING_CLASSIFIER_V2_1)
+                    .map(f -> f.getGeometry())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            assertEquals(expectedGeoms, actualGeoms);
+        }
+    }
+
+    @Test
+    public void testSizedSplits() throws IOException {
+        final List<LazyMvt> mvts = Arrays.asList(createMvt(0, 300, 0, 5), createMvt(1, 1000), createMvt(2, 0, 77));
+        final Spliterator<DecodedFeature> spliterator = MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY,
+                new TagIgnoreConverter(), MvtReader.RING_CLASSIFIER_V2_1).spliterator();
+
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(1382L, spliterator.getExactSizeIfKnown());
+
+        // Split recursively, every part reports its exact size and parts concatenate in order
+        final List<Spliterator<DecodedFeature>> parts = new ArrayList<>();
+        split(spliterator, parts);
+        assertTrue(parts.size() > 8);
+
+        final List<String> expected = featureKeys(MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY,
+                new TagIgnoreConverter(), MvtReader.RING_CLASSIFIER_V2_1).spliterator());
+        final List<String> actual = new ArrayList<>();
+        for(Spliterator<DecodedFeature> nextPart : parts) {
+            final long size = nextPart.getExactSizeIfKnown();
+            final List<String> partKeys = featureKeys(nextPart);
+            assertEquals(size, partKeys.size());
+            actual.addAll(partKeys);
+        }
+        assertEquals(1382, expected.size());
+        assertEquals(expected, actual);
+        assertEquals("0/layer0/0", expected.get(0));
+        assertEquals("2/layer1/76", expected.get(1381));
+    }
+
+    @Test
+    public void testParallel() throws IOException {
+        final List<LazyMvt> mvts = new ArrayList<>();
+        for(int i = 0; i < 10; ++i) {
+            mvts.add(createMvt(i, 250, 40));
+        }
+
+        final Map<String, Long> expected = MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY,
+                new TagKeyValueMapConverter(), MvtReader.RING_CLASSIFIER_V2_1)
+                .collect(Collectors.groupingBy(f -> f.getLayer().getName(), Collectors.counting()));
+        final Map<String, Long> actual = MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY,
+                new TagKeyValueMapConverter(), MvtReader.RING_CLASSIFIER_V2_1)
+                .parallel()
+                .collect(Collectors.groupingByConcurrent(f -> f.getLayer().getName(), Collectors.counting()));
+        assertEquals(expected, new HashMap<>(actual));
+        assertEquals(Long.valueOf(2500L), expected.get("layer0"));
+
+        final double totalLength = MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY,
+                new TagKeyValueMapConverter(), MvtReader.RING_CLASSIFIER_V2_1)
+                .parallel()
+                .mapToDouble(f -> f.getGeometry().getLength())
+                .sum();
+        assertEquals(10 * (250 + 40) * 10d, totalLength, 1e-6);
+
+        // Encounter order is kept by ordered terminal operations
+        final List<Long> ids = MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY, new TagIgnoreConverter(),
+                MvtReader.RING_CLASSIFIER_V2_1).parallel().map(DecodedFeature::getId).collect(Collectors.toList());
+        assertEquals(MvtReader.streamFeatures(mvts, GEOMETRY_FACTORY, new TagIgnoreConverter(),
+                MvtReader.RING_CLASSIFIER_V2_1).map(DecodedFeature::getId).collect(Collectors.toList()), ids);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        assertEquals(0L, MvtReader.streamFeatures(Collections.<LazyMvt>emptyList(), GEOMETRY_FACTORY,
+                new TagIgnoreConverter(), MvtReader.RING_CLASSIFIER_V2_1).count());
+        assertEquals(0L, MvtReader.streamFeatures(createMvt(0, 0, 0), GEOMETRY_FACTORY,
+                new TagIgnoreConverter(), MvtReader.RING_CLASSIFIER_V2_1).count());
+    }
+
+    @Test
+    public void testUnknownGeometryType() throws IOException {
+        final VectorTile.Tile tile = VectorTile.Tile.newBuilder()
+                .addLayers(VectorTile.Tile.Layer.newBuilder()
+                        .setVersion(2)
+                        .setName("unknown")
+                        .setExtent(4096)
+                        .addFeatures(VectorTile.Tile.Feature.newBuilder()
+                                .setId(7L)
+                                .setType(VectorTile.Tile.GeomType.UNKNOWN)
+                                .addGeometry(9).addGeometry(2).addGeometry(2)))
+                .build();
+
+        // Counted for an exact size, but without geometry
+        final List<DecodedFeature> features = MvtReader.streamFeatures(LazyMvt.open(tile.toByteArray()),
+                GEOMETRY_FACTORY, new TagIgnoreConverter(), MvtReader.RING_CLASSIFIER_V2_1)
+                .collect(Collectors.toList());
+        assertEquals(1, features.size());
+        assertEquals(7L, features.get(0).getId());
+        assertNull(features.get(0).getGeometry());
+    }
+
+    /**
+     * @param tileIndex tile index, used as feature id prefix
+     * @param featureCounts count of horizontal line features of length 10 in each layer
+     * @return tile with one layer per feature count
+     */
+    private static LazyMvt createMvt(int tileIndex, int... featureCounts) throws IOException {
+        final List<JtsLayer> layers = new ArrayList<>();
+        for(int nextCount : featureCounts) {
+            final List<Geometry> geoms = new ArrayList<>();
+            for(int i = 0; i < nextCount; ++i) {
+                final Geometry line = GEOMETRY_FACTORY.createLineString(new Coordinate[] {
+                        new Coordinate(i % 4000, i / 4000), new Coordinate(i % 4000 + 10, i / 4000)});
+                line.setUserData(Collections.singletonMap("id", (Object) (tileIndex * 100000L + i)));
+                geoms.add(line);
+            }
+            layers.add(new JtsLayer("layer" + layers.size(), geoms));
+        }
+        return LazyMvt.open(MvtEncoder.encode(new JtsMvt(layers), MvtLayerParams.DEFAULT,
+                new UserDataKeyValueMapConverter("id")));
+    }
+
+    private static void split(Spliterator<DecodedFeature> spliterator, List<Spliterator<DecodedFeature>> parts) {
+        final Spliterator<DecodedFeature> prefix = spliterator.trySplit();
+        if(prefix == null) {
+            parts.add(spliterator);
+            return;
+        }
+        split(prefix, parts);
+        split(spliterator, parts);
+    }
+
+    /**
+     * @return "tile/layer/feature" for each remaining feature
+     */
+    private static List<String> featureKeys(Spliterator<DecodedFeature> spliterator) {
+        final List<String> keys = new ArrayList<>();
+        spliterator.forEachRemaining(f -> {
+            final LazyLayer layer = f.getLayer();
+            keys.add(f.getId() / 100000L + "/" + layer.getName() + "/" + f.getId() % 100000L);
+        });
+        return keys;
+    }
+}
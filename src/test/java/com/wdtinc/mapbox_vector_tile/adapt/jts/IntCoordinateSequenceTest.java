@@ -0,0 +1,114 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.AffineTransformation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test packed integer coordinate sequences.
+ */
+public final class IntCoordinateSequenceTest {
+
+    private static final GeometryFactory INT_GEOMETRY_FACTORY =
+            new GeometryFactory(IntCoordinateSequenceFactory.INSTANCE);
+
+    @Test
+    public void testReadMatchesDefaultFactory() throws IOException {
+        for(String file : Arrays.asList("src/test/resources/vec_tile_test/game.mvt",
+                "src/test/resources/vec_tile_test/0/0/0.mvt")) {
+            final JtsMvt expected = MvtReader.loadMvt(new File(file), new GeometryFactory(),
+                    new TagKeyValueMapConverter());
+            final JtsMvt actual = MvtReader.loadMvt(new File(file), INT_GEOMETRY_FACTORY,
+                    new TagKeyValueMapConverter());
+
+            assertEquals(expected, actual);
+
+            for(JtsLayer l : actual.getLayers()) {
+                for(Geometry g : l.getGeometries()) {
+                    assertIntegral(g);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSetOrdinate() {
+        final IntCoordinateSequence seq = new IntCoordinateSequence(new int[] {1, 2, 3, 4});
+        assertEquals(2, seq.size());
+        assertEquals(3d, seq.getX(1), 0d);
+        assertEquals(4d, seq.getOrdinate(1, CoordinateSequence.Y), 0d);
+        assertTrue(Double.isNaN(seq.getOrdinate(1, CoordinateSequence.Z)));
+
+        seq.setOrdinate(0, CoordinateSequence.X, -7d);
+        seq.setOrdinate(0, CoordinateSequence.Z, 9d);
+        assertTrue(seq.isIntegral());
+        assertEquals(new Coordinate(-7d, 2d), seq.getCoordinate(0));
+
+        // Non-integral values switch to double storage without truncation
+        final IntCoordinateSequence copy = seq.copy();
+        seq.setOrdinate(1, CoordinateSequence.Y, 4.5d);
+        assertFalse(seq.isIntegral());
+        assertEquals(4.5d, seq.getY(1), 0d);
+        assertEquals(-7d, seq.getX(0), 0d);
+        seq.setOrdinate(0, CoordinateSequence.X, 1e12d);
+        assertEquals(1e12d, seq.getX(0), 0d);
+
+        // Copies are independent
+        assertTrue(copy.isIntegral());
+        assertEquals(4d, copy.getY(1), 0d);
+        assertEquals(new Envelope(-7d, 3d, 2d, 4d), copy.expandEnvelope(new Envelope()));
+    }
+
+    @Test
+    public void testTransform() {
+        final Geometry line = INT_GEOMETRY_FACTORY.createLineString(new Coordinate[] {
+                new Coordinate(0d, 0d), new Coordinate(10d, 5d)});
+        final Geometry scaled = AffineTransformation.scaleInstance(.5d, .5d).transform(line);
+
+        assertEquals(new Coordinate(5d, 2.5d), scaled.getCoordinates()[1]);
+        assertEquals(new Coordinate(10d, 5d), line.getCoordinates()[1]);
+        assertTrue(((LineString) scaled).getCoordinateSequence() instanceof IntCoordinateSequence);
+    }
+
+    @Test
+    public void testFactory() {
+        final CoordinateSequence seq = IntCoordinateSequenceFactory.INSTANCE.create(new Coordinate[] {
+                new Coordinate(1d, 2d, 3d), new Coordinate(4d, 5d)});
+        assertEquals(2, seq.getDimension());
+        assertEquals(new Coordinate(4d, 5d), seq.getCoordinateCopy(1));
+        assertTrue(Double.isNaN(seq.getCoordinateCopy(0).z));
+
+        final CoordinateSequence copy = IntCoordinateSequenceFactory.INSTANCE.create(seq);
+        assertNotSame(seq, copy);
+        assertArrayEquals(seq.toCoordinateArray(), copy.toCoordinateArray());
+        assertEquals(0, IntCoordinateSequenceFactory.INSTANCE.create((Coordinate[]) null).size());
+    }
+
+    private static void assertIntegral(Geometry geom) {
+        for(int i = 0; i < geom.getNumGeometries(); ++i) {
+            final Geometry part = geom.getGeometryN(i);
+
+            if(part instanceof Polygon) {
+                final Polygon poly = (Polygon) part;
+                assertIntegral(poly.getExteriorRing());
+                for(int j = 0; j < poly.getNumInteriorRing(); ++j) {
+                    assertIntegral(poly.getInteriorRingN(j));
+                }
+
+            } else if(part instanceof LineString) {
+                assertTrue(((IntCoordinateSequence) ((LineString) part).getCoordinateSequence()).isIntegral());
+
+            } else if(part instanceof Point) {
+                assertTrue(((IntCoordinateSequence) ((Point) part).getCoordinateSequence()).isIntegral());
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test {@link JtsAdapter} tile geometry creation.
+ */
+public final class JtsAdapterTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final MvtLayerParams DEFAULT_MVT_PARAMS = new MvtLayerParams();
+
+    private static final IGeometryFilter ACCEPT_ALL = new IGeometryFilter() {
+        @Override
+        public boolean accept(Geometry geometry) {
+            return true;
+        }
+    };
+
+    private static final IGeometryFilter NON_EMPTY = new IGeometryFilter() {
+        @Override
+        public boolean accept(Geometry geometry) {
+            return !geometry.isEmpty();
+        }
+    };
+
+    @Test
+    public void testSpatialIndexMatchesList() {
+        final List<Geometry> geoms = new ArrayList<>();
+        for(int i = 0; i < 500; ++i) {
+            final double x = RANDOM.nextDouble() * 1000d;
+            final double y = RANDOM.nextDouble() * 1000d;
+            geoms.add(i % 2 == 0
+                    ? GEOMETRY_FACTORY.createPoint(new Coordinate(x, y))
+                    : GEOMETRY_FACTORY.toGeometry(new Envelope(x, x + 40d, y, y + 40d)));
+        }
+        geoms.add(GEOMETRY_FACTORY.createPoint());
+        for(int i = 0; i < geoms.size(); ++i) {
+            geoms.get(i).setUserData(i);
+        }
+
+        final STRtree index = JtsAdapter.createSpatialIndex(geoms);
+        assertEquals(geoms.size() - 1, index.size());
+
+        for(int x = 0; x < 8; ++x) {
+            for(int y = 0; y < 8; ++y) {
+                final Envelope tileEnvelope = new Envelope(x * 125d, (x + 1) * 125d, y * 125d, (y + 1) * 125d);
+                final Envelope clipEnvelope = JtsAdapter.createClipEnvelope(tileEnvelope, DEFAULT_MVT_PARAMS, 64);
+
+                final TileGeomResult expected = JtsAdapter.createTileGeom(geoms, tileEnvelope, clipEnvelope,
+                        GEOMETRY_FACTORY, DEFAULT_MVT_PARAMS, ACCEPT_ALL, RectangleClipper.INSTANCE);
+                final TileGeomResult actual = JtsAdapter.createTileGeom(index, tileEnvelope, clipEnvelope,
+                        GEOMETRY_FACTORY, DEFAULT_MVT_PARAMS, ACCEPT_ALL, RectangleClipper.INSTANCE);
+
+                assertEquals(expected.intGeoms.size(), actual.intGeoms.size());
+                assertGeomsEqual(expected.mvtGeoms, actual.mvtGeoms);
+            }
+        }
+    }
+
+    @Test
+    public void testSpatialIndexEmpty() {
+        final STRtree index = JtsAdapter.createSpatialIndex(Collections.<Geometry>emptyList());
+        final Envelope tileEnvelope = new Envelope(0d, 1000d, 0d, 1000d);
+
+        assertTrue(JtsAdapter.createTileGeom(index, tileEnvelope, tileEnvelope, GEOMETRY_FACTORY,
+                DEFAULT_MVT_PARAMS, ACCEPT_ALL, RectangleClipper.INSTANCE).mvtGeoms.isEmpty());
+    }
+
+    @Test
+    public void testSimplifiers() {
+
+        // World units match MVT units, so vertices closer than 1 unit round onto the same grid position
+        final Envelope tileEnvelope = new Envelope(0d, 4096d, 0d, 4096d);
+        final List<Geometry> geoms = new ArrayList<>();
+        geoms.add(wavyLine(1000));
+        geoms.add(GEOMETRY_FACTORY.createLineString(new Coordinate[] {
+                new Coordinate(10d, 10d), new Coordinate(10.1d, 10.1d), new Coordinate(10.2d, 10.2d)}));
+        geoms.add(GEOMETRY_FACTORY.createPoint(new Coordinate(100d, 100d)));
+
+        final TileGeomResult none = createTileGeom(geoms, tileEnvelope, NoOpSimplifier.INSTANCE);
+        assertEquals(0, none.removedVertexCount);
+        assertEquals(3, none.mvtGeoms.size());
+        assertEquals(1000, none.mvtGeoms.get(0).getNumPoints());
+
+        // Collapsed line is removed by the filter
+        final TileGeomResult grid = createTileGeom(geoms, tileEnvelope, GridDedupeSimplifier.INSTANCE);
+        assertEquals(2, grid.mvtGeoms.size());
+        assertTrue(grid.removedVertexCount > 0);
+        assertEquals(1000 + 3 + 1, countPoints(grid.mvtGeoms) + grid.removedVertexCount);
+        assertNoRepeatedPoints(grid.mvtGeoms.get(0).getCoordinates());
+
+        final TileGeomResult topo = createTileGeom(geoms, tileEnvelope, JtsSimplifier.DEFAULT);
+        assertTrue(topo.removedVertexCount >= grid.removedVertexCount);
+
+        for(JtsSimplifier.Method method : JtsSimplifier.Method.values()) {
+            final TileGeomResult coarse = createTileGeom(geoms, tileEnvelope, new JtsSimplifier(method, 20d));
+            assertTrue(method.name(), coarse.removedVertexCount > topo.removedVertexCount);
+            assertEquals(method.name(), 1000 + 3 + 1,
+                    countPoints(coarse.mvtGeoms) + coarse.removedVertexCount);
+        }
+    }
+
+    @Test
+    public void testGridDedupePolygon() {
+        final Polygon poly = GEOMETRY_FACTORY.createPolygon(
+                GEOMETRY_FACTORY.createLinearRing(new Coordinate[] {
+                        new Coordinate(0d, 0d), new Coordinate(10d, 0d), new Coordinate(10d, 0d),
+                        new Coordinate(10d, 10d), new Coordinate(0d, 10d), new Coordinate(0d, 0d)}),
+                new LinearRing[] {
+                        GEOMETRY_FACTORY.createLinearRing(new Coordinate[] {
+                                new Coordinate(2d, 2d), new Coordinate(3d, 2d), new Coordinate(3d, 2d),
+                                new Coordinate(2d, 2d)}),
+                        GEOMETRY_FACTORY.createLinearRing(new Coordinate[] {
+                                new Coordinate(5d, 5d), new Coordinate(5d, 6d), new Coordinate(6d, 6d),
+                                new Coordinate(5d, 5d)})});
+
+        final Polygon result = (Polygon) GridDedupeSimplifier.INSTANCE.simplify(poly);
+        assertEquals(5, result.getExteriorRing().getNumPoints());
+        assertEquals(1, result.getNumInteriorRing());
+        assertEquals(4, result.getInteriorRingN(0).getNumPoints());
+
+        // Unchanged geometry is returned as is
+        assertTrue(result == GridDedupeSimplifier.INSTANCE.simplify(result));
+
+        final Polygon collapsed = GEOMETRY_FACTORY.createPolygon(new Coordinate[] {
+                new Coordinate(0d, 0d), new Coordinate(1d, 0d), new Coordinate(1d, 0d), new Coordinate(0d, 0d)});
+        assertTrue(GridDedupeSimplifier.INSTANCE.simplify(collapsed).isEmpty());
+    }
+
+    @Test
+    public void testZoomToleranceSimplifier() {
+        final ZoomToleranceSimplifier zoomSimplifier = new ZoomToleranceSimplifier(
+                JtsSimplifier.Method.DOUGLAS_PEUCKER, .5d, 2d, 10);
+
+        assertEquals(.5d, zoomSimplifier.forZoom(10).getTolerance(), 0d);
+        assertEquals(.5d, zoomSimplifier.forZoom(14).getTolerance(), 0d);
+        assertEquals(4d, zoomSimplifier.forZoom(7).getTolerance(), 0d);
+        assertEquals(512d, zoomSimplifier.forZoom(0).getTolerance(), 0d);
+        assertEquals(JtsSimplifier.Method.DOUGLAS_PEUCKER, zoomSimplifier.forZoom(0).getMethod());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerance() {
+        new JtsSimplifier(JtsSimplifier.Method.VISVALINGAM, 0d);
+    }
+
+    private static TileGeomResult createTileGeom(List<Geometry> geoms, Envelope tileEnvelope,
+                                                 IGeometrySimplifier simplifier) {
+        return JtsAdapter.createTileGeom(geoms, tileEnvelope, tileEnvelope, GEOMETRY_FACTORY, DEFAULT_MVT_PARAMS,
+                NON_EMPTY, RectangleClipper.INSTANCE, simplifier);
+    }
+
+    private static LineString wavyLine(int pointCount) {
+        final Coordinate[] coords = new Coordinate[pointCount];
+
+        for(int i = 0; i < pointCount; ++i) {
+            coords[i] = new Coordinate(200d + i * .2d, 200d + Math.sin(i / 20d) * 50d);
+        }
+
+        return GEOMETRY_FACTORY.createLineString(coords);
+    }
+
+    private static int countPoints(List<Geometry> geoms) {
+        int count = 0;
+        for(Geometry g : geoms) {
+            count += g.getNumPoints();
+        }
+        return count;
+    }
+
+    private static void assertNoRepeatedPoints(Coordinate[] coords) {
+        for(int i = 1; i < coords.length; ++i) {
+            assertFalse(coords[i].equals2D(coords[i - 1]));
+        }
+    }
+
+    /**
+     * Compare geometry by user data index, ignoring order.
+     */
+    private static void assertGeomsEqual(List<Geometry> expected, List<Geometry> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        final Map<Object, Geometry> actualById = new HashMap<>();
+        for(Geometry g : actual) {
+            actualById.put(g.getUserData(), g);
+        }
+
+        for(Geometry g : expected) {
+            assertTrue(g.norm().equalsExact(actualById.get(g.getUserData()).norm()));
+        }
+    }
+}
@@ -6,14 +6,20 @@ import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public final class MvtEncoderTest {
@@ -47,6 +53,63 @@ public final class MvtEncoderTest {
         assertEquals(mvt, decode(encoded));
     }
 
+    @Test
+    public void parallelLayers() throws Exception {
+        final List<JtsLayer> layers = new ArrayList<>();
+        for(int i = 0; i < 8; ++i) {
+            layers.add(new JtsLayer("Australia " + i, PointGen.australia()));
+            layers.add(new JtsLayer("United Kingdom " + i, PointGen.uk()));
+        }
+        layers.add(new JtsLayer("empty"));
+        final JtsMvt mvt = new JtsMvt(layers);
+        final IUserDataConverter converter = new UserDataKeyValueMapConverter();
+
+        final byte[] expected = MvtEncoder.encode(mvt, MvtLayerParams.DEFAULT, converter);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertArrayEquals(expected, MvtEncoder.encode(mvt, MvtLayerParams.DEFAULT, converter, executor));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertArrayEquals(expected, MvtEncoder.encodeParallel(mvt, MvtLayerParams.DEFAULT, converter));
+        assertEquals(mvt, decode(expected));
+    }
+
+    @Test(timeout = 30000)
+    public void parallelLayersNested() throws Exception {
+        final List<JtsLayer> layers = new ArrayList<>();
+        for(int i = 0; i < 8; ++i) {
+            layers.add(new JtsLayer("Layer " + i, PointGen.uk()));
+        }
+        final JtsMvt mvt = new JtsMvt(layers);
+        final IUserDataConverter converter = new UserDataKeyValueMapConverter();
+        final byte[] expected = MvtEncoder.encode(mvt, MvtLayerParams.DEFAULT, converter);
+
+        // Tile encoding already running on the common pool
+        IntStream.range(0, 64).parallel().forEach(i ->
+                assertArrayEquals(expected, MvtEncoder.encodeParallel(mvt, MvtLayerParams.DEFAULT, converter)));
+
+        // Single worker pool: every join must help run the queued layers
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            pool.submit(() -> IntStream.range(0, 64).parallel().forEach(i ->
+                    assertArrayEquals(expected, MvtEncoder.encode(mvt, MvtLayerParams.DEFAULT, converter, pool))))
+                    .get();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Single thread executor, called from its own thread
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertArrayEquals(expected, executor.submit(
+                    () -> MvtEncoder.encode(mvt, MvtLayerParams.DEFAULT, converter, executor)).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private static class PointGen {
 
         /**
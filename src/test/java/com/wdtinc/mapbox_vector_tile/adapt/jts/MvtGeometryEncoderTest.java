@@ -0,0 +1,160 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.encoding.GeomCmdBuffer;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+
+import java.util.*;
+
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.circle;
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.randomWalk;
+import static org.junit.Assert.*;
+
+/**
+ * Test direct geometry encoding matches clipping, transforming and encoding JTS geometry.
+ */
+public final class MvtGeometryEncoderTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final MvtLayerParams DEFAULT_MVT_PARAMS = new MvtLayerParams();
+
+    private static final IGeometryFilter ACCEPT_ALL = new IGeometryFilter() {
+        @Override
+        public boolean accept(Geometry geometry) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testMatchesTileGeom() {
+        final List<Geometry> areas = new ArrayList<>();
+        areas.add(GEOMETRY_FACTORY.createPolygon(
+                (LinearRing) circle(400d, 500d, 300d, 500).getExteriorRing(),
+                new LinearRing[] {(LinearRing) circle(300d, 500d, 60d, 80).getExteriorRing().reverse(),
+                        (LinearRing) circle(520d, 420d, .01d, 10).getExteriorRing().reverse()}));
+        areas.add(GEOMETRY_FACTORY.createMultiPolygon(new Polygon[] {
+                circle(800d, 200d, 60d, 50), circle(620d, 760d, .02d, 12)}));
+        for(int i = 0; i < 30; ++i) {
+            areas.add(circle(RANDOM.nextDouble() * 1000d, RANDOM.nextDouble() * 1000d,
+                    RANDOM.nextDouble() * 40d, 3 + RANDOM.nextInt(40)));
+        }
+
+        final List<Geometry> lines = new ArrayList<>();
+        lines.add(randomLine(500, 40d));
+        lines.add(GEOMETRY_FACTORY.createMultiLineString(new LineString[] {
+                randomLine(100, 20d), randomLine(20, .01d)}));
+        lines.add(GEOMETRY_FACTORY.createLineString(new Coordinate[] {
+                new Coordinate(0d, 0d), new Coordinate(1000d, 1000d), new Coordinate(0d, 1000d),
+                new Coordinate(0d, 0d)}));
+
+        final List<Geometry> points = new ArrayList<>();
+        for(int i = 0; i < 100; ++i) {
+            points.add(GEOMETRY_FACTORY.createPoint(new Coordinate(RANDOM.nextDouble() * 1000d,
+                    RANDOM.nextDouble() * 1000d)));
+        }
+        points.add(GEOMETRY_FACTORY.createMultiPoint(new Coordinate[] {
+                new Coordinate(10d, 10d), new Coordinate(10.01d, 10.01d), new Coordinate(600d, 600d)}));
+
+        final JtsMvt source = new JtsMvt(new JtsLayer("areas", areas), new JtsLayer("lines", lines),
+                new JtsLayer("points", points));
+        for(JtsLayer l : source.getLayers()) {
+            int i = 0;
+            for(Geometry g : l.getGeometries()) {
+                g.setUserData(Collections.singletonMap("id", i++));
+            }
+        }
+
+        final IUserDataConverter converter = new UserDataKeyValueMapConverter();
+        final MvtWriter writer = new MvtWriter(DEFAULT_MVT_PARAMS, converter);
+        int nonEmptyCount = 0;
+
+        for(int z = 0; z <= 5; ++z) {
+            final int n = 1 << z;
+            final double size = 1000d / n;
+
+            for(int x = 0; x < n; ++x) {
+                for(int y = 0; y < n; ++y) {
+                    final Envelope tileEnvelope = new Envelope(x * size, (x + 1) * size, y * size, (y + 1) * size);
+                    final Envelope clipEnvelope = JtsAdapter.createClipEnvelope(tileEnvelope, DEFAULT_MVT_PARAMS, 8);
+
+                    final byte[] expected = MvtEncoder.encode(expectedTile(source, tileEnvelope, clipEnvelope),
+                            DEFAULT_MVT_PARAMS, converter);
+                    final byte[] actual = writer.encodeTile(source, tileEnvelope, clipEnvelope);
+
+                    assertArrayEquals("tile " + z + "/" + x + "/" + y, expected, actual);
+                    if(actual.length > 0) {
+                        ++nonEmptyCount;
+                    }
+                }
+            }
+        }
+
+        assertEquals(924, nonEmptyCount);
+    }
+
+    @Test
+    public void testEncodeOutsideAndUnsupported() {
+        final MvtGeometryEncoder encoder = new MvtGeometryEncoder();
+        final Envelope tileEnvelope = new Envelope(0d, 100d, 0d, 100d);
+        encoder.setTile(tileEnvelope, tileEnvelope, DEFAULT_MVT_PARAMS);
+        final GeomCmdBuffer cmdBuffer = new GeomCmdBuffer();
+
+        assertEquals(VectorTile.Tile.GeomType.UNKNOWN, encoder.encode(
+                GEOMETRY_FACTORY.createPoint(new Coordinate(200d, 200d)), cmdBuffer));
+        assertEquals(VectorTile.Tile.GeomType.UNKNOWN, encoder.encode(
+                GEOMETRY_FACTORY.createGeometryCollection(new Geometry[] {
+                        GEOMETRY_FACTORY.createPoint(new Coordinate(50d, 50d))}), cmdBuffer));
+        assertEquals(VectorTile.Tile.GeomType.UNKNOWN, encoder.encode(circle(50d, 50d, .001d, 10), cmdBuffer));
+        assertEquals(0, cmdBuffer.size());
+
+        assertEquals(VectorTile.Tile.GeomType.POINT, encoder.encode(
+                GEOMETRY_FACTORY.createPoint(new Coordinate(50d, 50d)), cmdBuffer));
+        assertEquals(3, cmdBuffer.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEncodeWithoutTile() {
+        new MvtGeometryEncoder().encode(GEOMETRY_FACTORY.createPoint(new Coordinate(1d, 1d)), new GeomCmdBuffer());
+    }
+
+    /**
+     * Build the expected tile with {@link RectangleClipper} and {@link GridDedupeSimplifier}, keeping only layers
+     * and geometry that encode to MVT commands.
+     */
+    private static JtsMvt expectedTile(JtsMvt source, Envelope tileEnvelope, Envelope clipEnvelope) {
+        final List<JtsLayer> layers = new ArrayList<>();
+
+        for(JtsLayer l : source.getLayers()) {
+            final TileGeomResult tileGeom = JtsAdapter.createTileGeom(new ArrayList<>(l.getGeometries()),
+                    tileEnvelope, clipEnvelope, GEOMETRY_FACTORY, DEFAULT_MVT_PARAMS, ACCEPT_ALL,
+                    RectangleClipper.INSTANCE, GridDedupeSimplifier.INSTANCE);
+
+            final List<Geometry> encodable = new ArrayList<>();
+            for(Geometry g : tileGeom.mvtGeoms) {
+                if(!g.isEmpty() && JtsAdapter.toGeomCmds(g, JtsAdapter.toGeomType(g), new GeomCmdBuffer())) {
+                    encodable.add(g);
+                }
+            }
+
+            if(!encodable.isEmpty()) {
+                layers.add(new JtsLayer(l.getName(), encodable));
+            }
+        }
+
+        return new JtsMvt(layers);
+    }
+
+    private static LineString randomLine(int pointCount, double step) {
+        return randomWalk(RANDOM, pointCount, RANDOM.nextDouble() * 1000d, RANDOM.nextDouble() * 1000d, step);
+    }
+}
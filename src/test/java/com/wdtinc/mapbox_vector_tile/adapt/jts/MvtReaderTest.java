@@ -1,19 +1,36 @@
 package com.wdtinc.mapbox_vector_tile.adapt.jts;
 
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.MultiPolygon;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.read.FeaturePredicates;
+import com.wdtinc.mapbox_vector_tile.read.FeatureProjection;
+import com.wdtinc.mapbox_vector_tile.read.IFeaturePredicate;
+import com.wdtinc.mapbox_vector_tile.read.LazyLayer;
+import com.wdtinc.mapbox_vector_tile.read.LazyMvt;
+import com.wdtinc.mapbox_vector_tile.read.MalformedMvtException;
 import com.wdtinc.mapbox_vector_tile.util.JtsGeomStats;
+import com.google.protobuf.InvalidProtocolBufferException;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -22,6 +39,12 @@ import static org.junit.Assert.fail;
  */
 public final class MvtReaderTest {
 
+    /**
+     * Layer "a" with one POINT feature whose packed geometry length runs past the feature.
+     */
+    private static final byte[] MALFORMED_GEOMETRY_MVT = {
+            0x1A, 0x0A, 0x0A, 0x01, 0x61, 0x12, 0x05, 0x18, 0x01, 0x22, 0x05, 0x09};
+
     @Test
     public void testLayers() {
         try {
@@ -84,6 +107,323 @@ public final class MvtReaderTest {
         }
     }
 
+    @Test
+    public void testLayerFilter() throws IOException {
+        final JtsMvt mvt = MvtReader.loadMvt(
+                LazyMvt.open(new File("src/test/resources/vec_tile_test/game.mvt")),
+                new GeometryFactory(),
+                new TagKeyValueMapConverter(),
+                MvtReader.RING_CLASSIFIER_V2_1,
+                Arrays.asList("enemies", "health"));
+
+        final JtsMvt fullMvt = loadMvt("src/test/resources/vec_tile_test/game.mvt");
+
+        // Tile order is preserved
+        final Iterator<JtsLayer> layerIterator = mvt.getLayers().iterator();
+        assertEquals(fullMvt.getLayer("health"), layerIterator.next());
+        assertEquals(fullMvt.getLayer("enemies"), layerIterator.next());
+        assertFalse(layerIterator.hasNext());
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        for(String file : Arrays.asList("src/test/resources/vec_tile_test/game.mvt",
+                "src/test/resources/vec_tile_test/0/0/0.mvt")) {
+            final JtsMvt expected = loadMvt(file);
+            final List<String> events = new ArrayList<>();
+            final List<Geometry> geoms = new ArrayList<>();
+
+            MvtReader.stream(LazyMvt.open(new File(file)), new GeometryFactory(), new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1, new IMvtFeatureVisitor() {
+                        @Override
+                        public boolean visitLayerStart(LazyLayer layer) {
+                            events.add("start:" + layer.getName());
+                            geoms.clear();
+                            return true;
+                        }
+
+                        @Override
+                        public void visitFeature(DecodedFeature feature) {
+                            final Geometry geom = feature.getGeometry();
+                            if(geom != null) {
+                                geom.setUserData(feature.getUserData());
+                                geoms.add(geom);
+                            }
+                        }
+
+                        @Override
+                        public void visitLayerEnd(LazyLayer layer) {
+                            events.add("end:" + layer.getName());
+                            assertEquals(expected.getLayer(layer.getName()), new JtsLayer(layer.getName(), geoms));
+                        }
+                    });
+
+            final List<String> expectedEvents = new ArrayList<>();
+            for(JtsLayer l : expected.getLayers()) {
+                expectedEvents.add("start:" + l.getName());
+                expectedEvents.add("end:" + l.getName());
+            }
+            assertEquals(expectedEvents, events);
+        }
+    }
+
+    @Test
+    public void testStreamSkipLayer() throws IOException {
+        final List<String> events = new ArrayList<>();
+
+        try(final FileInputStream is = new FileInputStream("src/test/resources/vec_tile_test/game.mvt")) {
+            MvtReader.stream(is, new GeometryFactory(), new TagIgnoreConverter(), new IMvtFeatureVisitor() {
+                @Override
+                public boolean visitLayerStart(LazyLayer layer) {
+                    events.add("start:" + layer.getName());
+                    return layer.getName().equals("health");
+                }
+
+                @Override
+                public void visitFeature(DecodedFeature feature) {
+                    assertEquals("health", feature.getLayer().getName());
+                    assertTrue(feature.getUserData() == null);
+                    events.add("feature");
+                }
+
+                @Override
+                public void visitLayerEnd(LazyLayer layer) {
+                    events.add("end:" + layer.getName());
+                }
+            });
+        }
+
+        // Only the selected layer has feature and end events
+        final int healthEnd = events.indexOf("end:health");
+        assertTrue(healthEnd > 2);
+        assertEquals(Collections.nCopies(healthEnd - 2, "feature"), events.subList(2, healthEnd));
+        assertEquals(Arrays.asList("start:bombs", "start:health"), events.subList(0, 2));
+        assertEquals(Arrays.asList("end:health", "start:enemies", "start:bullet"),
+                events.subList(healthEnd, events.size()));
+    }
+
+    @Test
+    public void testLoadParallel() throws IOException {
+        final GeometryFactory geomFactory = new GeometryFactory();
+        final Random random = new Random(2058136L);
+
+        // Layers smaller and larger than one feature range
+        final List<JtsLayer> layers = new ArrayList<>();
+        for(int featureCount : new int[] {3, MvtReader.PARALLEL_RANGE_SIZE * 5 + 17, 0,
+                MvtReader.PARALLEL_RANGE_SIZE}) {
+            final List<Geometry> geoms = new ArrayList<>();
+            for(int i = 0; i < featureCount; ++i) {
+                final int x = random.nextInt(4096);
+                final int y = random.nextInt(4096);
+                final Geometry geom = i % 2 == 0
+                        ? geomFactory.createPoint(new Coordinate(x, y))
+                        : geomFactory.createLineString(new Coordinate[] {new Coordinate(x, y),
+                                new Coordinate(x + 10, y + random.nextInt(100) + 1)});
+                geom.setUserData(Collections.singletonMap("rank", (Object) random.nextInt(5)));
+                geoms.add(geom);
+            }
+            layers.add(new JtsLayer("layer" + layers.size(), geoms));
+        }
+        final LazyMvt mvt = LazyMvt.open(MvtEncoder.encode(new JtsMvt(layers)));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final JtsMvt expected = MvtReader.loadMvt(mvt, geomFactory, new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1);
+            assertLoadEquals(expected, MvtReader.loadMvtParallel(mvt, geomFactory, new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1));
+            assertLoadEquals(expected, MvtReader.loadMvt(mvt, geomFactory, new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.ALL, FeatureProjection.ALL, executor));
+
+            // Selected features and fields
+            final IFeaturePredicate predicate = FeaturePredicates.and(
+                    FeaturePredicates.not(FeaturePredicates.layer("layer3")), FeaturePredicates.tag("rank", 2));
+            final FeatureProjection projection = FeatureProjection.NONE.withGeometry(true).withTags(true);
+            assertLoadEquals(MvtReader.loadMvt(mvt, geomFactory, new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1, predicate, projection),
+                    MvtReader.loadMvt(mvt, geomFactory, new TagKeyValueMapConverter(),
+                            MvtReader.RING_CLASSIFIER_V2_1, predicate, projection, executor));
+
+            // Single feature range per layer
+            final LazyMvt game = LazyMvt.open(new File("src/test/resources/vec_tile_test/game.mvt"));
+            assertLoadEquals(MvtReader.loadMvt(game, geomFactory, new TagKeyValueMapConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1), MvtReader.loadMvt(game, geomFactory,
+                    new TagKeyValueMapConverter(), MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.ALL,
+                    FeatureProjection.ALL, executor));
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadExceptions() throws IOException {
+        final LazyMvt mvt = LazyMvt.open(new File("src/test/resources/vec_tile_test/game.mvt"));
+        final IllegalArgumentException converterBug = new IllegalArgumentException("converter bug");
+        final ITagConverter badConverter = (id, tags, keysList, valuesList) -> {
+            throw converterBug;
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+
+            // Converter exceptions are not reported as a malformed tile
+            for(Executor nextExecutor : new Executor[] {null, executor}) {
+                try {
+                    if(nextExecutor == null) {
+                        MvtReader.loadMvt(mvt, new GeometryFactory(), badConverter, MvtReader.RING_CLASSIFIER_V2_1);
+                    } else {
+                        MvtReader.loadMvt(mvt, new GeometryFactory(), badConverter, MvtReader.RING_CLASSIFIER_V2_1,
+                                FeaturePredicates.ALL, FeatureProjection.ALL, nextExecutor);
+                    }
+                    fail();
+                } catch (IllegalArgumentException e) {
+                    assertSame(converterBug, e);
+                }
+            }
+
+            // Malformed geometry keeps the decoding failure as cause
+            final LazyMvt malformed = LazyMvt.open(MALFORMED_GEOMETRY_MVT);
+            for(Executor nextExecutor : new Executor[] {null, executor}) {
+                try {
+                    if(nextExecutor == null) {
+                        MvtReader.loadMvt(malformed, new GeometryFactory(), new TagIgnoreConverter(),
+                                MvtReader.RING_CLASSIFIER_V2_1);
+                    } else {
+                        MvtReader.loadMvt(malformed, new GeometryFactory(), new TagIgnoreConverter(),
+                                MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.ALL, FeatureProjection.ALL,
+                                nextExecutor);
+                    }
+                    fail();
+                } catch (InvalidProtocolBufferException e) {
+                    assertTrue(e.getCause() instanceof MalformedMvtException);
+                }
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testStreamExceptions() throws IOException {
+        final LazyMvt mvt = LazyMvt.open(new File("src/test/resources/vec_tile_test/game.mvt"));
+
+        // Visitor exceptions are not reported as a malformed tile
+        final IllegalArgumentException visitorBug = new IllegalArgumentException("visitor bug");
+        try {
+            MvtReader.stream(mvt, new GeometryFactory(), new TagIgnoreConverter(), MvtReader.RING_CLASSIFIER_V2_1,
+                    new IMvtFeatureVisitor() {
+                        @Override
+                        public boolean visitLayerStart(LazyLayer layer) {
+                            return true;
+                        }
+
+                        @Override
+                        public void visitFeature(DecodedFeature feature) {
+                            throw visitorBug;
+                        }
+
+                        @Override
+                        public void visitLayerEnd(LazyLayer layer) {
+                        }
+                    });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertSame(visitorBug, e);
+        }
+
+        // Malformed geometry decoded by the visitor
+        try {
+            MvtReader.stream(LazyMvt.open(MALFORMED_GEOMETRY_MVT), new GeometryFactory(), new TagIgnoreConverter(),
+                    MvtReader.RING_CLASSIFIER_V2_1, new IMvtFeatureVisitor() {
+                        @Override
+                        public boolean visitLayerStart(LazyLayer layer) {
+                            return true;
+                        }
+
+                        @Override
+                        public void visitFeature(DecodedFeature feature) {
+                            feature.getGeometry();
+                        }
+
+                        @Override
+                        public void visitLayerEnd(LazyLayer layer) {
+                        }
+                    });
+            fail();
+        } catch (InvalidProtocolBufferException e) {
+            assertTrue(e.getCause() instanceof MalformedMvtException);
+        }
+    }
+
+    @Test
+    public void testRetainedTags() throws IOException {
+        final LazyMvt mvt = LazyMvt.open(new File("src/test/resources/vec_tile_test/game.mvt"));
+        final ITagConverter retainConverter = (id, tags, keysList, valuesList) -> tags;
+        final ITagConverter copyConverter = (id, tags, keysList, valuesList) -> new ArrayList<>(tags);
+
+        // Tags kept by a custom converter are not overwritten by later features
+        final List<Geometry> retained = getAllGeometries(MvtReader.loadMvt(mvt, new GeometryFactory(),
+                retainConverter, MvtReader.RING_CLASSIFIER_V2_1));
+        final List<Geometry> copied = getAllGeometries(MvtReader.loadMvt(mvt, new GeometryFactory(),
+                copyConverter, MvtReader.RING_CLASSIFIER_V2_1));
+        assertEquals(copied.size(), retained.size());
+        for(int i = 0; i < copied.size(); ++i) {
+            assertEquals(copied.get(i).getUserData(), retained.get(i).getUserData());
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testLoadParallelNested() throws Exception {
+        final GeometryFactory geomFactory = new GeometryFactory();
+        final List<Geometry> geoms = new ArrayList<>();
+        for(int i = 0; i < 4000; ++i) {
+            final Geometry geom = geomFactory.createPoint(new Coordinate(i % 4096, i / 4096));
+            geom.setUserData(Collections.singletonMap("id", (Object) i));
+            geoms.add(geom);
+        }
+        final LazyMvt mvt = LazyMvt.open(MvtEncoder.encode(new JtsMvt(new JtsLayer("points", geoms))));
+        final JtsMvt expected = MvtReader.loadMvt(mvt, geomFactory, new TagKeyValueMapConverter(),
+                MvtReader.RING_CLASSIFIER_V2_1);
+
+        // Tile decoding already running on the common pool
+        IntStream.range(0, 64).parallel().forEach(i ->
+                assertLoadEquals(expected, loadParallel(mvt, geomFactory, ForkJoinPool.commonPool())));
+
+        // Single worker pool: every join must help run the queued feature ranges
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            pool.submit(() -> IntStream.range(0, 64).parallel().forEach(i ->
+                    assertLoadEquals(expected, loadParallel(mvt, geomFactory, pool)))).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static JtsMvt loadParallel(LazyMvt mvt, GeometryFactory geomFactory, Executor executor) {
+        try {
+            return MvtReader.loadMvt(mvt, geomFactory, new TagKeyValueMapConverter(), MvtReader.RING_CLASSIFIER_V2_1,
+                    FeaturePredicates.ALL, FeatureProjection.ALL, executor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void assertLoadEquals(JtsMvt expected, JtsMvt actual) {
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<>(expected.getLayersByName().keySet()),
+                new ArrayList<>(actual.getLayersByName().keySet()));
+
+        for(JtsLayer l : expected.getLayers()) {
+            final Iterator<Geometry> actualGeoms = actual.getLayer(l.getName()).getGeometries().iterator();
+            for(Geometry g : l.getGeometries()) {
+                assertEquals(g.getUserData(), actualGeoms.next().getUserData());
+            }
+            assertFalse(actualGeoms.hasNext());
+        }
+    }
+
     private List<Geometry> getAllGeometries(JtsMvt mvt) {
         List<Geometry> allGeoms = new ArrayList<>();
         for (JtsLayer l : mvt.getLayers()) {
@@ -0,0 +1,172 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerBuild;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Test streaming MVT writer output matches the protobuf builder output.
+ */
+public final class MvtWriterTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final MvtLayerParams DEFAULT_MVT_PARAMS = new MvtLayerParams();
+
+    @Test
+    public void testMatchesBuilder() {
+        final JtsMvt mvt = new JtsMvt(
+                new JtsLayer("points", randomGeoms(50, 1)),
+                new JtsLayer("lines", randomGeoms(20, 30)),
+                new JtsLayer("polygons", randomPolygons(20)),
+                new JtsLayer("empty"));
+        final IUserDataConverter converter = new UserDataKeyValueMapConverter("id");
+
+        assertArrayEquals(encodeWithBuilder(mvt, DEFAULT_MVT_PARAMS, converter),
+                new MvtWriter(DEFAULT_MVT_PARAMS, converter).encode(mvt));
+    }
+
+    @Test
+    public void testByteBuffer() throws Exception {
+        final JtsMvt mvt = new JtsMvt(new JtsLayer("lines", randomGeoms(20, 30)));
+        final IUserDataConverter converter = new UserDataKeyValueMapConverter();
+        final byte[] expected = encodeWithBuilder(mvt, DEFAULT_MVT_PARAMS, converter);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+        new MvtWriter(DEFAULT_MVT_PARAMS, converter).write(mvt, buffer);
+
+        assertArrayEquals(expected, buffer.array());
+    }
+
+    @Test
+    public void testReuseContext() {
+        final IUserDataConverter converter = new UserDataKeyValueMapConverter("id");
+        final MvtEncodingContext context = new MvtEncodingContext();
+
+        for(int i = 0; i < 5; ++i) {
+            final JtsMvt mvt = new JtsMvt(
+                    new JtsLayer("lines", randomGeoms(10 + i, 30)),
+                    new JtsLayer("polygons", randomPolygons(5 + i)));
+
+            assertArrayEquals(encodeWithBuilder(mvt, DEFAULT_MVT_PARAMS, converter),
+                    MvtEncoder.encode(mvt, DEFAULT_MVT_PARAMS, converter, context));
+        }
+    }
+
+    @Test
+    public void testReuseAfterFailedWrite() throws Exception {
+        final Object failUserData = new Object();
+        final IUserDataConverter delegate = new UserDataKeyValueMapConverter("id");
+        final IUserDataConverter converter = (userData, layerProps, featureBuilder) -> {
+            if(userData == failUserData) {
+                throw new IllegalStateException("conversion failed");
+            }
+            delegate.addTags(userData, layerProps, featureBuilder);
+        };
+        final MvtWriter writer = new MvtWriter(DEFAULT_MVT_PARAMS, converter);
+
+        final List<Geometry> failGeoms = randomGeoms(50, 1);
+        failGeoms.get(40).setUserData(failUserData);
+        try {
+            writer.write(new JtsMvt(new JtsLayer("points", failGeoms)), new ByteArrayOutputStream());
+            fail("expected conversion failure");
+        } catch (IllegalStateException e) {
+            assertEquals("conversion failed", e.getMessage());
+        }
+
+        // Features buffered before the failure must not leak into the next tile
+        final JtsMvt mvt = new JtsMvt(new JtsLayer("points", randomGeoms(50, 1)));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(mvt, out);
+        assertArrayEquals(encodeWithBuilder(mvt, DEFAULT_MVT_PARAMS, converter), out.toByteArray());
+    }
+
+    private static byte[] encodeWithBuilder(JtsMvt mvt, MvtLayerParams mvtLayerParams,
+                                            IUserDataConverter userDataConverter) {
+        final VectorTile.Tile.Builder tileBuilder = VectorTile.Tile.newBuilder();
+
+        for(JtsLayer layer : mvt.getLayers()) {
+            final VectorTile.Tile.Layer.Builder layerBuilder =
+                    MvtLayerBuild.newLayerBuilder(layer.getName(), mvtLayerParams);
+            final MvtLayerProps layerProps = new MvtLayerProps();
+
+            layerBuilder.addAllFeatures(JtsAdapter.toFeatures(layer.getGeometries(), layerProps, userDataConverter));
+            MvtLayerBuild.writeProps(layerBuilder, layerProps);
+            tileBuilder.addLayers(layerBuilder.build());
+        }
+
+        return tileBuilder.build().toByteArray();
+    }
+
+    private static List<Geometry> randomGeoms(int count, int pointCount) {
+        final List<Geometry> geoms = new ArrayList<>(count);
+
+        for(int i = 0; i < count; ++i) {
+            final Coordinate[] coords = new Coordinate[pointCount];
+            for(int j = 0; j < pointCount; ++j) {
+                coords[j] = new Coordinate(RANDOM.nextInt(4096), RANDOM.nextInt(4096));
+            }
+
+            final Geometry geom = pointCount == 1
+                    ? GEOMETRY_FACTORY.createPoint(coords[0])
+                    : GEOMETRY_FACTORY.createLineString(coords);
+            geom.setUserData(randomUserData(i));
+            geoms.add(geom);
+        }
+
+        return geoms;
+    }
+
+    private static List<Geometry> randomPolygons(int count) {
+        final List<Geometry> geoms = new ArrayList<>(count);
+
+        for(int i = 0; i < count; ++i) {
+            final int x = RANDOM.nextInt(3000);
+            final int y = RANDOM.nextInt(3000);
+            final int size = 100 + RANDOM.nextInt(900);
+
+            final Polygon poly = GEOMETRY_FACTORY.createPolygon(
+                    GEOMETRY_FACTORY.createLinearRing(new Coordinate[] {
+                            new Coordinate(x, y), new Coordinate(x + size, y),
+                            new Coordinate(x + size, y + size), new Coordinate(x, y + size),
+                            new Coordinate(x, y)}),
+                    new LinearRing[] {GEOMETRY_FACTORY.createLinearRing(new Coordinate[] {
+                            new Coordinate(x + 10, y + 10), new Coordinate(x + 10, y + 50),
+                            new Coordinate(x + 50, y + 50), new Coordinate(x + 50, y + 10),
+                            new Coordinate(x + 10, y + 10)})});
+            poly.setUserData(randomUserData(i));
+            geoms.add(poly);
+        }
+
+        return geoms;
+    }
+
+    private static Map<String, Object> randomUserData(int id) {
+        final Map<String, Object> userData = new LinkedHashMap<>();
+        userData.put("id", (long) id);
+        userData.put("name", "feature " + RANDOM.nextInt(10));
+        userData.put("rank", (long) RANDOM.nextInt(5) - 2L);
+        userData.put("height", RANDOM.nextDouble() * 100d);
+        userData.put("ratio", RANDOM.nextFloat());
+        userData.put("visible", RANDOM.nextBoolean());
+        return userData;
+    }
+}
@@ -0,0 +1,156 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.*;
+
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.scatterLine;
+import static org.junit.Assert.*;
+
+/**
+ * Test rectangle clipping against JTS overlay.
+ */
+public final class RectangleClipperTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final Envelope CLIP_ENVELOPE = new Envelope(100d, 200d, 100d, 200d);
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testPoints() throws ParseException {
+        assertClipEquals("MULTIPOINT ((50 50), (100 150), (150 150), (250 150))");
+        assertClipEquals("POINT (150 150)");
+        assertTrue(clip("POINT (50 50)").isEmpty());
+    }
+
+    @Test
+    public void testLines() throws ParseException {
+        assertClipEquals("LINESTRING (50 150, 250 150)");
+        assertClipEquals("LINESTRING (50 150, 150 150, 150 50, 175 50, 175 250)");
+        assertClipEquals("MULTILINESTRING ((50 50, 250 250), (50 250, 250 50))");
+        assertClipEquals("LINESTRING (120 120, 180 180)");
+        assertTrue(clip("LINESTRING (50 50, 250 50)").isEmpty());
+
+        for(int i = 0; i < 20; ++i) {
+            assertClipEquals(scatterLine(RANDOM, 50, 50d, 200));
+        }
+    }
+
+    @Test
+    public void testPolygons() throws ParseException {
+        assertClipEquals("POLYGON ((50 50, 250 50, 250 250, 50 250, 50 50))");
+        assertClipEquals("POLYGON ((150 50, 250 150, 150 250, 50 150, 150 50))");
+        assertClipEquals("POLYGON ((50 50, 250 50, 250 250, 50 250, 50 50), (120 120, 120 180, 180 180, 180 120, 120 120))");
+        assertClipEquals("POLYGON ((50 50, 250 50, 250 250, 50 250, 50 50), (150 150, 150 240, 240 240, 240 150, 150 150))");
+        assertClipEquals("MULTIPOLYGON (((50 50, 120 50, 120 120, 50 120, 50 50)), ((180 180, 250 180, 250 250, 180 250, 180 180)))");
+
+        // Hole covers clip area
+        assertTrue(clip("POLYGON ((0 0, 300 0, 300 300, 0 300, 0 0), (50 50, 50 250, 250 250, 250 50, 50 50))").isEmpty());
+        assertTrue(clip("POLYGON ((0 0, 50 0, 50 50, 0 50, 0 0))").isEmpty());
+    }
+
+    @Test
+    public void testConcavePolygon() throws ParseException {
+
+        // U shape crossing the clip area twice, may keep a zero-width edge but must have the same area
+        final Geometry geom = new WKTReader(GEOMETRY_FACTORY).read(
+                "POLYGON ((120 50, 140 50, 140 250, 160 250, 160 50, 180 50, 180 300, 120 300, 120 50))");
+        final Geometry clipped = RectangleClipper.INSTANCE.clip(geom, CLIP_ENVELOPE, GEOMETRY_FACTORY);
+        final Geometry expected = JtsOverlayClipper.INSTANCE.clip(geom, CLIP_ENVELOPE, GEOMETRY_FACTORY);
+
+        assertEquals(expected.getArea(), clipped.getArea(), EPSILON);
+        assertTrue(CLIP_ENVELOPE.contains(clipped.getEnvelopeInternal()));
+    }
+
+    @Test
+    public void testInvalidPolygon() throws ParseException {
+
+        // Self-intersecting bow tie fails JTS overlay
+        final Geometry geom = new WKTReader(GEOMETRY_FACTORY).read(
+                "POLYGON ((50 50, 250 250, 250 100, 50 250, 50 50))");
+        final Geometry clipped = RectangleClipper.INSTANCE.clip(geom, CLIP_ENVELOPE, GEOMETRY_FACTORY);
+
+        assertFalse(clipped.isEmpty());
+        assertTrue(CLIP_ENVELOPE.contains(clipped.getEnvelopeInternal()));
+    }
+
+    @Test
+    public void testInside() throws ParseException {
+        final Geometry geom = new WKTReader(GEOMETRY_FACTORY).read("POLYGON ((120 120, 180 120, 180 180, 120 120))");
+        assertSame(geom, RectangleClipper.INSTANCE.clip(geom, CLIP_ENVELOPE, GEOMETRY_FACTORY));
+    }
+
+    @Test
+    public void testClipEnvelope() {
+        final Envelope clipEnvelope = JtsAdapter.createClipEnvelope(new Envelope(0d, 1000d, 0d, 2000d),
+                new MvtLayerParams(256, 4096), 64);
+        assertEquals(new Envelope(-15.625d, 1015.625d, -31.25d, 2031.25d), clipEnvelope);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBuffer() {
+        JtsAdapter.createClipEnvelope(CLIP_ENVELOPE, MvtLayerParams.DEFAULT, -1);
+    }
+
+    @Test
+    public void testCreateTileGeom() throws ParseException {
+        final List<Geometry> geoms = Arrays.asList(
+                new WKTReader(GEOMETRY_FACTORY).read("POLYGON ((50 50, 250 50, 250 250, 50 250, 50 50))"),
+                new WKTReader(GEOMETRY_FACTORY).read("LINESTRING (50 150, 250 150)"));
+        final Envelope tileEnvelope = CLIP_ENVELOPE;
+        final Envelope clipEnvelope = JtsAdapter.createClipEnvelope(tileEnvelope, MvtLayerParams.DEFAULT, 64);
+        final IGeometryFilter acceptAll = new IGeometryFilter() {
+            @Override
+            public boolean accept(Geometry geometry) {
+                return true;
+            }
+        };
+
+        final TileGeomResult expected = JtsAdapter.createTileGeom(geoms, tileEnvelope, clipEnvelope,
+                GEOMETRY_FACTORY, MvtLayerParams.DEFAULT, acceptAll);
+        final TileGeomResult actual = JtsAdapter.createTileGeom(geoms, tileEnvelope, clipEnvelope,
+                GEOMETRY_FACTORY, MvtLayerParams.DEFAULT, acceptAll, RectangleClipper.INSTANCE);
+
+        assertEquals(expected.mvtGeoms.size(), actual.mvtGeoms.size());
+        for(int i = 0; i < expected.mvtGeoms.size(); ++i) {
+            assertTrue(expected.mvtGeoms.get(i).equalsTopo(actual.mvtGeoms.get(i)));
+        }
+
+        // Buffered polygon extends 64 units past the tile extent
+        assertEquals(new Envelope(-64d, 4160d, -64d, 4160d), actual.mvtGeoms.get(0).getEnvelopeInternal());
+    }
+
+    private static void assertClipEquals(String wkt) throws ParseException {
+        assertClipEquals(new WKTReader(GEOMETRY_FACTORY).read(wkt));
+    }
+
+    private static void assertClipEquals(Geometry geom) {
+        final Geometry expected = JtsOverlayClipper.INSTANCE.clip(geom, CLIP_ENVELOPE, GEOMETRY_FACTORY);
+        final Geometry actual = RectangleClipper.INSTANCE.clip(geom, CLIP_ENVELOPE, GEOMETRY_FACTORY);
+
+        // Overlay nodes lines and merges touching rings, so compare measures rather than vertices
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        assertEquals(expected.getDimension(), actual.getDimension());
+        assertEquals(expected.getArea(), actual.getArea(), EPSILON);
+        if(expected.getDimension() == 1) {
+            assertEquals(expected.getLength(), actual.getLength(), EPSILON);
+        }
+        assertTrue(CLIP_ENVELOPE.contains(actual.getEnvelopeInternal()));
+    }
+
+    private static Geometry clip(String wkt) throws ParseException {
+        return RectangleClipper.INSTANCE.clip(new WKTReader(GEOMETRY_FACTORY).read(wkt), CLIP_ENVELOPE,
+                GEOMETRY_FACTORY);
+    }
+}
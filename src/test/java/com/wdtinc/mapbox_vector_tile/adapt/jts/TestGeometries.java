@@ -0,0 +1,89 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.Random;
+
+/**
+ * Geometry generators shared by clipping, transform and encoding tests.
+ */
+final class TestGeometries {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private TestGeometries() {}
+
+    /**
+     * @param x center x
+     * @param y center y
+     * @param radius circle radius
+     * @param pointCount count of distinct vertices
+     * @return counter-clockwise circular polygon
+     */
+    static Polygon circle(double x, double y, double radius, int pointCount) {
+        final Coordinate[] coords = new Coordinate[pointCount + 1];
+
+        for(int i = 0; i < pointCount; ++i) {
+            final double angle = 2d * Math.PI * i / pointCount;
+            coords[i] = new Coordinate(x + Math.cos(angle) * radius, y + Math.sin(angle) * radius);
+        }
+        coords[pointCount] = coords[0];
+
+        return GEOMETRY_FACTORY.createPolygon(coords);
+    }
+
+    /**
+     * @param random source of y values
+     * @param pointCount count of vertices
+     * @return line sweeping x from 0 to 1000 with random integer y in [0, 1000)
+     */
+    static LineString sweepLine(Random random, int pointCount) {
+        final Coordinate[] coords = new Coordinate[pointCount];
+
+        for(int i = 0; i < pointCount; ++i) {
+            coords[i] = new Coordinate(i * 1000d / pointCount, random.nextInt(1000));
+        }
+
+        return GEOMETRY_FACTORY.createLineString(coords);
+    }
+
+    /**
+     * @param random source of vertices
+     * @param pointCount count of vertices
+     * @param min min x and y
+     * @param range count of integer x and y values from {@code min}
+     * @return line through random integer vertices in a square
+     */
+    static LineString scatterLine(Random random, int pointCount, double min, int range) {
+        final Coordinate[] coords = new Coordinate[pointCount];
+
+        for(int i = 0; i < pointCount; ++i) {
+            coords[i] = new Coordinate(min + random.nextInt(range), min + random.nextInt(range));
+        }
+
+        return GEOMETRY_FACTORY.createLineString(coords);
+    }
+
+    /**
+     * @param random source of steps
+     * @param pointCount count of vertices
+     * @param x start x, before the first step
+     * @param y start y, before the first step
+     * @param step max distance moved along each axis per vertex
+     * @return random walk line
+     */
+    static LineString randomWalk(Random random, int pointCount, double x, double y, double step) {
+        final Coordinate[] coords = new Coordinate[pointCount];
+
+        for(int i = 0; i < pointCount; ++i) {
+            x += (random.nextDouble() - .5d) * step;
+            y += (random.nextDouble() - .5d) * step;
+            coords[i] = new Coordinate(x, y);
+        }
+
+        return GEOMETRY_FACTORY.createLineString(coords);
+    }
+}
@@ -0,0 +1,88 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+
+import java.util.*;
+
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.circle;
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.sweepLine;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test batch tile clipping matches clipping each tile separately.
+ */
+public final class TileClipTreeTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final MvtLayerParams DEFAULT_MVT_PARAMS = new MvtLayerParams();
+
+    private static final IGeometryFilter ACCEPT_ALL = new IGeometryFilter() {
+        @Override
+        public boolean accept(Geometry geometry) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testMatchesSingleTile() {
+        final List<Geometry> geoms = new ArrayList<>();
+        geoms.add(circle(500d, 500d, 400d, 2000));
+        geoms.add(circle(300d, 700d, 50d, 100));
+        geoms.add(sweepLine(RANDOM, 500));
+        geoms.add(GEOMETRY_FACTORY.createPoint(new Coordinate(10d, 10d)));
+        for(int i = 0; i < geoms.size(); ++i) {
+            geoms.get(i).setUserData(i);
+        }
+
+        // 8x8 tile grid, plus tiles that straddle quadrant boundaries
+        final List<Envelope> tileEnvelopes = new ArrayList<>();
+        for(int x = 0; x < 8; ++x) {
+            for(int y = 0; y < 8; ++y) {
+                tileEnvelopes.add(new Envelope(x * 125d, (x + 1) * 125d, y * 125d, (y + 1) * 125d));
+            }
+        }
+        tileEnvelopes.add(new Envelope(400d, 600d, 400d, 600d));
+        tileEnvelopes.add(new Envelope(0d, 1000d, 0d, 1000d));
+
+        final List<TileGeomResult> results = JtsAdapter.createTileGeoms(geoms, tileEnvelopes, GEOMETRY_FACTORY,
+                DEFAULT_MVT_PARAMS, ACCEPT_ALL);
+        assertEquals(tileEnvelopes.size(), results.size());
+
+        for(int i = 0; i < tileEnvelopes.size(); ++i) {
+            final TileGeomResult expected = JtsAdapter.createTileGeom(geoms, tileEnvelopes.get(i), GEOMETRY_FACTORY,
+                    DEFAULT_MVT_PARAMS, ACCEPT_ALL);
+            final TileGeomResult actual = results.get(i);
+
+            assertEquals(expected.intGeoms.size(), actual.intGeoms.size());
+            assertEquals(expected.mvtGeoms.size(), actual.mvtGeoms.size());
+
+            for(int j = 0; j < expected.mvtGeoms.size(); ++j) {
+                assertEquals(expected.mvtGeoms.get(j).getUserData(), actual.mvtGeoms.get(j).getUserData());
+                assertTrue(expected.mvtGeoms.get(j).norm().equalsExact(actual.mvtGeoms.get(j).norm()));
+            }
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final List<Geometry> geoms = Collections.<Geometry>singletonList(circle(500d, 500d, 400d, 100));
+
+        assertTrue(JtsAdapter.createTileGeoms(geoms, Collections.<Envelope>emptyList(), GEOMETRY_FACTORY,
+                DEFAULT_MVT_PARAMS, ACCEPT_ALL).isEmpty());
+
+        final List<TileGeomResult> results = JtsAdapter.createTileGeoms(geoms,
+                Collections.singletonList(new Envelope(2000d, 3000d, 2000d, 3000d)), GEOMETRY_FACTORY,
+                DEFAULT_MVT_PARAMS, ACCEPT_ALL);
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).intGeoms.isEmpty());
+    }
+}
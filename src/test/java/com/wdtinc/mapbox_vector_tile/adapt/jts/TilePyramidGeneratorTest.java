@@ -0,0 +1,242 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.circle;
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.sweepLine;
+import static org.junit.Assert.*;
+
+/**
+ * Test tile pyramid generation matches encoding each tile separately.
+ */
+public final class TilePyramidGeneratorTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final MvtLayerParams DEFAULT_MVT_PARAMS = new MvtLayerParams();
+
+    private static final Envelope WORLD = new Envelope(0d, 1000d, 0d, 1000d);
+
+    private static final IGeometryFilter ACCEPT_ALL = new IGeometryFilter() {
+        @Override
+        public boolean accept(Geometry geometry) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testMatchesSingleTiles() throws IOException {
+        final List<Geometry> areas = new ArrayList<>();
+        areas.add(circle(300d, 600d, 250d, 400));
+        areas.add(circle(800d, 200d, 60d, 50));
+
+        final List<Geometry> lines = new ArrayList<>();
+        lines.add(sweepLine(RANDOM, 300));
+
+        final List<Geometry> points = new ArrayList<>();
+        for(int i = 0; i < 20; ++i) {
+            points.add(GEOMETRY_FACTORY.createPoint(new Coordinate(RANDOM.nextInt(1000), RANDOM.nextInt(1000))));
+        }
+
+        final JtsMvt source = new JtsMvt(new JtsLayer("areas", areas), new JtsLayer("lines", lines),
+                new JtsLayer("points", points));
+        for(JtsLayer l : source.getLayers()) {
+            int i = 0;
+            for(Geometry g : l.getGeometries()) {
+                g.setUserData(Collections.singletonMap("id", i++));
+            }
+        }
+
+        final TilePyramidGenerator generator = new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS, GEOMETRY_FACTORY,
+                ACCEPT_ALL, new UserDataKeyValueMapConverter(), RectangleClipper.INSTANCE, 64);
+        final Map<String, byte[]> tiles = new ConcurrentHashMap<>();
+
+        final long tileCount = generator.generate(source, 1, 4, new ITileSink() {
+            @Override
+            public void write(int z, int x, int y, byte[] tile) {
+                assertNull(tiles.put(z + "/" + x + "/" + y, tile));
+            }
+        }, new ForkJoinPool(3));
+        assertEquals(tiles.size(), tileCount);
+
+        // Brute force over every tile in the zoom range
+        int expectedCount = 0;
+        for(int z = 1; z <= 4; ++z) {
+            for(int x = 0; x < 1 << z; ++x) {
+                for(int y = 0; y < 1 << z; ++y) {
+                    final JtsMvt expected = createTile(generator.tileEnvelope(z, x, y), source);
+                    final byte[] actual = tiles.get(z + "/" + x + "/" + y);
+
+                    if(expected.getLayers().isEmpty()) {
+                        assertNull(actual);
+                        continue;
+                    }
+
+                    ++expectedCount;
+                    assertNotNull(actual);
+                    assertTileEquals(decode(MvtEncoder.encode(expected, DEFAULT_MVT_PARAMS,
+                            new UserDataKeyValueMapConverter())), decode(actual));
+                }
+            }
+        }
+        assertEquals(expectedCount, tileCount);
+    }
+
+    @Test
+    public void testZoomSimplifier() throws IOException {
+        final JtsMvt source = new JtsMvt(new JtsLayer("areas", singletonList(circle(500d, 500d, 400d, 2000))));
+        final ZoomToleranceSimplifier zoomSimplifier = new ZoomToleranceSimplifier(
+                JtsSimplifier.Method.DOUGLAS_PEUCKER, 1d, 8d, 3);
+        final Map<String, byte[]> tiles = generate(new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS,
+                GEOMETRY_FACTORY, ACCEPT_ALL, new UserDataIgnoreConverter(), RectangleClipper.INSTANCE, 64,
+                zoomSimplifier), source, 0, 4);
+
+        // Each zoom level matches a fixed simplifier with that level's tolerance
+        final Map<String, byte[]> expected = new HashMap<>();
+        for(int z = 0; z <= 4; ++z) {
+            expected.putAll(generate(new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS, GEOMETRY_FACTORY,
+                    ACCEPT_ALL, new UserDataIgnoreConverter(), RectangleClipper.INSTANCE, 64,
+                    zoomSimplifier.forZoom(z)), source, z, z));
+        }
+        assertEquals(expected.keySet(), tiles.keySet());
+        for(Map.Entry<String, byte[]> nextTile : expected.entrySet()) {
+            assertArrayEquals(nextTile.getValue(), tiles.get(nextTile.getKey()));
+        }
+
+        // Low zoom tiles are simplified more than with the default tolerance
+        final Map<String, byte[]> defaultTiles = generate(new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS,
+                GEOMETRY_FACTORY, ACCEPT_ALL, new UserDataIgnoreConverter(), RectangleClipper.INSTANCE, 64),
+                source, 0, 0);
+        assertTrue(tiles.get("0/0/0").length < defaultTiles.get("0/0/0").length);
+    }
+
+    @Test
+    public void testSkipsEmptyTiles() throws IOException {
+        final Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(123.4d, 567.8d));
+        final TilePyramidGenerator generator = new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS, GEOMETRY_FACTORY,
+                ACCEPT_ALL, new UserDataIgnoreConverter());
+        final List<String> tileIds = Collections.synchronizedList(new ArrayList<String>());
+
+        final long tileCount = generator.generate(new JtsMvt(new JtsLayer("points", singletonList(point))), 0, 20,
+                new ITileSink() {
+                    @Override
+                    public void write(int z, int x, int y, byte[] tile) {
+                        assertTrue(generator.tileEnvelope(z, x, y).contains(point.getCoordinate()));
+                        tileIds.add(z + "/" + x + "/" + y);
+                    }
+                });
+
+        // One tile per zoom level
+        assertEquals(21L, tileCount);
+        assertEquals(21, new HashSet<>(tileIds).size());
+        assertTrue(tileIds.contains("0/0/0"));
+
+        assertEquals(0L, generator.generate(new JtsMvt(new JtsLayer("empty")), 0, 20, new ITileSink() {
+            @Override
+            public void write(int z, int x, int y, byte[] tile) {
+                fail();
+            }
+        }));
+    }
+
+    @Test
+    public void testTileEnvelope() {
+        final TilePyramidGenerator generator = new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS, GEOMETRY_FACTORY,
+                ACCEPT_ALL, new UserDataIgnoreConverter());
+
+        assertEquals(WORLD, generator.tileEnvelope(0, 0, 0));
+        assertEquals(new Envelope(0d, 500d, 500d, 1000d), generator.tileEnvelope(1, 0, 0));
+        assertEquals(new Envelope(750d, 1000d, 0d, 250d), generator.tileEnvelope(2, 3, 3));
+    }
+
+    @Test
+    public void testSinkFailure() {
+        final TilePyramidGenerator generator = new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS, GEOMETRY_FACTORY,
+                ACCEPT_ALL, new UserDataIgnoreConverter());
+        final JtsMvt source = new JtsMvt(new JtsLayer("areas", singletonList(circle(500d, 500d, 400d, 100))));
+
+        try {
+            generator.generate(source, 0, 3, new ITileSink() {
+                @Override
+                public void write(int z, int x, int y, byte[] tile) throws IOException {
+                    throw new IOException("disk full");
+                }
+            });
+            fail("expected IOException");
+
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidZoomRange() throws IOException {
+        new TilePyramidGenerator(WORLD, DEFAULT_MVT_PARAMS, GEOMETRY_FACTORY, ACCEPT_ALL,
+                new UserDataIgnoreConverter()).generate(new JtsMvt(), 5, 4, null);
+    }
+
+    private static Map<String, byte[]> generate(TilePyramidGenerator generator, JtsMvt source, int minZoom,
+                                                int maxZoom) throws IOException {
+        final Map<String, byte[]> tiles = new ConcurrentHashMap<>();
+        generator.generate(source, minZoom, maxZoom, new ITileSink() {
+            @Override
+            public void write(int z, int x, int y, byte[] tile) {
+                tiles.put(z + "/" + x + "/" + y, tile);
+            }
+        });
+        return tiles;
+    }
+
+    private static JtsMvt createTile(Envelope tileEnvelope, JtsMvt source) {
+        final Envelope clipEnvelope = JtsAdapter.createClipEnvelope(tileEnvelope, DEFAULT_MVT_PARAMS, 64);
+        final List<JtsLayer> layers = new ArrayList<>();
+
+        for(JtsLayer l : source.getLayers()) {
+            final List<Geometry> geoms = JtsAdapter.createTileGeom(new ArrayList<>(l.getGeometries()), tileEnvelope,
+                    clipEnvelope, GEOMETRY_FACTORY, DEFAULT_MVT_PARAMS, ACCEPT_ALL, RectangleClipper.INSTANCE).mvtGeoms;
+            if(!geoms.isEmpty()) {
+                layers.add(new JtsLayer(l.getName(), geoms));
+            }
+        }
+
+        return new JtsMvt(layers);
+    }
+
+    private static JtsMvt decode(byte[] tile) throws IOException {
+        return MvtReader.loadMvt(new ByteArrayInputStream(tile), GEOMETRY_FACTORY, new TagKeyValueMapConverter());
+    }
+
+    private static void assertTileEquals(JtsMvt expected, JtsMvt actual) {
+        assertEquals(expected.getLayersByName().keySet(), actual.getLayersByName().keySet());
+
+        for(JtsLayer expectedLayer : expected.getLayers()) {
+            final List<Geometry> expectedGeoms = new ArrayList<>(expectedLayer.getGeometries());
+            final List<Geometry> actualGeoms = new ArrayList<>(actual.getLayer(expectedLayer.getName()).getGeometries());
+            assertEquals(expectedGeoms.size(), actualGeoms.size());
+
+            for(int i = 0; i < expectedGeoms.size(); ++i) {
+                assertTrue(expectedGeoms.get(i).norm().equalsExact(actualGeoms.get(i).norm()));
+                assertEquals(expectedGeoms.get(i).getUserData(), actualGeoms.get(i).getUserData());
+            }
+        }
+    }
+
+    private static List<Geometry> singletonList(Geometry geom) {
+        return Collections.singletonList(geom);
+    }
+}
@@ -0,0 +1,81 @@
+package com.wdtinc.mapbox_vector_tile.adapt.jts;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.AffineTransformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.circle;
+import static com.wdtinc.mapbox_vector_tile.adapt.jts.TestGeometries.randomWalk;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the fused tile transform matches separate transform, rounding and dedupe passes.
+ */
+public final class TileTransformTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    @Test
+    public void testMatchesSeparatePasses() {
+        final AffineTransformation t = new AffineTransformation();
+        t.translate(-250d, -250d);
+        t.scale(4096d / 500d, -4096d / 500d);
+        t.translate(0d, 4096d);
+
+        final List<Geometry> geoms = new ArrayList<>();
+        geoms.add(GEOMETRY_FACTORY.createPoint(new Coordinate(300.123d, 400.456d)));
+        geoms.add(GEOMETRY_FACTORY.createMultiPoint(new Coordinate[] {
+                new Coordinate(1d, 2d), new Coordinate(1.01d, 2.01d)}));
+        geoms.add(randomWalk(RANDOM, 1000, 300d, 300d, 10d));
+        geoms.add(GEOMETRY_FACTORY.createMultiLineString(new LineString[] {
+                randomWalk(RANDOM, 50, 300d, 300d, 1d), randomWalk(RANDOM, 5, 300d, 300d, .001d)}));
+        geoms.add(circle(400d, 400d, 100d, 5000));
+        geoms.add(GEOMETRY_FACTORY.createMultiPolygon(new Polygon[] {
+                circle(300d, 300d, 50d, 40), circle(600d, 600d, .01d, 10)}));
+        geoms.add(GEOMETRY_FACTORY.createPolygon(
+                (LinearRing) circle(400d, 400d, 100d, 200).getExteriorRing(),
+                new LinearRing[] {(LinearRing) circle(400d, 400d, .01d, 20).getExteriorRing(),
+                        (LinearRing) circle(420d, 400d, 10d, 20).getExteriorRing()}));
+
+        for(boolean dedupe : new boolean[] {false, true}) {
+            final TileTransform tileTransform = new TileTransform(t, dedupe);
+            int expectedRemoved = 0;
+
+            for(Geometry nextGeom : geoms) {
+                Geometry expected = t.transform(nextGeom);
+                expected.apply(RoundingFilter.INSTANCE);
+                if(dedupe) {
+                    final Geometry rounded = expected;
+                    expected = GridDedupeSimplifier.INSTANCE.simplify(rounded);
+                    expectedRemoved += rounded.getNumPoints() - expected.getNumPoints();
+                }
+
+                final Geometry actual = tileTransform.transform(nextGeom);
+                assertEquals(expected.getGeometryType(), actual.getGeometryType());
+                assertTrue(expected.toText() + " != " + actual.toText(), expected.equalsExact(actual));
+            }
+
+            assertEquals(expectedRemoved, tileTransform.getRemovedVertexCount());
+            assertEquals(dedupe, expectedRemoved > 0);
+        }
+    }
+
+    @Test
+    public void testUnsupportedType() {
+        final GeometryCollection collection = GEOMETRY_FACTORY.createGeometryCollection(new Geometry[] {
+                GEOMETRY_FACTORY.createPoint(new Coordinate(1d, 2d))});
+
+        assertNull(new TileTransform(new AffineTransformation(), true).transform(collection));
+    }
+}
@@ -0,0 +1,209 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.*;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import com.wdtinc.mapbox_vector_tile.read.LazyMvt;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test writing and reading single-file tile archives.
+ */
+public final class TileArchiveTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testPyramidRoundTrip() throws IOException {
+        final List<Geometry> points = new ArrayList<>();
+        for(int i = 0; i < 200; ++i) {
+            points.add(GEOMETRY_FACTORY.createPoint(new Coordinate(RANDOM.nextDouble() * 1000d,
+                    RANDOM.nextDouble() * 1000d)));
+        }
+        final TilePyramidGenerator generator = new TilePyramidGenerator(new Envelope(0d, 1000d, 0d, 1000d),
+                new MvtLayerParams(), GEOMETRY_FACTORY, new IGeometryFilter() {
+                    @Override
+                    public boolean accept(Geometry geometry) {
+                        return true;
+                    }
+                }, new UserDataIgnoreConverter());
+        final JtsMvt source = new JtsMvt(new JtsLayer("points", points));
+
+        final File file = tempFolder.newFile("pyramid.mvta");
+        final Map<Long, byte[]> expected = new ConcurrentHashMap<>();
+        final long tileCount;
+        try(final TileArchiveWriter writer = new TileArchiveWriter(file)) {
+            tileCount = generator.generate(source, 0, 5, new ITileSink() {
+                @Override
+                public void write(int z, int x, int y, byte[] tile) throws IOException {
+                    expected.put(TileIds.toTileId(z, x, y), tile);
+                    writer.write(z, x, y, tile);
+                }
+            }, new ForkJoinPool(2));
+        }
+
+        final TileArchiveReader reader = TileArchiveReader.open(file);
+        assertEquals(tileCount, reader.getTileCount());
+        assertEquals(0, reader.getMinZoom());
+        assertEquals(5, reader.getMaxZoom());
+
+        // Directory in tile id order
+        final int[] zxy = new int[3];
+        long lastId = -1L;
+        for(int i = 0; i < reader.getTileCount(); ++i) {
+            final long tileId = reader.getTileIdAt(i);
+            assertTrue(tileId > lastId);
+            lastId = tileId;
+
+            assertArrayEquals(expected.get(tileId), toBytes(reader.getTileAt(i)));
+
+            TileIds.fromTileId(tileId, zxy);
+            assertTrue(reader.contains(zxy[0], zxy[1], zxy[2]));
+            final LazyMvt mvt = reader.getMvt(zxy[0], zxy[1], zxy[2]);
+            assertEquals(1, mvt.getLayerCount());
+            assertEquals("points", mvt.getLayer(0).getName());
+        }
+    }
+
+    @Test
+    public void testSegmentBoundaries() throws IOException {
+        final File file = tempFolder.newFile("segments.mvta");
+        final Map<Long, byte[]> expected = new HashMap<>();
+
+        // 1 KiB segments, tiles up to a full segment
+        try(final TileArchiveWriter writer = new TileArchiveWriter(file, false, 10)) {
+            for(int i = 0; i < 500; ++i) {
+                final int z = 8;
+                final int x = RANDOM.nextInt(1 << z);
+                final int y = RANDOM.nextInt(1 << z);
+                final byte[] tile = new byte[i == 0 ? 1024 : RANDOM.nextInt(700)];
+                RANDOM.nextBytes(tile);
+
+                writer.write(z, x, y, tile);
+                expected.put(TileIds.toTileId(z, x, y), tile);
+            }
+        }
+
+        final TileArchiveReader reader = TileArchiveReader.open(file);
+        assertEquals(expected.size(), reader.getTileCount());
+        for(Map.Entry<Long, byte[]> e : expected.entrySet()) {
+            final int[] zxy = new int[3];
+            TileIds.fromTileId(e.getKey(), zxy);
+            assertArrayEquals(e.getValue(), toBytes(reader.getTile(zxy[0], zxy[1], zxy[2])));
+        }
+    }
+
+    @Test
+    public void testDedupe() throws IOException {
+        final File file = tempFolder.newFile("dedupe.mvta");
+        final Map<Long, byte[]> expected = new HashMap<>();
+        final byte[] ocean = new byte[300];
+        Arrays.fill(ocean, (byte) 7);
+
+        final TileArchiveWriter writer = new TileArchiveWriter(file, true, 12);
+        for(int x = 0; x < 32; ++x) {
+            for(int y = 0; y < 32; ++y) {
+                final byte[] tile;
+                if((x + y) % 4 == 0) {
+                    tile = new byte[1 + RANDOM.nextInt(500)];
+                    RANDOM.nextBytes(tile);
+                } else {
+                    tile = (x + y) % 4 == 1 ? ocean.clone() : new byte[] {(byte) x};
+                }
+                writer.write(5, x, y, tile);
+                expected.put(TileIds.toTileId(5, x, y), tile);
+            }
+        }
+
+        // 256 random, 1 ocean and 32 single byte payloads
+        assertEquals(1024, writer.getWriteCount());
+        assertEquals(256 + 1 + 32, writer.getPayloadCount());
+        assertEquals((1024 - 289) / 1024d, writer.getDedupeRatio(), 0d);
+        writer.close();
+        assertTrue(file.length() < 256 * 500 + 300 + 32 + 1024 * 20 + 8 * 4096);
+
+        final TileArchiveReader reader = TileArchiveReader.open(file);
+        assertEquals(1024, reader.getTileCount());
+        for(Map.Entry<Long, byte[]> e : expected.entrySet()) {
+            final int[] zxy = new int[3];
+            TileIds.fromTileId(e.getKey(), zxy);
+            assertArrayEquals(e.getValue(), toBytes(reader.getTile(zxy[0], zxy[1], zxy[2])));
+        }
+    }
+
+    @Test
+    public void testLastWriteWins() throws IOException {
+        final File file = tempFolder.newFile("overwrite.mvta");
+        try(final TileArchiveWriter writer = new TileArchiveWriter(file)) {
+            writer.write(3, 1, 2, new byte[] {1});
+            writer.write(2, 0, 0, new byte[] {2});
+            writer.write(3, 1, 2, new byte[] {3, 4});
+            assertEquals(3, writer.getWriteCount());
+        }
+
+        final TileArchiveReader reader = TileArchiveReader.open(file);
+        assertEquals(2, reader.getTileCount());
+        assertEquals(2, reader.getMinZoom());
+        assertEquals(3, reader.getMaxZoom());
+        assertArrayEquals(new byte[] {3, 4}, toBytes(reader.getTile(3, 1, 2)));
+        assertArrayEquals(new byte[] {2}, toBytes(reader.getTile(2, 0, 0)));
+        assertNull(reader.getTile(3, 1, 3));
+        assertNull(reader.getMvt(0, 0, 0));
+        assertFalse(reader.contains(0, 0, 0));
+        assertTrue(reader.getTile(2, 0, 0).isReadOnly());
+    }
+
+    @Test
+    public void testEmptyArchive() throws IOException {
+        final File file = tempFolder.newFile("empty.mvta");
+        new TileArchiveWriter(file).close();
+
+        final TileArchiveReader reader = TileArchiveReader.open(file);
+        assertEquals(0, reader.getTileCount());
+        assertNull(reader.getTile(0, 0, 0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnArchive() throws IOException {
+        final File file = tempFolder.newFile("tile.mvt");
+        try(final FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[64]);
+        }
+        TileArchiveReader.open(file);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteAfterClose() throws IOException {
+        final TileArchiveWriter writer = new TileArchiveWriter(tempFolder.newFile("closed.mvta"));
+        writer.close();
+        writer.write(0, 0, 0, new byte[1]);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
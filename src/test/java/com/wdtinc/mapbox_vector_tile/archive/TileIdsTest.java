@@ -0,0 +1,57 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test Hilbert tile id numbering.
+ */
+public final class TileIdsTest {
+
+    @Test
+    public void testKnownIds() {
+        assertEquals(0L, TileIds.toTileId(0, 0, 0));
+        assertEquals(1L, TileIds.toTileId(1, 0, 0));
+        assertEquals(2L, TileIds.toTileId(1, 0, 1));
+        assertEquals(3L, TileIds.toTileId(1, 1, 1));
+        assertEquals(4L, TileIds.toTileId(1, 1, 0));
+        assertEquals(5L, TileIds.toTileId(2, 0, 0));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final int[] zxy = new int[3];
+
+        long expectedId = 0L;
+        for(int z = 0; z <= 5; ++z) {
+            final boolean[] seen = new boolean[1 << (z * 2)];
+            final long zoomStart = expectedId;
+
+            for(int x = 0; x < 1 << z; ++x) {
+                for(int y = 0; y < 1 << z; ++y) {
+                    final long tileId = TileIds.toTileId(z, x, y);
+                    seen[(int) (tileId - zoomStart)] = true;
+
+                    TileIds.fromTileId(tileId, zxy);
+                    assertArrayEquals(new int[] {z, x, y}, zxy);
+                }
+            }
+
+            for(boolean s : seen) {
+                assertEquals(true, s);
+            }
+            expectedId += seen.length;
+        }
+
+        final int max = (1 << TileIds.MAX_ZOOM) - 1;
+        TileIds.fromTileId(TileIds.toTileId(TileIds.MAX_ZOOM, max, 12345), zxy);
+        assertArrayEquals(new int[] {TileIds.MAX_ZOOM, max, 12345}, zxy);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfRange() {
+        TileIds.toTileId(2, 4, 0);
+    }
+}
@@ -0,0 +1,35 @@
+package com.wdtinc.mapbox_vector_tile.archive;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Test XXH64 against reference values.
+ */
+public final class XxHash64Test {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testReferenceValues() {
+        assertEquals(0xEF46DB3751D8E999L, hash(""));
+        assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+        assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition"));
+    }
+
+    @Test
+    public void testOffset() {
+        final byte[] bytes = "xxabcxx".getBytes(UTF_8);
+        assertEquals(hash("abc"), XxHash64.hash(bytes, 2, 3, 0L));
+        assertNotEquals(hash("abc"), XxHash64.hash(bytes, 2, 3, 1L));
+    }
+
+    private static long hash(String s) {
+        final byte[] bytes = s.getBytes(UTF_8);
+        return XxHash64.hash(bytes, 0, bytes.length, 0L);
+    }
+}
@@ -0,0 +1,122 @@
+package com.wdtinc.mapbox_vector_tile.build;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test layer property dictionaries keep insertion order and boxed equality semantics.
+ */
+public final class MvtLayerPropsTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    @Test
+    public void testKeys() {
+        final MvtLayerProps layerProps = new MvtLayerProps();
+
+        assertEquals(0, layerProps.addKey("a"));
+        assertEquals(1, layerProps.addKey("b"));
+        assertEquals(0, layerProps.addKey("a"));
+        assertEquals(Integer.valueOf(1), layerProps.keyIndex("b"));
+        assertNull(layerProps.keyIndex("c"));
+        assertNull(layerProps.keyIndex(null));
+        assertEquals(Arrays.asList("a", "b"), toList(layerProps.getKeys()));
+    }
+
+    @Test
+    public void testValueTypesDistinct() {
+        final MvtLayerProps layerProps = new MvtLayerProps();
+        final List<Object> expected = Arrays.<Object>asList(1, 1L, 1f, 1d, "1", true, false, 0d, -0d, Double.NaN);
+
+        for(int i = 0; i < expected.size(); ++i) {
+            assertEquals(i, layerProps.addValue(expected.get(i)));
+        }
+        for(int i = 0; i < expected.size(); ++i) {
+            assertEquals(i, layerProps.addValue(expected.get(i)));
+            assertEquals(Integer.valueOf(i), layerProps.valueIndex(expected.get(i)));
+        }
+
+        assertEquals(1, layerProps.addValue(1L));
+        assertEquals(2, layerProps.addValue(1f));
+        assertEquals(3, layerProps.addValue(1d));
+        assertEquals(4, layerProps.addValue("1"));
+        assertEquals(5, layerProps.addValue(true));
+        assertEquals(-1, layerProps.addValue(new Object()));
+        assertNull(layerProps.valueIndex(2L));
+        assertNull(layerProps.valueIndex(new Object()));
+
+        final List<Object> actual = toList(layerProps.getVals());
+        assertEquals(expected, actual);
+        for(int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+        }
+    }
+
+    @Test
+    public void testMatchesLinkedHashMap() {
+        final MvtLayerProps layerProps = new MvtLayerProps();
+        final LinkedHashMap<Object, Integer> expected = new LinkedHashMap<>();
+
+        // Enough values to force several table resizes, with many repeats
+        Object nextValue;
+        Integer expectedIndex;
+        for(int i = 0; i < 20000; ++i) {
+            switch(RANDOM.nextInt(4)) {
+                case 0:
+                    nextValue = (long) RANDOM.nextInt(1000);
+                    break;
+                case 1:
+                    nextValue = (double) RANDOM.nextInt(1000) / 4d;
+                    break;
+                case 2:
+                    nextValue = RANDOM.nextInt(1000);
+                    break;
+                default:
+                    nextValue = "value_" + RANDOM.nextInt(1000);
+                    break;
+            }
+
+            expectedIndex = expected.get(nextValue);
+            if(expectedIndex == null) {
+                expectedIndex = expected.size();
+                expected.put(nextValue, expectedIndex);
+            }
+            assertEquals(expectedIndex.intValue(), layerProps.addValue(nextValue));
+        }
+
+        assertEquals(new ArrayList<>(expected.keySet()), toList(layerProps.getVals()));
+    }
+
+    @Test
+    public void testClear() {
+        final MvtLayerProps layerProps = new MvtLayerProps();
+        layerProps.addKey("a");
+        layerProps.addValue("a");
+        layerProps.addValue(true);
+        layerProps.addValue(2L);
+        layerProps.clear();
+
+        assertFalse(layerProps.getKeys().iterator().hasNext());
+        assertFalse(layerProps.getVals().iterator().hasNext());
+        assertNull(layerProps.keyIndex("a"));
+        assertNull(layerProps.valueIndex(true));
+
+        assertEquals(0, layerProps.addValue(2L));
+        assertEquals(0, layerProps.addKey("b"));
+        assertEquals(Collections.<Object>singletonList(2L), toList(layerProps.getVals()));
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        final List<T> list = new ArrayList<>();
+        for(T next : iterable) {
+            list.add(next);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,241 @@
+package com.wdtinc.mapbox_vector_tile.compress;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test tile compression round trips and compatibility with JDK gzip and zstd streams.
+ */
+public final class TileCompressorTest {
+
+    /**
+     * Fixed randomization with arbitrary seed value.
+     */
+    private static final Random RANDOM = new Random(487125064L);
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final byte[][] tiles = {
+                new byte[0],
+                Files.readAllBytes(new File("src/test/resources/vec_tile_test/game.mvt").toPath()),
+                randomTile(100000)
+        };
+        final TileCompressor[] compressors = {
+                TileCompressor.NONE,
+                TileCompressor.GZIP,
+                new TileCompressor(TileCompression.GZIP, 1),
+                new TileCompressor(TileCompression.GZIP, 9),
+                new TileCompressor(TileCompression.ZSTD, TileCompressor.ZSTD_DEFAULT_LEVEL),
+                new TileCompressor(TileCompression.ZSTD, 19)
+        };
+
+        for(TileCompressor nextCompressor : compressors) {
+            for(byte[] nextTile : tiles) {
+                final byte[] compressed = nextCompressor.compress(nextTile);
+                if(nextTile.length > 0) {
+                    assertEquals(nextCompressor.getCompression(), TileCompression.detect(compressed));
+                }
+
+                assertArrayEquals(nextTile, TileDecompressor.decompress(compressed));
+
+                final ByteBuffer direct = ByteBuffer.allocateDirect(compressed.length + 3);
+                direct.put(new byte[3]).put(compressed).flip();
+                direct.position(3);
+                final ByteBuffer decompressed = TileDecompressor.decompress(direct);
+                final byte[] actual = new byte[decompressed.remaining()];
+                decompressed.duplicate().get(actual);
+                assertArrayEquals(nextTile, actual);
+                assertEquals(3, direct.position());
+            }
+        }
+    }
+
+    @Test
+    public void testNoneReturnsInput() throws IOException {
+        final byte[] tile = {0x1A, 0x02, 0x08, 0x01};
+        assertSame(tile, TileCompressor.NONE.compress(tile));
+        assertSame(tile, TileDecompressor.decompress(tile));
+        assertEquals(TileCompression.NONE, TileCompression.detect(tile));
+        assertEquals(TileCompression.NONE, TileCompression.detect(new byte[] {0x1F}));
+    }
+
+    @Test
+    public void testJdkGzipCompatible() throws IOException {
+        final byte[] tile = randomTile(5000);
+
+        // JDK reads our gzip
+        try(final InputStream in = new GZIPInputStream(new ByteArrayInputStream(TileCompressor.GZIP.compress(tile)))) {
+            assertArrayEquals(tile, readAll(in));
+        }
+
+        // We read JDK gzip, with two concatenated members
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(final OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(tile, 0, 2000);
+        }
+        try(final OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(tile, 2000, 3000);
+        }
+        assertArrayEquals(tile, TileDecompressor.decompress(out.toByteArray()));
+    }
+
+    @Test
+    public void testGzipHeaderFields() throws IOException {
+        final byte[] tile = randomTile(1000);
+        final byte[] compressed = TileCompressor.GZIP.compress(tile);
+
+        // Add FEXTRA, FNAME and FCOMMENT fields after the 10 byte header
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(compressed, 0, 10);
+        out.write(new byte[] {3, 0, 'a', 'b', 'c'});
+        out.write(new byte[] {'t', '.', 'm', 'v', 't', 0});
+        out.write(new byte[] {'h', 'i', 0});
+        out.write(compressed, 10, compressed.length - 10);
+        final byte[] withFields = out.toByteArray();
+        withFields[3] = 4 | 8 | 16;
+
+        assertArrayEquals(tile, TileDecompressor.decompress(withFields));
+    }
+
+    @Test
+    public void testGzipCorrupt() {
+        final byte[] compressed = TileCompressor.GZIP.compress(randomTile(1000));
+
+        final byte[] badCrc = compressed.clone();
+        badCrc[badCrc.length - 8] ^= 1;
+        assertDecompressFails(badCrc);
+
+        final byte[] truncated = new byte[compressed.length - 12];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        assertDecompressFails(truncated);
+    }
+
+    @Test
+    public void testZstdStreamWithoutContentSize() throws IOException {
+        final byte[] tile = randomTile(20000);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(final OutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(tile);
+        }
+
+        assertArrayEquals(tile, TileDecompressor.decompress(out.toByteArray()));
+    }
+
+    @Test
+    public void testZstdContentSizeNotTrusted() {
+
+        // Frame header claiming ~2 GB of content, followed by no blocks
+        final byte[] header = {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, (byte) 0xA0,
+                (byte) 0xF0, (byte) 0xFF, (byte) 0xFF, 0x7F};
+        assertDecompressFails(header);
+    }
+
+    @Test
+    public void testZstdWithoutZstdJni() throws Exception {
+        final ClassLoader loader = new NoZstdClassLoader();
+        final Class<?> compressionClass = loader.loadClass(TileCompression.class.getName());
+        final Object zstd = compressionClass.getField("ZSTD").get(null);
+        assertEquals(Boolean.FALSE, compressionClass.getMethod("isAvailable").invoke(zstd));
+
+        try {
+            loader.loadClass(TileCompressor.class.getName()).getConstructor(compressionClass, int.class)
+                    .newInstance(zstd, 3);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        final byte[] compressed = new TileCompressor(TileCompression.ZSTD, 3).compress(randomTile(1000));
+        try {
+            loader.loadClass(TileDecompressor.class.getName()).getMethod("decompress", byte[].class)
+                    .invoke(null, (Object) compressed);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGzipLevelOutOfRange() {
+        new TileCompressor(TileCompression.GZIP, 10);
+    }
+
+    /**
+     * Compressible bytes, like encoded geometry commands.
+     */
+    private static byte[] randomTile(int size) {
+        final byte[] tile = new byte[size];
+        for(int i = 0; i < size; ++i) {
+            tile[i] = (byte) RANDOM.nextInt(16);
+        }
+        return tile;
+    }
+
+    private static void assertDecompressFails(byte[] bytes) {
+        try {
+            TileDecompressor.decompress(bytes);
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int count;
+        while((count = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Loads the compress package in isolation, as if zstd-jni were not on the classpath.
+     */
+    private static final class NoZstdClassLoader extends ClassLoader {
+
+        private NoZstdClassLoader() {
+            super(TileCompressorTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if(name.startsWith("com.github.luben.")) {
+                throw new ClassNotFoundException(name);
+            }
+            if(!name.startsWith(TileCompression.class.getPackage().getName() + ".")) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized(getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if(c == null) {
+                    try(final InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        if(in == null) {
+                            throw new ClassNotFoundException(name);
+                        }
+                        final byte[] bytes = readAll(in);
+                        c = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                if(resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.wdtinc.mapbox_vector_tile.encoding;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test primitive geometry command buffer.
+ */
+public final class GeomCmdBufferTest {
+
+    @Test
+    public void testLineCommands() {
+        final GeomCmdBuffer cmdBuffer = new GeomCmdBuffer(1);
+
+        cmdBuffer.writeCmdHdr(GeomCmd.MoveTo, 1);
+        cmdBuffer.moveCursor(2, 2);
+        final int lineToIndex = cmdBuffer.reserveCmdHdr();
+        cmdBuffer.moveCursor(2, 10);
+        cmdBuffer.moveCursor(10, 10);
+        cmdBuffer.setCmdHdr(lineToIndex, GeomCmd.LineTo, 2);
+
+        // Example from vector-tile-spec 4.3.5.2
+        assertArrayEquals(new int[] {9, 4, 4, 18, 0, 16, 16, 0}, cmdBuffer.toArray());
+        assertTrue(cmdBuffer.isCursorAt(10, 10));
+    }
+
+    @Test
+    public void testRewind() {
+        final GeomCmdBuffer cmdBuffer = new GeomCmdBuffer();
+
+        cmdBuffer.writeCmdHdr(GeomCmd.MoveTo, 1);
+        cmdBuffer.moveCursor(25, 17);
+
+        final int size = cmdBuffer.size();
+        final int x = cmdBuffer.getCursorX();
+        final int y = cmdBuffer.getCursorY();
+
+        cmdBuffer.writeCmdHdr(GeomCmd.MoveTo, 1);
+        cmdBuffer.moveCursor(5, 5);
+        cmdBuffer.writeClosePath();
+        cmdBuffer.rewind(size, x, y);
+
+        assertArrayEquals(new int[] {9, 50, 34}, cmdBuffer.toArray());
+        assertTrue(cmdBuffer.isCursorAt(25, 17));
+
+        cmdBuffer.reset();
+        assertTrue(cmdBuffer.isEmpty());
+        assertTrue(cmdBuffer.isCursorAt(0, 0));
+    }
+}
@@ -0,0 +1,217 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.ITagConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtReader;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TagKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test feature predicate pushdown in {@link MvtReader}.
+ */
+public final class FeaturePredicatesTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static final String[] CLASSES = {"primary", "secondary", "residential", "track"};
+
+    @Test
+    public void testTag() throws IOException {
+        final LazyMvt mvt = createMvt();
+
+        final JtsMvt primary = load(mvt, FeaturePredicates.tag("class", "primary"));
+        assertEquals(Collections.singleton("roads"), primary.getLayersByName().keySet());
+        assertEquals(filter(mvt, "roads", "class", "primary"), primary.getLayer("roads").getGeometries());
+        assertEquals(25, primary.getLayer("roads").getGeometries().size());
+
+        // Tags of rejected features are not converted
+        final int[] convertCount = new int[1];
+        MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, new ITagConverter() {
+            @Override
+            public Object toUserData(Long id, List<Integer> tags, List<String> keysList,
+                                     List<VectorTile.Tile.Value> valuesList) {
+                ++convertCount[0];
+                return null;
+            }
+        }, MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.tag("class", "primary"));
+        assertEquals(25, convertCount[0]);
+
+        // Integral and floating point values compare by value
+        assertEquals(filter(mvt, "roads", "lanes", 2L), load(mvt, FeaturePredicates.tag("lanes", 2))
+                .getLayer("roads").getGeometries());
+        assertEquals(filter(mvt, "roads", "lanes", 2L), load(mvt, FeaturePredicates.tag("lanes", 2d))
+                .getLayer("roads").getGeometries());
+
+        // Absent key or values skip all layers
+        assertTrue(load(mvt, FeaturePredicates.tag("class", "motorway")).getLayers().isEmpty());
+        assertTrue(load(mvt, FeaturePredicates.tag("surface", "gravel")).getLayers().isEmpty());
+        assertTrue(load(mvt, FeaturePredicates.hasTag("surface")).getLayers().isEmpty());
+        assertEquals(100, load(mvt, FeaturePredicates.hasTag("lanes")).getLayer("roads").getGeometries().size());
+    }
+
+    @Test
+    public void testLayerGeomTypeAndId() throws IOException {
+        final LazyMvt mvt = createMvt();
+
+        final JtsMvt points = load(mvt, FeaturePredicates.geomType(VectorTile.Tile.GeomType.POINT));
+        assertEquals(0, points.getLayer("roads").getGeometries().size());
+        assertEquals(20, points.getLayer("pois").getGeometries().size());
+
+        final JtsMvt pois = load(mvt, FeaturePredicates.layer("pois"));
+        assertEquals(Collections.singleton("pois"), pois.getLayersByName().keySet());
+
+        final JtsMvt byId = load(mvt, FeaturePredicates.id(7L, 3L, 1000L));
+        final List<Long> ids = new ArrayList<>();
+        for(JtsLayer l : byId.getLayers()) {
+            for(Geometry g : l.getGeometries()) {
+                ids.add(((Number) ((Map<?, ?>) g.getUserData()).get("id")).longValue());
+            }
+        }
+        assertEquals(Arrays.asList(3L, 7L, 3L, 7L), ids);
+    }
+
+    @Test
+    public void testCombinators() throws IOException {
+        final LazyMvt mvt = createMvt();
+
+        final List<Geometry> expected = new ArrayList<>(filter(mvt, "roads", "class", "primary"));
+        expected.addAll(filter(mvt, "roads", "class", "secondary"));
+        final JtsMvt either = load(mvt, FeaturePredicates.or(FeaturePredicates.tag("class", "primary"),
+                FeaturePredicates.tag("class", "secondary")));
+        assertEquals(new HashSet<>(expected), new HashSet<>(either.getLayer("roads").getGeometries()));
+        assertEquals(new HashSet<>(expected), new HashSet<>(load(mvt,
+                FeaturePredicates.tag("class", "primary", "secondary")).getLayer("roads").getGeometries()));
+
+        final JtsMvt both = load(mvt, FeaturePredicates.and(FeaturePredicates.layer("roads"),
+                FeaturePredicates.tag("class", "primary"), FeaturePredicates.tag("lanes", 2)));
+        for(Geometry g : both.getLayer("roads").getGeometries()) {
+            assertEquals("primary", ((Map<?, ?>) g.getUserData()).get("class"));
+            assertEquals(2L, ((Map<?, ?>) g.getUserData()).get("lanes"));
+        }
+        assertFalse(both.getLayer("roads").getGeometries().isEmpty());
+
+        final JtsMvt notRoads = load(mvt, FeaturePredicates.not(FeaturePredicates.layer("roads")));
+        assertEquals(Collections.singleton("pois"), notRoads.getLayersByName().keySet());
+
+        final JtsMvt notPrimary = load(mvt, FeaturePredicates.not(FeaturePredicates.tag("class", "primary")));
+        assertEquals(75, notPrimary.getLayer("roads").getGeometries().size());
+        assertEquals(20, notPrimary.getLayer("pois").getGeometries().size());
+
+        assertEquals(load(mvt, FeaturePredicates.ALL), MvtReader.loadMvt(mvt, GEOMETRY_FACTORY,
+                new TagKeyValueMapConverter(false, "id"), MvtReader.RING_CLASSIFIER_V2_1));
+    }
+
+    @Test
+    public void testIntersects() throws IOException {
+        final Random random = new Random(93710L);
+
+        for(String nextFile : new String[] {"src/test/resources/vec_tile_test/game.mvt",
+                "src/test/resources/vec_tile_test/0/0/0.mvt"}) {
+            final LazyMvt mvt = LazyMvt.open(new File(nextFile));
+            final JtsMvt full = load(mvt, FeaturePredicates.ALL);
+
+            for(int i = 0; i < 50; ++i) {
+                final int minX = random.nextInt(4500) - 200;
+                final int minY = random.nextInt(4500) - 200;
+                final int maxX = minX + random.nextInt(i % 2 == 0 ? 10 : 2000);
+                final int maxY = minY + random.nextInt(i % 2 == 0 ? 10 : 2000);
+                final Envelope rect = new Envelope(minX, maxX, minY, maxY);
+
+                final JtsMvt actual = load(mvt, FeaturePredicates.intersects(minX, minY, maxX, maxY));
+                for(JtsLayer l : full.getLayers()) {
+                    final List<Geometry> expected = new ArrayList<>();
+                    for(Geometry g : l.getGeometries()) {
+                        if(g.getEnvelopeInternal().intersects(rect)) {
+                            expected.add(g);
+                        }
+                    }
+                    assertEquals(expected, actual.getLayer(l.getName()).getGeometries());
+                }
+            }
+        }
+
+        // Rectangle inside a line bounding box, away from its vertices
+        final LazyMvt mvt = createMvt();
+        assertEquals(1, load(mvt, FeaturePredicates.intersects(2000, 2000, 2001, 2001))
+                .getLayer("roads").getGeometries().size());
+        assertTrue(load(mvt, FeaturePredicates.intersects(5000, 5000, 6000, 6000)).getLayer("roads")
+                .getGeometries().isEmpty());
+    }
+
+    @Test
+    public void testTagValueIndexOutOfRange() throws IOException {
+        final VectorTile.Tile.Layer.Builder layer = VectorTile.Tile.Layer.newBuilder()
+                .setVersion(2)
+                .setName("points")
+                .setExtent(4096)
+                .addKeys("class")
+                .addValues(VectorTile.Tile.Value.newBuilder().setStringValue("primary"));
+
+        // Value indexes past the dictionary, and one decoding to a negative int
+        for(int nextValueIndex : new int[] {1, 1000, -1}) {
+            layer.addFeatures(VectorTile.Tile.Feature.newBuilder()
+                    .setType(VectorTile.Tile.GeomType.POINT)
+                    .addTags(0).addTags(nextValueIndex)
+                    .addGeometry(9).addGeometry(2).addGeometry(2));
+        }
+        final LazyMvt mvt = LazyMvt.open(VectorTile.Tile.newBuilder().addLayers(layer).build().toByteArray());
+
+        assertTrue(load(mvt, FeaturePredicates.tag("class", "primary")).getLayer("points").getGeometries()
+                .isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyRectangle() {
+        FeaturePredicates.intersects(10, 0, 0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        FeaturePredicates.tag("class", new Object());
+    }
+
+    /**
+     * @return tile with 100 tagged road lines and 20 poi points, both with ids from 0
+     */
+    private static LazyMvt createMvt() throws IOException {
+        final List<Geometry> pois = new ArrayList<>();
+        for(int i = 0; i < 20; ++i) {
+            final Geometry point = GEOMETRY_FACTORY.createPoint(new Coordinate(i * 100, i * 100));
+            point.setUserData(Collections.singletonMap("id", (Object) (long) i));
+            pois.add(point);
+        }
+
+        return TestTiles.open(new JtsLayer("roads", TestTiles.roads(100, CLASSES)), new JtsLayer("pois", pois));
+    }
+
+    private static JtsMvt load(LazyMvt mvt, IFeaturePredicate predicate) throws IOException {
+        return MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, new TagKeyValueMapConverter(false, "id"),
+                MvtReader.RING_CLASSIFIER_V2_1, predicate);
+    }
+
+    /**
+     * @return features of the layer with the tag, filtered after a full read
+     */
+    private static List<Geometry> filter(LazyMvt mvt, String layerName, String key, Object value)
+            throws IOException {
+        final List<Geometry> result = new ArrayList<>();
+        for(Geometry g : load(mvt, FeaturePredicates.ALL).getLayer(layerName).getGeometries()) {
+            if(value.equals(((Map<?, ?>) g.getUserData()).get(key))) {
+                result.add(g);
+            }
+        }
+        return result;
+    }
+}
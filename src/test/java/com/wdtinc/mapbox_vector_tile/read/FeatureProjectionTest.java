@@ -0,0 +1,150 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.ITagConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtReader;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TagKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test feature projection pushdown in {@link MvtReader}.
+ */
+public final class FeatureProjectionTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    @Test
+    public void testAll() throws IOException {
+        final LazyMvt mvt = createMvt();
+        assertEquals(load(mvt, FeatureProjection.ALL), MvtReader.loadMvt(mvt, GEOMETRY_FACTORY,
+                new TagKeyValueMapConverter(false, "id"), MvtReader.RING_CLASSIFIER_V2_1));
+        assertUserDataEquals(MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, new TagKeyValueMapConverter(false, "id"),
+                MvtReader.RING_CLASSIFIER_V2_1), load(mvt, FeatureProjection.ALL));
+    }
+
+    @Test
+    public void testAttributesOnly() throws IOException {
+        final LazyMvt mvt = createMvt();
+        final JtsMvt result = load(mvt, FeatureProjection.NONE.withId(true).withTagKeys("class", "missing"));
+
+        final List<Geometry> roads = new ArrayList<>(result.getLayer("roads").getGeometries());
+        assertEquals(10, roads.size());
+        for(int i = 0; i < roads.size(); ++i) {
+            final Geometry road = roads.get(i);
+            assertTrue(road instanceof LineString);
+            assertTrue(road.isEmpty());
+
+            final Map<String, Object> expected = new LinkedHashMap<>();
+            expected.put("class", i % 2 == 0 ? "primary" : "track");
+            expected.put("id", (long) i);
+            assertEquals(expected, road.getUserData());
+        }
+
+        for(Geometry area : result.getLayer("areas").getGeometries()) {
+            assertTrue(area instanceof Polygon);
+            assertTrue(area.isEmpty());
+            assertEquals(Collections.singletonMap("id", 100L), area.getUserData());
+        }
+
+        // Ids only
+        final JtsMvt ids = load(mvt, FeatureProjection.NONE.withId(true));
+        assertEquals(Collections.singletonMap("id", 3L),
+                new ArrayList<>(ids.getLayer("roads").getGeometries()).get(3).getUserData());
+
+        // Tags only
+        final JtsMvt tags = load(mvt, FeatureProjection.ALL.withId(false).withGeometry(false));
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("id", null);
+        expected.put("class", "track");
+        expected.put("lanes", 1L);
+        assertEquals(expected, new ArrayList<>(tags.getLayer("roads").getGeometries()).get(3).getUserData());
+    }
+
+    @Test
+    public void testGeometryOnly() throws IOException {
+        final LazyMvt mvt = createMvt();
+        final ITagConverter failingConverter = new ITagConverter() {
+            @Override
+            public Object toUserData(Long id, List<Integer> tags, List<String> keysList,
+                                     List<VectorTile.Tile.Value> valuesList) {
+                throw new AssertionError("tags converted");
+            }
+        };
+
+        final JtsMvt result = MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, failingConverter,
+                MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.ALL, FeatureProjection.NONE.withGeometry(true));
+        assertEquals(load(mvt, FeatureProjection.ALL), result);
+        for(JtsLayer l : result.getLayers()) {
+            for(Geometry g : l.getGeometries()) {
+                assertNull(g.getUserData());
+            }
+        }
+    }
+
+    @Test
+    public void testWithPredicate() throws IOException {
+        final LazyMvt mvt = createMvt();
+
+        // Predicate tests tags that are not projected
+        final JtsMvt result = MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, new TagKeyValueMapConverter(),
+                MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.tag("class", "primary"),
+                FeatureProjection.NONE.withTagKeys("lanes"));
+        final List<Object> userData = new ArrayList<>();
+        for(Geometry g : result.getLayer("roads").getGeometries()) {
+            userData.add(g.getUserData());
+        }
+        assertEquals(5, userData.size());
+        assertEquals(Collections.singletonMap("lanes", 1L), userData.get(0));
+        assertEquals(Collections.singletonMap("lanes", 3L), userData.get(1));
+        assertEquals(Collections.singletonMap("lanes", 2L), userData.get(2));
+    }
+
+    @Test
+    public void testEquals() {
+        assertEquals(FeatureProjection.NONE.withId(true).withTags(true).withGeometry(true), FeatureProjection.ALL);
+        assertEquals(FeatureProjection.ALL.withTagKeys("a", "b"), FeatureProjection.ALL.withTagKeys("b", "a"));
+        assertEquals(FeatureProjection.ALL.withTagKeys("a").withTags(false),
+                FeatureProjection.ALL.withTags(false));
+        assertNull(FeatureProjection.ALL.getTagKeys());
+        assertEquals(Collections.singleton("a"), FeatureProjection.NONE.withTagKeys("a").getTagKeys());
+        assertTrue(FeatureProjection.NONE.withTagKeys("a").isTagsIncluded());
+    }
+
+    /**
+     * @return tile with 10 road lines tagged with class and lanes, and one area polygon
+     */
+    private static LazyMvt createMvt() throws IOException {
+        final Geometry area = GEOMETRY_FACTORY.createPolygon(new Coordinate[] {new Coordinate(10, 10),
+                new Coordinate(10, 200), new Coordinate(200, 200), new Coordinate(200, 10), new Coordinate(10, 10)});
+        final Map<String, Object> props = new LinkedHashMap<>();
+        props.put("id", 100L);
+        props.put("landuse", "park");
+        area.setUserData(props);
+
+        return TestTiles.open(new JtsLayer("roads", TestTiles.roads(10, "primary", "track")),
+                new JtsLayer("areas", Collections.singletonList(area)));
+    }
+
+    private static JtsMvt load(LazyMvt mvt, FeatureProjection projection) throws IOException {
+        return MvtReader.loadMvt(mvt, GEOMETRY_FACTORY, new TagKeyValueMapConverter(false, "id"),
+                MvtReader.RING_CLASSIFIER_V2_1, FeaturePredicates.ALL, projection);
+    }
+
+    private static void assertUserDataEquals(JtsMvt expected, JtsMvt actual) {
+        for(JtsLayer l : expected.getLayers()) {
+            final Iterator<Geometry> actualGeoms = actual.getLayer(l.getName()).getGeometries().iterator();
+            for(Geometry g : l.getGeometries()) {
+                assertEquals(g.getUserData(), actualGeoms.next().getUserData());
+            }
+            assertFalse(actualGeoms.hasNext());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import com.wdtinc.mapbox_vector_tile.compress.TileCompression;
+import com.wdtinc.mapbox_vector_tile.compress.TileCompressor;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test lazy MVT reading matches the protobuf model.
+ */
+public final class LazyMvtTest {
+
+    private static final String[] TEST_FILES = {
+            "src/test/resources/vec_tile_test/game.mvt",
+            "src/test/resources/vec_tile_test/0/0/0.mvt",
+            "src/test/resources/mapbox/vector_tile_js/multi_poly_neg_exters.mvt"
+    };
+
+    @Test
+    public void testMatchesProtobuf() throws IOException {
+        for(String nextFile : TEST_FILES) {
+            final byte[] bytes = Files.readAllBytes(new File(nextFile).toPath());
+            final VectorTile.Tile expected = VectorTile.Tile.parseFrom(bytes);
+
+            assertTileEquals(expected, LazyMvt.open(bytes));
+            assertTileEquals(expected, LazyMvt.open(new File(nextFile)));
+
+            final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            assertTileEquals(expected, LazyMvt.open(direct));
+        }
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        final byte[] bytes = Files.readAllBytes(new File(TEST_FILES[0]).toPath());
+        final VectorTile.Tile expected = VectorTile.Tile.parseFrom(bytes);
+
+        assertTileEquals(expected, LazyMvt.open(TileCompressor.GZIP.compress(bytes)));
+        assertTileEquals(expected, LazyMvt.open(new TileCompressor(TileCompression.ZSTD,
+                TileCompressor.ZSTD_DEFAULT_LEVEL).compress(bytes)));
+    }
+
+    @Test
+    public void testMalformed() {
+
+        // Layer length prefix past the end of the tile
+        try {
+            LazyMvt.open(new byte[] {0x1A, 0x05, 0x0A});
+            fail();
+        } catch (InvalidProtocolBufferException e) {
+            assertTrue(e.getCause() instanceof MalformedMvtException);
+        }
+    }
+
+    @Test
+    public void testLayerByName() throws IOException {
+        final LazyMvt mvt = LazyMvt.open(new File("src/test/resources/vec_tile_test/game.mvt"));
+
+        assertEquals(4, mvt.getLayerCount());
+        assertEquals("health", mvt.getLayer("health").getName());
+        assertNull(mvt.getLayer("missing"));
+    }
+
+    private static void assertTileEquals(VectorTile.Tile expected, LazyMvt actual) {
+        assertEquals(expected.getLayersCount(), actual.getLayerCount());
+
+        for(int i = 0; i < expected.getLayersCount(); ++i) {
+            final VectorTile.Tile.Layer expectedLayer = expected.getLayers(i);
+            final LazyLayer actualLayer = actual.getLayer(i);
+
+            assertEquals(expectedLayer.getName(), actualLayer.getName());
+            assertEquals(expectedLayer.getVersion(), actualLayer.getVersion());
+            assertEquals(expectedLayer.getExtent(), actualLayer.getExtent());
+            assertEquals(expectedLayer.getKeysList(), new ArrayList<>(actualLayer.getKeys()));
+            assertEquals(expectedLayer.getValuesList(), new ArrayList<>(actualLayer.getValues()));
+            assertEquals(expectedLayer.getFeaturesCount(), actualLayer.getFeatureCount());
+
+            final IntArrayScratch scratch = new IntArrayScratch();
+            LazyFeature actualFeature = null;
+            for(int j = 0; j < expectedLayer.getFeaturesCount(); ++j) {
+                final VectorTile.Tile.Feature expectedFeature = expectedLayer.getFeatures(j);
+                actualFeature = actualFeature == null
+                        ? actualLayer.getFeature(j) : actualLayer.getFeature(j, actualFeature);
+
+                assertEquals(expectedFeature.hasId(), actualFeature.hasId());
+                assertEquals(expectedFeature.getId(), actualFeature.getId());
+                assertEquals(expectedFeature.getType(), actualFeature.getType());
+                assertEquals(expectedFeature.getTagsList(), new ArrayList<>(actualFeature.getTagsList()));
+                assertEquals(expectedFeature.getGeometryList(), toList(actualFeature.getGeometry()));
+
+                // Reused scratch storage decodes the same values
+                actualFeature.getTags(scratch);
+                assertEquals(expectedFeature.getTagsList(), new ArrayList<>(scratch.asList()));
+                actualFeature.getGeometry(scratch);
+                assertEquals(expectedFeature.getGeometryList(), new ArrayList<>(scratch.asList()));
+            }
+        }
+    }
+
+    private static List<Integer> toList(int[] values) {
+        final List<Integer> result = new ArrayList<>(values.length);
+        for(int v : values) {
+            result.add(v);
+        }
+        return result;
+    }
+}
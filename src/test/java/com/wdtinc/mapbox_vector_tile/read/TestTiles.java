@@ -0,0 +1,55 @@
+package com.wdtinc.mapbox_vector_tile.read;
+
+import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtEncoder;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.UserDataKeyValueMapConverter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsLayer;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.model.JtsMvt;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tile fixtures shared by the feature predicate and projection tests.
+ */
+final class TestTiles {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private TestTiles() {}
+
+    /**
+     * @param count count of roads
+     * @param classes road class values, cycled by road index
+     * @return vertical road lines with id, class and lanes tags, ids from 0
+     */
+    static List<Geometry> roads(int count, String... classes) {
+        final List<Geometry> roads = new ArrayList<>(count);
+        for(int i = 0; i < count; ++i) {
+            final Geometry line = GEOMETRY_FACTORY.createLineString(new Coordinate[] {
+                    new Coordinate(i * 40, 10), new Coordinate(i * 40 + 30, 4000)});
+            final Map<String, Object> props = new LinkedHashMap<>();
+            props.put("id", (long) i);
+            props.put("class", classes[i % classes.length]);
+            props.put("lanes", i % 3 + 1);
+            line.setUserData(props);
+            roads.add(line);
+        }
+        return roads;
+    }
+
+    /**
+     * @param layers layers with key-value map user data, encoded with the "id" entry as feature id
+     * @return lazily decoded tile
+     */
+    static LazyMvt open(JtsLayer... layers) throws IOException {
+        return LazyMvt.open(MvtEncoder.encode(new JtsMvt(layers), new MvtLayerParams(),
+                new UserDataKeyValueMapConverter("id")));
+    }
+}